@@ -0,0 +1,124 @@
+package com.tolimoli.pms.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stub channel endpoint for the ARI distribution pipeline
+ *
+ * Accepts the JSON messages HttpAriSender POSTs and prints, every few
+ * seconds, how many messages and cell updates arrived and how many repeated
+ * an Idempotency-Key already seen. Failures can be injected to exercise
+ * retries and backoff: every Nth request answers 500 (--fail-every) or 429
+ * with Retry-After: 1 (--throttle-every), and --latency-ms slows every answer.
+ * Point a channel's apiEndpoint at http://localhost:PORT/ari.
+ *
+ * <pre>
+ * mvn -Pbenchmark compile exec:exec -Dbenchmark.main=com.tolimoli.pms.benchmark.AriStubServer \
+ *   -Dbenchmark.args="--port=9099 --fail-every=10 --throttle-every=7 --latency-ms=50"
+ * </pre>
+ */
+public class AriStubServer {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int failEvery;
+    private final int throttleEvery;
+    private final long latencyMs;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    private final Set<String> seenMessageIds = ConcurrentHashMap.newKeySet();
+
+    public AriStubServer(int failEvery, int throttleEvery, long latencyMs) {
+        this.failEvery = failEvery;
+        this.throttleEvery = throttleEvery;
+        this.latencyMs = latencyMs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs options = new BenchmarkArgs(args);
+        int port = options.getInt("port", 9099);
+        AriStubServer stub = new AriStubServer(options.getInt("fail-every", 0),
+                options.getInt("throttle-every", 0), options.getLong("latency-ms", 0));
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", stub::handle);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        System.out.printf("ARI stub listening on http://localhost:%d/ari%n", port);
+
+        while (true) {
+            Thread.sleep(5000);
+            stub.printStats();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            long n = requests.incrementAndGet();
+            if (latencyMs > 0) {
+                sleep(latencyMs);
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405);
+                return;
+            }
+            if (throttleEvery > 0 && n % throttleEvery == 0) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429);
+                return;
+            }
+            if (failEvery > 0 && n % failEvery == 0) {
+                failed.incrementAndGet();
+                respond(exchange, 500);
+                return;
+            }
+
+            JsonNode message = objectMapper.readTree(body);
+            String messageId = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+            if (messageId != null && !seenMessageIds.add(messageId)) {
+                duplicates.incrementAndGet();
+            }
+            accepted.incrementAndGet();
+            updates.addAndGet(message.path("updates").size());
+            respond(exchange, 202);
+        } catch (IOException e) {
+            respond(exchange, 400);
+        }
+    }
+
+    private void printStats() {
+        System.out.printf("requests=%d accepted=%d updates=%d duplicates=%d failed=%d throttled=%d%n",
+                requests.get(), accepted.get(), updates.get(), duplicates.get(), failed.get(), throttled.get());
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
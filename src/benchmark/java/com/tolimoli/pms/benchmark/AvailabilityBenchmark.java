@@ -0,0 +1,74 @@
+package com.tolimoli.pms.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.repository.RoomRepository;
+
+/**
+ * RoomRepository.findAvailableRooms - random stays of 1-7 nights inside the
+ * seeded calendar, for all room types and for a single type
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SearchState extends HotelState {
+
+        RoomRepository roomRepository;
+
+        @Override
+        protected void onHotelReady() {
+            roomRepository = bean(RoomRepository.class);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class StayPicker {
+
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void init(SearchState state) {
+            random = new SplittableRandom(state.seed);
+        }
+
+        LocalDate checkIn(SearchState state) {
+            return SyntheticHotel.START_DATE.plusDays(random.nextInt(state.rateDays));
+        }
+    }
+
+    @Benchmark
+    public List<Room> findAvailableRoomsAnyType(SearchState state, StayPicker picker) {
+        LocalDate checkIn = picker.checkIn(state);
+        return state.roomRepository.findAvailableRooms(checkIn,
+                checkIn.plusDays(1 + picker.random.nextInt(7)), null);
+    }
+
+    @Benchmark
+    public List<Room> findAvailableRoomsByType(SearchState state, StayPicker picker) {
+        LocalDate checkIn = picker.checkIn(state);
+        return state.roomRepository.findAvailableRooms(checkIn,
+                checkIn.plusDays(1 + picker.random.nextInt(7)), RoomType.DOUBLE);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tolimoli.pms.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tolimoli.pms.entity.PaymentMethod;
+import com.tolimoli.pms.service.FolioChargeService;
+import com.tolimoli.pms.service.PaymentService;
+
+/**
+ * Folio hot paths - FolioChargeService.calculateTotalCharges and
+ * PaymentService.processPayment over the seeded reservations. Payments are
+ * one cent so folios never become overpaid during a run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FolioBenchmark {
+
+    private static final BigDecimal ONE_CENT = new BigDecimal("0.01");
+
+    @State(Scope.Benchmark)
+    public static class FolioState extends HotelState {
+
+        FolioChargeService folioChargeService;
+
+        PaymentService paymentService;
+
+        List<Long> reservationIds;
+
+        final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        protected void onHotelReady() {
+            folioChargeService = bean(FolioChargeService.class);
+            paymentService = bean(PaymentService.class);
+            reservationIds = hotel.getReservationIds();
+            if (reservationIds.isEmpty()) {
+                throw new IllegalStateException("Folio benchmarks need bookingsPerRoom > 0");
+            }
+        }
+
+        Long nextReservationId() {
+            return reservationIds.get(Math.floorMod(sequence.getAndIncrement(), reservationIds.size()));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalCharges(FolioState state) {
+        return state.folioChargeService.calculateTotalCharges(state.nextReservationId());
+    }
+
+    @Benchmark
+    public Long processPayment(FolioState state) {
+        return state.paymentService.processPayment(state.nextReservationId(), ONE_CENT,
+                PaymentMethod.CASH, null).getId();
+    }
+}
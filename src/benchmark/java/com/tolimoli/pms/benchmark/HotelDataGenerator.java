@@ -0,0 +1,569 @@
+package com.tolimoli.pms.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.SplittableRandom;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Bulk synthetic hotel generator
+ *
+ * Writes channels, rooms, guests, a rate calendar per room and channel,
+ * years of reservations with their folio charges and payments, and the daily
+ * revenue rollups of those stays straight into an existing schema (start the
+ * application once so Hibernate creates it).
+ * PostgreSQL targets are loaded with COPY, anything else with JDBC batches.
+ * The output depends only on --seed, the size options and --today, and uses
+ * the same room numbers, guest emails and channel codes as SyntheticHotel.
+ *
+ * <pre>
+ * mvn -Pbenchmark compile exec:exec -Dbenchmark.main=com.tolimoli.pms.benchmark.HotelDataGenerator \
+ *   -Dbenchmark.args="--url=jdbc:postgresql://localhost:5432/pms_db --user=pms_user --password=pms_password \
+ *                     --rooms=2000 --guests=200000 --history-days=1095 --future-days=365 --truncate"
+ * </pre>
+ */
+public class HotelDataGenerator {
+
+    /** Tables cleared by --truncate, referencing tables before the ones they reference */
+    private static final String[] GENERATED_TABLES = { "daily_revenue_rollups", "domain_events", "night_audit_runs",
+            "ari_outbox", "payments", "folio_charges", "reservations", "rates", "guests", "rooms", "channels" };
+
+    /** RevenueRollupService.SOLD_STATUSES as an SQL list */
+    private static final String SOLD_STATUSES = "('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT', 'NO_SHOW')";
+
+    private static final String[] FIRST_NAMES = { "James", "Maria", "Wei", "Amina", "Lucas", "Sofia",
+            "Kenji", "Olga", "Omar", "Emma", "Diego", "Priya", "Noah", "Ana", "Yusuf", "Chloe" };
+
+    private static final String[] LAST_NAMES = { "Smith", "Garcia", "Wang", "Okafor", "Muller", "Rossi",
+            "Tanaka", "Ivanova", "Haddad", "Brown", "Lopez", "Sharma", "Kim", "Silva", "Demir", "Martin" };
+
+    private static final String[] COUNTRIES = { "US", "GB", "DE", "FR", "ES", "IT", "JP", "CN", "BR", "IN" };
+
+    private static final String[] ROOM_TYPES = { "SINGLE", "DOUBLE", "TWIN", "SUITE", "DELUXE" };
+
+    private static final String[] PAYMENT_METHODS = { "CREDIT_CARD", "DEBIT_CARD", "CASH", "BANK_TRANSFER" };
+
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.10");
+
+    /** Rooms written between commits */
+    private static final int ROOMS_PER_CHUNK = 50;
+
+    private final long seed;
+    private final int rooms;
+    private final int guests;
+    private final int historyDays;
+    private final int futureDays;
+    private final double occupancy;
+    private final double averageStay;
+    private final LocalDate today;
+
+    private long reservationCount;
+    private long chargeCount;
+    private long paymentCount;
+    private long rateCount;
+
+    public HotelDataGenerator(long seed, int rooms, int guests, int historyDays, int futureDays,
+                              double occupancy, double averageStay, LocalDate today) {
+        if (rooms <= 0 || guests <= 0 || historyDays < 0 || futureDays < 0) {
+            throw new IllegalArgumentException("Hotel size must be positive");
+        }
+        if (occupancy <= 0 || occupancy >= 1 || averageStay < 1) {
+            throw new IllegalArgumentException("Occupancy must be in (0, 1) and average stay at least 1 night");
+        }
+        this.seed = seed;
+        this.rooms = rooms;
+        this.guests = guests;
+        this.historyDays = historyDays;
+        this.futureDays = futureDays;
+        this.occupancy = occupancy;
+        this.averageStay = averageStay;
+        this.today = today;
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs options = new BenchmarkArgs(args);
+        HotelDataGenerator generator = new HotelDataGenerator(
+                options.getLong("seed", 42L),
+                options.getInt("rooms", 500),
+                options.getInt("guests", 50000),
+                options.getInt("history-days", 730),
+                options.getInt("future-days", 365),
+                options.getDouble("occupancy", 0.75),
+                options.getDouble("average-stay", 2.5),
+                LocalDate.parse(options.getString("today", LocalDate.now().toString())));
+
+        String url = options.getString("url", "jdbc:postgresql://localhost:5432/pms_db");
+        try (Connection connection = DriverManager.getConnection(url,
+                options.getString("user", "pms_user"), options.getString("password", "pms_password"))) {
+            generator.generate(connection, options.getBoolean("truncate"));
+        }
+    }
+
+    /**
+     * Populate the database behind the connection
+     */
+    public void generate(Connection connection, boolean truncate) throws SQLException, IOException {
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        connection.setAutoCommit(false);
+        prepareTables(connection, postgres, truncate);
+
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate firstNight = today.minusDays(historyDays);
+        LocalDate lastNight = today.plusDays(futureDays);
+
+        BigDecimal[] commissions = writeChannels(connection, postgres, random);
+        int[] capacities = new int[rooms];
+        BigDecimal[] baseRates = new BigDecimal[rooms];
+        writeRooms(connection, postgres, random, capacities, baseRates);
+        writeGuests(connection, postgres, random);
+        writeRates(connection, postgres, firstNight, lastNight, baseRates, commissions);
+        writeReservations(connection, postgres, random, firstNight, lastNight, capacities, baseRates);
+        int rollups = writeRevenueRollups(connection);
+        syncSequences(connection, postgres);
+        connection.commit();
+
+        log(String.format("Generated %d rates, %d reservations, %d folio charges, %d payments, %d revenue rollups in %d s",
+                rateCount, reservationCount, chargeCount, paymentCount, rollups,
+                (System.nanoTime() - started) / 1_000_000_000L));
+    }
+
+    private void prepareTables(Connection connection, boolean postgres, boolean truncate) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (truncate) {
+                if (postgres) {
+                    statement.execute("TRUNCATE " + String.join(", ", GENERATED_TABLES));
+                } else {
+                    for (String table : GENERATED_TABLES) {
+                        statement.execute("DELETE FROM " + table);
+                    }
+                }
+                connection.commit();
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM rooms")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    throw new IllegalStateException("Target database already has rooms; rerun with --truncate");
+                }
+            }
+        }
+    }
+
+    private BigDecimal[] writeChannels(Connection connection, boolean postgres, SplittableRandom random)
+            throws SQLException, IOException {
+        String[] codes = SyntheticHotel.CHANNEL_CODES;
+        BigDecimal[] commissions = new BigDecimal[codes.length];
+        LocalDateTime created = today.minusDays(historyDays + 30L).atTime(LocalTime.NOON);
+        try (TableWriter channels = TableWriter.open(connection, postgres, "channels",
+                "id", "channel_code", "channel_name", "commission_rate", "is_active", "created_at", "updated_at")) {
+            for (int i = 0; i < codes.length; i++) {
+                commissions[i] = new BigDecimal(i == 0 ? 0 : 10 + random.nextInt(10));
+                channels.row((long) i + 1, codes[i], "Channel " + codes[i], commissions[i], true, created, created);
+            }
+        }
+        connection.commit();
+        return commissions;
+    }
+
+    private void writeRooms(Connection connection, boolean postgres, SplittableRandom random,
+                            int[] capacities, BigDecimal[] baseRates) throws SQLException, IOException {
+        LocalDateTime created = today.minusDays(historyDays + 30L).atTime(LocalTime.NOON);
+        try (TableWriter writer = TableWriter.open(connection, postgres, "rooms",
+                "id", "room_number", "room_type", "capacity", "base_rate", "status", "is_active",
+                "created_at", "updated_at")) {
+            for (int i = 0; i < rooms; i++) {
+                String roomType = ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+                capacities[i] = "SINGLE".equals(roomType) ? 1 : "SUITE".equals(roomType) ? 4 : 2;
+                baseRates[i] = new BigDecimal(80 + random.nextInt(320)).setScale(2);
+                writer.row((long) i + 1, SyntheticHotel.roomNumber(i), roomType, capacities[i], baseRates[i],
+                        "AVAILABLE", true, created, created);
+            }
+        }
+        connection.commit();
+    }
+
+    private void writeGuests(Connection connection, boolean postgres, SplittableRandom random)
+            throws SQLException, IOException {
+        try (TableWriter writer = TableWriter.open(connection, postgres, "guests",
+                "id", "first_name", "last_name", "email", "phone", "country", "created_at", "updated_at")) {
+            for (int i = 0; i < guests; i++) {
+                LocalDateTime created = today.minusDays(random.nextInt(historyDays + 1)).atTime(LocalTime.NOON);
+                writer.row((long) i + 1, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)], SyntheticHotel.guestEmail(i),
+                        String.format("+1555%07d", i), COUNTRIES[random.nextInt(COUNTRIES.length)],
+                        created, created);
+                if (writer.isFull()) {
+                    writer.flush();
+                }
+            }
+        }
+        connection.commit();
+        log("Generated " + guests + " guests");
+    }
+
+    private void writeRates(Connection connection, boolean postgres, LocalDate firstNight, LocalDate lastNight,
+                            BigDecimal[] baseRates, BigDecimal[] commissions) throws SQLException, IOException {
+        LocalDateTime created = firstNight.minusDays(30).atTime(LocalTime.NOON);
+        long id = 0;
+        try (TableWriter writer = TableWriter.open(connection, postgres, "rates",
+                "id", "room_id", "channel_id", "rate_date", "rate_amount", "available_rooms", "allotment",
+                "is_blocked", "created_at", "updated_at")) {
+            for (int room = 0; room < rooms; room++) {
+                for (int channel = 0; channel < commissions.length; channel++) {
+                    BigDecimal markup = BigDecimal.ONE.add(commissions[channel].movePointLeft(2));
+                    for (LocalDate night = firstNight; night.isBefore(lastNight); night = night.plusDays(1)) {
+                        BigDecimal amount = baseRates[room].multiply(markup).multiply(seasonFactor(night))
+                                .setScale(2, RoundingMode.HALF_UP);
+                        writer.row(++id, (long) room + 1, (long) channel + 1, night, amount, 1, 1, false,
+                                created, created);
+                        if (writer.isFull()) {
+                            writer.flush();
+                        }
+                    }
+                }
+                if ((room + 1) % ROOMS_PER_CHUNK == 0) {
+                    connection.commit();
+                }
+            }
+        }
+        connection.commit();
+        rateCount = id;
+        log("Generated " + rateCount + " rates");
+    }
+
+    private void writeReservations(Connection connection, boolean postgres, SplittableRandom random,
+                                   LocalDate firstNight, LocalDate lastNight,
+                                   int[] capacities, BigDecimal[] baseRates) throws SQLException, IOException {
+        // Gap between stays chosen so booked nights / all nights averages the target occupancy
+        double meanGap = averageStay * (1 - occupancy) / occupancy;
+        int maxStay = (int) Math.max(1, Math.round(2 * averageStay - 1));
+        int maxGap = (int) Math.round(2 * meanGap);
+
+        try (TableWriter reservations = TableWriter.open(connection, postgres, "reservations",
+                "reservation_id", "confirmation_number", "guest_id", "room_id", "channel_id",
+                "check_in_date", "check_out_date", "number_of_guests", "status", "total_amount", "paid_amount",
+                "tax_amount", "discount_amount", "is_group_booking", "cancellation_date",
+                "actual_check_in_time", "actual_check_out_time", "created_at", "updated_at", "version");
+             TableWriter charges = TableWriter.open(connection, postgres, "folio_charges",
+                "id", "reservation_id", "description", "charge_type", "amount", "quantity", "unit_price",
+                "charge_date", "is_paid", "department", "created_at", "updated_at");
+             TableWriter payments = TableWriter.open(connection, postgres, "payments",
+                "id", "reservation_id", "amount", "payment_method", "payment_status", "transaction_id",
+                "payment_date", "created_at")) {
+
+            for (int room = 0; room < rooms; room++) {
+                LocalDate checkIn = firstNight.plusDays(random.nextInt(maxGap + 1));
+                while (true) {
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(maxStay));
+                    if (checkOut.isAfter(lastNight)) {
+                        break;
+                    }
+                    writeStay(reservations, charges, payments, random, room, checkIn, checkOut,
+                            capacities[room], baseRates[room]);
+                    checkIn = checkOut.plusDays(maxGap > 0 ? random.nextInt(maxGap + 1) : 0);
+                    if (reservations.isFull() || charges.isFull() || payments.isFull()) {
+                        flushInOrder(reservations, charges, payments);
+                    }
+                }
+
+                if ((room + 1) % ROOMS_PER_CHUNK == 0 || room == rooms - 1) {
+                    flushInOrder(reservations, charges, payments);
+                    connection.commit();
+                    log(String.format("Rooms %d/%d: %d reservations", room + 1, rooms, reservationCount));
+                }
+            }
+        }
+    }
+
+    /**
+     * Parents before children so foreign keys hold on every flush
+     */
+    private static void flushInOrder(TableWriter... writers) throws SQLException, IOException {
+        for (TableWriter writer : writers) {
+            writer.flush();
+        }
+    }
+
+    private void writeStay(TableWriter reservations, TableWriter charges, TableWriter payments,
+                           SplittableRandom random, int room, LocalDate checkIn, LocalDate checkOut,
+                           int capacity, BigDecimal baseRate) throws SQLException, IOException {
+        long reservationId = ++reservationCount;
+        int nights = (int) (checkOut.toEpochDay() - checkIn.toEpochDay());
+        LocalDateTime created = checkIn.minusDays(1 + random.nextInt(90)).atTime(10 + random.nextInt(8), 0);
+
+        String status;
+        if (!checkOut.isAfter(today)) {
+            int roll = random.nextInt(100);
+            status = roll < 5 ? "CANCELLED" : roll < 7 ? "NO_SHOW" : "CHECKED_OUT";
+        } else if (checkIn.isBefore(today)) {
+            status = "CHECKED_IN";
+        } else {
+            // Stays starting today are still due to arrive, which gives the load driver check-ins
+            status = random.nextInt(100) < 5 ? "CANCELLED" : "CONFIRMED";
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal tax = BigDecimal.ZERO;
+        BigDecimal paid = BigDecimal.ZERO;
+        boolean settled = "CHECKED_OUT".equals(status);
+
+        if ("NO_SHOW".equals(status)) {
+            total = baseRate;
+            charges.row(++chargeCount, reservationId, "No-show penalty", "PENALTY", baseRate, 1, baseRate,
+                    checkIn, true, "FRONT_OFFICE", created, created);
+        } else if (!"CANCELLED".equals(status)) {
+            BigDecimal extras = BigDecimal.ZERO;
+            for (int n = 0; n < nights; n++) {
+                LocalDate night = checkIn.plusDays(n);
+                charges.row(++chargeCount, reservationId, "Room charge for " + night, "ROOM", baseRate, 1,
+                        baseRate, night, settled, "FRONT_OFFICE", created, created);
+                total = total.add(baseRate);
+                if (night.isBefore(today) && random.nextInt(100) < 30) {
+                    BigDecimal extra = new BigDecimal(5 + random.nextInt(60)).setScale(2);
+                    charges.row(++chargeCount, reservationId, "Restaurant", "SERVICE", extra, 1, extra, night,
+                            settled, "FOOD_BEVERAGE", night.atTime(20, 0), night.atTime(20, 0));
+                    extras = extras.add(extra);
+                }
+            }
+            total = total.add(extras);
+            tax = total.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+            charges.row(++chargeCount, reservationId, "Taxes", "TAX", tax, 1, tax, checkIn, settled,
+                    "FRONT_OFFICE", created, created);
+            total = total.add(tax);
+        }
+
+        String method = PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)];
+        if (settled || "NO_SHOW".equals(status)) {
+            LocalDateTime paidAt = (settled ? checkOut : checkIn).atTime(11, 0);
+            payments.row(++paymentCount, reservationId, total, method, "COMPLETED", "GEN-TX-" + paymentCount,
+                    paidAt, paidAt);
+            paid = total;
+        } else if ("CHECKED_IN".equals(status) || ("CONFIRMED".equals(status) && random.nextInt(100) < 40)) {
+            BigDecimal deposit = baseRate.min(total);
+            payments.row(++paymentCount, reservationId, deposit, method, "COMPLETED", "GEN-TX-" + paymentCount,
+                    created, created);
+            paid = deposit;
+        }
+
+        LocalDateTime checkedInAt = "CHECKED_IN".equals(status) || settled ? checkIn.atTime(15, 0) : null;
+        LocalDateTime checkedOutAt = settled ? checkOut.atTime(11, 0) : null;
+        LocalDateTime cancelledAt = "CANCELLED".equals(status) ? created.plusDays(1) : null;
+        LocalDateTime updated = checkedOutAt != null ? checkedOutAt
+                : checkedInAt != null ? checkedInAt : cancelledAt != null ? cancelledAt : created;
+
+        reservations.row(reservationId, String.format("GEN-%010d", reservationId),
+                (long) random.nextInt(guests) + 1, (long) room + 1,
+                (long) random.nextInt(SyntheticHotel.CHANNEL_CODES.length) + 1, checkIn, checkOut,
+                1 + random.nextInt(capacity), status, total, paid, tax, BigDecimal.ZERO, false, cancelledAt,
+                checkedInAt, checkedOutAt, created, updated, 0L);
+    }
+
+    /**
+     * Daily revenue rollups of the generated stays, aggregated the same way as
+     * RevenueRollupService.rebuild so /api/reports matches the raw data
+     */
+    private int writeRevenueRollups(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(
+                    "INSERT INTO daily_revenue_rollups (id, stay_date, room_type, channel_id, rooms_sold, room_revenue, " +
+                    "arrivals, updated_at) " +
+                    "SELECT ROW_NUMBER() OVER (ORDER BY stay_date, room_type, channel_id), stay_date, room_type, " +
+                    "channel_id, SUM(rooms_sold), SUM(room_revenue), SUM(arrivals), CURRENT_TIMESTAMP FROM (" +
+                    "  SELECT fc.charge_date AS stay_date, rm.room_type, r.channel_id, COUNT(*) AS rooms_sold, " +
+                    "         SUM(fc.amount) AS room_revenue, 0 AS arrivals " +
+                    "  FROM folio_charges fc JOIN reservations r ON r.reservation_id = fc.reservation_id " +
+                    "  JOIN rooms rm ON rm.id = r.room_id " +
+                    "  WHERE fc.charge_type = 'ROOM' AND r.status IN " + SOLD_STATUSES +
+                    "  GROUP BY fc.charge_date, rm.room_type, r.channel_id " +
+                    "  UNION ALL " +
+                    "  SELECT r.check_in_date, rm.room_type, r.channel_id, 0, 0, COUNT(*) " +
+                    "  FROM reservations r JOIN rooms rm ON rm.id = r.room_id " +
+                    "  WHERE r.status IN " + SOLD_STATUSES +
+                    "  GROUP BY r.check_in_date, rm.room_type, r.channel_id" +
+                    ") facts GROUP BY stay_date, room_type, channel_id");
+        }
+    }
+
+    private void syncSequences(Connection connection, boolean postgres) throws SQLException {
+        String[][] sequences = { { "channels_seq", "channels", "id" }, { "rooms_seq", "rooms", "id" },
+                { "guests_seq", "guests", "id" }, { "rates_seq", "rates", "id" },
+                { "reservations_seq", "reservations", "reservation_id" },
+                { "folio_charges_seq", "folio_charges", "id" }, { "payments_seq", "payments", "id" },
+                { "daily_revenue_rollups_seq", "daily_revenue_rollups", "id" } };
+        try (Statement statement = connection.createStatement()) {
+            for (String[] sequence : sequences) {
+                long maxId;
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT COALESCE(MAX(" + sequence[2] + "), 0) FROM " + sequence[1])) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+                // Pooled ids: the next value handed out is the top of a fresh block above maxId
+                if (postgres) {
+                    statement.execute("SELECT setval('" + sequence[0] + "', " + Math.max(maxId, 1) + ")");
+                } else {
+                    statement.execute("ALTER SEQUENCE " + sequence[0] + " RESTART WITH " + (maxId + 50));
+                }
+            }
+        }
+    }
+
+    private static BigDecimal seasonFactor(LocalDate night) {
+        int month = night.getMonthValue();
+        double factor = month >= 6 && month <= 8 ? 1.25 : month == 12 ? 1.15 : month <= 2 ? 0.85 : 1.0;
+        switch (night.getDayOfWeek()) {
+            case FRIDAY:
+            case SATURDAY:
+                factor += 0.15;
+                break;
+            default:
+                break;
+        }
+        return BigDecimal.valueOf(factor);
+    }
+
+    private static void log(String message) {
+        System.out.println("[generator] " + message);
+    }
+
+    /**
+     * Buffered row sink for one table - COPY ... FROM STDIN on PostgreSQL,
+     * batched INSERT elsewhere
+     */
+    abstract static class TableWriter implements AutoCloseable {
+
+        static final int FLUSH_ROWS = 10_000;
+
+        final String table;
+        final String[] columns;
+        int pending;
+
+        TableWriter(String table, String[] columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+
+        static TableWriter open(Connection connection, boolean postgres, String table, String... columns)
+                throws SQLException {
+            return postgres ? new CopyWriter(connection, table, columns) : new BatchWriter(connection, table, columns);
+        }
+
+        void row(Object... values) throws SQLException, IOException {
+            if (values.length != columns.length) {
+                throw new IllegalArgumentException(table + " expects " + columns.length + " values");
+            }
+            append(values);
+            pending++;
+        }
+
+        /**
+         * Whether enough rows are buffered to be worth flushing; callers decide
+         * when so parent rows always reach the database before their children
+         */
+        boolean isFull() {
+            return pending >= FLUSH_ROWS;
+        }
+
+        abstract void append(Object[] values) throws SQLException;
+
+        abstract void flush() throws SQLException, IOException;
+
+        @Override
+        public void close() throws SQLException, IOException {
+            flush();
+        }
+    }
+
+    static class CopyWriter extends TableWriter {
+
+        private final CopyManager copyManager;
+        private final String sql;
+        private final StringBuilder buffer = new StringBuilder(1 << 20);
+
+        CopyWriter(Connection connection, String table, String[] columns) throws SQLException {
+            super(table, columns);
+            this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            this.sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        }
+
+        @Override
+        void append(Object[] values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof String) {
+                    buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+                } else if (value instanceof BigDecimal) {
+                    buffer.append(((BigDecimal) value).toPlainString());
+                } else {
+                    buffer.append(value);
+                }
+            }
+            buffer.append('\n');
+        }
+
+        @Override
+        void flush() throws SQLException, IOException {
+            if (pending == 0) {
+                return;
+            }
+            copyManager.copyIn(sql, new StringReader(buffer.toString()));
+            buffer.setLength(0);
+            pending = 0;
+        }
+    }
+
+    static class BatchWriter extends TableWriter {
+
+        private final PreparedStatement statement;
+
+        BatchWriter(Connection connection, String table, String[] columns) throws SQLException {
+            super(table, columns);
+            String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+            this.statement = connection.prepareStatement(
+                    "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+        }
+
+        @Override
+        void append(Object[] values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+        }
+
+        @Override
+        void flush() throws SQLException {
+            if (pending == 0) {
+                return;
+            }
+            statement.executeBatch();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            statement.close();
+        }
+    }
+}
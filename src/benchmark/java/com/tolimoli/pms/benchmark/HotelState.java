@@ -0,0 +1,65 @@
+package com.tolimoli.pms.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tolimoli.pms.PmsApplication;
+
+/**
+ * Shared benchmark state - boots the application on embedded H2 with the
+ * benchmark profile and seeds a synthetic hotel of the requested size
+ */
+@State(Scope.Benchmark)
+public class HotelState {
+
+    @Param("42")
+    public long seed;
+
+    @Param("200")
+    public int rooms;
+
+    @Param("1000")
+    public int guests;
+
+    @Param("90")
+    public int rateDays;
+
+    @Param("4")
+    public int bookingsPerRoom;
+
+    public ConfigurableApplicationContext context;
+
+    public SyntheticHotel hotel;
+
+    @Setup(Level.Trial)
+    public void startHotel() {
+        context = new SpringApplicationBuilder(PmsApplication.class)
+                .profiles("benchmark")
+                .run();
+        hotel = new SyntheticHotel(seed, rooms, guests, rateDays, bookingsPerRoom).seed(context);
+        onHotelReady();
+    }
+
+    /**
+     * Hook for benchmark states to look up beans once the hotel is seeded
+     */
+    protected void onHotelReady() {
+    }
+
+    @TearDown(Level.Trial)
+    public void stopHotel() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
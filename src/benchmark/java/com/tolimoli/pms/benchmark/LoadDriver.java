@@ -0,0 +1,402 @@
+package com.tolimoli.pms.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load driver for the REST API
+ *
+ * Every worker thread keeps exactly one request in flight, picking the next
+ * operation from a weighted mix: booking, availability search, check-in,
+ * check-out, charge posting and payment. Bookings start tomorrow at the
+ * earliest, since a stay cannot be booked for today. Check-ins therefore
+ * work on the generated stays due to arrive today, and check-outs on the
+ * generated in-house stays plus those the driver checked in; both are read
+ * from the database behind the API (--url, --user, --password, as for
+ * HotelDataGenerator) before the run. Charges and payments go to
+ * the driver's recent bookings. When an operation has nothing to work on
+ * the worker books a stay instead. Room numbers, guest emails and channel
+ * codes follow the HotelDataGenerator / SyntheticHotel conventions, so point
+ * --rooms and --guests at the generated hotel's size, and generate it with
+ * --today set to the day of the run (the default).
+ *
+ * <pre>
+ * mvn -Pbenchmark compile exec:exec -Dbenchmark.main=com.tolimoli.pms.benchmark.LoadDriver \
+ *   -Dbenchmark.args="--base-url=http://localhost:8080 --threads=32 --warmup=30 --duration=120 \
+ *                     --url=jdbc:postgresql://localhost:5432/pms_db --user=pms_user --password=pms_password \
+ *                     --rooms=500 --guests=50000 --mix=book:15,availability:45,checkin:5,checkout:5,charge:15,payment:15"
+ * </pre>
+ */
+public class LoadDriver {
+
+    enum Operation {
+        BOOK("book"), AVAILABILITY("availability"), CHECK_IN("checkin"), CHECK_OUT("checkout"),
+        CHARGE("charge"), PAYMENT("payment");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in mix: " + key);
+        }
+    }
+
+    private static final Pattern RESERVATION_ID = Pattern.compile("\"data\":\\{\"id\":(\\d+)");
+
+    // Stays due to arrive today and stays in house, oldest first
+    private static final String SEED_STAYS_SQL =
+            "SELECT reservation_id, status FROM reservations " +
+            "WHERE (status = 'CONFIRMED' AND check_in_date = ?) OR status = 'CHECKED_IN' ORDER BY reservation_id";
+
+    private static final int RECENT_BOOKINGS = 4096;
+
+    private final String baseUrl;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int rooms;
+    private final int guests;
+    private final int horizonDays;
+    private final long seed;
+    private final Operation[] mix;
+
+    private final HttpClient client;
+
+    private final Queue<Long> arrivals = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> inHouse = new ConcurrentLinkedQueue<>();
+    private final AtomicLongArray recentBookings = new AtomicLongArray(RECENT_BOOKINGS);
+    private final AtomicLong bookingCount = new AtomicLong();
+
+    public LoadDriver(String baseUrl, int threads, Duration warmup, Duration duration, int rooms, int guests,
+                      int horizonDays, long seed, Operation[] mix) {
+        this.baseUrl = baseUrl;
+        this.threads = threads;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.rooms = rooms;
+        this.guests = guests;
+        this.horizonDays = horizonDays;
+        this.seed = seed;
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkArgs options = new BenchmarkArgs(args);
+        LoadDriver driver = new LoadDriver(
+                options.getString("base-url", "http://localhost:8080"),
+                options.getInt("threads", 16),
+                Duration.ofSeconds(options.getInt("warmup", 30)),
+                Duration.ofSeconds(options.getInt("duration", 120)),
+                options.getInt("rooms", 500),
+                options.getInt("guests", 50000),
+                options.getInt("horizon-days", 180),
+                options.getLong("seed", 42L),
+                parseMix(options.getString("mix",
+                        "book:15,availability:45,checkin:5,checkout:5,charge:15,payment:15")));
+        try (Connection connection = DriverManager.getConnection(
+                options.getString("url", "jdbc:postgresql://localhost:5432/pms_db"),
+                options.getString("user", "pms_user"), options.getString("password", "pms_password"))) {
+            driver.seedStays(connection);
+        }
+        driver.run();
+    }
+
+    /**
+     * Expand "op:weight,..." into a lookup table with one slot per weight unit
+     */
+    static Operation[] parseMix(String spec) {
+        List<Operation> slots = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            Operation operation = Operation.fromKey(pair[0].trim());
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    public void run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        Worker[] workers = new Worker[threads];
+        Thread[] workerThreads = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(new SplittableRandom(seed + i), measureFrom, stopAt);
+            workerThreads[i] = new Thread(workers[i], "load-driver-" + i);
+            workerThreads[i].start();
+        }
+        System.out.printf("Driving %s with %d threads: %d s warmup, %d s measured%n",
+                baseUrl, threads, warmup.getSeconds(), duration.getSeconds());
+        for (Thread thread : workerThreads) {
+            thread.join();
+        }
+        report(workers);
+    }
+
+    /**
+     * Queue the stays due to arrive today for check-in and the in-house stays for check-out
+     */
+    public void seedStays(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SEED_STAYS_SQL)) {
+            statement.setDate(1, Date.valueOf(LocalDate.now()));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    ("CONFIRMED".equals(rows.getString(2)) ? arrivals : inHouse).add(rows.getLong(1));
+                }
+            }
+        }
+        System.out.printf("Seeded %d arrivals due today and %d in-house stays%n", arrivals.size(), inHouse.size());
+    }
+
+    private void report(Worker[] workers) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%n%-13s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "ok", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        long totalOk = 0;
+        long totalErrors = 0;
+        List<long[]> allSamples = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            List<long[]> samples = new ArrayList<>();
+            long errors = 0;
+            for (Worker worker : workers) {
+                samples.add(worker.latencies.get(operation).toArray());
+                errors += worker.errors.get(operation);
+            }
+            long[] merged = merge(samples);
+            allSamples.add(merged);
+            long ok = merged.length - errors;
+            totalOk += ok;
+            totalErrors += errors;
+            if (merged.length > 0) {
+                printRow(operation.key, ok, errors, merged, seconds);
+            }
+        }
+        printRow("total", totalOk, totalErrors, merge(allSamples), seconds);
+    }
+
+    private static void printRow(String name, long ok, long errors, long[] sorted, double seconds) {
+        System.out.printf("%-13s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, ok, errors, sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        int size = 0;
+        for (long[] part : parts) {
+            size += part.length;
+        }
+        long[] merged = new long[size];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, merged, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private void rememberBooking(long reservationId) {
+        long n = bookingCount.getAndIncrement();
+        recentBookings.set((int) (n % RECENT_BOOKINGS), reservationId);
+    }
+
+    private Long recentBooking(SplittableRandom random) {
+        long count = Math.min(bookingCount.get(), RECENT_BOOKINGS);
+        if (count == 0) {
+            return null;
+        }
+        long id = recentBookings.get(random.nextInt((int) count));
+        return id > 0 ? id : null;
+    }
+
+    /**
+     * One closed-loop client: issues a request, waits for the response, repeats
+     */
+    private class Worker implements Runnable {
+
+        final SplittableRandom random;
+        final long measureFrom;
+        final long stopAt;
+        final Map<Operation, LongList> latencies = new EnumMap<>(Operation.class);
+        final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+        Worker(SplittableRandom random, long measureFrom, long stopAt) {
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.stopAt = stopAt;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LongList());
+                errors.put(operation, 0L);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long begin = System.nanoTime();
+                if (begin >= stopAt) {
+                    return;
+                }
+                Operation operation = mix[random.nextInt(mix.length)];
+                HttpRequest request = buildRequest(operation);
+                if (request == null) {
+                    operation = Operation.BOOK;
+                    request = buildRequest(operation);
+                }
+                HttpResponse<String> response;
+                try {
+                    response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                } catch (Exception e) {
+                    response = null;
+                }
+                long end = System.nanoTime();
+                boolean ok = response != null && response.statusCode() / 100 == 2;
+                if (ok) {
+                    onSuccess(operation, request, response.body());
+                }
+                if (begin >= measureFrom) {
+                    latencies.get(operation).add(end - begin);
+                    if (!ok) {
+                        errors.merge(operation, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        private HttpRequest buildRequest(Operation operation) {
+            LocalDate today = LocalDate.now();
+            switch (operation) {
+                case BOOK: {
+                    LocalDate checkIn = today.plusDays(1 + random.nextInt(horizonDays));
+                    return post("/api/reservations?guestEmail=" + SyntheticHotel.guestEmail(random.nextInt(guests))
+                            + "&roomNumber=" + SyntheticHotel.roomNumber(random.nextInt(rooms))
+                            + "&channelCode=" + SyntheticHotel.CHANNEL_CODES[random.nextInt(SyntheticHotel.CHANNEL_CODES.length)]
+                            + "&checkInDate=" + checkIn + "&checkOutDate=" + checkIn.plusDays(1 + random.nextInt(4))
+                            + "&numberOfGuests=1");
+                }
+                case AVAILABILITY: {
+                    LocalDate checkIn = today.plusDays(random.nextInt(horizonDays));
+                    return get("/api/rooms/available?checkIn=" + checkIn
+                            + "&checkOut=" + checkIn.plusDays(1 + random.nextInt(7)));
+                }
+                case CHECK_IN: {
+                    Long id = arrivals.poll();
+                    return id == null ? null : put("/api/reservations/" + id + "/checkin");
+                }
+                case CHECK_OUT: {
+                    Long id = inHouse.poll();
+                    return id == null ? null : put("/api/reservations/" + id + "/checkout");
+                }
+                case CHARGE: {
+                    Long id = recentBooking(random);
+                    return id == null ? null : post("/api/folio-charges?reservationId=" + id
+                            + "&description=Minibar&amount=" + (5 + random.nextInt(40)) + ".50&chargeType=SERVICE");
+                }
+                case PAYMENT: {
+                    Long id = recentBooking(random);
+                    return id == null ? null : post("/api/payments?reservationId=" + id
+                            + "&amount=1.00&paymentMethod=CREDIT_CARD");
+                }
+                default:
+                    throw new IllegalStateException("Unhandled operation " + operation);
+            }
+        }
+
+        private void onSuccess(Operation operation, HttpRequest request, String body) {
+            if (operation == Operation.BOOK) {
+                Matcher matcher = RESERVATION_ID.matcher(body);
+                if (matcher.find()) {
+                    rememberBooking(Long.parseLong(matcher.group(1)));
+                }
+            } else if (operation == Operation.CHECK_IN) {
+                String path = request.uri().getPath();
+                inHouse.add(Long.parseLong(path.split("/")[3]));
+            }
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+        }
+
+        private HttpRequest post(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+
+        private HttpRequest put(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30))
+                    .PUT(HttpRequest.BodyPublishers.noBody()).build();
+        }
+    }
+
+    /**
+     * Growable primitive list for latency samples
+     */
+    private static class LongList {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tolimoli.pms.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tolimoli.pms.service.RateService;
+
+/**
+ * RateService.bulkUpdateRates - rewrites a window of the seeded rate
+ * calendar for one room and channel per invocation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RateState extends HotelState {
+
+        @Param("30")
+        public int windowDays;
+
+        RateService rateService;
+
+        final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        protected void onHotelReady() {
+            rateService = bean(RateService.class);
+        }
+    }
+
+    @Benchmark
+    public int bulkUpdateRates(RateState state) {
+        int n = state.sequence.getAndIncrement();
+        SyntheticHotel hotel = state.hotel;
+        Long roomId = hotel.getRoomIds().get(n % hotel.getRooms());
+        Long channelId = hotel.getChannelIds().get(n % hotel.getChannelIds().size());
+        int window = Math.min(state.windowDays, state.rateDays);
+        return state.rateService.bulkUpdateRates(roomId, channelId, SyntheticHotel.START_DATE,
+                SyntheticHotel.START_DATE.plusDays(window - 1), new BigDecimal(100 + n % 50), 1);
+    }
+}
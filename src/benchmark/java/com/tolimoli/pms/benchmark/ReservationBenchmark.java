@@ -0,0 +1,57 @@
+package com.tolimoli.pms.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tolimoli.pms.service.ReservationService;
+
+/**
+ * ReservationService.createReservation - every invocation books a fresh
+ * two-night stay beyond the seeded calendar, so no attempt conflicts
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReservationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class BookingState extends HotelState {
+
+        ReservationService reservationService;
+
+        final AtomicInteger sequence = new AtomicInteger();
+
+        LocalDate firstFreeNight;
+
+        @Override
+        protected void onHotelReady() {
+            reservationService = bean(ReservationService.class);
+            firstFreeNight = SyntheticHotel.START_DATE.plusDays(rateDays + 10);
+        }
+    }
+
+    @Benchmark
+    public Long createReservation(BookingState state) {
+        int n = state.sequence.getAndIncrement();
+        SyntheticHotel hotel = state.hotel;
+        int room = n % hotel.getRooms();
+        LocalDate checkIn = state.firstFreeNight.plusDays(2L * (n / hotel.getRooms()));
+        return state.reservationService.createReservation(
+                hotel.getGuestEmails().get(n % hotel.getGuestEmails().size()),
+                hotel.getRoomNumbers().get(room), "DIRECT",
+                checkIn, checkIn.plusDays(2), 1, null).getId();
+    }
+}
@@ -0,0 +1,156 @@
+package com.tolimoli.pms.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.context.ApplicationContext;
+
+import com.tolimoli.pms.dto.request.RateMatrixUpdateRequest;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Guest;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.exception.BusinessLogicException;
+import com.tolimoli.pms.repository.ChannelRepository;
+import com.tolimoli.pms.repository.GuestRepository;
+import com.tolimoli.pms.repository.RoomRepository;
+import com.tolimoli.pms.service.RateService;
+import com.tolimoli.pms.service.ReservationService;
+
+/**
+ * Synthetic hotel used by the benchmarks
+ *
+ * Seeds rooms, guests, channels, a rate calendar and existing bookings
+ * through the application's own repositories and services. The same seed
+ * and size always produce the same hotel.
+ */
+public class SyntheticHotel {
+
+    /** First night of the seeded rate calendar and bookings */
+    public static final LocalDate START_DATE = LocalDate.of(2030, 1, 1);
+
+    /** Channel codes shared by the seeder, the bulk generator and the load driver */
+    public static final String[] CHANNEL_CODES = { "DIRECT", "BCM", "EXP", "AGO" };
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final long seed;
+    private final int rooms;
+    private final int guests;
+    private final int rateDays;
+    private final int bookingsPerRoom;
+
+    private final List<Long> roomIds = new ArrayList<>();
+    private final List<String> roomNumbers = new ArrayList<>();
+    private final List<Long> channelIds = new ArrayList<>();
+    private final List<String> guestEmails = new ArrayList<>();
+    private final List<Long> reservationIds = new ArrayList<>();
+
+    public SyntheticHotel(long seed, int rooms, int guests, int rateDays, int bookingsPerRoom) {
+        if (rooms <= 0 || guests <= 0 || rateDays <= 0 || bookingsPerRoom < 0) {
+            throw new IllegalArgumentException("Hotel size must be positive");
+        }
+        this.seed = seed;
+        this.rooms = rooms;
+        this.guests = guests;
+        this.rateDays = rateDays;
+        this.bookingsPerRoom = bookingsPerRoom;
+    }
+
+    /**
+     * Populate the database behind the given context
+     */
+    public SyntheticHotel seed(ApplicationContext context) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        ChannelRepository channelRepository = context.getBean(ChannelRepository.class);
+        for (int i = 0; i < CHANNEL_CODES.length; i++) {
+            Channel channel = new Channel("Channel " + CHANNEL_CODES[i], CHANNEL_CODES[i],
+                    new BigDecimal(i == 0 ? 0 : 10 + random.nextInt(10)));
+            channelIds.add(channelRepository.save(channel).getId());
+        }
+
+        RoomRepository roomRepository = context.getBean(RoomRepository.class);
+        List<Room> newRooms = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            RoomType roomType = ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+            int capacity = roomType == RoomType.SINGLE ? 1 : roomType == RoomType.SUITE ? 4 : 2;
+            BigDecimal baseRate = new BigDecimal(80 + random.nextInt(320));
+            newRooms.add(new Room(roomNumber(i), roomType, capacity, baseRate));
+        }
+        for (Room room : roomRepository.saveAll(newRooms)) {
+            roomIds.add(room.getId());
+            roomNumbers.add(room.getRoomNumber());
+        }
+
+        GuestRepository guestRepository = context.getBean(GuestRepository.class);
+        List<Guest> newGuests = new ArrayList<>(guests);
+        for (int i = 0; i < guests; i++) {
+            String email = guestEmail(i);
+            newGuests.add(new Guest("Guest", "No" + (i + 1), email, "+1555" + String.format("%07d", i)));
+            guestEmails.add(email);
+        }
+        guestRepository.saveAll(newGuests);
+
+        RateService rateService = context.getBean(RateService.class);
+        rateService.bulkUpdateRates(new RateMatrixUpdateRequest(roomIds, channelIds, START_DATE,
+                START_DATE.plusDays(rateDays - 1), new BigDecimal("150.00"), 1));
+
+        // Existing bookings spread over the calendar, 1-5 nights each
+        ReservationService reservationService = context.getBean(ReservationService.class);
+        for (int r = 0; r < rooms; r++) {
+            LocalDate checkIn = START_DATE.plusDays(random.nextInt(7));
+            for (int b = 0; b < bookingsPerRoom; b++) {
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                if (checkOut.isAfter(START_DATE.plusDays(rateDays))) {
+                    break;
+                }
+                try {
+                    Reservation reservation = reservationService.createReservation(
+                            guestEmails.get(random.nextInt(guests)), roomNumbers.get(r),
+                            CHANNEL_CODES[random.nextInt(CHANNEL_CODES.length)],
+                            checkIn, checkOut, 1, null);
+                    reservationIds.add(reservation.getId());
+                } catch (BusinessLogicException e) {
+                    // Generated stay collided with an existing one; skip it
+                }
+                checkIn = checkOut.plusDays(random.nextInt(rateDays / Math.max(1, bookingsPerRoom) + 1));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Room number of the room at the given zero-based index
+     */
+    public static String roomNumber(int index) {
+        return String.format("R%05d", index + 1);
+    }
+
+    /**
+     * Email of the guest at the given zero-based index
+     */
+    public static String guestEmail(int index) {
+        return "guest" + (index + 1) + "@bench.local";
+    }
+
+    public int getRooms() { return rooms; }
+
+    public int getRateDays() { return rateDays; }
+
+    public List<Long> getRoomIds() { return roomIds; }
+
+    public List<String> getRoomNumbers() { return roomNumbers; }
+
+    public List<Long> getChannelIds() { return channelIds; }
+
+    public List<String> getChannelCodes() { return List.of(CHANNEL_CODES); }
+
+    public List<String> getGuestEmails() { return guestEmails; }
+
+    public List<Long> getReservationIds() { return reservationIds; }
+}
@@ -0,0 +1,94 @@
+package com.tolimoli.pms.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup check that every entity id sequence is ahead of its table
+ * (app.id-sequence-check.enabled)
+ *
+ * Entity ids come from pooled sequences created by
+ * db/migration/V1__pooled_id_sequences.sql, which positions each sequence
+ * after the ids its table already holds. Nothing stops the application from
+ * starting before that script ran: ddl-auto then creates any missing
+ * sequence at 1 and the first inserts reuse existing ids. The application
+ * refuses to start instead, naming the sequences to fix, before any bean can
+ * write. PostgreSQL only; other databases are generated fresh.
+ */
+@Component
+public class IdSequenceCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceCheck.class);
+
+    @Value("${app.id-sequence-check.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void check() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (!enabled || !(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQL81Dialect)) {
+            return;
+        }
+        List<String> behind = new ArrayList<>();
+        for (EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+            IdentifierGenerator generator = persister.getIdentifierGenerator();
+            if (!(generator instanceof SequenceStyleGenerator) || !(persister instanceof AbstractEntityPersister)) {
+                continue;
+            }
+            DatabaseStructure sequence = ((SequenceStyleGenerator) generator).getDatabaseStructure();
+            AbstractEntityPersister entity = (AbstractEntityPersister) persister;
+            String problem = checkSequence(sequence.getPhysicalName().render(), sequence.getIncrementSize(),
+                    entity.getRootTableName(), entity.getIdentifierColumnNames()[0]);
+            if (problem != null) {
+                behind.add(problem);
+            }
+        }
+        if (!behind.isEmpty()) {
+            throw new IllegalStateException("Id sequences would hand out ids already in use: "
+                    + String.join("; ", behind) + ". Run db/migration/V1__pooled_id_sequences.sql before starting");
+        }
+        log.info("Id sequences are ahead of their tables");
+    }
+
+    // A pooled sequence's value is the last id of the block it hands out, so the
+    // next block starts one increment below the next value; a sequence never
+    // called starts its first block at 1
+    private String checkSequence(String sequence, int incrementSize, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (maxId == null) {
+            return null;
+        }
+        Map<String, Object> state = jdbcTemplate.queryForMap("SELECT last_value, is_called FROM " + sequence);
+        long lastValue = ((Number) state.get("last_value")).longValue();
+        long nextValue = Boolean.TRUE.equals(state.get("is_called")) ? lastValue + incrementSize : lastValue;
+        long firstId = Math.max(nextValue - incrementSize + 1, 1);
+        if (firstId > maxId) {
+            return null;
+        }
+        return String.format("%s hands out %d next but %s.%s is already at %d", sequence, firstId, table, idColumn, maxId);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tolimoli.pms.config;
+
+import java.util.concurrent.ExecutorService;
+
+import javax.sql.DataSource;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import com.tolimoli.pms.util.VirtualThreads;
+
+/**
+ * Virtual-thread request execution (app.virtual-threads.enabled)
+ *
+ * Runs Tomcat request handling and the MVC async executor (NDJSON exports)
+ * on one virtual thread per task instead of the bounded platform pools, so
+ * requests blocked on JDBC or channel calls no longer tie up a carrier
+ * thread each. Requires a Java 21 runtime; the application refuses to start
+ * with the mode enabled on an older one.
+ *
+ * Without a worker pool nothing limits how many requests reach the database
+ * at once, so the data source is wrapped in an AdmissionControlledDataSource
+ * sized to the connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService tomcatVirtualThreadExecutor() {
+        log.info("Serving requests on virtual threads (Java {})", System.getProperty("java.version"));
+        return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService tomcatVirtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(tomcatVirtualThreadExecutor);
+    }
+
+    /** Replaces Boot's pooled executor for MVC async and streaming responses */
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor" })
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("task-vt-"));
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionAdmissionPostProcessor(Environment environment) {
+        int maxConcurrent = environment.getProperty("app.virtual-threads.admission.max-concurrent", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        int maxWaiting = environment.getProperty("app.virtual-threads.admission.max-waiting", Integer.class, 1000);
+        long waitTimeoutMs = environment.getProperty("app.virtual-threads.admission.wait-timeout-ms", Long.class,
+                environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource && !(bean instanceof AdmissionControlledDataSource)) {
+                    log.info("Admitting at most {} concurrent connections to data source '{}' ({} may wait)",
+                            maxConcurrent, beanName, maxWaiting);
+                    return new AdmissionControlledDataSource((DataSource) bean, maxConcurrent, maxWaiting, waitTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package com.tolimoli.pms.controller;
 
 import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.AriOutboxStatusResponse;
+import com.tolimoli.pms.dto.response.ChannelResponse;
+import com.tolimoli.pms.dto.response.KeysetPageResponse;
 import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.service.AriOutboxService;
 import com.tolimoli.pms.service.ChannelService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Channel Controller - REST API for channel management
@@ -27,18 +32,21 @@ public class ChannelController {
     @Autowired
     private ChannelService channelService;
 
+    @Autowired
+    private AriOutboxService ariOutboxService;
+
     /**
      * Create a new channel
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Channel>> createChannel(
+    public ResponseEntity<ApiResponse<ChannelResponse>> createChannel(
             @RequestParam String channelName,
             @RequestParam String channelCode,
             @RequestParam(required = false) BigDecimal commissionRate,
             @RequestParam(required = false) String apiEndpoint) {
         
         Channel channel = channelService.createChannel(channelName, channelCode, commissionRate, apiEndpoint);
-        ApiResponse<Channel> response = new ApiResponse<>("success", "Channel created successfully", channel);
+        ApiResponse<ChannelResponse> response = new ApiResponse<>("success", "Channel created successfully", new ChannelResponse(channel));
         return ResponseEntity.ok(response);
     }
 
@@ -46,9 +54,23 @@ public class ChannelController {
      * Get all active channels
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Channel>>> getAllActiveChannels() {
-        List<Channel> channels = channelService.getAllActiveChannels();
-        ApiResponse<List<Channel>> response = new ApiResponse<>("success", "Active channels retrieved successfully", channels);
+    public ResponseEntity<ApiResponse<List<ChannelResponse>>> getAllActiveChannels() {
+        List<ChannelResponse> channels = channelService.getAllActiveChannels().stream()
+                .map(ChannelResponse::new)
+                .collect(Collectors.toList());
+        ApiResponse<List<ChannelResponse>> response = new ApiResponse<>("success", "Active channels retrieved successfully", channels);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get one page of active channels ordered by id
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<KeysetPageResponse<ChannelResponse>>> getActiveChannelPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size) {
+        KeysetPageResponse<ChannelResponse> page = channelService.getActiveChannelPage(afterId, size);
+        ApiResponse<KeysetPageResponse<ChannelResponse>> response = new ApiResponse<>("success", "Active channels retrieved successfully", page);
         return ResponseEntity.ok(response);
     }
 
@@ -56,12 +78,32 @@ public class ChannelController {
      * Get channel by code
      */
     @GetMapping("/{channelCode}")
-    public ResponseEntity<ApiResponse<Channel>> getChannelByCode(@PathVariable String channelCode) {
+    public ResponseEntity<ApiResponse<ChannelResponse>> getChannelByCode(@PathVariable String channelCode) {
         return channelService.getChannelByCode(channelCode)
                 .map(channel -> {
-                    ApiResponse<Channel> response = new ApiResponse<>("success", "Channel found", channel);
+                    ApiResponse<ChannelResponse> response = new ApiResponse<>("success", "Channel found", new ChannelResponse(channel));
                     return ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    /**
+     * Get rate and availability changes still waiting to be pushed, per channel
+     */
+    @GetMapping("/distribution/status")
+    public ResponseEntity<ApiResponse<List<AriOutboxStatusResponse>>> getDistributionStatus() {
+        List<AriOutboxStatusResponse> status = ariOutboxService.getStatus();
+        ApiResponse<List<AriOutboxStatusResponse>> response = new ApiResponse<>("success", "Distribution status retrieved successfully", status);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retry a channel's changes that could not be delivered
+     */
+    @PostMapping("/{channelId}/distribution/requeue")
+    public ResponseEntity<ApiResponse<Integer>> requeueFailedDistribution(@PathVariable Long channelId) {
+        int requeued = ariOutboxService.requeueFailed(channelId);
+        ApiResponse<Integer> response = new ApiResponse<>("success", "Failed changes requeued", requeued);
+        return ResponseEntity.ok(response);
+    }
+}
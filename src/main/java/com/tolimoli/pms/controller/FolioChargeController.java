@@ -1,6 +1,7 @@
 package com.tolimoli.pms.controller;
 
 import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.FolioChargeResponse;
 import com.tolimoli.pms.entity.ChargeType;
 import com.tolimoli.pms.entity.FolioCharge;
 import com.tolimoli.pms.service.FolioChargeService;
@@ -34,14 +35,14 @@ public class FolioChargeController {
      * Add a service charge to reservation
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<FolioCharge>> addServiceCharge(
+    public ResponseEntity<ApiResponse<FolioChargeResponse>> addServiceCharge(
             @RequestParam Long reservationId,
             @RequestParam String description,
             @RequestParam BigDecimal amount,
             @RequestParam ChargeType chargeType) {
         
         FolioCharge charge = folioChargeService.addServiceCharge(reservationId, description, amount, chargeType);
-        ApiResponse<FolioCharge> response = new ApiResponse<>("success", "Service charge added successfully", charge);
+        ApiResponse<FolioChargeResponse> response = new ApiResponse<>("success", "Service charge added successfully", new FolioChargeResponse(charge));
         return ResponseEntity.ok(response);
     }
 
@@ -49,7 +50,7 @@ public class FolioChargeController {
      * Add a charge with quantity
      */
     @PostMapping("/with-quantity")
-    public ResponseEntity<ApiResponse<FolioCharge>> addChargeWithQuantity(
+    public ResponseEntity<ApiResponse<FolioChargeResponse>> addChargeWithQuantity(
             @RequestParam Long reservationId,
             @RequestParam String description,
             @RequestParam BigDecimal unitPrice,
@@ -57,7 +58,7 @@ public class FolioChargeController {
             @RequestParam ChargeType chargeType) {
         
         FolioCharge charge = folioChargeService.addChargeWithQuantity(reservationId, description, unitPrice, quantity, chargeType);
-        ApiResponse<FolioCharge> response = new ApiResponse<>("success", "Charge with quantity added successfully", charge);
+        ApiResponse<FolioChargeResponse> response = new ApiResponse<>("success", "Charge with quantity added successfully", new FolioChargeResponse(charge));
         return ResponseEntity.ok(response);
     }
 
@@ -65,9 +66,9 @@ public class FolioChargeController {
      * Get all charges for a reservation
      */
     @GetMapping("/reservation/{reservationId}")
-    public ResponseEntity<ApiResponse<List<FolioCharge>>> getReservationCharges(@PathVariable Long reservationId) {
-        List<FolioCharge> charges = folioChargeService.getReservationCharges(reservationId);
-        ApiResponse<List<FolioCharge>> response = new ApiResponse<>("success", "Charges retrieved successfully", charges);
+    public ResponseEntity<ApiResponse<List<FolioChargeResponse>>> getReservationCharges(@PathVariable Long reservationId) {
+        List<FolioChargeResponse> charges = folioChargeService.getReservationCharges(reservationId);
+        ApiResponse<List<FolioChargeResponse>> response = new ApiResponse<>("success", "Charges retrieved successfully", charges);
         return ResponseEntity.ok(response);
     }
 
@@ -1,7 +1,7 @@
 package com.tolimoli.pms.controller;
 
 import com.tolimoli.pms.dto.response.ApiResponse;
-import com.tolimoli.pms.entity.Guest;
+import com.tolimoli.pms.dto.response.GuestDetailResponse;
 import com.tolimoli.pms.service.GuestService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -26,10 +26,10 @@ public class GuestController {
      * Find guest by email
      */
     @GetMapping("/email/{email}")
-    public ResponseEntity<ApiResponse<Guest>> getGuestByEmail(@PathVariable String email) {
-        return guestService.findGuestByEmail(email)
+    public ResponseEntity<ApiResponse<GuestDetailResponse>> getGuestByEmail(@PathVariable String email) {
+        return guestService.getGuestDetailByEmail(email)
                 .map(guest -> {
-                    ApiResponse<Guest> response = new ApiResponse<>("success", "Guest found", guest);
+                    ApiResponse<GuestDetailResponse> response = new ApiResponse<>("success", "Guest found", guest);
                     return ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
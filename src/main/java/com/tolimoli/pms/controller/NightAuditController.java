@@ -0,0 +1,60 @@
+package com.tolimoli.pms.controller;
+
+import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.NightAuditRunResponse;
+import com.tolimoli.pms.service.NightAuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Night Audit Controller - REST API for closing business dates
+ */
+@RestController
+@RequestMapping("/api/night-audit")
+@CrossOrigin(origins = "*")
+public class NightAuditController {
+
+    @Autowired
+    private NightAuditService nightAuditService;
+
+    /**
+     * Get the business date the next night audit will close
+     */
+    @GetMapping("/business-date")
+    public ResponseEntity<ApiResponse<LocalDate>> getBusinessDate() {
+        LocalDate businessDate = nightAuditService.getBusinessDate();
+        ApiResponse<LocalDate> response = new ApiResponse<>("success", "Business date retrieved successfully", businessDate);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Run (or resume) the night audit of the current business date and roll it forward
+     */
+    @PostMapping("/run")
+    public ResponseEntity<ApiResponse<NightAuditRunResponse>> runNightAudit() {
+        NightAuditRunResponse run = nightAuditService.run();
+        ApiResponse<NightAuditRunResponse> response = new ApiResponse<>("success", "Night audit completed successfully", run);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the night audit run of a business date
+     */
+    @GetMapping("/runs/{businessDate}")
+    public ResponseEntity<ApiResponse<NightAuditRunResponse>> getRun(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate) {
+
+        NightAuditRunResponse run = nightAuditService.getRun(businessDate);
+        ApiResponse<NightAuditRunResponse> response = new ApiResponse<>("success", "Night audit run retrieved successfully", run);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,8 +1,11 @@
 package com.tolimoli.pms.controller;
 
 import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.PaymentResponse;
+import com.tolimoli.pms.dto.response.FolioBalanceResponse;
 import com.tolimoli.pms.entity.Payment;
 import com.tolimoli.pms.entity.PaymentMethod;
+import com.tolimoli.pms.service.BalanceRepairService;
 import com.tolimoli.pms.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +19,6 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Payment Controller - REST API for payment management
@@ -29,18 +31,21 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private BalanceRepairService balanceRepairService;
+
     /**
      * Process a payment
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Payment>> processPayment(
+    public ResponseEntity<ApiResponse<PaymentResponse>> processPayment(
             @RequestParam Long reservationId,
             @RequestParam BigDecimal amount,
             @RequestParam PaymentMethod paymentMethod,
             @RequestParam(required = false) String transactionId) {
         
         Payment payment = paymentService.processPayment(reservationId, amount, paymentMethod, transactionId);
-        ApiResponse<Payment> response = new ApiResponse<>("success", "Payment processed successfully", payment);
+        ApiResponse<PaymentResponse> response = new ApiResponse<>("success", "Payment processed successfully", new PaymentResponse(payment));
         return ResponseEntity.ok(response);
     }
 
@@ -48,9 +53,9 @@ public class PaymentController {
      * Get all payments for a reservation
      */
     @GetMapping("/reservation/{reservationId}")
-    public ResponseEntity<ApiResponse<List<Payment>>> getReservationPayments(@PathVariable Long reservationId) {
-        List<Payment> payments = paymentService.getReservationPayments(reservationId);
-        ApiResponse<List<Payment>> response = new ApiResponse<>("success", "Payments retrieved successfully", payments);
+    public ResponseEntity<ApiResponse<List<PaymentResponse>>> getReservationPayments(@PathVariable Long reservationId) {
+        List<PaymentResponse> payments = paymentService.getReservationPayments(reservationId);
+        ApiResponse<List<PaymentResponse>> response = new ApiResponse<>("success", "Payments retrieved successfully", payments);
         return ResponseEntity.ok(response);
     }
 
@@ -58,18 +63,30 @@ public class PaymentController {
      * Get outstanding balance for a reservation
      */
     @GetMapping("/reservation/{reservationId}/balance")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getOutstandingBalance(@PathVariable Long reservationId) {
-        BigDecimal totalPayments = paymentService.calculateTotalPayments(reservationId);
-        BigDecimal outstandingBalance = paymentService.getOutstandingBalance(reservationId);
-        
-        Map<String, Object> balanceInfo = Map.of(
-                "reservationId", reservationId,
-                "totalPayments", totalPayments,
-                "outstandingBalance", outstandingBalance,
-                "isFullyPaid", outstandingBalance.compareTo(BigDecimal.ZERO) <= 0
-        );
-        
-        ApiResponse<Map<String, Object>> response = new ApiResponse<>("success", "Balance information retrieved successfully", balanceInfo);
+    public ResponseEntity<ApiResponse<FolioBalanceResponse>> getOutstandingBalance(@PathVariable Long reservationId) {
+        FolioBalanceResponse balance = paymentService.getFolioBalance(reservationId);
+        ApiResponse<FolioBalanceResponse> response = new ApiResponse<>("success", "Balance information retrieved successfully", balance);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Recompute a reservation's running totals from its charges and payments
+     */
+    @PostMapping("/reservation/{reservationId}/balance/repair")
+    public ResponseEntity<ApiResponse<Boolean>> repairBalance(@PathVariable Long reservationId) {
+        boolean repaired = balanceRepairService.repair(reservationId);
+        String message = repaired ? "Balance corrected" : "Balance already consistent";
+        ApiResponse<Boolean> response = new ApiResponse<>("success", message, repaired);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Recompute the running totals of all reservations
+     */
+    @PostMapping("/balances/repair")
+    public ResponseEntity<ApiResponse<Integer>> repairAllBalances() {
+        int repaired = balanceRepairService.repairAll();
+        ApiResponse<Integer> response = new ApiResponse<>("success", repaired + " balances corrected", repaired);
         return ResponseEntity.ok(response);
     }
 
@@ -77,12 +94,12 @@ public class PaymentController {
      * Process a refund
      */
     @PostMapping("/{paymentId}/refund")
-    public ResponseEntity<ApiResponse<Payment>> processRefund(
+    public ResponseEntity<ApiResponse<PaymentResponse>> processRefund(
             @PathVariable Long paymentId,
             @RequestParam BigDecimal refundAmount) {
         
         Payment refund = paymentService.processRefund(paymentId, refundAmount);
-        ApiResponse<Payment> response = new ApiResponse<>("success", "Refund processed successfully", refund);
+        ApiResponse<PaymentResponse> response = new ApiResponse<>("success", "Refund processed successfully", new PaymentResponse(refund));
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
@@ -1,23 +1,37 @@
 package com.tolimoli.pms.controller;
 
+import com.tolimoli.pms.dto.request.RateMatrixUpdateRequest;
 import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.RateResponse;
+import com.tolimoli.pms.dto.response.StayQuoteResponse;
 import com.tolimoli.pms.entity.Rate;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.service.RateCalendar;
+import com.tolimoli.pms.service.RateQuoteService;
 import com.tolimoli.pms.service.RateService;
+import com.tolimoli.pms.service.ReadQueryExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.validation.Valid;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Rate Controller - REST API for rate management
@@ -30,47 +44,82 @@ public class RateController {
     @Autowired
     private RateService rateService;
 
+    @Autowired
+    private RateQuoteService rateQuoteService;
+
+    @Autowired
+    private ReadQueryExecutor readQueryExecutor;
+
     /**
      * Set/Update rate for a room and channel
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Rate>> setRate(
+    public ResponseEntity<ApiResponse<RateResponse>> setRate(
             @RequestParam Long roomId,
             @RequestParam Long channelId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam BigDecimal rateAmount,
-            @RequestParam Integer availableRooms) {
+            @RequestParam Integer availableRooms,
+            @RequestParam(required = false) String restrictions) {
         
-        Rate rate = rateService.setRate(roomId, channelId, date, rateAmount, availableRooms);
-        ApiResponse<Rate> response = new ApiResponse<>("success", "Rate set successfully", rate);
+        Rate rate = rateService.setRate(roomId, channelId, date, rateAmount, availableRooms, restrictions);
+        ApiResponse<RateResponse> response = new ApiResponse<>("success", "Rate set successfully", new RateResponse(rate));
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Get rates for a room within date range
+     * Get rates for a room within date range; 304 when If-None-Match still matches (runs on the read query executor)
      */
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<ApiResponse<List<Rate>>> getRatesForRoom(
+    public CompletableFuture<ResponseEntity<ApiResponse<List<RateResponse>>>> getRatesForRoom(
             @PathVariable Long roomId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        List<Rate> rates = rateService.getRatesForRoom(roomId, startDate, endDate);
-        ApiResponse<List<Rate>> response = new ApiResponse<>("success", "Rates retrieved successfully", rates);
-        return ResponseEntity.ok(response);
+        return readQueryExecutor.submit(() -> calendarResponse(
+                rateService.getRoomCalendar(roomId, startDate, endDate), ifNoneMatch, "Rates retrieved successfully"));
     }
 
     /**
-     * Get rates for a channel on specific date
+     * Get rates for a channel on specific date; 304 when If-None-Match still matches (runs on the read query executor)
      */
     @GetMapping("/channel/{channelId}")
-    public ResponseEntity<ApiResponse<List<Rate>>> getRatesForChannel(
+    public CompletableFuture<ResponseEntity<ApiResponse<List<RateResponse>>>> getRatesForChannel(
             @PathVariable Long channelId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        List<Rate> rates = rateService.getRatesForChannel(channelId, date);
-        ApiResponse<List<Rate>> response = new ApiResponse<>("success", "Channel rates retrieved successfully", rates);
-        return ResponseEntity.ok(response);
+        return readQueryExecutor.submit(() -> calendarResponse(
+                rateService.getChannelCalendar(channelId, date), ifNoneMatch, "Channel rates retrieved successfully"));
+    }
+
+    private static ResponseEntity<ApiResponse<List<RateResponse>>> calendarResponse(
+            RateCalendar calendar, String ifNoneMatch, String message) {
+        if (calendar.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(calendar.getETag()).build();
+        }
+        ApiResponse<List<RateResponse>> response = new ApiResponse<>("success", message, calendar.getRates());
+        return ResponseEntity.ok().eTag(calendar.getETag()).body(response);
+    }
+
+    /**
+     * Price a stay in every free room of a type on a channel (runs on the read query executor)
+     */
+    @GetMapping("/quote")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<StayQuoteResponse>>>> quoteStay(
+            @RequestParam String channelCode,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) RoomType roomType,
+            @RequestParam(required = false) Integer guests,
+            @RequestParam(required = false) Integer children) {
+
+        return readQueryExecutor.submit(() -> {
+            List<StayQuoteResponse> quotes = rateQuoteService.shop(roomType, channelCode, checkIn, checkOut, guests, children);
+            ApiResponse<List<StayQuoteResponse>> response = new ApiResponse<>("success", "Stay quoted successfully", quotes);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
@@ -94,6 +143,21 @@ public class RateController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Bulk update rates for a matrix of rooms x channels x dates
+     */
+    @PostMapping("/bulk-update/matrix")
+    public ResponseEntity<ApiResponse<String>> bulkUpdateRateMatrix(@Valid @RequestBody RateMatrixUpdateRequest request) {
+        int written = rateService.bulkUpdateRates(request);
+
+        String message = String.format("%d rates updated from %s to %s for %d rooms and %d channels",
+                written, request.getStartDate(), request.getEndDate(),
+                request.getRoomIds().size(), request.getChannelIds().size());
+
+        ApiResponse<String> response = new ApiResponse<>("success", "Bulk rates updated successfully", message);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Block sales for specific room, channel and date
      */
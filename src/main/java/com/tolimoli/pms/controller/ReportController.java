@@ -0,0 +1,116 @@
+package com.tolimoli.pms.controller;
+
+import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.ChannelPerformanceResponse;
+import com.tolimoli.pms.dto.response.DailyOccupancyResponse;
+import com.tolimoli.pms.dto.response.RevenueSummaryResponse;
+import com.tolimoli.pms.dto.response.RoomTypePerformanceResponse;
+import com.tolimoli.pms.service.ReportingService;
+import com.tolimoli.pms.service.RevenueRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Report Controller - REST API for occupancy and revenue reports
+ */
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    /**
+     * Get rooms sold, room revenue, ADR and occupancy for a date range
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<ApiResponse<RevenueSummaryResponse>> getRevenueSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        RevenueSummaryResponse summary = reportingService.getRevenueSummary(startDate, endDate);
+        ApiResponse<RevenueSummaryResponse> response = new ApiResponse<>("success", "Revenue summary retrieved successfully", summary);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the revenue summary of a calendar month
+     */
+    @GetMapping("/revenue/monthly")
+    public ResponseEntity<ApiResponse<RevenueSummaryResponse>> getMonthlyRevenue(
+            @RequestParam int year,
+            @RequestParam int month) {
+
+        YearMonth period = YearMonth.of(year, month);
+        RevenueSummaryResponse summary = reportingService.getRevenueSummary(period.atDay(1), period.atEndOfMonth());
+        ApiResponse<RevenueSummaryResponse> response = new ApiResponse<>("success", "Monthly revenue retrieved successfully", summary);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get occupancy for each date in a range
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<ApiResponse<List<DailyOccupancyResponse>>> getDailyOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        List<DailyOccupancyResponse> days = reportingService.getDailyOccupancy(startDate, endDate);
+        ApiResponse<List<DailyOccupancyResponse>> response = new ApiResponse<>("success", "Occupancy retrieved successfully", days);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get revenue per booking channel
+     */
+    @GetMapping("/channels")
+    public ResponseEntity<ApiResponse<List<ChannelPerformanceResponse>>> getChannelPerformance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        List<ChannelPerformanceResponse> channels = reportingService.getChannelPerformance(startDate, endDate);
+        ApiResponse<List<ChannelPerformanceResponse>> response = new ApiResponse<>("success", "Channel performance retrieved successfully", channels);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get revenue per room type
+     */
+    @GetMapping("/room-types")
+    public ResponseEntity<ApiResponse<List<RoomTypePerformanceResponse>>> getRoomTypePerformance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        List<RoomTypePerformanceResponse> roomTypes = reportingService.getRoomTypePerformance(startDate, endDate);
+        ApiResponse<List<RoomTypePerformanceResponse>> response = new ApiResponse<>("success", "Room type performance retrieved successfully", roomTypes);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Recompute the daily rollups of a date range from reservations and folio charges
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        int rows = revenueRollupService.rebuild(startDate, endDate);
+        ApiResponse<Integer> response = new ApiResponse<>("success", rows + " rollup rows rebuilt", rows);
+        return ResponseEntity.ok(response);
+    }
+}
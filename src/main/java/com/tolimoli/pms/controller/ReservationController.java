@@ -1,10 +1,20 @@
 package com.tolimoli.pms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tolimoli.pms.dto.request.GroupBookingRequest;
 import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.GroupBookingResponse;
+import com.tolimoli.pms.dto.response.KeysetPageResponse;
+import com.tolimoli.pms.dto.response.ReservationResponse;
+import com.tolimoli.pms.dto.response.RoomResponse;
+import com.tolimoli.pms.dto.response.AvailabilityIndexStatusResponse;
 import com.tolimoli.pms.entity.Reservation;
-import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.ReservationStatus;
 import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.service.ReadQueryExecutor;
 import com.tolimoli.pms.service.ReservationService;
+import com.tolimoli.pms.service.RoomAvailabilityIndex;
+import com.tolimoli.pms.util.NdjsonResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -13,12 +23,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Reservation Controller - REST API for reservation management
@@ -31,11 +47,20 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ReadQueryExecutor readQueryExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Create a new reservation
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Reservation>> createReservation(
+    public ResponseEntity<ApiResponse<ReservationResponse>> createReservation(
             @RequestParam String guestEmail,
             @RequestParam String roomNumber,
             @RequestParam String channelCode,
@@ -47,18 +72,80 @@ public class ReservationController {
         Reservation reservation = reservationService.createReservation(
                 guestEmail, roomNumber, channelCode, checkInDate, checkOutDate, numberOfGuests, specialRequests);
         
-        ApiResponse<Reservation> response = new ApiResponse<>("success", "Reservation created successfully", reservation);
+        ApiResponse<ReservationResponse> response = new ApiResponse<>("success", "Reservation created successfully", new ReservationResponse(reservation));
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Book a block of rooms for a group in one transaction
+     */
+    @PostMapping("/groups")
+    public ResponseEntity<ApiResponse<GroupBookingResponse>> createGroupBooking(
+            @Valid @RequestBody GroupBookingRequest request) {
+
+        List<Reservation> reservations = reservationService.createGroupBooking(request);
+        ApiResponse<GroupBookingResponse> response = new ApiResponse<>("success", "Group booking created successfully",
+                new GroupBookingResponse(request.getGroupName(), reservations));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get all reservations matching the filters
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ReservationResponse>>> getReservations(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) String channelCode,
+            @RequestParam(defaultValue = "false") boolean otaOnly,
+            @RequestParam(defaultValue = "false") boolean outstandingOnly,
+            @RequestParam(required = false) String q) {
+        List<ReservationResponse> reservations = reservationService.getReservations(
+                status, channelCode, otaOnly, outstandingOnly, q);
+        ApiResponse<List<ReservationResponse>> response = new ApiResponse<>("success", "Reservations retrieved successfully", reservations);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get one page of reservations ordered by id
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<KeysetPageResponse<ReservationResponse>>> getReservationPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) String channelCode,
+            @RequestParam(defaultValue = "false") boolean otaOnly,
+            @RequestParam(defaultValue = "false") boolean outstandingOnly,
+            @RequestParam(required = false) String q) {
+        KeysetPageResponse<ReservationResponse> page = reservationService.getReservationPage(
+                afterId, size, status, channelCode, otaOnly, outstandingOnly, q);
+        ApiResponse<KeysetPageResponse<ReservationResponse>> response = new ApiResponse<>("success", "Reservations retrieved successfully", page);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Export reservations ordered by id as newline-delimited JSON
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) String channelCode,
+            @RequestParam(defaultValue = "false") boolean otaOnly,
+            @RequestParam(defaultValue = "false") boolean outstandingOnly,
+            @RequestParam(required = false) String q) {
+        return NdjsonResponses.<ReservationResponse>stream(objectMapper, sink -> reservationService.exportReservations(
+                afterId, status, channelCode, otaOnly, outstandingOnly, q, sink));
+    }
+
     /**
      * Get reservation by confirmation number
      */
     @GetMapping("/{confirmationNumber}")
-    public ResponseEntity<ApiResponse<Reservation>> getReservationByConfirmation(@PathVariable String confirmationNumber) {
+    public ResponseEntity<ApiResponse<ReservationResponse>> getReservationByConfirmation(@PathVariable String confirmationNumber) {
         return reservationService.getReservationByConfirmation(confirmationNumber)
                 .map(reservation -> {
-                    ApiResponse<Reservation> response = new ApiResponse<>("success", "Reservation found", reservation);
+                    ApiResponse<ReservationResponse> response = new ApiResponse<>("success", "Reservation found", reservation);
                     return ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -68,9 +155,9 @@ public class ReservationController {
      * Check-in guest
      */
     @PutMapping("/{reservationId}/checkin")
-    public ResponseEntity<ApiResponse<Reservation>> checkInGuest(@PathVariable Long reservationId) {
+    public ResponseEntity<ApiResponse<ReservationResponse>> checkInGuest(@PathVariable Long reservationId) {
         Reservation reservation = reservationService.checkInGuest(reservationId);
-        ApiResponse<Reservation> response = new ApiResponse<>("success", "Guest checked in successfully", reservation);
+        ApiResponse<ReservationResponse> response = new ApiResponse<>("success", "Guest checked in successfully", new ReservationResponse(reservation));
         return ResponseEntity.ok(response);
     }
 
@@ -78,23 +165,61 @@ public class ReservationController {
      * Check-out guest
      */
     @PutMapping("/{reservationId}/checkout")
-    public ResponseEntity<ApiResponse<Reservation>> checkOutGuest(@PathVariable Long reservationId) {
+    public ResponseEntity<ApiResponse<ReservationResponse>> checkOutGuest(@PathVariable Long reservationId) {
         Reservation reservation = reservationService.checkOutGuest(reservationId);
-        ApiResponse<Reservation> response = new ApiResponse<>("success", "Guest checked out successfully", reservation);
+        ApiResponse<ReservationResponse> response = new ApiResponse<>("success", "Guest checked out successfully", new ReservationResponse(reservation));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Cancel reservation
+     */
+    @PutMapping("/{reservationId}/cancel")
+    public ResponseEntity<ApiResponse<ReservationResponse>> cancelReservation(
+            @PathVariable Long reservationId,
+            @RequestParam(required = false) String reason) {
+        Reservation reservation = reservationService.cancelReservation(reservationId, reason);
+        ApiResponse<ReservationResponse> response = new ApiResponse<>("success", "Reservation cancelled successfully", new ReservationResponse(reservation));
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Check room availability
+     * Check room availability (runs on the read query executor)
      */
     @GetMapping("/availability")
-    public ResponseEntity<ApiResponse<List<Room>>> checkAvailability(
+    public CompletableFuture<ResponseEntity<ApiResponse<List<RoomResponse>>>> checkAvailability(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
-            @RequestParam(required = false) RoomType roomType) {
+            @RequestParam(required = false) RoomType roomType,
+            @RequestParam(required = false) String channelCode) {
         
-        List<Room> availableRooms = reservationService.checkAvailability(checkIn, checkOut, roomType);
-        ApiResponse<List<Room>> response = new ApiResponse<>("success", "Availability checked successfully", availableRooms);
+        return readQueryExecutor.submit(() -> {
+            List<RoomResponse> availableRooms = reservationService.checkAvailability(checkIn, checkOut, roomType, channelCode).stream()
+                    .map(RoomResponse::new)
+                    .collect(Collectors.toList());
+            ApiResponse<List<RoomResponse>> response = new ApiResponse<>("success", "Availability checked successfully", availableRooms);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * Compare the in-memory availability index with the database
+     */
+    @GetMapping("/availability/index/verify")
+    public ResponseEntity<ApiResponse<AvailabilityIndexStatusResponse>> verifyAvailabilityIndex() {
+        AvailabilityIndexStatusResponse status = availabilityIndex.verify();
+        ApiResponse<AvailabilityIndexStatusResponse> response = new ApiResponse<>("success", "Availability index verified", status);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rebuild the in-memory availability index from the database
+     */
+    @PostMapping("/availability/index/rebuild")
+    public ResponseEntity<ApiResponse<AvailabilityIndexStatusResponse>> rebuildAvailabilityIndex() {
+        availabilityIndex.rebuild();
+        AvailabilityIndexStatusResponse status = availabilityIndex.verify();
+        ApiResponse<AvailabilityIndexStatusResponse> response = new ApiResponse<>("success", "Availability index rebuilt", status);
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.tolimoli.pms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.KeysetPageResponse;
+import com.tolimoli.pms.dto.response.RoomResponse;
 import com.tolimoli.pms.entity.Room;
 import com.tolimoli.pms.entity.RoomType;
 import com.tolimoli.pms.entity.RoomStatus;
 import com.tolimoli.pms.service.RoomService;
+import com.tolimoli.pms.util.NdjsonResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -16,10 +20,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Room Controller - REST API for room management
@@ -32,18 +38,21 @@ public class RoomController {
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Create a new room
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Room>> createRoom(
+    public ResponseEntity<ApiResponse<RoomResponse>> createRoom(
             @RequestParam String roomNumber,
             @RequestParam RoomType roomType,
             @RequestParam Integer capacity,
             @RequestParam BigDecimal baseRate) {
         
         Room room = roomService.createRoom(roomNumber, roomType, capacity, baseRate);
-        ApiResponse<Room> response = new ApiResponse<>("success", "Room created successfully", room);
+        ApiResponse<RoomResponse> response = new ApiResponse<>("success", "Room created successfully", new RoomResponse(room));
         return ResponseEntity.ok(response);
     }
 
@@ -51,20 +60,42 @@ public class RoomController {
      * Get all rooms
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Room>>> getAllRooms() {
-        List<Room> rooms = roomService.getAllRooms();
-        ApiResponse<List<Room>> response = new ApiResponse<>("success", "Rooms retrieved successfully", rooms);
+    public ResponseEntity<ApiResponse<List<RoomResponse>>> getAllRooms() {
+        List<RoomResponse> rooms = roomService.getAllRooms().stream()
+                .map(RoomResponse::new)
+                .collect(Collectors.toList());
+        ApiResponse<List<RoomResponse>> response = new ApiResponse<>("success", "Rooms retrieved successfully", rooms);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get one page of rooms ordered by id
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<KeysetPageResponse<RoomResponse>>> getRoomPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size) {
+        KeysetPageResponse<RoomResponse> page = roomService.getRoomPage(afterId, size);
+        ApiResponse<KeysetPageResponse<RoomResponse>> response = new ApiResponse<>("success", "Rooms retrieved successfully", page);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Export rooms ordered by id as newline-delimited JSON
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportRooms(@RequestParam(required = false) Long afterId) {
+        return NdjsonResponses.<RoomResponse>stream(objectMapper, sink -> roomService.exportRooms(afterId, sink));
+    }
+
     /**
      * Get room by number
      */
     @GetMapping("/{roomNumber}")
-    public ResponseEntity<ApiResponse<Room>> getRoomByNumber(@PathVariable String roomNumber) {
+    public ResponseEntity<ApiResponse<RoomResponse>> getRoomByNumber(@PathVariable String roomNumber) {
         return roomService.getRoomByNumber(roomNumber)
                 .map(room -> {
-                    ApiResponse<Room> response = new ApiResponse<>("success", "Room found", room);
+                    ApiResponse<RoomResponse> response = new ApiResponse<>("success", "Room found", new RoomResponse(room));
                     return ResponseEntity.ok(response);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -74,13 +105,15 @@ public class RoomController {
      * Get available rooms for date range and room type
      */
     @GetMapping("/available")
-    public ResponseEntity<ApiResponse<List<Room>>> getAvailableRooms(
+    public ResponseEntity<ApiResponse<List<RoomResponse>>> getAvailableRooms(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
             @RequestParam(required = false) RoomType roomType) {
         
-        List<Room> availableRooms = roomService.getAvailableRooms(checkIn, checkOut, roomType);
-        ApiResponse<List<Room>> response = new ApiResponse<>("success", "Available rooms retrieved successfully", availableRooms);
+        List<RoomResponse> availableRooms = roomService.getAvailableRooms(checkIn, checkOut, roomType).stream()
+                .map(RoomResponse::new)
+                .collect(Collectors.toList());
+        ApiResponse<List<RoomResponse>> response = new ApiResponse<>("success", "Available rooms retrieved successfully", availableRooms);
         return ResponseEntity.ok(response);
     }
 
@@ -88,12 +121,12 @@ public class RoomController {
      * Update room status
      */
     @PutMapping("/{roomId}/status")
-    public ResponseEntity<ApiResponse<Room>> updateRoomStatus(
+    public ResponseEntity<ApiResponse<RoomResponse>> updateRoomStatus(
             @PathVariable Long roomId,
             @RequestParam RoomStatus status) {
         
         Room room = roomService.updateRoomStatus(roomId, status);
-        ApiResponse<Room> response = new ApiResponse<>("success", "Room status updated successfully", room);
+        ApiResponse<RoomResponse> response = new ApiResponse<>("success", "Room status updated successfully", new RoomResponse(room));
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
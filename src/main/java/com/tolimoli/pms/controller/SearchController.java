@@ -0,0 +1,39 @@
+package com.tolimoli.pms.controller;
+
+import com.tolimoli.pms.dto.response.ApiResponse;
+import com.tolimoli.pms.dto.response.SearchHitResponse;
+import com.tolimoli.pms.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Search Controller - REST API for front-desk guest and reservation search
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * Search guests by name, email or phone and reservations by confirmation number, best match first
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SearchHitResponse>>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+
+        List<SearchHitResponse> hits = searchService.search(q, limit);
+        ApiResponse<List<SearchHitResponse>> response = new ApiResponse<>("success", "Search completed successfully", hits);
+        return ResponseEntity.ok(response);
+    }
+}
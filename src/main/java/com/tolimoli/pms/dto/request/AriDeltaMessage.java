@@ -0,0 +1,52 @@
+package com.tolimoli.pms.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ARI Delta Message DTO - the rate and availability cells of one channel that
+ * changed since its last successful push
+ *
+ * Cells carry absolute values, so a message that is delivered twice leaves
+ * the channel in the same state.
+ */
+@Schema(description = "Rate and availability changes pushed to a channel")
+public class AriDeltaMessage {
+
+    @Schema(description = "Stable message ID, repeated on retries of the same content", example = "2-6f1c0c1e-...")
+    private String messageId;
+
+    @Schema(description = "Channel code", example = "BCM")
+    private String channelCode;
+
+    @Schema(description = "Time the message was built")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Changed cells")
+    private List<AriUpdate> updates;
+
+    // Constructors
+    public AriDeltaMessage() {}
+
+    public AriDeltaMessage(String messageId, String channelCode, LocalDateTime createdAt, List<AriUpdate> updates) {
+        this.messageId = messageId;
+        this.channelCode = channelCode;
+        this.createdAt = createdAt;
+        this.updates = updates;
+    }
+
+    // Getters and Setters
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+
+    public String getChannelCode() { return channelCode; }
+    public void setChannelCode(String channelCode) { this.channelCode = channelCode; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<AriUpdate> getUpdates() { return updates; }
+    public void setUpdates(List<AriUpdate> updates) { this.updates = updates; }
+}
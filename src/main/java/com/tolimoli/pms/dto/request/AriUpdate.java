@@ -0,0 +1,65 @@
+package com.tolimoli.pms.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.RoomType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * ARI Update DTO - rate and availability of one room on one date, as sent to a channel
+ */
+@Schema(description = "Rate and availability of one room and date")
+public class AriUpdate {
+
+    @Schema(description = "Room number", example = "101")
+    private String roomNumber;
+
+    @Schema(description = "Room type", example = "DOUBLE")
+    private RoomType roomType;
+
+    @Schema(description = "Stay date", example = "2025-01-01")
+    private LocalDate date;
+
+    @Schema(description = "Rate amount per night", example = "149.00")
+    private BigDecimal rateAmount;
+
+    @Schema(description = "Rooms available for sale", example = "1")
+    private Integer availableRooms;
+
+    @Schema(description = "Whether sales are closed", example = "false")
+    private Boolean stopSell;
+
+    // Constructors
+    public AriUpdate() {}
+
+    public AriUpdate(String roomNumber, RoomType roomType, LocalDate date, BigDecimal rateAmount,
+                     Integer availableRooms, Boolean stopSell) {
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.date = date;
+        this.rateAmount = rateAmount;
+        this.availableRooms = availableRooms;
+        this.stopSell = stopSell;
+    }
+
+    // Getters and Setters
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public RoomType getRoomType() { return roomType; }
+    public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public BigDecimal getRateAmount() { return rateAmount; }
+    public void setRateAmount(BigDecimal rateAmount) { this.rateAmount = rateAmount; }
+
+    public Integer getAvailableRooms() { return availableRooms; }
+    public void setAvailableRooms(Integer availableRooms) { this.availableRooms = availableRooms; }
+
+    public Boolean getStopSell() { return stopSell; }
+    public void setStopSell(Boolean stopSell) { this.stopSell = stopSell; }
+}
@@ -0,0 +1,91 @@
+package com.tolimoli.pms.dto.request;
+
+import javax.validation.constraints.*;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Group Booking Request DTO - a block of rooms for the same dates booked in
+ * one call, either by room number or as a number of rooms of one type
+ */
+@Schema(description = "Group / block booking")
+public class GroupBookingRequest {
+
+    @NotBlank(message = "Group name is required")
+    @Size(max = 100, message = "Group name cannot exceed 100 characters")
+    @Schema(description = "Group or event name", example = "Dental Congress 2025", required = true)
+    private String groupName;
+
+    @NotBlank(message = "Group contact email is required")
+    @Schema(description = "Email of the guest who holds the block", example = "organizer@example.com", required = true)
+    private String guestEmail;
+
+    @NotBlank(message = "Channel code is required")
+    @Schema(description = "Booking channel", example = "DIRECT", required = true)
+    private String channelCode;
+
+    @NotNull(message = "Check-in date is required")
+    @Schema(description = "Arrival date of the whole block", example = "2025-06-10", required = true)
+    private LocalDate checkInDate;
+
+    @NotNull(message = "Check-out date is required")
+    @Schema(description = "Departure date of the whole block", example = "2025-06-13", required = true)
+    private LocalDate checkOutDate;
+
+    @Schema(description = "Rooms to book; leave empty to pick roomCount rooms of roomType", example = "[\"101\", \"102\"]")
+    private List<String> roomNumbers;
+
+    @Schema(description = "Room type to pick rooms from when no room numbers are given", example = "DOUBLE")
+    private RoomType roomType;
+
+    @Min(value = 1, message = "Room count must be at least 1")
+    @Schema(description = "Number of rooms to pick when no room numbers are given", example = "150")
+    private Integer roomCount;
+
+    @NotNull(message = "Guests per room is required")
+    @Min(value = 1, message = "At least 1 guest per room is required")
+    @Schema(description = "Guests in each room", example = "2", required = true)
+    private Integer guestsPerRoom;
+
+    @Size(max = 1000, message = "Special requests cannot exceed 1000 characters")
+    @Schema(description = "Special requests applied to every room")
+    private String specialRequests;
+
+    // Constructors
+    public GroupBookingRequest() {}
+
+    // Getters and Setters
+    public String getGroupName() { return groupName; }
+    public void setGroupName(String groupName) { this.groupName = groupName; }
+
+    public String getGuestEmail() { return guestEmail; }
+    public void setGuestEmail(String guestEmail) { this.guestEmail = guestEmail; }
+
+    public String getChannelCode() { return channelCode; }
+    public void setChannelCode(String channelCode) { this.channelCode = channelCode; }
+
+    public LocalDate getCheckInDate() { return checkInDate; }
+    public void setCheckInDate(LocalDate checkInDate) { this.checkInDate = checkInDate; }
+
+    public LocalDate getCheckOutDate() { return checkOutDate; }
+    public void setCheckOutDate(LocalDate checkOutDate) { this.checkOutDate = checkOutDate; }
+
+    public List<String> getRoomNumbers() { return roomNumbers; }
+    public void setRoomNumbers(List<String> roomNumbers) { this.roomNumbers = roomNumbers; }
+
+    public RoomType getRoomType() { return roomType; }
+    public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+    public Integer getRoomCount() { return roomCount; }
+    public void setRoomCount(Integer roomCount) { this.roomCount = roomCount; }
+
+    public Integer getGuestsPerRoom() { return guestsPerRoom; }
+    public void setGuestsPerRoom(Integer guestsPerRoom) { this.guestsPerRoom = guestsPerRoom; }
+
+    public String getSpecialRequests() { return specialRequests; }
+    public void setSpecialRequests(String specialRequests) { this.specialRequests = specialRequests; }
+}
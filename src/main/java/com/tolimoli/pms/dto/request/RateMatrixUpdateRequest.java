@@ -0,0 +1,83 @@
+package com.tolimoli.pms.dto.request;
+
+import javax.validation.constraints.*;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rate Matrix Update Request DTO - one rate and availability pushed to every
+ * room x channel x date cell of the request
+ */
+@Schema(description = "Bulk rate and availability update for rooms x channels x dates")
+public class RateMatrixUpdateRequest {
+
+    @NotEmpty(message = "At least one room is required")
+    @Schema(description = "Room IDs", example = "[1, 2, 3]", required = true)
+    private List<Long> roomIds;
+
+    @NotEmpty(message = "At least one channel is required")
+    @Schema(description = "Channel IDs", example = "[1, 2]", required = true)
+    private List<Long> channelIds;
+
+    @NotNull(message = "Start date is required")
+    @Schema(description = "First date of the range (inclusive)", example = "2025-01-01", required = true)
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    @Schema(description = "Last date of the range (inclusive)", example = "2025-12-31", required = true)
+    private LocalDate endDate;
+
+    @NotNull(message = "Rate amount is required")
+    @DecimalMin(value = "0.0", message = "Rate amount cannot be negative")
+    @Digits(integer = 8, fraction = 2, message = "Rate amount format is invalid")
+    @Schema(description = "Rate amount per night", example = "149.00", required = true)
+    private BigDecimal rateAmount;
+
+    @NotNull(message = "Availability is required")
+    @Min(value = 0, message = "Availability cannot be negative")
+    @Schema(description = "Rooms available for sale", example = "1", required = true)
+    private Integer availableRooms;
+
+    @Size(max = 255, message = "Restrictions cannot exceed 255 characters")
+    @Schema(description = "Restrictions to set, comma separated; omitted leaves them unchanged, empty clears them",
+            example = "MIN_STAY_2, NO_ARRIVAL_SUNDAY")
+    private String restrictions;
+
+    // Constructors
+    public RateMatrixUpdateRequest() {}
+
+    public RateMatrixUpdateRequest(List<Long> roomIds, List<Long> channelIds, LocalDate startDate,
+                                   LocalDate endDate, BigDecimal rateAmount, Integer availableRooms) {
+        this.roomIds = roomIds;
+        this.channelIds = channelIds;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.rateAmount = rateAmount;
+        this.availableRooms = availableRooms;
+    }
+
+    // Getters and Setters
+    public List<Long> getRoomIds() { return roomIds; }
+    public void setRoomIds(List<Long> roomIds) { this.roomIds = roomIds; }
+
+    public List<Long> getChannelIds() { return channelIds; }
+    public void setChannelIds(List<Long> channelIds) { this.channelIds = channelIds; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public BigDecimal getRateAmount() { return rateAmount; }
+    public void setRateAmount(BigDecimal rateAmount) { this.rateAmount = rateAmount; }
+
+    public Integer getAvailableRooms() { return availableRooms; }
+    public void setAvailableRooms(Integer availableRooms) { this.availableRooms = availableRooms; }
+
+    public String getRestrictions() { return restrictions; }
+    public void setRestrictions(String restrictions) { this.restrictions = restrictions; }
+}
@@ -0,0 +1,58 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.AriOutboxStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * ARI Outbox Status Response DTO - undelivered rate and availability changes
+ * of one channel in one state
+ */
+@Schema(description = "Channel distribution backlog")
+public class AriOutboxStatusResponse {
+
+    @Schema(description = "Channel ID", example = "2")
+    private Long channelId;
+
+    @Schema(description = "Entry state", example = "PENDING")
+    private AriOutboxStatus status;
+
+    @Schema(description = "Number of channel / room / date cells", example = "365")
+    private Long entries;
+
+    @Schema(description = "Oldest change still waiting")
+    private LocalDateTime oldestChange;
+
+    @Schema(description = "Highest number of failed attempts", example = "0")
+    private Integer maxAttempts;
+
+    // Constructors
+    public AriOutboxStatusResponse() {}
+
+    public AriOutboxStatusResponse(Long channelId, AriOutboxStatus status, Long entries,
+                                   LocalDateTime oldestChange, Integer maxAttempts) {
+        this.channelId = channelId;
+        this.status = status;
+        this.entries = entries;
+        this.oldestChange = oldestChange;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Getters and Setters
+    public Long getChannelId() { return channelId; }
+    public void setChannelId(Long channelId) { this.channelId = channelId; }
+
+    public AriOutboxStatus getStatus() { return status; }
+    public void setStatus(AriOutboxStatus status) { this.status = status; }
+
+    public Long getEntries() { return entries; }
+    public void setEntries(Long entries) { this.entries = entries; }
+
+    public LocalDateTime getOldestChange() { return oldestChange; }
+    public void setOldestChange(LocalDateTime oldestChange) { this.oldestChange = oldestChange; }
+
+    public Integer getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(Integer maxAttempts) { this.maxAttempts = maxAttempts; }
+}
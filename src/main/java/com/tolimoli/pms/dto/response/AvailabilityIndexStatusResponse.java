@@ -0,0 +1,57 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Availability Index Status Response DTO - result of comparing the in-memory
+ * availability index with the reservations table
+ */
+@Schema(description = "Availability index consistency check result")
+public class AvailabilityIndexStatusResponse {
+
+    @Schema(description = "Whether the index has been built", example = "true")
+    private Boolean ready;
+
+    @Schema(description = "Number of rooms compared", example = "120")
+    private Integer roomsChecked;
+
+    @Schema(description = "Rooms whose booked nights differ from the database")
+    private List<Long> mismatchedRoomIds;
+
+    @Schema(description = "Whether the index matches the database", example = "true")
+    private Boolean consistent;
+
+    @Schema(description = "Check timestamp")
+    private LocalDateTime checkedAt;
+
+    // Constructors
+    public AvailabilityIndexStatusResponse() {}
+
+    public AvailabilityIndexStatusResponse(Boolean ready, Integer roomsChecked,
+                                           List<Long> mismatchedRoomIds, LocalDateTime checkedAt) {
+        this.ready = ready;
+        this.roomsChecked = roomsChecked;
+        this.mismatchedRoomIds = mismatchedRoomIds;
+        this.consistent = mismatchedRoomIds == null || mismatchedRoomIds.isEmpty();
+        this.checkedAt = checkedAt;
+    }
+
+    // Getters and Setters
+    public Boolean getReady() { return ready; }
+    public void setReady(Boolean ready) { this.ready = ready; }
+
+    public Integer getRoomsChecked() { return roomsChecked; }
+    public void setRoomsChecked(Integer roomsChecked) { this.roomsChecked = roomsChecked; }
+
+    public List<Long> getMismatchedRoomIds() { return mismatchedRoomIds; }
+    public void setMismatchedRoomIds(List<Long> mismatchedRoomIds) { this.mismatchedRoomIds = mismatchedRoomIds; }
+
+    public Boolean getConsistent() { return consistent; }
+    public void setConsistent(Boolean consistent) { this.consistent = consistent; }
+
+    public LocalDateTime getCheckedAt() { return checkedAt; }
+    public void setCheckedAt(LocalDateTime checkedAt) { this.checkedAt = checkedAt; }
+}
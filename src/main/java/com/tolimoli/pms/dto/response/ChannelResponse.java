@@ -2,6 +2,8 @@ package com.tolimoli.pms.dto.response;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import com.tolimoli.pms.entity.Channel;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -58,6 +60,18 @@ public class ChannelResponse {
         this.hasApiIntegration = apiEndpoint != null && !apiEndpoint.trim().isEmpty();
     }
     
+    /**
+     * Map a channel entity; API credentials are never exposed
+     */
+    public ChannelResponse(Channel channel) {
+        this(channel.getId(), channel.getChannelName(), channel.getChannelCode(),
+                channel.getCommissionRate(), channel.getIsActive());
+        setApiEndpoint(channel.getApiEndpoint());
+        this.description = channel.getDescription();
+        this.createdAt = channel.getCreatedAt();
+        this.updatedAt = channel.getUpdatedAt();
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
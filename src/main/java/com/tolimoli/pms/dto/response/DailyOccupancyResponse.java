@@ -0,0 +1,51 @@
+package com.tolimoli.pms.dto.response;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Daily Occupancy Response DTO
+ */
+@Schema(description = "Rooms sold and occupancy for one stay date")
+public class DailyOccupancyResponse {
+
+    @Schema(description = "Stay date")
+    private LocalDate date;
+
+    @Schema(description = "Rooms sold", example = "58")
+    private Long roomsSold;
+
+    @Schema(description = "Sellable rooms", example = "80")
+    private Long totalRooms;
+
+    @Schema(description = "Occupancy percentage", example = "72.50")
+    private BigDecimal occupancyRate;
+
+    // Constructors
+    public DailyOccupancyResponse() {}
+
+    public DailyOccupancyResponse(LocalDate date, Long roomsSold, Long totalRooms) {
+        this.date = date;
+        this.roomsSold = roomsSold;
+        this.totalRooms = totalRooms;
+        this.occupancyRate = totalRooms != null && totalRooms > 0
+                ? new BigDecimal(roomsSold * 100).divide(new BigDecimal(totalRooms), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Long getRoomsSold() { return roomsSold; }
+    public void setRoomsSold(Long roomsSold) { this.roomsSold = roomsSold; }
+
+    public Long getTotalRooms() { return totalRooms; }
+    public void setTotalRooms(Long totalRooms) { this.totalRooms = totalRooms; }
+
+    public BigDecimal getOccupancyRate() { return occupancyRate; }
+    public void setOccupancyRate(BigDecimal occupancyRate) { this.occupancyRate = occupancyRate; }
+}
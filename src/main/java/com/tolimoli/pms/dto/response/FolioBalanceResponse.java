@@ -0,0 +1,68 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+/**
+ * Folio Balance Response DTO - charges, payments, refunds and outstanding
+ * amount of a reservation folio
+ */
+@Schema(description = "Folio balance of a reservation")
+public class FolioBalanceResponse {
+
+    @Schema(description = "Reservation ID", example = "1")
+    private Long reservationId;
+
+    @Schema(description = "Sum of all folio charges", example = "450.00")
+    private BigDecimal totalCharges;
+
+    @Schema(description = "Sum of completed payments", example = "300.00")
+    private BigDecimal totalPayments;
+
+    @Schema(description = "Sum of refunds given back to the guest", example = "50.00")
+    private BigDecimal totalRefunds;
+
+    @Schema(description = "Amount still owed (charges - payments + refunds)", example = "200.00")
+    private BigDecimal outstandingBalance;
+
+    @Schema(description = "Whether the folio is fully paid", example = "false")
+    private Boolean isFullyPaid;
+
+    // Constructors
+    public FolioBalanceResponse() {}
+
+    /**
+     * Used by the folio balance JPQL projection, from the reservation's running
+     * totals; paidAmount is net of refunds, which are stored as negative
+     * payment amounts and reported here as a positive sum
+     */
+    public FolioBalanceResponse(Long reservationId, BigDecimal totalAmount,
+                                BigDecimal paidAmount, BigDecimal refundAmounts) {
+        this.reservationId = reservationId;
+        this.totalCharges = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+        this.totalRefunds = refundAmounts != null ? refundAmounts.abs() : BigDecimal.ZERO;
+        this.totalPayments = (paidAmount != null ? paidAmount : BigDecimal.ZERO).add(this.totalRefunds);
+        this.outstandingBalance = this.totalCharges.subtract(this.totalPayments).add(this.totalRefunds);
+        this.isFullyPaid = outstandingBalance.compareTo(BigDecimal.ZERO) <= 0;
+    }
+
+    // Getters and Setters
+    public Long getReservationId() { return reservationId; }
+    public void setReservationId(Long reservationId) { this.reservationId = reservationId; }
+
+    public BigDecimal getTotalCharges() { return totalCharges; }
+    public void setTotalCharges(BigDecimal totalCharges) { this.totalCharges = totalCharges; }
+
+    public BigDecimal getTotalPayments() { return totalPayments; }
+    public void setTotalPayments(BigDecimal totalPayments) { this.totalPayments = totalPayments; }
+
+    public BigDecimal getTotalRefunds() { return totalRefunds; }
+    public void setTotalRefunds(BigDecimal totalRefunds) { this.totalRefunds = totalRefunds; }
+
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public void setOutstandingBalance(BigDecimal outstandingBalance) { this.outstandingBalance = outstandingBalance; }
+
+    public Boolean getIsFullyPaid() { return isFullyPaid; }
+    public void setIsFullyPaid(Boolean isFullyPaid) { this.isFullyPaid = isFullyPaid; }
+}
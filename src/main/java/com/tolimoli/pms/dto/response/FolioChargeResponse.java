@@ -0,0 +1,105 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.ChargeType;
+import com.tolimoli.pms.entity.FolioCharge;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Folio Charge Response DTO
+ */
+@Schema(description = "Folio charge response data")
+public class FolioChargeResponse {
+
+    @Schema(description = "Charge ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Reservation ID", example = "1")
+    private Long reservationId;
+
+    @Schema(description = "Charge type", example = "SERVICE")
+    private ChargeType chargeType;
+
+    @Schema(description = "Description", example = "Minibar")
+    private String description;
+
+    @Schema(description = "Charge amount", example = "24.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Unit price", example = "12.00")
+    private BigDecimal unitPrice;
+
+    @Schema(description = "Quantity", example = "2")
+    private Integer quantity;
+
+    @Schema(description = "Date the charge applies to")
+    private LocalDate chargeDate;
+
+    @Schema(description = "Whether the charge has been settled", example = "false")
+    private Boolean isPaid;
+
+    @Schema(description = "Creation timestamp")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public FolioChargeResponse() {}
+
+    /**
+     * Used by JPQL projections so folio listings need a single query
+     */
+    public FolioChargeResponse(Long id, Long reservationId, ChargeType chargeType, String description,
+                               BigDecimal amount, BigDecimal unitPrice, Integer quantity,
+                               LocalDate chargeDate, Boolean isPaid, LocalDateTime createdAt) {
+        this.id = id;
+        this.reservationId = reservationId;
+        this.chargeType = chargeType;
+        this.description = description;
+        this.amount = amount;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.chargeDate = chargeDate;
+        this.isPaid = isPaid;
+        this.createdAt = createdAt;
+    }
+
+    public FolioChargeResponse(FolioCharge charge) {
+        this(charge.getId(), charge.getReservation().getId(), charge.getChargeType(), charge.getDescription(),
+                charge.getAmount(), charge.getUnitPrice(), charge.getQuantity(), charge.getChargeDate(),
+                charge.getIsPaid(), charge.getCreatedAt());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getReservationId() { return reservationId; }
+    public void setReservationId(Long reservationId) { this.reservationId = reservationId; }
+
+    public ChargeType getChargeType() { return chargeType; }
+    public void setChargeType(ChargeType chargeType) { this.chargeType = chargeType; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public LocalDate getChargeDate() { return chargeDate; }
+    public void setChargeDate(LocalDate chargeDate) { this.chargeDate = chargeDate; }
+
+    public Boolean getIsPaid() { return isPaid; }
+    public void setIsPaid(Boolean isPaid) { this.isPaid = isPaid; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
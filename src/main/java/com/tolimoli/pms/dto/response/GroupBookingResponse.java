@@ -0,0 +1,78 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.Reservation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group Booking Response DTO - summary of a booked room block and its reservations
+ */
+@Schema(description = "Booked room block")
+public class GroupBookingResponse {
+
+    @Schema(description = "Group or event name", example = "Dental Congress 2025")
+    private String groupName;
+
+    @Schema(description = "Arrival date", example = "2025-06-10")
+    private LocalDate checkInDate;
+
+    @Schema(description = "Departure date", example = "2025-06-13")
+    private LocalDate checkOutDate;
+
+    @Schema(description = "Rooms booked", example = "150")
+    private Integer rooms;
+
+    @Schema(description = "Room nights booked", example = "450")
+    private Long roomNights;
+
+    @Schema(description = "Room charges of the whole block", example = "45000.00")
+    private BigDecimal totalAmount;
+
+    @Schema(description = "One reservation per room")
+    private List<ReservationResponse> reservations;
+
+    // Constructors
+    public GroupBookingResponse() {}
+
+    public GroupBookingResponse(String groupName, List<Reservation> reservations) {
+        this.groupName = groupName;
+        this.rooms = reservations.size();
+        this.roomNights = 0L;
+        this.totalAmount = BigDecimal.ZERO;
+        this.reservations = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            this.checkInDate = reservation.getCheckInDate();
+            this.checkOutDate = reservation.getCheckOutDate();
+            this.roomNights += reservation.getDurationInDays();
+            this.totalAmount = this.totalAmount.add(reservation.getTotalAmount());
+            this.reservations.add(new ReservationResponse(reservation));
+        }
+    }
+
+    // Getters and Setters
+    public String getGroupName() { return groupName; }
+    public void setGroupName(String groupName) { this.groupName = groupName; }
+
+    public LocalDate getCheckInDate() { return checkInDate; }
+    public void setCheckInDate(LocalDate checkInDate) { this.checkInDate = checkInDate; }
+
+    public LocalDate getCheckOutDate() { return checkOutDate; }
+    public void setCheckOutDate(LocalDate checkOutDate) { this.checkOutDate = checkOutDate; }
+
+    public Integer getRooms() { return rooms; }
+    public void setRooms(Integer rooms) { this.rooms = rooms; }
+
+    public Long getRoomNights() { return roomNights; }
+    public void setRoomNights(Long roomNights) { this.roomNights = roomNights; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public List<ReservationResponse> getReservations() { return reservations; }
+    public void setReservations(List<ReservationResponse> reservations) { this.reservations = reservations; }
+}
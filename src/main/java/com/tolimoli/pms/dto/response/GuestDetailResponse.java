@@ -1,11 +1,14 @@
 package com.tolimoli.pms.dto.response;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import com.tolimoli.pms.entity.Guest;
+
 /**
  * Guest Detail Response DTO - Complete guest information
  */
@@ -69,6 +72,49 @@ public class GuestDetailResponse extends GuestResponse {
     @Schema(description = "Last update timestamp")
     private LocalDateTime lastUpdated;
     
+    // Constructors
+    public GuestDetailResponse() {}
+    
+    public GuestDetailResponse(Guest guest) {
+        super(guest.getId(), guest.getFirstName(), guest.getLastName(), guest.getEmail());
+        setPhone(guest.getPhone());
+        setCountry(guest.getCountry());
+        setRegistrationDate(guest.getCreatedAt());
+        this.idNumber = guest.getIdNumber();
+        this.idType = guest.getIdType() != null ? guest.getIdType().name() : null;
+        setDateOfBirth(guest.getDateOfBirth());
+        this.address = guest.getAddress();
+        this.city = guest.getCity();
+        this.fullAddress = joinAddress(guest.getAddress(), guest.getCity(), guest.getCountry());
+        this.preferences = guest.getPreferences();
+        this.lastUpdated = guest.getUpdatedAt();
+    }
+    
+    /**
+     * Fill in stay history: completed stays, amount spent on them and the last departure
+     */
+    public void applyStayHistory(long stays, BigDecimal spent, LocalDate lastStay) {
+        setTotalStays((int) stays);
+        setTotalSpent(spent);
+        setLastStayDate(lastStay);
+        if (stays > 0 && spent != null) {
+            this.averageSpendingPerStay = spent.divide(new BigDecimal(stays), 2, RoundingMode.HALF_UP);
+        }
+    }
+    
+    private static String joinAddress(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.trim().isEmpty()) {
+                if (joined.length() > 0) {
+                    joined.append(", ");
+                }
+                joined.append(part.trim());
+            }
+        }
+        return joined.length() > 0 ? joined.toString() : null;
+    }
+    
     // Getters and Setters
     public String getIdNumber() { return idNumber; }
     public void setIdNumber(String idNumber) { this.idNumber = idNumber; }
@@ -0,0 +1,75 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset Page Response DTO - one page of a list ordered by id, with the
+ * cursor to pass as afterId for the next page
+ */
+@Schema(description = "Page of results ordered by id")
+public class KeysetPageResponse<T> {
+
+    public static final int DEFAULT_SIZE = 100;
+
+    public static final int MAX_SIZE = 500;
+
+    @Schema(description = "Results on this page")
+    private List<T> items;
+
+    @Schema(description = "Number of results on this page", example = "100")
+    private Integer size;
+
+    @Schema(description = "Whether more results follow", example = "true")
+    private Boolean hasMore;
+
+    @Schema(description = "Value to pass as afterId for the next page", example = "1234")
+    private Long nextAfterId;
+
+    // Constructors
+    public KeysetPageResponse() {}
+
+    /**
+     * Build a page from up to size + 1 rows; the extra row only signals that
+     * another page exists and is dropped
+     */
+    public static <E, T> KeysetPageResponse<T> of(List<E> rows, int size, Function<E, Long> idOf,
+                                                  Function<E, T> mapper) {
+        KeysetPageResponse<T> page = new KeysetPageResponse<>();
+        page.hasMore = rows.size() > size;
+        List<E> pageRows = page.hasMore ? rows.subList(0, size) : rows;
+        page.items = new ArrayList<>(pageRows.size());
+        for (E row : pageRows) {
+            page.items.add(mapper.apply(row));
+        }
+        page.size = page.items.size();
+        page.nextAfterId = pageRows.isEmpty() ? null : idOf.apply(pageRows.get(pageRows.size() - 1));
+        return page;
+    }
+
+    public static int validateSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+
+    public Long getNextAfterId() { return nextAfterId; }
+    public void setNextAfterId(Long nextAfterId) { this.nextAfterId = nextAfterId; }
+}
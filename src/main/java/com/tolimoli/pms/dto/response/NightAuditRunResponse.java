@@ -0,0 +1,100 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.NightAuditRun;
+import com.tolimoli.pms.entity.NightAuditStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Night Audit Run Response DTO - progress and totals of one business date's audit
+ */
+@Schema(description = "Night audit run")
+public class NightAuditRunResponse {
+
+    @Schema(description = "Run ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Audited business date", example = "2024-03-14")
+    private LocalDate businessDate;
+
+    @Schema(description = "Run state", example = "COMPLETED")
+    private NightAuditStatus status;
+
+    @Schema(description = "When the latest attempt started")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "When the run completed")
+    private LocalDateTime completedAt;
+
+    @Schema(description = "In-house reservations charged for the night", example = "1850")
+    private Integer reservationsAudited;
+
+    @Schema(description = "Room charges posted because none had been pre-posted", example = "0")
+    private Integer roomChargesPosted;
+
+    @Schema(description = "Room tax charges posted", example = "1850")
+    private Integer taxChargesPosted;
+
+    @Schema(description = "Reservations marked as no-show", example = "12")
+    private Integer noShows;
+
+    @Schema(description = "Guests still checked in past their departure date", example = "3")
+    private Integer overdueDepartures;
+
+    @Schema(description = "Failure of the latest attempt")
+    private String lastError;
+
+    // Constructors
+    public NightAuditRunResponse() {}
+
+    public NightAuditRunResponse(NightAuditRun run) {
+        this.id = run.getId();
+        this.businessDate = run.getBusinessDate();
+        this.status = run.getStatus();
+        this.startedAt = run.getStartedAt();
+        this.completedAt = run.getCompletedAt();
+        this.reservationsAudited = run.getReservationsAudited();
+        this.roomChargesPosted = run.getRoomChargesPosted();
+        this.taxChargesPosted = run.getTaxChargesPosted();
+        this.noShows = run.getNoShows();
+        this.overdueDepartures = run.getOverdueDepartures();
+        this.lastError = run.getLastError();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getBusinessDate() { return businessDate; }
+    public void setBusinessDate(LocalDate businessDate) { this.businessDate = businessDate; }
+
+    public NightAuditStatus getStatus() { return status; }
+    public void setStatus(NightAuditStatus status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public Integer getReservationsAudited() { return reservationsAudited; }
+    public void setReservationsAudited(Integer reservationsAudited) { this.reservationsAudited = reservationsAudited; }
+
+    public Integer getRoomChargesPosted() { return roomChargesPosted; }
+    public void setRoomChargesPosted(Integer roomChargesPosted) { this.roomChargesPosted = roomChargesPosted; }
+
+    public Integer getTaxChargesPosted() { return taxChargesPosted; }
+    public void setTaxChargesPosted(Integer taxChargesPosted) { this.taxChargesPosted = taxChargesPosted; }
+
+    public Integer getNoShows() { return noShows; }
+    public void setNoShows(Integer noShows) { this.noShows = noShows; }
+
+    public Integer getOverdueDepartures() { return overdueDepartures; }
+    public void setOverdueDepartures(Integer overdueDepartures) { this.overdueDepartures = overdueDepartures; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
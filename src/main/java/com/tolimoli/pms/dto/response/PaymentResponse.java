@@ -0,0 +1,91 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.Payment;
+import com.tolimoli.pms.entity.PaymentMethod;
+import com.tolimoli.pms.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payment Response DTO
+ */
+@Schema(description = "Payment response data")
+public class PaymentResponse {
+
+    @Schema(description = "Payment ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Reservation ID", example = "1")
+    private Long reservationId;
+
+    @Schema(description = "Amount, negative for refunds", example = "250.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Payment method", example = "CREDIT_CARD")
+    private PaymentMethod paymentMethod;
+
+    @Schema(description = "Payment status", example = "COMPLETED")
+    private PaymentStatus paymentStatus;
+
+    @Schema(description = "Processor transaction ID", example = "TXN-123456")
+    private String transactionId;
+
+    @Schema(description = "Last four card digits", example = "4242")
+    private String cardLastFour;
+
+    @Schema(description = "Payment timestamp")
+    private LocalDateTime paymentDate;
+
+    // Constructors
+    public PaymentResponse() {}
+
+    /**
+     * Used by JPQL projections so payment listings need a single query
+     */
+    public PaymentResponse(Long id, Long reservationId, BigDecimal amount, PaymentMethod paymentMethod,
+                           PaymentStatus paymentStatus, String transactionId, String cardLastFour,
+                           LocalDateTime paymentDate) {
+        this.id = id;
+        this.reservationId = reservationId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.paymentStatus = paymentStatus;
+        this.transactionId = transactionId;
+        this.cardLastFour = cardLastFour;
+        this.paymentDate = paymentDate;
+    }
+
+    public PaymentResponse(Payment payment) {
+        this(payment.getId(), payment.getReservation().getId(), payment.getAmount(), payment.getPaymentMethod(),
+                payment.getPaymentStatus(), payment.getTransactionId(), payment.getCardLastFour(),
+                payment.getPaymentDate());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getReservationId() { return reservationId; }
+    public void setReservationId(Long reservationId) { this.reservationId = reservationId; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public String getTransactionId() { return transactionId; }
+    public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
+
+    public String getCardLastFour() { return cardLastFour; }
+    public void setCardLastFour(String cardLastFour) { this.cardLastFour = cardLastFour; }
+
+    public LocalDateTime getPaymentDate() { return paymentDate; }
+    public void setPaymentDate(LocalDateTime paymentDate) { this.paymentDate = paymentDate; }
+}
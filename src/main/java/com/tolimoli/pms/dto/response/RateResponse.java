@@ -0,0 +1,106 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.Rate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rate Response DTO - one room / channel / date rate cell
+ */
+@Schema(description = "Rate response data")
+public class RateResponse {
+
+    @Schema(description = "Rate ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Room ID", example = "1")
+    private Long roomId;
+
+    @Schema(description = "Room number", example = "101")
+    private String roomNumber;
+
+    @Schema(description = "Channel ID", example = "2")
+    private Long channelId;
+
+    @Schema(description = "Channel code", example = "BCM")
+    private String channelCode;
+
+    @Schema(description = "Stay date")
+    private LocalDate rateDate;
+
+    @Schema(description = "Nightly rate", example = "135.00")
+    private BigDecimal rateAmount;
+
+    @Schema(description = "Rooms still sellable on this channel", example = "3")
+    private Integer availableRooms;
+
+    @Schema(description = "Whether sales are blocked", example = "false")
+    private Boolean isBlocked;
+
+    @Schema(description = "Booking restrictions", example = "MIN_STAY_2")
+    private String restrictions;
+
+    // Constructors
+    public RateResponse() {}
+
+    /**
+     * Used by JPQL projections so rate lists need a single query
+     */
+    public RateResponse(Long id, Long roomId, String roomNumber, Long channelId, String channelCode,
+                        LocalDate rateDate, BigDecimal rateAmount, Integer availableRooms,
+                        Boolean isBlocked, String restrictions) {
+        this.id = id;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.channelId = channelId;
+        this.channelCode = channelCode;
+        this.rateDate = rateDate;
+        this.rateAmount = rateAmount;
+        this.availableRooms = availableRooms;
+        this.isBlocked = isBlocked;
+        this.restrictions = restrictions;
+    }
+
+    /**
+     * Map a rate whose room and channel are already loaded
+     */
+    public RateResponse(Rate rate) {
+        this(rate.getId(), rate.getRoom().getId(), rate.getRoom().getRoomNumber(),
+                rate.getChannel().getId(), rate.getChannel().getChannelCode(), rate.getRateDate(),
+                rate.getRateAmount(), rate.getAvailableRooms(), rate.getIsBlocked(), rate.getRestrictions());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public Long getChannelId() { return channelId; }
+    public void setChannelId(Long channelId) { this.channelId = channelId; }
+
+    public String getChannelCode() { return channelCode; }
+    public void setChannelCode(String channelCode) { this.channelCode = channelCode; }
+
+    public LocalDate getRateDate() { return rateDate; }
+    public void setRateDate(LocalDate rateDate) { this.rateDate = rateDate; }
+
+    public BigDecimal getRateAmount() { return rateAmount; }
+    public void setRateAmount(BigDecimal rateAmount) { this.rateAmount = rateAmount; }
+
+    public Integer getAvailableRooms() { return availableRooms; }
+    public void setAvailableRooms(Integer availableRooms) { this.availableRooms = availableRooms; }
+
+    public Boolean getIsBlocked() { return isBlocked; }
+    public void setIsBlocked(Boolean isBlocked) { this.isBlocked = isBlocked; }
+
+    public String getRestrictions() { return restrictions; }
+    public void setRestrictions(String restrictions) { this.restrictions = restrictions; }
+}
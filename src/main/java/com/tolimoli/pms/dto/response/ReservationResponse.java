@@ -0,0 +1,248 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Guest;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.entity.ReservationStatus;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reservation Response DTO - reservation with its guest, room and channel flattened
+ */
+@Schema(description = "Reservation response data")
+public class ReservationResponse {
+
+    @Schema(description = "Reservation ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Confirmation number", example = "RES-20250101-0012345674")
+    private String confirmationNumber;
+
+    @Schema(description = "OTA confirmation number", example = "BCM-887766")
+    private String externalConfirmationNumber;
+
+    @Schema(description = "Reservation status", example = "CONFIRMED")
+    private ReservationStatus status;
+
+    @Schema(description = "Guest ID", example = "1")
+    private Long guestId;
+
+    @Schema(description = "Guest full name", example = "John Smith")
+    private String guestName;
+
+    @Schema(description = "Guest email", example = "john.smith@email.com")
+    private String guestEmail;
+
+    @Schema(description = "Room ID", example = "1")
+    private Long roomId;
+
+    @Schema(description = "Room number", example = "101")
+    private String roomNumber;
+
+    @Schema(description = "Room type", example = "DOUBLE")
+    private RoomType roomType;
+
+    @Schema(description = "Channel ID", example = "1")
+    private Long channelId;
+
+    @Schema(description = "Channel code", example = "DIRECT")
+    private String channelCode;
+
+    @Schema(description = "Channel name", example = "Direct")
+    private String channelName;
+
+    @Schema(description = "Check-in date")
+    private LocalDate checkInDate;
+
+    @Schema(description = "Check-out date")
+    private LocalDate checkOutDate;
+
+    @Schema(description = "Number of nights", example = "3")
+    private Long nights;
+
+    @Schema(description = "Actual check-in time")
+    private LocalDateTime actualCheckInTime;
+
+    @Schema(description = "Actual check-out time")
+    private LocalDateTime actualCheckOutTime;
+
+    @Schema(description = "Number of adults", example = "2")
+    private Integer numberOfGuests;
+
+    @Schema(description = "Number of children", example = "0")
+    private Integer numberOfChildren;
+
+    @Schema(description = "Total charges", example = "360.00")
+    private BigDecimal totalAmount;
+
+    @Schema(description = "Tax included in total", example = "0.00")
+    private BigDecimal taxAmount;
+
+    @Schema(description = "Discounts applied", example = "0.00")
+    private BigDecimal discountAmount;
+
+    @Schema(description = "Net amount paid", example = "100.00")
+    private BigDecimal paidAmount;
+
+    @Schema(description = "Balance due", example = "260.00")
+    private BigDecimal outstandingBalance;
+
+    @Schema(description = "Special requests", example = "Late arrival")
+    private String specialRequests;
+
+    @Schema(description = "Cancellation reason")
+    private String cancellationReason;
+
+    @Schema(description = "Cancellation timestamp")
+    private LocalDateTime cancellationDate;
+
+    @Schema(description = "Creation timestamp")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Last update timestamp")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ReservationResponse() {}
+
+    /**
+     * Map a reservation whose guest, room and channel are already loaded
+     */
+    public ReservationResponse(Reservation reservation) {
+        this.id = reservation.getId();
+        this.confirmationNumber = reservation.getConfirmationNumber();
+        this.externalConfirmationNumber = reservation.getExternalConfirmationNumber();
+        this.status = reservation.getStatus();
+
+        Guest guest = reservation.getGuest();
+        this.guestId = guest.getId();
+        this.guestName = guest.getFullName();
+        this.guestEmail = guest.getEmail();
+
+        Room room = reservation.getRoom();
+        this.roomId = room.getId();
+        this.roomNumber = room.getRoomNumber();
+        this.roomType = room.getRoomType();
+
+        Channel channel = reservation.getChannel();
+        this.channelId = channel.getId();
+        this.channelCode = channel.getChannelCode();
+        this.channelName = channel.getChannelName();
+
+        this.checkInDate = reservation.getCheckInDate();
+        this.checkOutDate = reservation.getCheckOutDate();
+        this.nights = reservation.getDurationInDays();
+        this.actualCheckInTime = reservation.getActualCheckInTime();
+        this.actualCheckOutTime = reservation.getActualCheckOutTime();
+        this.numberOfGuests = reservation.getNumberOfGuests();
+        this.numberOfChildren = reservation.getNumberOfChildren();
+        this.totalAmount = reservation.getTotalAmount();
+        this.taxAmount = reservation.getTaxAmount();
+        this.discountAmount = reservation.getDiscountAmount();
+        this.paidAmount = reservation.getPaidAmount();
+        this.outstandingBalance = reservation.getOutstandingBalance();
+        this.specialRequests = reservation.getSpecialRequests();
+        this.cancellationReason = reservation.getCancellationReason();
+        this.cancellationDate = reservation.getCancellationDate();
+        this.createdAt = reservation.getCreatedAt();
+        this.updatedAt = reservation.getUpdatedAt();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getConfirmationNumber() { return confirmationNumber; }
+    public void setConfirmationNumber(String confirmationNumber) { this.confirmationNumber = confirmationNumber; }
+
+    public String getExternalConfirmationNumber() { return externalConfirmationNumber; }
+    public void setExternalConfirmationNumber(String externalConfirmationNumber) { this.externalConfirmationNumber = externalConfirmationNumber; }
+
+    public ReservationStatus getStatus() { return status; }
+    public void setStatus(ReservationStatus status) { this.status = status; }
+
+    public Long getGuestId() { return guestId; }
+    public void setGuestId(Long guestId) { this.guestId = guestId; }
+
+    public String getGuestName() { return guestName; }
+    public void setGuestName(String guestName) { this.guestName = guestName; }
+
+    public String getGuestEmail() { return guestEmail; }
+    public void setGuestEmail(String guestEmail) { this.guestEmail = guestEmail; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public RoomType getRoomType() { return roomType; }
+    public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+    public Long getChannelId() { return channelId; }
+    public void setChannelId(Long channelId) { this.channelId = channelId; }
+
+    public String getChannelCode() { return channelCode; }
+    public void setChannelCode(String channelCode) { this.channelCode = channelCode; }
+
+    public String getChannelName() { return channelName; }
+    public void setChannelName(String channelName) { this.channelName = channelName; }
+
+    public LocalDate getCheckInDate() { return checkInDate; }
+    public void setCheckInDate(LocalDate checkInDate) { this.checkInDate = checkInDate; }
+
+    public LocalDate getCheckOutDate() { return checkOutDate; }
+    public void setCheckOutDate(LocalDate checkOutDate) { this.checkOutDate = checkOutDate; }
+
+    public Long getNights() { return nights; }
+    public void setNights(Long nights) { this.nights = nights; }
+
+    public LocalDateTime getActualCheckInTime() { return actualCheckInTime; }
+    public void setActualCheckInTime(LocalDateTime actualCheckInTime) { this.actualCheckInTime = actualCheckInTime; }
+
+    public LocalDateTime getActualCheckOutTime() { return actualCheckOutTime; }
+    public void setActualCheckOutTime(LocalDateTime actualCheckOutTime) { this.actualCheckOutTime = actualCheckOutTime; }
+
+    public Integer getNumberOfGuests() { return numberOfGuests; }
+    public void setNumberOfGuests(Integer numberOfGuests) { this.numberOfGuests = numberOfGuests; }
+
+    public Integer getNumberOfChildren() { return numberOfChildren; }
+    public void setNumberOfChildren(Integer numberOfChildren) { this.numberOfChildren = numberOfChildren; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public BigDecimal getTaxAmount() { return taxAmount; }
+    public void setTaxAmount(BigDecimal taxAmount) { this.taxAmount = taxAmount; }
+
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
+    public BigDecimal getPaidAmount() { return paidAmount; }
+    public void setPaidAmount(BigDecimal paidAmount) { this.paidAmount = paidAmount; }
+
+    public BigDecimal getOutstandingBalance() { return outstandingBalance; }
+    public void setOutstandingBalance(BigDecimal outstandingBalance) { this.outstandingBalance = outstandingBalance; }
+
+    public String getSpecialRequests() { return specialRequests; }
+    public void setSpecialRequests(String specialRequests) { this.specialRequests = specialRequests; }
+
+    public String getCancellationReason() { return cancellationReason; }
+    public void setCancellationReason(String cancellationReason) { this.cancellationReason = cancellationReason; }
+
+    public LocalDateTime getCancellationDate() { return cancellationDate; }
+    public void setCancellationDate(LocalDateTime cancellationDate) { this.cancellationDate = cancellationDate; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
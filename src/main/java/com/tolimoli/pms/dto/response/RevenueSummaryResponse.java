@@ -0,0 +1,91 @@
+package com.tolimoli.pms.dto.response;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Revenue Summary Response DTO - rooms sold, room revenue, ADR and occupancy
+ * over a range of stay dates
+ */
+@Schema(description = "Room revenue summary for a date range")
+public class RevenueSummaryResponse {
+
+    @Schema(description = "First stay date (inclusive)")
+    private LocalDate startDate;
+
+    @Schema(description = "Last stay date (inclusive)")
+    private LocalDate endDate;
+
+    @Schema(description = "Room nights sold", example = "1240")
+    private Long roomsSold;
+
+    @Schema(description = "Room revenue", example = "186000.00")
+    private BigDecimal roomRevenue;
+
+    @Schema(description = "Arrivals in the range", example = "410")
+    private Long arrivals;
+
+    @Schema(description = "Average daily rate (room revenue / rooms sold)", example = "150.00")
+    private BigDecimal averageDailyRate;
+
+    @Schema(description = "Sellable room nights in the range", example = "1800")
+    private Long availableRoomNights;
+
+    @Schema(description = "Occupancy percentage", example = "68.89")
+    private BigDecimal occupancyRate;
+
+    // Constructors
+    public RevenueSummaryResponse() {}
+
+    /**
+     * Used by the rollup JPQL projection; sums are null when no rows match
+     */
+    public RevenueSummaryResponse(Long roomsSold, BigDecimal roomRevenue, Long arrivals) {
+        this.roomsSold = roomsSold != null ? roomsSold : 0L;
+        this.roomRevenue = roomRevenue != null ? roomRevenue : BigDecimal.ZERO;
+        this.arrivals = arrivals != null ? arrivals : 0L;
+        this.averageDailyRate = this.roomsSold > 0
+                ? this.roomRevenue.divide(new BigDecimal(this.roomsSold), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+
+    /**
+     * Set the reporting range and derive occupancy from the sellable room count
+     */
+    public void applyRange(LocalDate startDate, LocalDate endDate, long sellableRooms) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.availableRoomNights = sellableRooms * (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        this.occupancyRate = availableRoomNights > 0
+                ? new BigDecimal(roomsSold * 100).divide(new BigDecimal(availableRoomNights), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+
+    // Getters and Setters
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public Long getRoomsSold() { return roomsSold; }
+    public void setRoomsSold(Long roomsSold) { this.roomsSold = roomsSold; }
+
+    public BigDecimal getRoomRevenue() { return roomRevenue; }
+    public void setRoomRevenue(BigDecimal roomRevenue) { this.roomRevenue = roomRevenue; }
+
+    public Long getArrivals() { return arrivals; }
+    public void setArrivals(Long arrivals) { this.arrivals = arrivals; }
+
+    public BigDecimal getAverageDailyRate() { return averageDailyRate; }
+    public void setAverageDailyRate(BigDecimal averageDailyRate) { this.averageDailyRate = averageDailyRate; }
+
+    public Long getAvailableRoomNights() { return availableRoomNights; }
+    public void setAvailableRoomNights(Long availableRoomNights) { this.availableRoomNights = availableRoomNights; }
+
+    public BigDecimal getOccupancyRate() { return occupancyRate; }
+    public void setOccupancyRate(BigDecimal occupancyRate) { this.occupancyRate = occupancyRate; }
+}
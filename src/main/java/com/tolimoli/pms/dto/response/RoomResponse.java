@@ -0,0 +1,72 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomStatus;
+import com.tolimoli.pms.entity.RoomType;
+
+import java.math.BigDecimal;
+
+/**
+ * Room Response DTO
+ */
+@Schema(description = "Room response data")
+public class RoomResponse {
+
+    @Schema(description = "Room ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Room number", example = "101")
+    private String roomNumber;
+
+    @Schema(description = "Room type", example = "DOUBLE")
+    private RoomType roomType;
+
+    @Schema(description = "Maximum number of guests", example = "2")
+    private Integer capacity;
+
+    @Schema(description = "Base nightly rate", example = "120.00")
+    private BigDecimal baseRate;
+
+    @Schema(description = "Housekeeping / occupancy status", example = "AVAILABLE")
+    private RoomStatus status;
+
+    @Schema(description = "Whether room can be sold", example = "true")
+    private Boolean isActive;
+
+    // Constructors
+    public RoomResponse() {}
+
+    public RoomResponse(Room room) {
+        this.id = room.getId();
+        this.roomNumber = room.getRoomNumber();
+        this.roomType = room.getRoomType();
+        this.capacity = room.getCapacity();
+        this.baseRate = room.getBaseRate();
+        this.status = room.getStatus();
+        this.isActive = room.getIsActive();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public RoomType getRoomType() { return roomType; }
+    public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+    public BigDecimal getBaseRate() { return baseRate; }
+    public void setBaseRate(BigDecimal baseRate) { this.baseRate = baseRate; }
+
+    public RoomStatus getStatus() { return status; }
+    public void setStatus(RoomStatus status) { this.status = status; }
+
+    public Boolean getIsActive() { return isActive; }
+    public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+}
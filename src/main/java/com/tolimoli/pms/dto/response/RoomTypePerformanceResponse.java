@@ -0,0 +1,59 @@
+package com.tolimoli.pms.dto.response;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.tolimoli.pms.entity.RoomType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Room Type Performance Response DTO
+ */
+@Schema(description = "Room type performance metrics")
+public class RoomTypePerformanceResponse {
+
+    @Schema(description = "Room type", example = "DOUBLE")
+    private RoomType roomType;
+
+    @Schema(description = "Room nights sold", example = "420")
+    private Long roomsSold;
+
+    @Schema(description = "Room revenue", example = "63000.00")
+    private BigDecimal roomRevenue;
+
+    @Schema(description = "Arrivals", example = "150")
+    private Long arrivals;
+
+    @Schema(description = "Average daily rate", example = "150.00")
+    private BigDecimal averageDailyRate;
+
+    // Constructors
+    public RoomTypePerformanceResponse() {}
+
+    public RoomTypePerformanceResponse(RoomType roomType, Long roomsSold, BigDecimal roomRevenue, Long arrivals) {
+        this.roomType = roomType;
+        this.roomsSold = roomsSold;
+        this.roomRevenue = roomRevenue;
+        this.arrivals = arrivals;
+        this.averageDailyRate = roomsSold != null && roomsSold > 0 && roomRevenue != null
+                ? roomRevenue.divide(new BigDecimal(roomsSold), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+
+    // Getters and Setters
+    public RoomType getRoomType() { return roomType; }
+    public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+    public Long getRoomsSold() { return roomsSold; }
+    public void setRoomsSold(Long roomsSold) { this.roomsSold = roomsSold; }
+
+    public BigDecimal getRoomRevenue() { return roomRevenue; }
+    public void setRoomRevenue(BigDecimal roomRevenue) { this.roomRevenue = roomRevenue; }
+
+    public Long getArrivals() { return arrivals; }
+    public void setArrivals(Long arrivals) { this.arrivals = arrivals; }
+
+    public BigDecimal getAverageDailyRate() { return averageDailyRate; }
+    public void setAverageDailyRate(BigDecimal averageDailyRate) { this.averageDailyRate = averageDailyRate; }
+}
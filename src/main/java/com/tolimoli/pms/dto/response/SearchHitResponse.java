@@ -0,0 +1,125 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.ReservationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Search Hit Response DTO - one ranked guest or reservation match
+ */
+@Schema(description = "Ranked search result")
+public class SearchHitResponse {
+
+    public static final String GUEST = "GUEST";
+
+    public static final String RESERVATION = "RESERVATION";
+
+    @Schema(description = "Result type", example = "GUEST")
+    private String type;
+
+    @Schema(description = "Guest or reservation ID", example = "1")
+    private Long id;
+
+    @Schema(description = "Relevance, above 1 for prefix matches", example = "1.0")
+    private Double score;
+
+    @Schema(description = "Guest ID", example = "1")
+    private Long guestId;
+
+    @Schema(description = "Guest full name", example = "John Smith")
+    private String guestName;
+
+    @Schema(description = "Guest email", example = "john.smith@email.com")
+    private String email;
+
+    @Schema(description = "Guest phone", example = "+1234567890")
+    private String phone;
+
+    @Schema(description = "Confirmation number", example = "RES-20250101-0012345674")
+    private String confirmationNumber;
+
+    @Schema(description = "OTA confirmation number", example = "BCM-887766")
+    private String externalConfirmationNumber;
+
+    @Schema(description = "Reservation status", example = "CONFIRMED")
+    private ReservationStatus status;
+
+    @Schema(description = "Check-in date")
+    private LocalDate checkInDate;
+
+    @Schema(description = "Check-out date")
+    private LocalDate checkOutDate;
+
+    // Constructors
+    public SearchHitResponse() {}
+
+    public static SearchHitResponse guest(Long id, String firstName, String lastName, String email,
+                                          String phone, Double score) {
+        SearchHitResponse hit = new SearchHitResponse();
+        hit.type = GUEST;
+        hit.id = id;
+        hit.guestId = id;
+        hit.guestName = firstName + " " + lastName;
+        hit.email = email;
+        hit.phone = phone;
+        hit.score = score;
+        return hit;
+    }
+
+    public static SearchHitResponse reservation(Long id, String confirmationNumber, String externalConfirmationNumber,
+                                                ReservationStatus status, LocalDate checkInDate, LocalDate checkOutDate,
+                                                Long guestId, String guestName, String email, Double score) {
+        SearchHitResponse hit = new SearchHitResponse();
+        hit.type = RESERVATION;
+        hit.id = id;
+        hit.confirmationNumber = confirmationNumber;
+        hit.externalConfirmationNumber = externalConfirmationNumber;
+        hit.status = status;
+        hit.checkInDate = checkInDate;
+        hit.checkOutDate = checkOutDate;
+        hit.guestId = guestId;
+        hit.guestName = guestName;
+        hit.email = email;
+        hit.score = score;
+        return hit;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public Long getGuestId() { return guestId; }
+    public void setGuestId(Long guestId) { this.guestId = guestId; }
+
+    public String getGuestName() { return guestName; }
+    public void setGuestName(String guestName) { this.guestName = guestName; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+
+    public String getConfirmationNumber() { return confirmationNumber; }
+    public void setConfirmationNumber(String confirmationNumber) { this.confirmationNumber = confirmationNumber; }
+
+    public String getExternalConfirmationNumber() { return externalConfirmationNumber; }
+    public void setExternalConfirmationNumber(String externalConfirmationNumber) { this.externalConfirmationNumber = externalConfirmationNumber; }
+
+    public ReservationStatus getStatus() { return status; }
+    public void setStatus(ReservationStatus status) { this.status = status; }
+
+    public LocalDate getCheckInDate() { return checkInDate; }
+    public void setCheckInDate(LocalDate checkInDate) { this.checkInDate = checkInDate; }
+
+    public LocalDate getCheckOutDate() { return checkOutDate; }
+    public void setCheckOutDate(LocalDate checkOutDate) { this.checkOutDate = checkOutDate; }
+}
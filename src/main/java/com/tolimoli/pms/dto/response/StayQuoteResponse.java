@@ -0,0 +1,95 @@
+package com.tolimoli.pms.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import com.tolimoli.pms.entity.RoomType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Stay Quote Response DTO - price of one room for a whole stay on one channel
+ */
+@Schema(description = "Priced stay for one room")
+public class StayQuoteResponse {
+
+    @Schema(description = "Room ID", example = "1")
+    private Long roomId;
+
+    @Schema(description = "Room number", example = "101")
+    private String roomNumber;
+
+    @Schema(description = "Room type", example = "DELUXE")
+    private RoomType roomType;
+
+    @Schema(description = "Channel code", example = "BOOKING_COM")
+    private String channelCode;
+
+    @Schema(description = "Arrival date", example = "2025-06-10")
+    private LocalDate checkInDate;
+
+    @Schema(description = "Departure date", example = "2025-06-13")
+    private LocalDate checkOutDate;
+
+    @Schema(description = "Whether the stay can be booked at this price", example = "true")
+    private Boolean sellable;
+
+    @Schema(description = "Why the stay cannot be booked", example = "Minimum stay of 2 nights from 2025-06-10")
+    private String restriction;
+
+    @Schema(description = "Price of each night, occupancy surcharges included")
+    private List<BigDecimal> nightlyAmounts;
+
+    @Schema(description = "Price of the whole stay", example = "450.00")
+    private BigDecimal totalAmount;
+
+    // Constructors
+    public StayQuoteResponse() {}
+
+    public StayQuoteResponse(Long roomId, String roomNumber, RoomType roomType, String channelCode,
+                             LocalDate checkInDate, LocalDate checkOutDate, String restriction,
+                             List<BigDecimal> nightlyAmounts) {
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.channelCode = channelCode;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.sellable = restriction == null;
+        this.restriction = restriction;
+        this.nightlyAmounts = nightlyAmounts;
+        this.totalAmount = nightlyAmounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Getters and Setters
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public RoomType getRoomType() { return roomType; }
+    public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+    public String getChannelCode() { return channelCode; }
+    public void setChannelCode(String channelCode) { this.channelCode = channelCode; }
+
+    public LocalDate getCheckInDate() { return checkInDate; }
+    public void setCheckInDate(LocalDate checkInDate) { this.checkInDate = checkInDate; }
+
+    public LocalDate getCheckOutDate() { return checkOutDate; }
+    public void setCheckOutDate(LocalDate checkOutDate) { this.checkOutDate = checkOutDate; }
+
+    public Boolean getSellable() { return sellable; }
+    public void setSellable(Boolean sellable) { this.sellable = sellable; }
+
+    public String getRestriction() { return restriction; }
+    public void setRestriction(String restriction) { this.restriction = restriction; }
+
+    public List<BigDecimal> getNightlyAmounts() { return nightlyAmounts; }
+    public void setNightlyAmounts(List<BigDecimal> nightlyAmounts) { this.nightlyAmounts = nightlyAmounts; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+}
@@ -0,0 +1,182 @@
+package com.tolimoli.pms.entity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// ===== ARI OUTBOX ENTRY ENTITY =====
+// Latest rate and availability of one channel / room / date cell that still
+// has to be pushed to the channel. Written in the same transaction as the
+// rate change by AriOutboxRepository.upsertCell; further changes to the cell
+// before it is sent overwrite the values and bump the revision, so the
+// channel only receives the last state
+@Entity
+@Table(name = "ari_outbox", uniqueConstraints = @UniqueConstraint(name = "uk_ari_outbox_cell", columnNames = { "channel_id",
+    "room_id", "stay_date" }), indexes = @Index(name = "idx_ari_outbox_due", columnList = "status, next_attempt_at"))
+public class AriOutboxEntry {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ari_outbox_seq")
+  @SequenceGenerator(name = "ari_outbox_seq", sequenceName = "ari_outbox_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "channel_id", nullable = false)
+  private Long channelId;
+
+  @Column(name = "room_id", nullable = false)
+  private Long roomId;
+
+  @Column(name = "stay_date", nullable = false)
+  private LocalDate stayDate;
+
+  @Column(nullable = false, precision = 10, scale = 2)
+  private BigDecimal rateAmount;
+
+  @Column(nullable = false)
+  private Integer availableRooms;
+
+  @Column(nullable = false)
+  private Boolean stopSell = false;
+
+  @Column(nullable = false)
+  private Long revision = 0L;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private AriOutboxStatus status = AriOutboxStatus.PENDING;
+
+  @Column(nullable = false)
+  private Integer attempts = 0;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+  @Column(length = 500)
+  private String lastError;
+
+  private LocalDateTime createdAt = LocalDateTime.now();
+  private LocalDateTime updatedAt = LocalDateTime.now();
+
+  // Constructors
+  public AriOutboxEntry() {
+  }
+
+  public AriOutboxEntry(Long channelId, Long roomId, LocalDate stayDate) {
+    this.channelId = channelId;
+    this.roomId = roomId;
+    this.stayDate = stayDate;
+  }
+
+  // Getters and Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getChannelId() {
+    return channelId;
+  }
+
+  public void setChannelId(Long channelId) {
+    this.channelId = channelId;
+  }
+
+  public Long getRoomId() {
+    return roomId;
+  }
+
+  public void setRoomId(Long roomId) {
+    this.roomId = roomId;
+  }
+
+  public LocalDate getStayDate() {
+    return stayDate;
+  }
+
+  public void setStayDate(LocalDate stayDate) {
+    this.stayDate = stayDate;
+  }
+
+  public BigDecimal getRateAmount() {
+    return rateAmount;
+  }
+
+  public void setRateAmount(BigDecimal rateAmount) {
+    this.rateAmount = rateAmount;
+  }
+
+  public Integer getAvailableRooms() {
+    return availableRooms;
+  }
+
+  public void setAvailableRooms(Integer availableRooms) {
+    this.availableRooms = availableRooms;
+  }
+
+  public Boolean getStopSell() {
+    return stopSell;
+  }
+
+  public void setStopSell(Boolean stopSell) {
+    this.stopSell = stopSell;
+  }
+
+  public Long getRevision() {
+    return revision;
+  }
+
+  public void setRevision(Long revision) {
+    this.revision = revision;
+  }
+
+  public AriOutboxStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(AriOutboxStatus status) {
+    this.status = status;
+  }
+
+  public Integer getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(Integer attempts) {
+    this.attempts = attempts;
+  }
+
+  public LocalDateTime getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public LocalDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(LocalDateTime updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
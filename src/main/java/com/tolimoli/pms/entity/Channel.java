@@ -5,17 +5,27 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 // ===== CHANNEL ENTITY =====
 @Entity
 @Table(name = "channels")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "channels")
+@NaturalIdCache(region = "channels-by-natural-id")
 public class Channel {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "channels_seq")
+  @SequenceGenerator(name = "channels_seq", sequenceName = "channels_seq", allocationSize = 50)
   private Long id;
 
   @Column(unique = true, nullable = false, length = 100)
   private String channelName; // "DIRECT", "BOOKING_COM", "EXPEDIA"
 
+  @NaturalId(mutable = true)
   @Column(unique = true, nullable = false, length = 10)
   private String channelCode; // "DIRECT", "BCM", "EXP"
 
@@ -0,0 +1,124 @@
+package com.tolimoli.pms.entity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// ===== DAILY REVENUE ROLLUP ENTITY =====
+// One row per stay date, room type and channel: rooms sold, room revenue
+// and arrivals of the reservations that hold (or held) rooms that night
+@Entity
+@Table(name = "daily_revenue_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_daily_revenue_rollups", columnNames = { "stay_date",
+    "room_type", "channel_id" }), indexes = @Index(name = "idx_rollup_channel_date", columnList = "channel_id, stay_date"))
+public class DailyRevenueRollup {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_revenue_rollups_seq")
+  @SequenceGenerator(name = "daily_revenue_rollups_seq", sequenceName = "daily_revenue_rollups_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "stay_date", nullable = false)
+  private LocalDate stayDate;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "room_type", nullable = false, length = 20)
+  private RoomType roomType;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "channel_id", nullable = false)
+  private Channel channel;
+
+  @Column(nullable = false)
+  private Integer roomsSold = 0;
+
+  @Column(nullable = false, precision = 14, scale = 2)
+  private BigDecimal roomRevenue = BigDecimal.ZERO;
+
+  @Column(nullable = false)
+  private Integer arrivals = 0;
+
+  private LocalDateTime updatedAt = LocalDateTime.now();
+
+  // Constructors
+  public DailyRevenueRollup() {
+  }
+
+  public DailyRevenueRollup(LocalDate stayDate, RoomType roomType, Channel channel) {
+    this.stayDate = stayDate;
+    this.roomType = roomType;
+    this.channel = channel;
+  }
+
+  // Business Methods
+  public void add(int rooms, BigDecimal revenue, int newArrivals) {
+    this.roomsSold += rooms;
+    this.roomRevenue = this.roomRevenue.add(revenue);
+    this.arrivals += newArrivals;
+    this.updatedAt = LocalDateTime.now();
+  }
+
+  // Getters and Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public LocalDate getStayDate() {
+    return stayDate;
+  }
+
+  public void setStayDate(LocalDate stayDate) {
+    this.stayDate = stayDate;
+  }
+
+  public RoomType getRoomType() {
+    return roomType;
+  }
+
+  public void setRoomType(RoomType roomType) {
+    this.roomType = roomType;
+  }
+
+  public Channel getChannel() {
+    return channel;
+  }
+
+  public void setChannel(Channel channel) {
+    this.channel = channel;
+  }
+
+  public Integer getRoomsSold() {
+    return roomsSold;
+  }
+
+  public void setRoomsSold(Integer roomsSold) {
+    this.roomsSold = roomsSold;
+  }
+
+  public BigDecimal getRoomRevenue() {
+    return roomRevenue;
+  }
+
+  public void setRoomRevenue(BigDecimal roomRevenue) {
+    this.roomRevenue = roomRevenue;
+  }
+
+  public Integer getArrivals() {
+    return arrivals;
+  }
+
+  public void setArrivals(Integer arrivals) {
+    this.arrivals = arrivals;
+  }
+
+  public LocalDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(LocalDateTime updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
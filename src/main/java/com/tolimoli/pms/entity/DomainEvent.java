@@ -0,0 +1,143 @@
+package com.tolimoli.pms.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// ===== DOMAIN EVENT ENTITY =====
+// One delivery of a reservation lifecycle event to one subscriber. Rows are
+// written in the transaction that made the change and marked published once
+// the subscriber has handled them; a subscriber sees the events of a
+// reservation in id order. Ids are drawn one at a time, after the change to
+// the reservation row has been flushed, so they follow the row lock order
+// even across nodes
+@Entity
+@Table(name = "domain_events", indexes = {
+    @Index(name = "idx_domain_events_pending", columnList = "next_attempt_at, id"),
+    @Index(name = "idx_domain_events_stream", columnList = "subscriber, reservation_id, id"),
+    @Index(name = "idx_domain_events_published", columnList = "published_at") })
+public class DomainEvent {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "domain_events_seq")
+  @SequenceGenerator(name = "domain_events_seq", sequenceName = "domain_events_seq", allocationSize = 1)
+  private Long id;
+
+  @Column(nullable = false, length = 100)
+  private String subscriber;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", nullable = false, length = 40)
+  private DomainEventType eventType;
+
+  @Column(name = "reservation_id", nullable = false)
+  private Long reservationId;
+
+  @Column(length = 2000)
+  private String payload; // JSON
+
+  @Column(nullable = false)
+  private LocalDateTime occurredAt = LocalDateTime.now();
+
+  @Column(name = "published_at")
+  private LocalDateTime publishedAt;
+
+  @Column(nullable = false)
+  private Integer attempts = 0;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+  @Column(length = 500)
+  private String lastError;
+
+  // Constructors
+  public DomainEvent() {
+  }
+
+  public DomainEvent(String subscriber, DomainEventType eventType, Long reservationId, String payload) {
+    this.subscriber = subscriber;
+    this.eventType = eventType;
+    this.reservationId = reservationId;
+    this.payload = payload;
+  }
+
+  // Getters and Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getSubscriber() {
+    return subscriber;
+  }
+
+  public void setSubscriber(String subscriber) {
+    this.subscriber = subscriber;
+  }
+
+  public DomainEventType getEventType() {
+    return eventType;
+  }
+
+  public void setEventType(DomainEventType eventType) {
+    this.eventType = eventType;
+  }
+
+  public Long getReservationId() {
+    return reservationId;
+  }
+
+  public void setReservationId(Long reservationId) {
+    this.reservationId = reservationId;
+  }
+
+  public String getPayload() {
+    return payload;
+  }
+
+  public void setPayload(String payload) {
+    this.payload = payload;
+  }
+
+  public LocalDateTime getOccurredAt() {
+    return occurredAt;
+  }
+
+  public void setOccurredAt(LocalDateTime occurredAt) {
+    this.occurredAt = occurredAt;
+  }
+
+  public LocalDateTime getPublishedAt() {
+    return publishedAt;
+  }
+
+  public void setPublishedAt(LocalDateTime publishedAt) {
+    this.publishedAt = publishedAt;
+  }
+
+  public Integer getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(Integer attempts) {
+    this.attempts = attempts;
+  }
+
+  public LocalDateTime getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+}
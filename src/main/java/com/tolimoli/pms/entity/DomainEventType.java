@@ -0,0 +1,6 @@
+package com.tolimoli.pms.entity;
+
+public enum DomainEventType {
+  RESERVATION_CREATED, RESERVATION_CHECKED_IN, RESERVATION_CHECKED_OUT, RESERVATION_CANCELLED, RESERVATION_NO_SHOW,
+  PAYMENT_PROCESSED, ROOM_CHARGES_POSTED
+}
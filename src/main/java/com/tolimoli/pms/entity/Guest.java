@@ -5,12 +5,21 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 // ===== GUEST ENTITY =====
 @Entity
 @Table(name = "guests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "guests")
+@NaturalIdCache(region = "guests-by-natural-id")
 public class Guest {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guests_seq")
+  @SequenceGenerator(name = "guests_seq", sequenceName = "guests_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -19,6 +28,7 @@ public class Guest {
   @Column(nullable = false)
   private String lastName;
 
+  @NaturalId(mutable = true)
   @Column(unique = true, nullable = false)
   private String email;
 
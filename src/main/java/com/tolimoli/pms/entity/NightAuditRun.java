@@ -0,0 +1,151 @@
+package com.tolimoli.pms.entity;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// ===== NIGHT AUDIT RUN ENTITY =====
+// One row per audited business date. Counters are added by each committed
+// chunk, so they always match what has been posted, including for a run
+// that failed part way and was restarted
+@Entity
+@Table(name = "night_audit_runs", uniqueConstraints = @UniqueConstraint(name = "uk_night_audit_runs_date", columnNames = "business_date"))
+public class NightAuditRun {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "night_audit_runs_seq")
+  @SequenceGenerator(name = "night_audit_runs_seq", sequenceName = "night_audit_runs_seq", allocationSize = 1)
+  private Long id;
+
+  @Column(name = "business_date", nullable = false)
+  private LocalDate businessDate;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private NightAuditStatus status = NightAuditStatus.RUNNING;
+
+  @Column(nullable = false)
+  private LocalDateTime startedAt = LocalDateTime.now();
+
+  private LocalDateTime completedAt;
+
+  @Column(nullable = false)
+  private Integer reservationsAudited = 0;
+
+  @Column(nullable = false)
+  private Integer roomChargesPosted = 0;
+
+  @Column(nullable = false)
+  private Integer taxChargesPosted = 0;
+
+  @Column(nullable = false)
+  private Integer noShows = 0;
+
+  // Guests still checked in past their departure date, left for the front desk
+  @Column(nullable = false)
+  private Integer overdueDepartures = 0;
+
+  @Column(length = 500)
+  private String lastError;
+
+  // Constructors
+  public NightAuditRun() {
+  }
+
+  public NightAuditRun(LocalDate businessDate) {
+    this.businessDate = businessDate;
+  }
+
+  // Business Methods
+  public boolean isCompleted() {
+    return status == NightAuditStatus.COMPLETED;
+  }
+
+  // Getters and Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public LocalDate getBusinessDate() {
+    return businessDate;
+  }
+
+  public void setBusinessDate(LocalDate businessDate) {
+    this.businessDate = businessDate;
+  }
+
+  public NightAuditStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(NightAuditStatus status) {
+    this.status = status;
+  }
+
+  public LocalDateTime getStartedAt() {
+    return startedAt;
+  }
+
+  public void setStartedAt(LocalDateTime startedAt) {
+    this.startedAt = startedAt;
+  }
+
+  public LocalDateTime getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(LocalDateTime completedAt) {
+    this.completedAt = completedAt;
+  }
+
+  public Integer getReservationsAudited() {
+    return reservationsAudited;
+  }
+
+  public void setReservationsAudited(Integer reservationsAudited) {
+    this.reservationsAudited = reservationsAudited;
+  }
+
+  public Integer getRoomChargesPosted() {
+    return roomChargesPosted;
+  }
+
+  public void setRoomChargesPosted(Integer roomChargesPosted) {
+    this.roomChargesPosted = roomChargesPosted;
+  }
+
+  public Integer getTaxChargesPosted() {
+    return taxChargesPosted;
+  }
+
+  public void setTaxChargesPosted(Integer taxChargesPosted) {
+    this.taxChargesPosted = taxChargesPosted;
+  }
+
+  public Integer getNoShows() {
+    return noShows;
+  }
+
+  public void setNoShows(Integer noShows) {
+    this.noShows = noShows;
+  }
+
+  public Integer getOverdueDepartures() {
+    return overdueDepartures;
+  }
+
+  public void setOverdueDepartures(Integer overdueDepartures) {
+    this.overdueDepartures = overdueDepartures;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+}
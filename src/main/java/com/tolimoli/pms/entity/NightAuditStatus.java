@@ -0,0 +1,5 @@
+package com.tolimoli.pms.entity;
+
+public enum NightAuditStatus {
+  RUNNING, COMPLETED, FAILED
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "payments")
 public class Payment {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+  @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
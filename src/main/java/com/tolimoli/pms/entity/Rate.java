@@ -1,16 +1,24 @@
 package com.tolimoli.pms.entity;
 
 import javax.persistence.*;
+
+import org.hibernate.annotations.Check;
+
+import com.tolimoli.pms.util.RestrictionRules;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 // ===== RATE ENTITY =====
 @Entity
-@Table(name = "rates", uniqueConstraints = @UniqueConstraint(columnNames = { "room_id", "channel_id", "rate_date" }))
+@Table(name = "rates", uniqueConstraints = @UniqueConstraint(columnNames = { "room_id", "channel_id", "rate_date" }),
+    indexes = @Index(name = "idx_rates_updated_at", columnList = "updatedAt"))
+@Check(constraints = "available_rooms >= 0")
 public class Rate {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rates_seq")
+  @SequenceGenerator(name = "rates_seq", sequenceName = "rates_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -30,6 +38,10 @@ public class Rate {
   @Column(nullable = false)
   private Integer availableRooms;
 
+  // Availability last set on this night; bookings take from availableRooms
+  // and cancellations give back no more than this
+  private Integer allotment;
+
   @Column(precision = 10, scale = 2)
   private BigDecimal extraPersonRate; // Rate for extra person
 
@@ -40,6 +52,10 @@ public class Rate {
 
   private String restrictions; // "MIN_STAY_2", "NO_ARRIVAL_SUNDAY"
 
+  // restrictions compiled by RestrictionRules whenever they are set
+  @Column(name = "restriction_rules")
+  private Long restrictionRules;
+
   private LocalDateTime createdAt = LocalDateTime.now();
   private LocalDateTime updatedAt = LocalDateTime.now();
 
@@ -54,6 +70,7 @@ public class Rate {
     this.rateDate = rateDate;
     this.rateAmount = rateAmount;
     this.availableRooms = availableRooms;
+    this.allotment = availableRooms;
   }
 
   // Business Methods
@@ -67,6 +84,7 @@ public class Rate {
 
   public void updateAvailability(Integer rooms) {
     this.availableRooms = rooms;
+    this.allotment = rooms;
     this.updatedAt = LocalDateTime.now();
   }
 
@@ -152,8 +170,14 @@ public class Rate {
     return availableRooms;
   }
 
+  // Setting the availability also resets the allotment
   public void setAvailableRooms(Integer availableRooms) {
     this.availableRooms = availableRooms;
+    this.allotment = availableRooms;
+  }
+
+  public Integer getAllotment() {
+    return allotment;
   }
 
   public BigDecimal getExtraPersonRate() {
@@ -186,6 +210,11 @@ public class Rate {
 
   public void setRestrictions(String restrictions) {
     this.restrictions = restrictions;
+    this.restrictionRules = RestrictionRules.compile(restrictions);
+  }
+
+  public long getRestrictionRules() {
+    return restrictionRules != null ? restrictionRules : RestrictionRules.compile(restrictions);
   }
 
   public LocalDateTime getCreatedAt() {
@@ -24,13 +24,15 @@ import java.util.List;
     @Index(name = "idx_reservation_room", columnList = "room_id"),
     @Index(name = "idx_reservation_dates", columnList = "check_in_date, check_out_date"),
     @Index(name = "idx_reservation_status", columnList = "status"),
-    @Index(name = "idx_reservation_channel", columnList = "channel_id")
+    @Index(name = "idx_reservation_channel", columnList = "channel_id"),
+    @Index(name = "idx_reservation_updated_at", columnList = "updated_at")
 })
 public class Reservation {
     
     // ===== PRIMARY KEY =====
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
     @Column(name = "reservation_id")
     private Long id;
     
@@ -66,8 +68,7 @@ public class Reservation {
     // ===== DATE INFORMATION =====
     @Column(name = "check_in_date", nullable = false)
     @NotNull(message = "Check-in date is required")
-    @Future(message = "Check-in date must be in the future")
-    private LocalDate checkInDate;
+    private LocalDate checkInDate; // must be in the future when booked, see prePersist()
     
     @Column(name = "check_out_date", nullable = false)
     @NotNull(message = "Check-out date is required")
@@ -150,6 +151,10 @@ public class Reservation {
     @Column(name = "cancellation_date")
     private LocalDateTime cancellationDate;
     
+    // Last business date the night audit processed; its restart checkpoint
+    @Column(name = "last_audit_date")
+    private LocalDate lastAuditDate;
+    
     // ===== MARKETING AND PREFERENCES =====
     @Column(name = "rate_plan_code", length = 50)
     @Size(max = 50, message = "Rate plan code cannot exceed 50 characters")
@@ -277,6 +282,17 @@ public class Reservation {
         }
     }
     
+    /**
+     * Mark a reservation whose guest never arrived as a no-show
+     */
+    public void markNoShow() {
+        if (status != ReservationStatus.CONFIRMED) {
+            throw new IllegalStateException("Cannot mark no-show - status is " + status);
+        }
+        
+        this.status = ReservationStatus.NO_SHOW;
+    }
+    
     /**
      * Cancel the reservation
      */
@@ -391,6 +407,36 @@ public class Reservation {
         charge.setReservation(this);
     }
     
+    /**
+     * Apply a posted folio charge to the running totals
+     */
+    public void applyCharge(ChargeType chargeType, BigDecimal amount) {
+        this.totalAmount = zeroIfNull(totalAmount).add(amount);
+        if (chargeType == ChargeType.TAX) {
+            this.taxAmount = zeroIfNull(taxAmount).add(amount);
+        } else if (chargeType == ChargeType.DISCOUNT) {
+            this.discountAmount = zeroIfNull(discountAmount).add(amount.abs());
+        }
+    }
+    
+    /**
+     * Apply a completed payment to the running paid amount
+     */
+    public void applyPayment(BigDecimal amount) {
+        this.paidAmount = zeroIfNull(paidAmount).add(amount);
+    }
+    
+    /**
+     * Apply a refund to the running paid amount
+     */
+    public void applyRefund(BigDecimal amount) {
+        this.paidAmount = zeroIfNull(paidAmount).subtract(amount);
+    }
+    
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+    
     // ===== LIFECYCLE CALLBACKS =====
     @PreUpdate
     public void preUpdate() {
@@ -419,6 +465,11 @@ public class Reservation {
             !checkOutDate.isAfter(checkInDate)) {
             throw new IllegalArgumentException("Check-out date must be after check-in date");
         }
+        
+        // Only checked when booking; updates to arriving and in-house stays must still pass validation
+        if (checkInDate != null && !checkInDate.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Check-in date must be in the future");
+        }
     }
     
     // ===== GETTERS AND SETTERS =====
@@ -496,6 +547,9 @@ public class Reservation {
     public String getCancellationReason() { return cancellationReason; }
     public void setCancellationReason(String cancellationReason) { this.cancellationReason = cancellationReason; }
     
+    public LocalDate getLastAuditDate() { return lastAuditDate; }
+    public void setLastAuditDate(LocalDate lastAuditDate) { this.lastAuditDate = lastAuditDate; }
+    
     public LocalDateTime getCancellationDate() { return cancellationDate; }
     public void setCancellationDate(LocalDateTime cancellationDate) { this.cancellationDate = cancellationDate; }
     
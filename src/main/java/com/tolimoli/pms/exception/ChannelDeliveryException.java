@@ -0,0 +1,39 @@
+package com.tolimoli.pms.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a channel does not accept a distribution message
+ */
+public class ChannelDeliveryException extends PMSException {
+
+    private final boolean retryable;
+
+    private final Duration retryAfter;
+
+    public ChannelDeliveryException(String message, boolean retryable, Duration retryAfter) {
+        super(message, "CHANNEL_DELIVERY_ERROR");
+        this.retryable = retryable;
+        this.retryAfter = retryAfter;
+    }
+
+    public ChannelDeliveryException(String message, Throwable cause) {
+        super(message, "CHANNEL_DELIVERY_ERROR", cause);
+        this.retryable = true;
+        this.retryAfter = null;
+    }
+
+    /**
+     * Whether sending the same message again may succeed
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /**
+     * Delay requested by the channel, null when it did not ask for one
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,132 @@
+package com.tolimoli.pms.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tolimoli.pms.dto.response.AriOutboxStatusResponse;
+import com.tolimoli.pms.entity.AriOutboxEntry;
+import com.tolimoli.pms.entity.AriOutboxStatus;
+
+/**
+ * ARI Outbox Repository
+ *
+ * Pending rate and availability changes per channel / room / date cell,
+ * written alongside rate changes and drained by the distribution worker.
+ */
+@Repository
+public interface AriOutboxRepository extends JpaRepository<AriOutboxEntry, Long> {
+
+    // ===== WRITE SIDE =====
+
+    /**
+     * Queue the latest values of a cell, overwriting a queued entry in place
+     * and bumping its revision so an in-flight delivery does not remove it
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ari_outbox (id, channel_id, room_id, stay_date, rate_amount, available_rooms, " +
+           "stop_sell, revision, status, attempts, next_attempt_at, created_at, updated_at) " +
+           "VALUES (nextval('ari_outbox_seq'), :channelId, :roomId, :stayDate, :rateAmount, :availableRooms, " +
+           ":stopSell, 1, 'PENDING', 0, :now, :now, :now) " +
+           "ON CONFLICT (channel_id, room_id, stay_date) DO UPDATE SET " +
+           "rate_amount = EXCLUDED.rate_amount, available_rooms = EXCLUDED.available_rooms, " +
+           "stop_sell = EXCLUDED.stop_sell, revision = ari_outbox.revision + 1, status = 'PENDING', " +
+           "attempts = 0, next_attempt_at = EXCLUDED.next_attempt_at, last_error = NULL, " +
+           "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int upsertCell(@Param("channelId") Long channelId,
+                   @Param("roomId") Long roomId,
+                   @Param("stayDate") LocalDate stayDate,
+                   @Param("rateAmount") BigDecimal rateAmount,
+                   @Param("availableRooms") Integer availableRooms,
+                   @Param("stopSell") boolean stopSell,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Queue the current values of the rates of many rooms on one channel for a
+     * date range, read straight from the rates table, cell by cell as in upsertCell
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ari_outbox (id, channel_id, room_id, stay_date, rate_amount, available_rooms, " +
+           "stop_sell, revision, status, attempts, next_attempt_at, created_at, updated_at) " +
+           "SELECT nextval('ari_outbox_seq'), r.channel_id, r.room_id, r.rate_date, r.rate_amount, r.available_rooms, " +
+           "COALESCE(r.is_blocked, FALSE), 1, 'PENDING', 0, :now, :now, :now FROM rates r " +
+           "WHERE r.channel_id = :channelId AND r.room_id IN (:roomIds) " +
+           "AND r.rate_date BETWEEN :startDate AND :endDate ORDER BY r.room_id, r.rate_date " +
+           "ON CONFLICT (channel_id, room_id, stay_date) DO UPDATE SET " +
+           "rate_amount = EXCLUDED.rate_amount, available_rooms = EXCLUDED.available_rooms, " +
+           "stop_sell = EXCLUDED.stop_sell, revision = ari_outbox.revision + 1, status = 'PENDING', " +
+           "attempts = 0, next_attempt_at = EXCLUDED.next_attempt_at, last_error = NULL, " +
+           "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int upsertRates(@Param("channelId") Long channelId,
+                    @Param("roomIds") Collection<Long> roomIds,
+                    @Param("startDate") LocalDate startDate,
+                    @Param("endDate") LocalDate endDate,
+                    @Param("now") LocalDateTime now);
+
+    // ===== DELIVERY =====
+
+    /**
+     * Find channels with entries due for delivery
+     */
+    @Query("SELECT DISTINCT e.channelId FROM AriOutboxEntry e WHERE e.status = 'PENDING' " +
+           "AND e.nextAttemptAt <= :now")
+    List<Long> findDueChannelIds(@Param("now") LocalDateTime now);
+
+    /**
+     * Find the next entries due for a channel, grouped by room and date so a
+     * batch carries contiguous date ranges
+     */
+    @Query("SELECT e FROM AriOutboxEntry e WHERE e.channelId = :channelId AND e.status = 'PENDING' " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.roomId, e.stayDate")
+    List<AriOutboxEntry> findDue(@Param("channelId") Long channelId,
+                                 @Param("now") LocalDateTime now,
+                                 Pageable pageable);
+
+    /**
+     * Remove a delivered entry unless it changed while it was being sent
+     */
+    @Modifying
+    @Query("DELETE FROM AriOutboxEntry e WHERE e.id = :id AND e.revision = :revision")
+    int deleteDelivered(@Param("id") Long id, @Param("revision") Long revision);
+
+    /**
+     * Record a failed delivery unless the entry changed while it was being sent
+     */
+    @Modifying
+    @Query("UPDATE AriOutboxEntry e SET e.attempts = e.attempts + 1, e.status = :status, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.revision = :revision")
+    int recordFailure(@Param("id") Long id,
+                      @Param("revision") Long revision,
+                      @Param("status") AriOutboxStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Put a channel's failed entries back in the queue
+     */
+    @Modifying
+    @Query("UPDATE AriOutboxEntry e SET e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now, " +
+           "e.updatedAt = :now WHERE e.channelId = :channelId AND e.status = 'FAILED'")
+    int requeueFailed(@Param("channelId") Long channelId, @Param("now") LocalDateTime now);
+
+    // ===== MONITORING =====
+
+    /**
+     * Count entries per channel and status
+     */
+    @Query("SELECT new com.tolimoli.pms.dto.response.AriOutboxStatusResponse(" +
+           "e.channelId, e.status, COUNT(e), MIN(e.updatedAt), MAX(e.attempts)) " +
+           "FROM AriOutboxEntry e GROUP BY e.channelId, e.status ORDER BY e.channelId, e.status")
+    List<AriOutboxStatusResponse> summarize();
+}
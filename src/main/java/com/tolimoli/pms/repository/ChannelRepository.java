@@ -64,6 +64,12 @@ public interface ChannelRepository extends JpaRepository<Channel, Long>,
      */
     Page<Channel> findByIsActiveTrue(Pageable pageable);
     
+    /**
+     * Find the next active channels after the given id, in id order
+     */
+    @Query("SELECT c FROM Channel c WHERE c.isActive = true AND c.id > :afterId ORDER BY c.id")
+    List<Channel> findActivePageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
     /**
      * Find channels by active status
      */
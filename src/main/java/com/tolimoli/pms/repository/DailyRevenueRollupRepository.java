@@ -0,0 +1,104 @@
+package com.tolimoli.pms.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tolimoli.pms.dto.response.ChannelPerformanceResponse;
+import com.tolimoli.pms.dto.response.RevenueSummaryResponse;
+import com.tolimoli.pms.dto.response.RoomTypePerformanceResponse;
+import com.tolimoli.pms.entity.DailyRevenueRollup;
+import com.tolimoli.pms.entity.ReservationStatus;
+import com.tolimoli.pms.entity.RoomType;
+
+/**
+ * Daily Revenue Rollup Repository
+ *
+ * Report queries read at most one row per stay date, room type and channel,
+ * so their cost depends on the length of the range rather than the number of
+ * reservations in it.
+ */
+@Repository
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, Long> {
+
+    // ===== INCREMENTAL UPDATES =====
+
+    /**
+     * Add to an existing rollup row in place, returns 0 when the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE DailyRevenueRollup d SET d.roomsSold = d.roomsSold + :rooms, " +
+           "d.roomRevenue = d.roomRevenue + :revenue, d.arrivals = d.arrivals + :arrivals, d.updatedAt = :now " +
+           "WHERE d.stayDate = :stayDate AND d.roomType = :roomType AND d.channel.id = :channelId")
+    int increment(@Param("stayDate") LocalDate stayDate,
+                  @Param("roomType") RoomType roomType,
+                  @Param("channelId") Long channelId,
+                  @Param("rooms") int rooms,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("arrivals") int arrivals,
+                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM DailyRevenueRollup d WHERE d.stayDate BETWEEN :startDate AND :endDate")
+    int deleteByStayDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ===== REBUILD FROM SOURCE TABLES =====
+
+    /**
+     * Room nights and room revenue per [stayDate, roomType, channelId, rooms, revenue]
+     */
+    @Query("SELECT fc.chargeDate, r.room.roomType, r.channel.id, COUNT(fc), SUM(fc.amount) " +
+           "FROM FolioCharge fc JOIN fc.reservation r " +
+           "WHERE fc.chargeType = 'ROOM' AND fc.chargeDate BETWEEN :startDate AND :endDate " +
+           "AND r.status IN :statuses " +
+           "GROUP BY fc.chargeDate, r.room.roomType, r.channel.id")
+    List<Object[]> aggregateRoomNights(@Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate,
+                                       @Param("statuses") Collection<ReservationStatus> statuses);
+
+    /**
+     * Arrivals per [checkInDate, roomType, channelId, arrivals]
+     */
+    @Query("SELECT r.checkInDate, r.room.roomType, r.channel.id, COUNT(r) FROM Reservation r " +
+           "WHERE r.checkInDate BETWEEN :startDate AND :endDate AND r.status IN :statuses " +
+           "GROUP BY r.checkInDate, r.room.roomType, r.channel.id")
+    List<Object[]> aggregateArrivals(@Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate,
+                                     @Param("statuses") Collection<ReservationStatus> statuses);
+
+    // ===== REPORTS =====
+
+    @Query("SELECT new com.tolimoli.pms.dto.response.RevenueSummaryResponse(" +
+           "SUM(d.roomsSold), SUM(d.roomRevenue), SUM(d.arrivals)) " +
+           "FROM DailyRevenueRollup d WHERE d.stayDate BETWEEN :startDate AND :endDate")
+    RevenueSummaryResponse summarize(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rooms sold per [stayDate, roomsSold], only dates with sales are returned
+     */
+    @Query("SELECT d.stayDate, SUM(d.roomsSold) FROM DailyRevenueRollup d " +
+           "WHERE d.stayDate BETWEEN :startDate AND :endDate GROUP BY d.stayDate ORDER BY d.stayDate")
+    List<Object[]> roomsSoldByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.tolimoli.pms.dto.response.ChannelPerformanceResponse(" +
+           "c.id, c.channelName, c.channelCode, SUM(d.arrivals), SUM(d.roomRevenue), c.commissionRate) " +
+           "FROM DailyRevenueRollup d JOIN d.channel c WHERE d.stayDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.id, c.channelName, c.channelCode, c.commissionRate ORDER BY SUM(d.roomRevenue) DESC")
+    List<ChannelPerformanceResponse> summarizeByChannel(@Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.tolimoli.pms.dto.response.RoomTypePerformanceResponse(" +
+           "d.roomType, SUM(d.roomsSold), SUM(d.roomRevenue), SUM(d.arrivals)) " +
+           "FROM DailyRevenueRollup d WHERE d.stayDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY d.roomType ORDER BY SUM(d.roomRevenue) DESC")
+    List<RoomTypePerformanceResponse> summarizeByRoomType(@Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,51 @@
+package com.tolimoli.pms.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tolimoli.pms.entity.DomainEvent;
+
+/**
+ * Domain Event Repository
+ *
+ * Outbox of reservation lifecycle events, one row per subscriber, drained by
+ * DomainEventRelay.
+ */
+@Repository
+public interface DomainEventRepository extends JpaRepository<DomainEvent, Long> {
+
+    /**
+     * Lock the oldest due event that is first in line for its subscriber and
+     * reservation; rows locked by other relays are skipped, and an event
+     * waits until everything before it in its stream has been published
+     */
+    @Query(value = "SELECT e.* FROM domain_events e " +
+           "WHERE e.published_at IS NULL AND e.next_attempt_at <= :now " +
+           "AND NOT EXISTS (SELECT 1 FROM domain_events p WHERE p.subscriber = e.subscriber " +
+           "    AND p.reservation_id = e.reservation_id AND p.published_at IS NULL AND p.id < e.id) " +
+           "ORDER BY e.id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<DomainEvent> claimNext(@Param("now") LocalDateTime now);
+
+    /**
+     * Record a failed delivery
+     */
+    @Modifying
+    @Query("UPDATE DomainEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    /**
+     * Delete published events older than the cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM DomainEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
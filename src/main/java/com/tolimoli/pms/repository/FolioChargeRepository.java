@@ -1,11 +1,17 @@
 package com.tolimoli.pms.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.tolimoli.pms.dto.response.FolioChargeResponse;
 import com.tolimoli.pms.entity.FolioCharge;
 
 @Repository
@@ -15,4 +21,43 @@ public interface FolioChargeRepository extends JpaRepository<FolioCharge, Long>,
     List<FolioCharge> findByReservationId(Long reservationId);
 
     List<FolioCharge> findByReservationIdAndIsPaidFalse(Long reservationId);
+
+    /**
+     * Charges of a reservation as response rows, in one query
+     */
+    @Query("SELECT new com.tolimoli.pms.dto.response.FolioChargeResponse(fc.id, fc.reservation.id, fc.chargeType, " +
+           "fc.description, fc.amount, fc.unitPrice, fc.quantity, fc.chargeDate, fc.isPaid, fc.createdAt) " +
+           "FROM FolioCharge fc WHERE fc.reservation.id = :reservationId ORDER BY fc.chargeDate, fc.id")
+    List<FolioChargeResponse> findResponsesByReservationId(@Param("reservationId") Long reservationId);
+
+    /**
+     * Sum of all charges posted to a reservation folio
+     */
+    @Query("SELECT COALESCE(SUM(fc.amount), 0) FROM FolioCharge fc WHERE fc.reservation.id = :reservationId")
+    BigDecimal sumAmountByReservationId(@Param("reservationId") Long reservationId);
+
+    /**
+     * Per-reservation totals: [reservationId, all charges, tax charges, discount charges]
+     */
+    @Query("SELECT fc.reservation.id, SUM(fc.amount), " +
+           "SUM(CASE WHEN fc.chargeType = 'TAX' THEN fc.amount ELSE 0 END), " +
+           "SUM(CASE WHEN fc.chargeType = 'DISCOUNT' THEN ABS(fc.amount) ELSE 0 END) " +
+           "FROM FolioCharge fc WHERE fc.reservation.id IN :reservationIds GROUP BY fc.reservation.id")
+    List<Object[]> sumChargesByReservationIds(@Param("reservationIds") Collection<Long> reservationIds);
+
+    /**
+     * Room charges of a reservation per night: [chargeDate, charge count, amount]
+     */
+    @Query("SELECT fc.chargeDate, COUNT(fc), SUM(fc.amount) FROM FolioCharge fc " +
+           "WHERE fc.reservation.id = :reservationId AND fc.chargeType = 'ROOM' GROUP BY fc.chargeDate")
+    List<Object[]> sumRoomChargesByNight(@Param("reservationId") Long reservationId);
+
+    /**
+     * Room charges posted for one night: [reservationId, amount]
+     */
+    @Query("SELECT fc.reservation.id, SUM(fc.amount) FROM FolioCharge fc " +
+           "WHERE fc.reservation.id IN :reservationIds AND fc.chargeType = 'ROOM' AND fc.chargeDate = :chargeDate " +
+           "GROUP BY fc.reservation.id")
+    List<Object[]> sumRoomChargesForNight(@Param("reservationIds") Collection<Long> reservationIds,
+                                          @Param("chargeDate") LocalDate chargeDate);
 }
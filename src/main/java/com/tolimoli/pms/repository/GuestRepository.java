@@ -36,4 +36,41 @@ public interface GuestRepository extends JpaRepository<Guest, Long>,
     List<Guest> findByEmailAndPhone(String email, String phone);
 
     List<Guest> findByIdNumber(String idNumber); 
+
+    // ===== SEARCH (trigram indexes from db/migration/V4__trigram_search_indexes.sql) =====
+
+    /**
+     * Set the word similarity needed for a fuzzy match, for the current transaction only
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Rank guests whose name, email or phone contains or fuzzily matches the term:
+     * [id, first name, last name, email, phone, score]
+     * Prefix matches score above 1, fuzzy matches between 0 and 1
+     */
+    @Query(value = "SELECT g.id, g.first_name, g.last_name, g.email, g.phone, " +
+           "GREATEST(word_similarity(:term, lower(g.first_name || ' ' || g.last_name)), " +
+           "  word_similarity(:term, lower(g.email)), " +
+           "  CASE WHEN :digits = '' THEN 0 " +
+           "    ELSE word_similarity(:digits, regexp_replace(g.phone, '[^0-9]', '', 'g')) END) " +
+           "+ CASE WHEN lower(g.first_name || ' ' || g.last_name) LIKE :prefix " +
+           "    OR lower(g.first_name || ' ' || g.last_name) LIKE :wordPrefix " +
+           "    OR lower(g.email) LIKE :prefix THEN 1 ELSE 0 END AS score " +
+           "FROM guests g " +
+           "WHERE lower(g.first_name || ' ' || g.last_name) LIKE :contains " +
+           "   OR :term <% lower(g.first_name || ' ' || g.last_name) " +
+           "   OR lower(g.email) LIKE :contains " +
+           "   OR :term <% lower(g.email) " +
+           "   OR (:digits <> '' AND regexp_replace(g.phone, '[^0-9]', '', 'g') LIKE :digitsContains) " +
+           "ORDER BY score DESC, g.id " +
+           "LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchRanked(@Param("term") String term,
+                                @Param("contains") String contains,
+                                @Param("prefix") String prefix,
+                                @Param("wordPrefix") String wordPrefix,
+                                @Param("digits") String digits,
+                                @Param("digitsContains") String digitsContains,
+                                @Param("limit") int limit);
 }
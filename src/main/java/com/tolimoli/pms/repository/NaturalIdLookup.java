@@ -0,0 +1,35 @@
+package com.tolimoli.pms.repository;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Natural-id lookups through the Hibernate second-level cache
+ *
+ * Derived finders such as findByEmail always run a query. Loading by
+ * @NaturalId resolves the key to an id in the entity's natural-id cache region
+ * and the entity from its entity region, so repeated lookups of rooms,
+ * channels and guests by their business keys skip the database. Must be
+ * called inside a transaction.
+ */
+@Repository
+public class NaturalIdLookup {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> Optional<T> find(Class<T> entityType, Serializable naturalId) {
+        if (naturalId == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(entityType)
+                .loadOptional(naturalId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tolimoli.pms.repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tolimoli.pms.entity.NightAuditRun;
+import com.tolimoli.pms.entity.NightAuditStatus;
+
+/**
+ * Night Audit Run Repository
+ *
+ * One row per audited business date; the latest completed run defines the
+ * current business date.
+ */
+@Repository
+public interface NightAuditRunRepository extends JpaRepository<NightAuditRun, Long> {
+
+    Optional<NightAuditRun> findByBusinessDate(LocalDate businessDate);
+
+    Optional<NightAuditRun> findTopByStatusOrderByBusinessDateDesc(NightAuditStatus status);
+
+    /**
+     * Add the work of one committed chunk to the run's counters
+     */
+    @Modifying
+    @Query("UPDATE NightAuditRun r SET r.reservationsAudited = r.reservationsAudited + :audited, " +
+           "r.roomChargesPosted = r.roomChargesPosted + :roomCharges, " +
+           "r.taxChargesPosted = r.taxChargesPosted + :taxCharges, r.noShows = r.noShows + :noShows " +
+           "WHERE r.id = :id")
+    int addProgress(@Param("id") Long id,
+                    @Param("audited") int audited,
+                    @Param("roomCharges") int roomCharges,
+                    @Param("taxCharges") int taxCharges,
+                    @Param("noShows") int noShows);
+}
@@ -1,16 +1,59 @@
 package com.tolimoli.pms.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.tolimoli.pms.dto.response.FolioBalanceResponse;
+import com.tolimoli.pms.dto.response.PaymentResponse;
 import com.tolimoli.pms.entity.Payment;
+import com.tolimoli.pms.entity.PaymentStatus;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long>,
     JpaSpecificationExecutor<Payment> {
 
     List<Payment> findByReservationId(Long reservationId);
+
+    /**
+     * Payments of a reservation as response rows, in one query
+     */
+    @Query("SELECT new com.tolimoli.pms.dto.response.PaymentResponse(p.id, p.reservation.id, p.amount, " +
+           "p.paymentMethod, p.paymentStatus, p.transactionId, p.cardLastFour, p.paymentDate) " +
+           "FROM Payment p WHERE p.reservation.id = :reservationId ORDER BY p.paymentDate")
+    List<PaymentResponse> findResponsesByReservationId(@Param("reservationId") Long reservationId);
+
+    /**
+     * Sum of a reservation's payments in the given status
+     */
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p " +
+           "WHERE p.reservation.id = :reservationId AND p.paymentStatus = :status")
+    BigDecimal sumAmountByReservationIdAndStatus(@Param("reservationId") Long reservationId,
+                                                 @Param("status") PaymentStatus status);
+
+    /**
+     * Balance of a reservation folio from its running totals, with the refunds
+     * that split its net paid amount into payments and refunds
+     */
+    @Query("SELECT new com.tolimoli.pms.dto.response.FolioBalanceResponse(r.id, r.totalAmount, r.paidAmount, " +
+           "(SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.reservation.id = r.id " +
+           "    AND p.paymentStatus = 'REFUNDED')) " +
+           "FROM Reservation r WHERE r.id = :reservationId")
+    Optional<FolioBalanceResponse> getFolioBalance(@Param("reservationId") Long reservationId);
+
+    /**
+     * Net paid amount per reservation (completed payments less refunds):
+     * [reservationId, net amount]
+     */
+    @Query("SELECT p.reservation.id, SUM(p.amount) FROM Payment p " +
+           "WHERE p.reservation.id IN :reservationIds AND p.paymentStatus IN ('COMPLETED', 'REFUNDED') " +
+           "GROUP BY p.reservation.id")
+    List<Object[]> sumNetPaidByReservationIds(@Param("reservationIds") Collection<Long> reservationIds);
 }
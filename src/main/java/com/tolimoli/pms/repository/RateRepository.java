@@ -1,22 +1,163 @@
 package com.tolimoli.pms.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.tolimoli.pms.dto.response.RateResponse;
 import com.tolimoli.pms.entity.Rate;
 
 @Repository
 public interface RateRepository extends JpaRepository<Rate, Long>,
         JpaSpecificationExecutor<Rate> {
 
+    /**
+     * Columns the ARI store keeps: (id, roomId, roomNumber, channelId, channelCode,
+     * rateDate, rateAmount, availableRooms, isBlocked, restrictions, restrictionRules)
+     */
+    String ARI_COLUMNS = "SELECT r.id, rm.id, rm.roomNumber, c.id, c.channelCode, r.rateDate, r.rateAmount, " +
+            "r.availableRooms, r.isBlocked, r.restrictions, r.restrictionRules " +
+            "FROM Rate r JOIN r.room rm JOIN r.channel c ";
+
     List<Rate> findByChannelIdAndRateDate(Long channelId, LocalDate date);
 
     Optional<Rate> findByRoomIdAndChannelIdAndRateDate(Long roomId, Long channelId, LocalDate date);
 
     List<Rate> findByRoomIdAndRateDateBetween(Long roomId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Every rate of a date range as ARI store rows, streamed
+     */
+    @QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE") })
+    @Query(ARI_COLUMNS + "WHERE r.rateDate BETWEEN :startDate AND :endDate")
+    Stream<Object[]> streamAri(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rates of many rooms on one channel for a date range, as ARI store rows
+     */
+    @Query(ARI_COLUMNS + "WHERE rm.id IN :roomIds AND c.id = :channelId " +
+           "AND r.rateDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findAri(@Param("roomIds") Collection<Long> roomIds,
+                           @Param("channelId") Long channelId,
+                           @Param("startDate") LocalDate startDate,
+                           @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rates of a date range updated at or after a time, as ARI store rows
+     */
+    @Query(ARI_COLUMNS + "WHERE r.updatedAt >= :since AND r.rateDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findAriChangedSince(@Param("since") LocalDateTime since,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rates of one room for a date range as response rows, in one query
+     */
+    @Query("SELECT new com.tolimoli.pms.dto.response.RateResponse(r.id, rm.id, rm.roomNumber, c.id, c.channelCode, " +
+           "r.rateDate, r.rateAmount, r.availableRooms, r.isBlocked, r.restrictions) " +
+           "FROM Rate r JOIN r.room rm JOIN r.channel c " +
+           "WHERE rm.id = :roomId AND r.rateDate BETWEEN :startDate AND :endDate ORDER BY r.rateDate, c.id")
+    List<RateResponse> findResponsesByRoomId(@Param("roomId") Long roomId,
+                                             @Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rates of one channel on a date as response rows, in one query
+     */
+    @Query("SELECT new com.tolimoli.pms.dto.response.RateResponse(r.id, rm.id, rm.roomNumber, c.id, c.channelCode, " +
+           "r.rateDate, r.rateAmount, r.availableRooms, r.isBlocked, r.restrictions) " +
+           "FROM Rate r JOIN r.room rm JOIN r.channel c " +
+           "WHERE c.id = :channelId AND r.rateDate = :date ORDER BY rm.roomNumber")
+    List<RateResponse> findResponsesByChannelId(@Param("channelId") Long channelId, @Param("date") LocalDate date);
+
+    /**
+     * Rate calendar of many rooms on one channel for a date range, in one query
+     */
+    @Query("SELECT r FROM Rate r WHERE r.room.id IN :roomIds " +
+           "AND r.channel.id = :channelId " +
+           "AND r.rateDate BETWEEN :startDate AND :endDate")
+    List<Rate> findCalendar(@Param("roomIds") Collection<Long> roomIds,
+                            @Param("channelId") Long channelId,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Blocked or restricted rates of many rooms on one channel for a date range,
+     * as (roomId, rateDate, isBlocked, restrictionRules, restrictions) rows;
+     * unrestricted dates are not returned
+     */
+    @Query("SELECT r.room.id, r.rateDate, r.isBlocked, r.restrictionRules, r.restrictions FROM Rate r " +
+           "WHERE r.room.id IN :roomIds AND r.channel.id = :channelId " +
+           "AND r.rateDate BETWEEN :startDate AND :endDate " +
+           "AND (r.isBlocked = true OR r.restrictionRules <> 0 " +
+           "OR (r.restrictionRules IS NULL AND r.restrictions IS NOT NULL))")
+    List<Object[]> findClosingRates(@Param("roomIds") Collection<Long> roomIds,
+                                    @Param("channelId") Long channelId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rates whose restrictions have not been compiled yet
+     */
+    List<Rate> findByRestrictionsIsNotNullAndRestrictionRulesIsNull();
+
+    /**
+     * Rates of many rooms on every channel for one date
+     */
+    @Query("SELECT r FROM Rate r WHERE r.room.id IN :roomIds AND r.rateDate = :date")
+    List<Rate> findByRoomIdsAndDate(@Param("roomIds") Collection<Long> roomIds, @Param("date") LocalDate date);
+
+    /**
+     * Find existing rates of one room for a set of channels and a date range
+     * (used by the bulk rate upsert to load a whole range in one query)
+     */
+    @Query("SELECT r FROM Rate r WHERE r.room.id = :roomId " +
+           "AND r.channel.id IN :channelIds " +
+           "AND r.rateDate BETWEEN :startDate AND :endDate")
+    List<Rate> findByRoomIdAndChannelIdsAndDateRange(@Param("roomId") Long roomId,
+                                                     @Param("channelIds") Collection<Long> channelIds,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * Take one room of inventory from every night of a stay (check-in up to,
+     * not including, check-out); the available_rooms >= 0 check rejects the
+     * whole update if any night is already at zero
+     */
+    @Modifying
+    @Query("UPDATE Rate r SET r.availableRooms = r.availableRooms - 1, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.room.id IN :roomIds AND r.channel.id = :channelId " +
+           "AND r.rateDate >= :checkIn AND r.rateDate < :checkOut")
+    int takeInventory(@Param("roomIds") Collection<Long> roomIds,
+                      @Param("channelId") Long channelId,
+                      @Param("checkIn") LocalDate checkIn,
+                      @Param("checkOut") LocalDate checkOut);
+
+    /**
+     * Give back one room of inventory to every night of a stay, never above
+     * the night's allotment
+     */
+    @Modifying
+    @Query("UPDATE Rate r SET r.availableRooms = r.availableRooms + 1, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.room.id IN :roomIds AND r.channel.id = :channelId " +
+           "AND r.rateDate >= :checkIn AND r.rateDate < :checkOut AND r.availableRooms < r.allotment")
+    int releaseInventory(@Param("roomIds") Collection<Long> roomIds,
+                         @Param("channelId") Long channelId,
+                         @Param("checkIn") LocalDate checkIn,
+                         @Param("checkOut") LocalDate checkOut);
 }
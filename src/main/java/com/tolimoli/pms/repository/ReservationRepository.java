@@ -8,15 +8,19 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
 /**
  * Reservation Repository with comprehensive query methods
  * 
@@ -44,6 +48,27 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
    */
   boolean existsByConfirmationNumber(String confirmationNumber);
 
+  /**
+   * Find reservation with guest, room and channel fetched in the same query
+   */
+  @Query("SELECT r FROM Reservation r JOIN FETCH r.guest JOIN FETCH r.room JOIN FETCH r.channel " +
+      "WHERE r.id = :reservationId")
+  Optional<Reservation> findWithDetailsById(@Param("reservationId") Long reservationId);
+
+  /**
+   * Find reservation by confirmation number with guest, room and channel fetched
+   */
+  @Query("SELECT r FROM Reservation r JOIN FETCH r.guest JOIN FETCH r.room JOIN FETCH r.channel " +
+      "WHERE r.confirmationNumber = :confirmationNumber")
+  Optional<Reservation> findWithDetailsByConfirmationNumber(@Param("confirmationNumber") String confirmationNumber);
+
+  /**
+   * Completed stays of a guest: [stays, total amount, last check-out date]
+   */
+  @Query("SELECT COUNT(r), COALESCE(SUM(r.totalAmount), 0), MAX(r.checkOutDate) FROM Reservation r " +
+      "WHERE r.guest.id = :guestId AND r.status = 'CHECKED_OUT'")
+  List<Object[]> summarizeCompletedStays(@Param("guestId") Long guestId);
+
   // ===== GUEST-BASED QUERIES =====
 
   /**
@@ -91,6 +116,91 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
       @Param("checkInDate") LocalDate checkInDate,
       @Param("checkOutDate") LocalDate checkOutDate);
 
+  /**
+   * Get the rooms among the given ones that are already booked for any of
+   * the dates (one query for a whole room block)
+   */
+  @Query("SELECT DISTINCT r.room.id FROM Reservation r WHERE r.room.id IN :roomIds " +
+      "AND r.status IN ('CONFIRMED', 'CHECKED_IN') " +
+      "AND r.checkInDate < :checkOutDate AND r.checkOutDate > :checkInDate")
+  List<Long> findConflictingRoomIds(@Param("roomIds") Collection<Long> roomIds,
+      @Param("checkInDate") LocalDate checkInDate,
+      @Param("checkOutDate") LocalDate checkOutDate);
+
+  /**
+   * Get room and stay dates of every reservation holding room nights
+   * (used to build the in-memory availability index)
+   */
+  @Query("SELECT r.room.id, r.checkInDate, r.checkOutDate FROM Reservation r " +
+      "WHERE r.status IN ('CONFIRMED', 'CHECKED_IN')")
+  List<Object[]> findActiveRoomNights();
+
+  /**
+   * Get room and stay dates of the reservations holding nights in some rooms
+   * (used to refresh the availability index)
+   */
+  @Query("SELECT r.room.id, r.checkInDate, r.checkOutDate FROM Reservation r " +
+      "WHERE r.room.id IN :roomIds AND r.status IN ('CONFIRMED', 'CHECKED_IN')")
+  List<Object[]> findActiveRoomNights(@Param("roomIds") Collection<Long> roomIds);
+
+  /**
+   * Get the rooms of reservations created or changed since the given time
+   */
+  @Query("SELECT DISTINCT r.room.id FROM Reservation r WHERE r.updatedAt >= :since")
+  List<Long> findRoomIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+  /**
+   * Get the next page of reservation ids after the given id
+   * (used to walk the table in id order for background jobs)
+   */
+  @Query("SELECT r.id FROM Reservation r WHERE r.id > :afterId ORDER BY r.id")
+  List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+  // ===== NIGHT AUDIT QUERIES =====
+
+  /**
+   * Get the next page of ids of guests in house on the business date that
+   * the night audit has not processed for it yet
+   */
+  @Query("SELECT r.id FROM Reservation r WHERE r.id > :afterId AND r.status = 'CHECKED_IN' " +
+      "AND r.checkInDate <= :businessDate AND r.checkOutDate > :businessDate " +
+      "AND (r.lastAuditDate IS NULL OR r.lastAuditDate < :businessDate) ORDER BY r.id")
+  List<Long> findInHouseIdsForAudit(@Param("businessDate") LocalDate businessDate,
+      @Param("afterId") Long afterId, Pageable pageable);
+
+  /**
+   * Get the in-house reservations among the ids, with their rooms, that still
+   * need the business date audited (re-checked inside the chunk transaction)
+   */
+  @Query("SELECT r FROM Reservation r JOIN FETCH r.room WHERE r.id IN :ids AND r.status = 'CHECKED_IN' " +
+      "AND r.checkInDate <= :businessDate AND r.checkOutDate > :businessDate " +
+      "AND (r.lastAuditDate IS NULL OR r.lastAuditDate < :businessDate)")
+  List<Reservation> findInHouseForAudit(@Param("ids") List<Long> ids,
+      @Param("businessDate") LocalDate businessDate);
+
+  /**
+   * Get the next page of ids of confirmed reservations due to arrive on or
+   * before the business date
+   */
+  @Query("SELECT r.id FROM Reservation r WHERE r.id > :afterId AND r.status = 'CONFIRMED' " +
+      "AND r.checkInDate <= :businessDate ORDER BY r.id")
+  List<Long> findNoShowIdsForAudit(@Param("businessDate") LocalDate businessDate,
+      @Param("afterId") Long afterId, Pageable pageable);
+
+  /**
+   * Get the reservations among the ids that are still unarrived no-shows
+   */
+  @Query("SELECT r FROM Reservation r JOIN FETCH r.room WHERE r.id IN :ids AND r.status = 'CONFIRMED' " +
+      "AND r.checkInDate <= :businessDate")
+  List<Reservation> findNoShowsForAudit(@Param("ids") List<Long> ids,
+      @Param("businessDate") LocalDate businessDate);
+
+  /**
+   * Count guests still checked in past their departure date
+   */
+  @Query("SELECT COUNT(r) FROM Reservation r WHERE r.status = 'CHECKED_IN' AND r.checkOutDate <= :businessDate")
+  long countOverdueDepartures(@Param("businessDate") LocalDate businessDate);
+
   // ===== DATE-BASED QUERIES =====
 
   /**
@@ -219,63 +329,6 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
   List<Reservation> findByAmountRange(@Param("minAmount") BigDecimal minAmount,
       @Param("maxAmount") BigDecimal maxAmount);
 
-  // ===== REPORTING QUERIES =====
-
-  /**
-   * Get daily occupancy count
-   */
-  @Query("SELECT COUNT(r) FROM Reservation r WHERE r.checkInDate <= :date " +
-      "AND r.checkOutDate > :date AND r.status IN ('CONFIRMED', 'CHECKED_IN')")
-  long getDailyOccupancyCount(@Param("date") LocalDate date);
-
-  /**
-   * Get monthly revenue
-   */
-  @Query("SELECT SUM(r.totalAmount) FROM Reservation r WHERE " +
-      "EXTRACT(YEAR FROM r.checkInDate) = :year AND " +
-      "EXTRACT(MONTH FROM r.checkInDate) = :month AND " +
-      "r.status != 'CANCELLED'")
-  BigDecimal getMonthlyRevenue(@Param("year") int year, @Param("month") int month);
-
-  /**
-   * Get revenue by date range
-   */
-  @Query("SELECT SUM(r.totalAmount) FROM Reservation r WHERE " +
-      "r.checkInDate >= :startDate AND r.checkInDate <= :endDate " +
-      "AND r.status != 'CANCELLED'")
-  BigDecimal getRevenueBetweenDates(@Param("startDate") LocalDate startDate,
-      @Param("endDate") LocalDate endDate);
-
-  /**
-   * Get channel performance (revenue by channel)
-   */
-  @Query("SELECT r.channel.channelName, SUM(r.totalAmount), COUNT(r) " +
-      "FROM Reservation r WHERE r.checkInDate >= :startDate AND r.checkInDate <= :endDate " +
-      "AND r.status != 'CANCELLED' " +
-      "GROUP BY r.channel.channelName ORDER BY SUM(r.totalAmount) DESC")
-  List<Object[]> getChannelPerformance(@Param("startDate") LocalDate startDate,
-      @Param("endDate") LocalDate endDate);
-
-  /**
-   * Get room type performance
-   */
-  @Query("SELECT r.room.roomType, COUNT(r), SUM(r.totalAmount) " +
-      "FROM Reservation r WHERE r.checkInDate >= :startDate AND r.checkInDate <= :endDate " +
-      "AND r.status != 'CANCELLED' " +
-      "GROUP BY r.room.roomType ORDER BY COUNT(r) DESC")
-  List<Object[]> getRoomTypePerformance(@Param("startDate") LocalDate startDate,
-      @Param("endDate") LocalDate endDate);
-
-  /**
-   * Get average daily rate (ADR)
-   */
-  @Query("SELECT AVG(r.totalAmount / " +
-      "(CAST(r.checkOutDate AS long) - CAST(r.checkInDate AS long))) " +
-      "FROM Reservation r WHERE r.checkInDate >= :startDate AND r.checkInDate <= :endDate " +
-      "AND r.status != 'CANCELLED'")
-  BigDecimal getAverageDailyRate(@Param("startDate") LocalDate startDate,
-      @Param("endDate") LocalDate endDate);
-
   // ===== SEARCH QUERIES =====
 
   /**
@@ -287,6 +340,30 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
       "ORDER BY r.createdAt DESC")
   List<Reservation> searchReservations(@Param("searchTerm") String searchTerm);
 
+  /**
+   * Rank reservations whose confirmation or OTA confirmation number contains or
+   * fuzzily matches the term (trigram indexes from V4__trigram_search_indexes.sql):
+   * [id, confirmation, external confirmation, status, check-in, check-out,
+   * guest id, guest first name, guest last name, guest email, score]
+   */
+  @Query(value = "SELECT r.id, r.confirmation_number, r.external_confirmation_number, r.status, " +
+      "r.check_in_date, r.check_out_date, g.id AS guest_id, g.first_name, g.last_name, g.email, " +
+      "GREATEST(word_similarity(:term, lower(r.confirmation_number)), " +
+      "  COALESCE(word_similarity(:term, lower(r.external_confirmation_number)), 0)) " +
+      "+ CASE WHEN lower(r.confirmation_number) LIKE :prefix " +
+      "    OR lower(r.external_confirmation_number) LIKE :prefix THEN 1 ELSE 0 END AS score " +
+      "FROM reservations r JOIN guests g ON g.id = r.guest_id " +
+      "WHERE lower(r.confirmation_number) LIKE :contains " +
+      "   OR :term <% lower(r.confirmation_number) " +
+      "   OR lower(r.external_confirmation_number) LIKE :contains " +
+      "   OR :term <% lower(r.external_confirmation_number) " +
+      "ORDER BY score DESC, r.check_in_date DESC " +
+      "LIMIT :limit", nativeQuery = true)
+  List<Object[]> searchRanked(@Param("term") String term,
+      @Param("contains") String contains,
+      @Param("prefix") String prefix,
+      @Param("limit") int limit);
+
   /**
    * Advanced search with multiple criteria
    */
@@ -309,6 +386,55 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
       @Param("checkInTo") LocalDate checkInTo,
       Pageable pageable);
 
+  // ===== PAGED LISTS AND EXPORTS =====
+
+  String LIST_FILTER = "FROM Reservation r JOIN FETCH r.guest g JOIN FETCH r.room JOIN FETCH r.channel c " +
+      "WHERE r.id > :afterId " +
+      "AND (:status IS NULL OR r.status = :status) " +
+      "AND (:channelCode IS NULL OR c.channelCode = :channelCode) " +
+      "AND (:otaOnly = false OR c.channelCode <> 'DIRECT') " +
+      "AND (:outstandingOnly = false OR r.totalAmount > r.paidAmount) " +
+      "AND (:searchTerm IS NULL " +
+      "OR LOWER(CONCAT(g.firstName, ' ', g.lastName)) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+      "OR LOWER(r.confirmationNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+      "ORDER BY r.id";
+
+  /**
+   * Find the next filtered reservations after the given id, in id order,
+   * with guest, room and channel fetched (keyset pagination)
+   */
+  @Query("SELECT r " + LIST_FILTER)
+  List<Reservation> findPageAfter(@Param("afterId") Long afterId,
+      @Param("status") ReservationStatus status,
+      @Param("channelCode") String channelCode,
+      @Param("otaOnly") boolean otaOnly,
+      @Param("outstandingOnly") boolean outstandingOnly,
+      @Param("searchTerm") String searchTerm,
+      Pageable pageable);
+
+  /**
+   * Find the next filtered reservations after the given id for an export
+   * page, read-only and bypassing the second-level cache
+   */
+  @QueryHints({ @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+      @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE") })
+  @Query("SELECT r " + LIST_FILTER)
+  List<Reservation> findExportPageAfter(@Param("afterId") Long afterId,
+      @Param("status") ReservationStatus status,
+      @Param("channelCode") String channelCode,
+      @Param("otaOnly") boolean otaOnly,
+      @Param("outstandingOnly") boolean outstandingOnly,
+      @Param("searchTerm") String searchTerm,
+      Pageable pageable);
+
+  // ===== CONFIRMATION NUMBERS =====
+
+  /**
+   * Reserve the next block of confirmation number counters
+   */
+  @Query(value = "SELECT nextval('confirmation_number_seq')", nativeQuery = true)
+  long nextConfirmationBlock();
+
   // ===== UPDATE OPERATIONS =====
 
   /**
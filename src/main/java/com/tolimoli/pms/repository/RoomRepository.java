@@ -1,12 +1,17 @@
 package com.tolimoli.pms.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,10 +23,10 @@ public interface RoomRepository extends JpaRepository<Room, Long>,
     JpaSpecificationExecutor<Room> {
 
     /**
-     * Find available rooms for given date range and room type
+     * Find available rooms for given date range, optionally limited to a room type
      * Excludes rooms that have confirmed or checked-in reservations overlapping with the date range
      */
-    @Query("SELECT r FROM Room r WHERE r.roomType = :roomType " +
+    @Query("SELECT r FROM Room r WHERE (:roomType IS NULL OR r.roomType = :roomType) " +
            "AND r.isActive = true " +
            "AND r.status = 'AVAILABLE' " +
            "AND r.id NOT IN (" +
@@ -34,10 +39,24 @@ public interface RoomRepository extends JpaRepository<Room, Long>,
                                   @Param("checkOutDate") LocalDate checkOutDate, 
                                   @Param("roomType") RoomType roomType); 
 
+    /**
+     * Find rooms that can be offered for sale, optionally limited to a room type
+     * Date conflicts are resolved by the in-memory availability index
+     */
+    @Query("SELECT r FROM Room r WHERE (:roomType IS NULL OR r.roomType = :roomType) " +
+           "AND r.isActive = true " +
+           "AND r.status = 'AVAILABLE'")
+    List<Room> findSellableRooms(@Param("roomType") RoomType roomType);
+
     /**
      * Find room by room number
      */
     Optional<Room> findByRoomNumber(String roomNumber);
+
+    /**
+     * Find rooms by room number, in one query
+     */
+    List<Room> findByRoomNumberIn(Collection<String> roomNumbers);
     
     /**
      * Find all rooms by room type
@@ -60,10 +79,32 @@ public interface RoomRepository extends JpaRepository<Room, Long>,
      * Find active rooms
      */
     List<Room> findByIsActiveTrue();
+
+    /**
+     * Count sellable rooms
+     */
+    long countByIsActiveTrue();
     
     /**
      * Count rooms by type
      */
     @Query("SELECT COUNT(r) FROM Room r WHERE r.roomType = :roomType AND r.isActive = true")
     long countByRoomType(@Param("roomType") RoomType roomType);
+
+    // ===== PAGED LISTS AND EXPORTS =====
+
+    /**
+     * Find the next rooms after the given id, in id order
+     */
+    @Query("SELECT r FROM Room r WHERE r.id > :afterId ORDER BY r.id")
+    List<Room> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find the next rooms after the given id for an export page, read-only
+     * and bypassing the second-level cache
+     */
+    @QueryHints({ @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE") })
+    @Query("SELECT r FROM Room r WHERE r.id > :afterId ORDER BY r.id")
+    List<Room> findExportPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,269 @@
+package com.tolimoli.pms.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.dto.request.AriDeltaMessage;
+import com.tolimoli.pms.dto.request.AriUpdate;
+import com.tolimoli.pms.entity.AriOutboxEntry;
+import com.tolimoli.pms.entity.AriOutboxStatus;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.exception.ChannelDeliveryException;
+import com.tolimoli.pms.repository.AriOutboxRepository;
+import com.tolimoli.pms.repository.ChannelRepository;
+import com.tolimoli.pms.repository.RoomRepository;
+import com.tolimoli.pms.util.TokenBucket;
+
+/**
+ * Channel distribution worker
+ *
+ * Drains the ARI outbox into channels. A poller hands channels with due
+ * entries to a fixed pool of sender threads; each channel has at most one
+ * message in flight, so its cells arrive in change order, and a token bucket
+ * per channel caps its request rate. When the pool's queue is full the poller
+ * stops dispatching and the backlog simply waits in the outbox.
+ *
+ * A delivered entry is deleted only if it has not changed while it was being
+ * sent; otherwise it stays queued with its newer values. Failures back off
+ * exponentially (or as long as the channel's Retry-After asks) and entries
+ * that exhaust their attempts, or are rejected outright, are parked as
+ * FAILED until requeued. Run the worker on one node only
+ * (app.ari.worker-enabled) so two nodes never push the same channel.
+ */
+@Component
+public class AriDistributionWorker {
+
+  private static final Logger log = LoggerFactory.getLogger(AriDistributionWorker.class);
+
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  @Autowired
+  private AriOutboxRepository outboxRepository;
+
+  @Autowired
+  private ChannelRepository channelRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private AriSender sender;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Value("${app.ari.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.ari.worker-enabled:true}")
+  private boolean workerEnabled;
+
+  @Value("${app.ari.workers:4}")
+  private int workers;
+
+  @Value("${app.ari.queue-capacity:8}")
+  private int queueCapacity;
+
+  @Value("${app.ari.batch-size:200}")
+  private int batchSize;
+
+  @Value("${app.ari.requests-per-second:5}")
+  private double requestsPerSecond;
+
+  @Value("${app.ari.burst:10}")
+  private int burst;
+
+  @Value("${app.ari.max-attempts:10}")
+  private int maxAttempts;
+
+  @Value("${app.ari.initial-backoff-ms:2000}")
+  private long initialBackoffMs;
+
+  @Value("${app.ari.max-backoff-ms:600000}")
+  private long maxBackoffMs;
+
+  private ThreadPoolExecutor executor;
+
+  private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+  private final Map<Long, TokenBucket> rateLimits = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  void start() {
+    AtomicInteger threadNumber = new AtomicInteger();
+    executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "ari-sender-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    executor.shutdown();
+    if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Hand every channel with due entries to a sender thread, as far as rate
+   * limits and pool capacity allow
+   *
+   * @return number of channels dispatched
+   */
+  @Scheduled(fixedDelayString = "${app.ari.poll-interval-ms:1000}")
+  public int dispatch() {
+    if (!enabled || !workerEnabled) {
+      return 0;
+    }
+    int dispatched = 0;
+    for (Long channelId : outboxRepository.findDueChannelIds(LocalDateTime.now())) {
+      if (executor.getQueue().remainingCapacity() == 0) {
+        break;
+      }
+      if (inFlight.contains(channelId) || !rateLimit(channelId).tryAcquire()) {
+        continue;
+      }
+      inFlight.add(channelId);
+      try {
+        executor.execute(() -> drain(channelId));
+        dispatched++;
+      } catch (RejectedExecutionException e) {
+        inFlight.remove(channelId);
+        break;
+      }
+    }
+    return dispatched;
+  }
+
+  // Send full batches back to back while the channel's rate limit allows
+  private void drain(Long channelId) {
+    try {
+      while (deliverBatch(channelId) && rateLimit(channelId).tryAcquire()) {
+        // next batch
+      }
+    } catch (RuntimeException e) {
+      log.warn("ARI delivery to channel {} aborted, will retry on the next poll", channelId, e);
+    } finally {
+      inFlight.remove(channelId);
+    }
+  }
+
+  /**
+   * Send one batch of the channel's due entries
+   *
+   * @return true when the batch was delivered and more entries may be due
+   */
+  private boolean deliverBatch(Long channelId) {
+    List<AriOutboxEntry> batch = outboxRepository.findDue(channelId, LocalDateTime.now(),
+        PageRequest.of(0, batchSize));
+    if (batch.isEmpty()) {
+      return false;
+    }
+
+    Channel channel = channelRepository.findById(channelId).orElse(null);
+    if (channel == null || !channel.isOnlineChannel()) {
+      recordFailures(batch, new ChannelDeliveryException("Channel " + channelId + " has no API endpoint", false, null));
+      return false;
+    }
+
+    try {
+      sender.send(channel, toMessage(channel, batch));
+    } catch (ChannelDeliveryException e) {
+      log.warn("ARI delivery of {} updates to {} failed: {}", batch.size(), channel.getChannelCode(), e.getMessage());
+      recordFailures(batch, e);
+      return false;
+    }
+
+    transactionTemplate.executeWithoutResult(status -> {
+      for (AriOutboxEntry entry : batch) {
+        outboxRepository.deleteDelivered(entry.getId(), entry.getRevision());
+      }
+    });
+    return batch.size() == batchSize;
+  }
+
+  private AriDeltaMessage toMessage(Channel channel, List<AriOutboxEntry> batch) {
+    Map<Long, Room> rooms = roomRepository.findAllById(batch.stream().map(AriOutboxEntry::getRoomId)
+        .collect(Collectors.toSet())).stream()
+        .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+    List<AriUpdate> updates = new ArrayList<>(batch.size());
+    StringBuilder content = new StringBuilder();
+    for (AriOutboxEntry entry : batch) {
+      Room room = rooms.get(entry.getRoomId());
+      updates.add(new AriUpdate(room != null ? room.getRoomNumber() : null, room != null ? room.getRoomType() : null,
+          entry.getStayDate(), entry.getRateAmount(), entry.getAvailableRooms(), entry.getStopSell()));
+      content.append(entry.getId()).append(':').append(entry.getRevision()).append(',');
+    }
+
+    // Same entries at the same revisions give the same id, so retries are recognizable
+    String messageId = channel.getId() + "-"
+        + UUID.nameUUIDFromBytes(content.toString().getBytes(StandardCharsets.UTF_8));
+    return new AriDeltaMessage(messageId, channel.getChannelCode(), LocalDateTime.now(), updates);
+  }
+
+  private void recordFailures(List<AriOutboxEntry> batch, ChannelDeliveryException failure) {
+    LocalDateTime now = LocalDateTime.now();
+    String error = truncate(failure.getMessage());
+    transactionTemplate.executeWithoutResult(status -> {
+      for (AriOutboxEntry entry : batch) {
+        int attempts = entry.getAttempts() + 1;
+        boolean park = !failure.isRetryable() || attempts >= maxAttempts;
+        outboxRepository.recordFailure(entry.getId(), entry.getRevision(),
+            park ? AriOutboxStatus.FAILED : AriOutboxStatus.PENDING,
+            now.plus(backoff(attempts, failure.getRetryAfter())), error, now);
+      }
+    });
+  }
+
+  // initial * 2^(attempts - 1) with +-20% jitter, capped; at least what the channel asked for
+  private Duration backoff(int attempts, Duration retryAfter) {
+    long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+    delay = Math.min(delay, maxBackoffMs);
+    delay = (long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    Duration backoff = Duration.ofMillis(delay);
+    return retryAfter != null && retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff;
+  }
+
+  private TokenBucket rateLimit(Long channelId) {
+    return rateLimits.computeIfAbsent(channelId, id -> new TokenBucket(requestsPerSecond, burst));
+  }
+
+  private static String truncate(String message) {
+    if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+      return message;
+    }
+    return message.substring(0, MAX_ERROR_LENGTH);
+  }
+}
@@ -0,0 +1,91 @@
+package com.tolimoli.pms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.tolimoli.pms.dto.response.AriOutboxStatusResponse;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Rate;
+import com.tolimoli.pms.repository.AriOutboxRepository;
+
+import javax.transaction.Transactional;
+
+// ===== ARI OUTBOX SERVICE =====
+// Queues rate and availability changes for channels with an API endpoint.
+// Runs inside the transaction that changes the rates, so a change is queued
+// exactly when it commits; AriDistributionWorker delivers the queue.
+@Service
+@Transactional
+public class AriOutboxService {
+
+  private static final Comparator<Rate> CELL_ORDER = Comparator
+      .comparing((Rate rate) -> rate.getChannel().getId())
+      .thenComparing(rate -> rate.getRoom().getId())
+      .thenComparing(Rate::getRateDate);
+
+  @Autowired
+  private AriOutboxRepository outboxRepository;
+
+  @Value("${app.ari.enabled:true}")
+  private boolean enabled;
+
+  // Queue the current values of the given rates, one entry per channel / room / date
+  public void recordRates(Collection<Rate> rates) {
+    if (!enabled || rates.isEmpty()) {
+      return;
+    }
+
+    Map<Long, Boolean> distributed = new HashMap<>();
+    List<Rate> cells = new ArrayList<>();
+    for (Rate rate : rates) {
+      Channel channel = rate.getChannel();
+      if (distributed.computeIfAbsent(channel.getId(), id -> isDistributed(channel))) {
+        cells.add(rate);
+      }
+    }
+
+    // Each cell is a single upsert, so concurrent writers and the worker's
+    // deletes never see a half-applied entry. A fixed order keeps two
+    // transactions touching the same cells from deadlocking on them.
+    cells.sort(CELL_ORDER);
+    LocalDateTime now = LocalDateTime.now();
+    for (Rate rate : cells) {
+      outboxRepository.upsertCell(rate.getChannel().getId(), rate.getRoom().getId(), rate.getRateDate(),
+          rate.getRateAmount(), rate.getAvailableRooms(), Boolean.TRUE.equals(rate.getIsBlocked()), now);
+    }
+  }
+
+  // Queue the current values of the rates of these rooms on a channel from
+  // startDate to endDate, without loading them
+  public void recordRates(Channel channel, Collection<Long> roomIds, LocalDate startDate, LocalDate endDate) {
+    if (!enabled || roomIds.isEmpty() || !isDistributed(channel)) {
+      return;
+    }
+    outboxRepository.upsertRates(channel.getId(), roomIds, startDate, endDate, LocalDateTime.now());
+  }
+
+  // Entries per channel and state that have not been delivered yet
+  public List<AriOutboxStatusResponse> getStatus() {
+    return outboxRepository.summarize();
+  }
+
+  // Retry a channel's entries that ran out of attempts
+  public int requeueFailed(Long channelId) {
+    return outboxRepository.requeueFailed(channelId, LocalDateTime.now());
+  }
+
+  private static boolean isDistributed(Channel channel) {
+    return Boolean.TRUE.equals(channel.getIsActive()) && channel.isOnlineChannel() && !channel.isDirect();
+  }
+
+}
@@ -0,0 +1,18 @@
+package com.tolimoli.pms.service;
+
+import com.tolimoli.pms.dto.request.AriDeltaMessage;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.exception.ChannelDeliveryException;
+
+/**
+ * Transport that hands rate and availability changes to a channel
+ */
+public interface AriSender {
+
+  /**
+   * Deliver the message, returning only once the channel has accepted it
+   *
+   * @throws ChannelDeliveryException when the channel did not accept it
+   */
+  void send(Channel channel, AriDeltaMessage message);
+}
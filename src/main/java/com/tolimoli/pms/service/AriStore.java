@@ -0,0 +1,437 @@
+package com.tolimoli.pms.service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.dto.response.RateResponse;
+import com.tolimoli.pms.entity.Rate;
+import com.tolimoli.pms.repository.RateRepository;
+import com.tolimoli.pms.util.RestrictionRules;
+import com.tolimoli.pms.util.TransactionCallbacks;
+
+/**
+ * In-memory ARI store
+ *
+ * Holds the rate calendar (availability, rates and inventory) of every room
+ * and channel for a rolling window of days, column by column: per room and
+ * channel, arrays indexed by day offset hold the rate id, the amount in
+ * cents, the rooms available and the compiled restriction rules, and a
+ * bitset marks blocked days. Rules and restriction text are only allocated
+ * for rows that have some. The room and channel calendars and the channel
+ * availability filter read from here instead of the rates table.
+ *
+ * The store is loaded from the rates table once the application is ready
+ * and reloaded daily, which also moves the window. Writes on this node are
+ * applied when their transaction commits; a periodic refresh re-reads rows
+ * whose updated_at has moved, which picks up other nodes' writes and
+ * repairs any local update applied out of order. Reads outside the window,
+ * or before the first load, go to the database.
+ *
+ * Calendars hash their cells as RateCalendar does, so the same data gives
+ * the same ETag whether it came from the store or the database, on any node.
+ */
+@Component
+public class AriStore {
+
+  private static final Logger log = LoggerFactory.getLogger(AriStore.class);
+
+  // Longest calendar one request may read
+  private static final int MAX_DAYS = 731;
+
+  @Autowired
+  private RateRepository rateRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Value("${app.ari-store.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.ari-store.past-days:31}")
+  private int pastDays;
+
+  @Value("${app.ari-store.future-days:730}")
+  private int futureDays;
+
+  // Rows changed this long before the previous refresh are read again, for clock skew and slow commits
+  @Value("${app.ari-store.refresh-overlap-seconds:60}")
+  private long refreshOverlapSeconds;
+
+  // Null until the first load completes
+  private volatile Columns columns;
+
+  // The next refresh reads rows updated at or after this time
+  private volatile LocalDateTime refreshFrom;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    reload();
+  }
+
+  /**
+   * Load the whole window from the rates table and swap it in
+   *
+   * @return number of rates loaded
+   */
+  @Scheduled(cron = "${app.ari-store.reload-cron:0 15 3 * * *}")
+  public int reload() {
+    if (!enabled) {
+      return 0;
+    }
+    long started = System.nanoTime();
+    LocalDateTime loadFrom = LocalDateTime.now().minusSeconds(refreshOverlapSeconds);
+    Columns next = new Columns(LocalDate.now().minusDays(pastDays).toEpochDay(), pastDays + futureDays + 1);
+    int[] loaded = new int[1];
+    transactionTemplate.executeWithoutResult(status -> {
+      try (Stream<Object[]> rows = rateRepository.streamAri(next.firstDate(), next.lastDate())) {
+        rows.forEach(rate -> {
+          next.put(rate);
+          loaded[0]++;
+        });
+      }
+    });
+    refreshFrom = loadFrom;
+    columns = next;
+    log.info("Loaded {} rates into the ARI store: {} room/channel rows, {} to {}, {} ms, about {} KB",
+        loaded[0], next.rowCount(), next.firstDate(), next.lastDate(),
+        (System.nanoTime() - started) / 1_000_000, next.footprint() / 1024);
+    return loaded[0];
+  }
+
+  /**
+   * Re-read rates changed since the previous refresh
+   *
+   * @return number of rates re-read
+   */
+  @Scheduled(fixedDelayString = "${app.ari-store.refresh-interval-ms:30000}")
+  public int refresh() {
+    Columns current = columns;
+    if (current == null) {
+      return 0;
+    }
+    LocalDateTime nextFrom = LocalDateTime.now().minusSeconds(refreshOverlapSeconds);
+    List<Object[]> rows = rateRepository.findAriChangedSince(refreshFrom, current.firstDate(), current.lastDate());
+    rows.forEach(current::put);
+    refreshFrom = nextFrom;
+    return rows.size();
+  }
+
+  /**
+   * Apply these rates to the store once the current transaction commits
+   */
+  public void record(Collection<Rate> rates) {
+    if (!enabled || rates.isEmpty()) {
+      return;
+    }
+    // Copy the values now; the entities may be detached or changed again by commit time
+    List<Object[]> rows = new ArrayList<>(rates.size());
+    for (Rate rate : rates) {
+      rows.add(new Object[] { rate.getId(), rate.getRoom().getId(), rate.getRoom().getRoomNumber(),
+          rate.getChannel().getId(), rate.getChannel().getChannelCode(), rate.getRateDate(), rate.getRateAmount(),
+          rate.getAvailableRooms(), rate.getIsBlocked(), rate.getRestrictions(), rate.getRestrictionRules() });
+    }
+    apply(rows);
+  }
+
+  /**
+   * Re-read the rates of these rooms on a channel from startDate to endDate
+   * and apply them once the current transaction commits
+   */
+  public void record(Collection<Long> roomIds, Long channelId, LocalDate startDate, LocalDate endDate) {
+    if (!enabled || roomIds.isEmpty() || columns == null) {
+      return;
+    }
+    apply(rateRepository.findAri(roomIds, channelId, startDate, endDate));
+  }
+
+  private void apply(List<Object[]> rows) {
+    TransactionCallbacks.afterCommit(() -> {
+      Columns current = columns;
+      if (current != null) {
+        rows.forEach(current::put);
+      }
+    });
+  }
+
+  /**
+   * Rates of one room on every channel from startDate to endDate, by date and channel
+   */
+  public RateCalendar getRoomCalendar(Long roomId, LocalDate startDate, LocalDate endDate) {
+    if (endDate.isBefore(startDate)) {
+      throw new IllegalArgumentException("End date must not be before start date");
+    }
+    if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_DAYS) {
+      throw new IllegalArgumentException("A rate calendar covers at most " + MAX_DAYS + " days");
+    }
+    Columns current = columns;
+    if (current == null || !current.covers(startDate, endDate)) {
+      return RateCalendar.of(rateRepository.findResponsesByRoomId(roomId, startDate, endDate), startDate, endDate);
+    }
+    List<Slice> slices = new ArrayList<>();
+    for (Row row : new TreeMap<>(current.byRoom.getOrDefault(roomId, Map.of())).values()) {
+      slices.add(row.slice(current.offset(startDate), current.offset(endDate)));
+    }
+    return calendar(slices, startDate, endDate);
+  }
+
+  /**
+   * Rates of every room of one channel on a date, by room number
+   */
+  public RateCalendar getChannelCalendar(Long channelId, LocalDate date) {
+    Columns current = columns;
+    if (current == null || !current.covers(date, date)) {
+      return RateCalendar.of(rateRepository.findResponsesByChannelId(channelId, date), date, date);
+    }
+    List<Slice> slices = new ArrayList<>();
+    int day = current.offset(date);
+    for (Row row : current.byChannel.getOrDefault(channelId, Map.of()).values()) {
+      slices.add(row.slice(day, day));
+    }
+    slices.sort(Comparator.comparing(slice -> slice.roomNumber));
+    return calendar(slices, date, date);
+  }
+
+  /**
+   * Rooms the channel may not sell for the stay: a blocked night, or the
+   * arrival or departure rules broken; null when the stay is outside the window
+   */
+  public Set<Long> findClosedRooms(Collection<Long> roomIds, Long channelId, LocalDate checkIn, LocalDate checkOut) {
+    Columns current = columns;
+    if (current == null || !current.covers(checkIn, checkOut)) {
+      return null;
+    }
+    int arrival = current.offset(checkIn);
+    int departure = current.offset(checkOut);
+    Set<Long> closed = new HashSet<>();
+    for (Long roomId : roomIds) {
+      Row row = current.byRoom.getOrDefault(roomId, Map.of()).get(channelId);
+      if (row != null && row.closes(arrival, departure, checkIn.getDayOfWeek(), checkOut.getDayOfWeek())) {
+        closed.add(roomId);
+      }
+    }
+    return closed;
+  }
+
+  /**
+   * One generation of the store: every row shares the window [origin, origin + days)
+   */
+  private static final class Columns {
+
+    private final long origin;
+    private final int days;
+
+    private final Map<Long, Map<Long, Row>> byRoom = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Row>> byChannel = new ConcurrentHashMap<>();
+
+    Columns(long origin, int days) {
+      this.origin = origin;
+      this.days = days;
+    }
+
+    LocalDate firstDate() {
+      return LocalDate.ofEpochDay(origin);
+    }
+
+    LocalDate lastDate() {
+      return LocalDate.ofEpochDay(origin + days - 1);
+    }
+
+    boolean covers(LocalDate from, LocalDate to) {
+      return from.toEpochDay() >= origin && to.toEpochDay() < origin + days;
+    }
+
+    int offset(LocalDate date) {
+      return (int) (date.toEpochDay() - origin);
+    }
+
+    // (id, roomId, roomNumber, channelId, channelCode, rateDate, rateAmount,
+    //  availableRooms, isBlocked, restrictions, restrictionRules)
+    void put(Object[] rate) {
+      LocalDate date = (LocalDate) rate[5];
+      if (!covers(date, date)) {
+        return;
+      }
+      Long roomId = (Long) rate[1];
+      Long channelId = (Long) rate[3];
+      Row row = byRoom.computeIfAbsent(roomId, id -> new ConcurrentHashMap<>()).computeIfAbsent(channelId, id -> {
+        Row created = new Row(roomId, channelId, days);
+        byChannel.computeIfAbsent(channelId, key -> new ConcurrentHashMap<>()).put(roomId, created);
+        return created;
+      });
+      String restrictions = (String) rate[9];
+      long rules = rate[10] != null ? (Long) rate[10] : RestrictionRules.compile(restrictions);
+      row.set(offset(date), (Long) rate[0], (String) rate[2], (String) rate[4], (BigDecimal) rate[6],
+          (Integer) rate[7], Boolean.TRUE.equals(rate[8]), restrictions, rules);
+    }
+
+    int rowCount() {
+      return byRoom.values().stream().mapToInt(Map::size).sum();
+    }
+
+    long footprint() {
+      return byRoom.values().stream().flatMap(rows -> rows.values().stream()).mapToLong(Row::footprint).sum();
+    }
+  }
+
+  /**
+   * One room on one channel; index i of every column is day origin + i
+   */
+  private static final class Row {
+
+    private final Long roomId;
+    private final Long channelId;
+    private String roomNumber;
+    private String channelCode;
+
+    private final long[] rateIds; // 0 where the day has no rate
+    private final long[] amounts; // in cents
+    private final int[] available;
+    private final BitSet blocked = new BitSet();
+    private long[] rules; // only allocated once a day has restrictions
+    private String[] restrictions;
+
+    Row(Long roomId, Long channelId, int days) {
+      this.roomId = roomId;
+      this.channelId = channelId;
+      this.rateIds = new long[days];
+      this.amounts = new long[days];
+      this.available = new int[days];
+    }
+
+    synchronized void set(int day, long rateId, String roomNumber, String channelCode, BigDecimal amount,
+        int availableRooms, boolean isBlocked, String restriction, long compiledRules) {
+      this.roomNumber = roomNumber;
+      this.channelCode = channelCode;
+      rateIds[day] = rateId;
+      amounts[day] = amount.movePointRight(2).longValue();
+      available[day] = availableRooms;
+      blocked.set(day, isBlocked);
+      if (restrictions == null && restriction != null) {
+        restrictions = new String[rateIds.length];
+        rules = new long[rateIds.length];
+      }
+      if (restrictions != null) {
+        restrictions[day] = restriction;
+        rules[day] = compiledRules;
+      }
+    }
+
+    synchronized Slice slice(int from, int to) {
+      return new Slice(roomId, roomNumber, channelId, channelCode,
+          Arrays.copyOfRange(rateIds, from, to + 1), Arrays.copyOfRange(amounts, from, to + 1),
+          Arrays.copyOfRange(available, from, to + 1), blocked.get(from, to + 1),
+          restrictions != null ? Arrays.copyOfRange(restrictions, from, to + 1) : null);
+    }
+
+    // Same checks as RateQuoteService applies to the rows of the rates table
+    synchronized boolean closes(int arrival, int departure, DayOfWeek arrivalDay, DayOfWeek departureDay) {
+      int blockedNight = blocked.nextSetBit(arrival);
+      if (blockedNight >= 0 && blockedNight < departure) {
+        return true;
+      }
+      if (rules == null) {
+        return false;
+      }
+      return (rateIds[arrival] != 0 && !RestrictionRules.allowsArrival(rules[arrival], arrivalDay, departure - arrival))
+          || (rateIds[departure] != 0 && RestrictionRules.closedToDeparture(rules[departure], departureDay));
+    }
+
+    synchronized long footprint() {
+      long bytes = rateIds.length * (8L + 8L + 4L) + blocked.size() / 8;
+      if (rules != null) {
+        bytes += rules.length * (8L + 8L);
+      }
+      return bytes;
+    }
+  }
+
+  /**
+   * Copy of a run of days of one row
+   */
+  private static final class Slice {
+
+    private final Long roomId;
+    private final String roomNumber;
+    private final Long channelId;
+    private final String channelCode;
+    private final long[] rateIds;
+    private final long[] amounts;
+    private final int[] available;
+    private final BitSet blocked;
+    private final String[] restrictions;
+
+    Slice(Long roomId, String roomNumber, Long channelId, String channelCode, long[] rateIds, long[] amounts,
+        int[] available, BitSet blocked, String[] restrictions) {
+      this.roomId = roomId;
+      this.roomNumber = roomNumber;
+      this.channelId = channelId;
+      this.channelCode = channelCode;
+      this.rateIds = rateIds;
+      this.amounts = amounts;
+      this.available = available;
+      this.blocked = blocked;
+      this.restrictions = restrictions;
+    }
+
+    String restriction(int day) {
+      return restrictions != null ? restrictions[day] : null;
+    }
+  }
+
+  /**
+   * Calendar of slices covering startDate to endDate, hashed in the order
+   * RateCalendar.of reads the rates table rows: by date, then slice order
+   */
+  private static RateCalendar calendar(List<Slice> slices, LocalDate startDate, LocalDate endDate) {
+    int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    long h = RateCalendar.seed(startDate, endDate);
+    for (int day = 0; day < days; day++) {
+      for (Slice slice : slices) {
+        if (slice.rateIds[day] != 0) {
+          h = RateCalendar.mixCell(h, slice.rateIds[day], slice.roomId, slice.channelId, slice.roomNumber,
+              slice.channelCode, slice.amounts[day], slice.available[day], slice.blocked.get(day),
+              slice.restriction(day));
+        }
+      }
+    }
+    return new RateCalendar(h, () -> {
+      List<RateResponse> rates = new ArrayList<>();
+      for (int day = 0; day < days; day++) {
+        LocalDate date = startDate.plusDays(day);
+        for (Slice slice : slices) {
+          if (slice.rateIds[day] != 0) {
+            rates.add(new RateResponse(slice.rateIds[day], slice.roomId, slice.roomNumber, slice.channelId,
+                slice.channelCode, date, BigDecimal.valueOf(slice.amounts[day], 2), slice.available[day],
+                slice.blocked.get(day), slice.restriction(day)));
+          }
+        }
+      }
+      return rates;
+    });
+  }
+}
@@ -0,0 +1,149 @@
+package com.tolimoli.pms.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.exception.ResourceNotFoundException;
+import com.tolimoli.pms.repository.FolioChargeRepository;
+import com.tolimoli.pms.repository.PaymentRepository;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * Balance repair job
+ *
+ * Reservation totalAmount, taxAmount, discountAmount and paidAmount are
+ * maintained incrementally as charges and payments are posted. This job
+ * recomputes them from the folio charges and payments tables and fixes any
+ * reservation that has drifted. Each page of reservations is repaired in its
+ * own transaction; if the page fails, its reservations are repaired one by
+ * one so a concurrent posting or a reservation that cannot be corrected only
+ * skips that reservation until the next run.
+ */
+@Service
+public class BalanceRepairService {
+
+  private static final Logger log = LoggerFactory.getLogger(BalanceRepairService.class);
+
+  private static final int PAGE_SIZE = 500;
+
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  @Autowired
+  private FolioChargeRepository folioChargeRepository;
+
+  @Autowired
+  private PaymentRepository paymentRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /**
+   * Repair the running totals of every reservation
+   *
+   * @return number of reservations whose totals were corrected
+   */
+  @Scheduled(cron = "${app.balance-repair.cron:0 30 3 * * *}")
+  public int repairAll() {
+    int repaired = 0;
+    long afterId = 0L;
+    while (true) {
+      List<Long> ids = reservationRepository.findIdsAfter(afterId, PageRequest.of(0, PAGE_SIZE));
+      if (ids.isEmpty()) {
+        break;
+      }
+      try {
+        Integer fixed = transactionTemplate.execute(status -> repairPage(ids));
+        repaired += fixed != null ? fixed : 0;
+      } catch (RuntimeException e) {
+        log.warn("Balance repair of reservations {}..{} failed, repairing them one by one: {}",
+            ids.get(0), ids.get(ids.size() - 1), e.getMessage());
+        repaired += repairEach(ids);
+      }
+      afterId = ids.get(ids.size() - 1);
+    }
+    log.info("Balance repair finished, {} reservations corrected", repaired);
+    return repaired;
+  }
+
+  /**
+   * Repair the running totals of a single reservation
+   *
+   * @return true when the totals were corrected
+   */
+  public boolean repair(Long reservationId) {
+    if (!reservationRepository.existsById(reservationId)) {
+      throw new ResourceNotFoundException("Reservation", reservationId);
+    }
+    Integer fixed = transactionTemplate.execute(status -> repairPage(List.of(reservationId)));
+    return fixed != null && fixed > 0;
+  }
+
+  // Repair each reservation in its own transaction, skipping any that fail
+  private int repairEach(List<Long> ids) {
+    int repaired = 0;
+    for (Long id : ids) {
+      try {
+        Integer fixed = transactionTemplate.execute(status -> repairPage(List.of(id)));
+        repaired += fixed != null ? fixed : 0;
+      } catch (ObjectOptimisticLockingFailureException e) {
+        log.warn("Balance repair skipped reservation {} after a concurrent update", id);
+      } catch (RuntimeException e) {
+        log.error("Balance repair skipped reservation {}: {}", id, e.getMessage());
+      }
+    }
+    return repaired;
+  }
+
+  private int repairPage(List<Long> ids) {
+    Map<Long, Object[]> charges = new HashMap<>();
+    for (Object[] row : folioChargeRepository.sumChargesByReservationIds(ids)) {
+      charges.put((Long) row[0], row);
+    }
+    Map<Long, BigDecimal> paid = new HashMap<>();
+    for (Object[] row : paymentRepository.sumNetPaidByReservationIds(ids)) {
+      paid.put((Long) row[0], (BigDecimal) row[1]);
+    }
+
+    int fixed = 0;
+    for (Reservation reservation : reservationRepository.findAllById(ids)) {
+      Object[] row = charges.get(reservation.getId());
+      BigDecimal total = row != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+      BigDecimal tax = row != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+      BigDecimal discount = row != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+      BigDecimal netPaid = paid.getOrDefault(reservation.getId(), BigDecimal.ZERO);
+
+      if (same(reservation.getTotalAmount(), total)
+          && same(reservation.getTaxAmount(), tax)
+          && same(reservation.getDiscountAmount(), discount)
+          && same(reservation.getPaidAmount(), netPaid)) {
+        continue;
+      }
+
+      log.warn("Reservation {} balance drifted: total {} -> {}, paid {} -> {}",
+          reservation.getId(), reservation.getTotalAmount(), total, reservation.getPaidAmount(), netPaid);
+      reservation.setTotalAmount(total);
+      reservation.setTaxAmount(tax);
+      reservation.setDiscountAmount(discount);
+      reservation.setPaidAmount(netPaid);
+      fixed++;
+    }
+    return fixed;
+  }
+
+  private static boolean same(BigDecimal current, BigDecimal expected) {
+    return current != null && current.compareTo(expected) == 0;
+  }
+}
@@ -5,8 +5,12 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.tolimoli.pms.dto.response.ChannelResponse;
+import com.tolimoli.pms.dto.response.KeysetPageResponse;
+
 import com.tolimoli.pms.entity.Channel;
 import com.tolimoli.pms.entity.Rate;
 import com.tolimoli.pms.entity.Room;
@@ -14,6 +18,7 @@ import com.tolimoli.pms.exception.ResourceNotFoundException;
 import com.tolimoli.pms.exception.BusinessLogicException;
 import java.util.Optional;
 import com.tolimoli.pms.repository.ChannelRepository;
+import com.tolimoli.pms.repository.NaturalIdLookup;
 import com.tolimoli.pms.repository.RateRepository;
 import com.tolimoli.pms.repository.RoomRepository;
 
@@ -33,6 +38,18 @@ public class ChannelService {
   @Autowired
   private RoomRepository roomRepository;
 
+  @Autowired
+  private NaturalIdLookup naturalIdLookup;
+
+  @Autowired
+  private AriOutboxService ariOutboxService;
+
+  @Autowired
+  private RateQuoteService rateQuoteService;
+
+  @Autowired
+  private AriStore ariStore;
+
   // Create channel
   public Channel createChannel(String channelName, String channelCode,
       BigDecimal commissionRate, String apiEndpoint) {
@@ -76,6 +93,14 @@ public class ChannelService {
     return channelRepository.findByIsActiveTrue();
   }
 
+  // Get one page of active channels after the given id
+  public KeysetPageResponse<ChannelResponse> getActiveChannelPage(Long afterId, Integer size) {
+    int pageSize = KeysetPageResponse.validateSize(size);
+    List<Channel> rows = channelRepository.findActivePageAfter(afterId == null ? 0L : afterId,
+        PageRequest.of(0, pageSize + 1));
+    return KeysetPageResponse.of(rows, pageSize, Channel::getId, ChannelResponse::new);
+  }
+
   // View available rates in channel
   public List<Rate> viewChannelRates(Long channelId, LocalDate date) {
     return rateRepository.findByChannelIdAndRateDate(channelId, date);
@@ -117,11 +142,14 @@ public class ChannelService {
       rateRecord.setAvailableRooms(availability);
     }
 
-    rateRepository.save(rateRecord);
+    Rate saved = rateRepository.save(rateRecord);
+    ariOutboxService.recordRates(List.of(saved));
+    ariStore.record(List.of(saved));
+    rateQuoteService.invalidate();
   }
 
   // Get channel by code
   public Optional<Channel> getChannelByCode(String channelCode) {
-    return channelRepository.findByChannelCode(channelCode);
+    return naturalIdLookup.find(Channel.class, channelCode);
   }
 }
@@ -0,0 +1,155 @@
+package com.tolimoli.pms.service;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * Confirmation number generator
+ *
+ * Produces RES-YYYYMMDD-CCCCCCCCCCK where YYYYMMDD is the booking date,
+ * CCCCCCCCCC a counter unique across all nodes and K a Luhn check digit over
+ * the digits before it.
+ *
+ * Counters are reserved in blocks of BLOCK_SIZE from the
+ * confirmation_number_seq database sequence, the same way entity ids are
+ * drawn from pooled sequences: one nextval call covers a whole block. The
+ * next block is reserved while half of the current one is still left, by
+ * the booking that crosses that mark and without holding the counter lock,
+ * so other bookings keep drawing counters meanwhile and only wait for the
+ * database when a block runs out before its successor arrives. The sequence
+ * never hands out a block twice, so numbers stay unique across nodes and
+ * restarts; a restart only skips the rest of the blocks it held.
+ * Numbers issued before the sequence existed carry a 9-digit counter and
+ * can never equal a 10-digit one.
+ */
+@Component
+public class ConfirmationNumberGenerator {
+
+  private static final String PREFIX = "RES-";
+
+  static final long BLOCK_SIZE = 1_000L;
+
+  private static final long COUNTER_LIMIT = 10_000_000_000L;
+
+  // Reserve the next block once this many counters are left in the current one
+  private static final long RESERVE_AHEAD = BLOCK_SIZE / 2;
+
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  /** Next counter to hand out and the end (exclusive) of the current block */
+  private long nextCounter;
+  private long blockEnd;
+
+  /** Block reserved to follow the current one, -1 while there is none */
+  private long spareBlock = -1;
+
+  /** Whether some thread is reserving a block */
+  private boolean reserving;
+
+  /**
+   * Allocate the next confirmation number
+   */
+  public String next() {
+    long counter = nextCounter();
+    LocalDate day = LocalDate.now();
+    String digits = String.format("%04d%02d%02d%010d",
+        day.getYear(), day.getMonthValue(), day.getDayOfMonth(), counter);
+    return PREFIX + digits.substring(0, 8) + "-" + digits.substring(8) + checkDigit(digits);
+  }
+
+  private long nextCounter() {
+    long counter = -1;
+    synchronized (this) {
+      while (true) {
+        if (nextCounter == blockEnd && spareBlock >= 0) {
+          startBlock(spareBlock);
+          spareBlock = -1;
+        }
+        if (nextCounter < blockEnd) {
+          counter = nextCounter++;
+          break;
+        }
+        if (!reserving) {
+          break;
+        }
+        // The block ran out while another thread is reserving the next one
+        awaitReservation();
+      }
+      if (counter >= 0 && (reserving || spareBlock >= 0 || blockEnd - nextCounter > RESERVE_AHEAD)) {
+        return counter;
+      }
+      reserving = true;
+    }
+
+    // The nextval round trip runs outside the lock
+    long block;
+    try {
+      block = reserveBlock();
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        reserving = false;
+        notifyAll();
+      }
+      throw e;
+    }
+
+    synchronized (this) {
+      reserving = false;
+      notifyAll();
+      if (counter >= 0) {
+        spareBlock = block;
+        return counter;
+      }
+      // Nobody could draw from the used-up block or reserve another meanwhile
+      startBlock(block);
+      return nextCounter++;
+    }
+  }
+
+  private long reserveBlock() {
+    long block = reservationRepository.nextConfirmationBlock();
+    if (block < 0 || block >= COUNTER_LIMIT / BLOCK_SIZE) {
+      throw new IllegalStateException("confirmation_number_seq is out of range: " + block);
+    }
+    return block;
+  }
+
+  private void startBlock(long block) {
+    nextCounter = block * BLOCK_SIZE;
+    blockEnd = nextCounter + BLOCK_SIZE;
+  }
+
+  private void awaitReservation() {
+    try {
+      wait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a confirmation number block", e);
+    }
+  }
+
+  /**
+   * Luhn check digit, catches single-digit typos and most transpositions
+   */
+  static int checkDigit(String digits) {
+    int sum = 0;
+    boolean doubleIt = true;
+    for (int i = digits.length() - 1; i >= 0; i--) {
+      int d = digits.charAt(i) - '0';
+      if (doubleIt) {
+        d *= 2;
+        if (d > 9) {
+          d -= 9;
+        }
+      }
+      sum += d;
+      doubleIt = !doubleIt;
+    }
+    return (10 - sum % 10) % 10;
+  }
+}
@@ -0,0 +1,93 @@
+package com.tolimoli.pms.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tolimoli.pms.entity.DomainEvent;
+import com.tolimoli.pms.entity.DomainEventType;
+import com.tolimoli.pms.repository.DomainEventRepository;
+import com.tolimoli.pms.util.TransactionCallbacks;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+/**
+ * Domain event publisher
+ *
+ * Writes reservation lifecycle events to the domain_events outbox inside the
+ * caller's transaction, one row per interested subscriber, so an event exists
+ * exactly when the change it describes commits. Delivery happens later on the
+ * relay threads (DomainEventRelay), which are woken once the transaction
+ * commits.
+ */
+@Service
+@Transactional
+public class DomainEventPublisher {
+
+  @Autowired
+  private DomainEventRepository domainEventRepository;
+
+  @Autowired(required = false)
+  private List<DomainEventSubscriber> subscribers = Collections.emptyList();
+
+  @Autowired
+  private DomainEventRelay relay;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Queue an event about a reservation for every subscriber that handles it
+   */
+  public void publish(DomainEventType eventType, Long reservationId, Map<String, Object> payload) {
+    publishAll(eventType, Collections.singletonMap(reservationId, payload));
+  }
+
+  /**
+   * Queue the same kind of event about several reservations, e.g. a block
+   * booking, with a single flush
+   */
+  public void publishAll(DomainEventType eventType, Map<Long, Map<String, Object>> payloads) {
+    List<DomainEventSubscriber> interested = new ArrayList<>();
+    for (DomainEventSubscriber subscriber : subscribers) {
+      if (subscriber.handles(eventType)) {
+        interested.add(subscriber);
+      }
+    }
+    if (interested.isEmpty()) {
+      return;
+    }
+
+    // Write the reservation changes first so their row locks order events of concurrent transactions
+    entityManager.flush();
+
+    List<DomainEvent> events = new ArrayList<>(payloads.size() * interested.size());
+    for (Map.Entry<Long, Map<String, Object>> payload : payloads.entrySet()) {
+      String json = toJson(payload.getValue());
+      for (DomainEventSubscriber subscriber : interested) {
+        events.add(new DomainEvent(subscriber.getSubscriberName(), eventType, payload.getKey(), json));
+      }
+    }
+    domainEventRepository.saveAll(events);
+    TransactionCallbacks.afterCommit(relay::wakeUp);
+  }
+
+  private String toJson(Map<String, Object> payload) {
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Event payload is not serializable", e);
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package com.tolimoli.pms.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.entity.DomainEvent;
+import com.tolimoli.pms.repository.DomainEventRepository;
+
+/**
+ * Domain event relay
+ *
+ * Delivers the domain_events outbox to in-process subscribers on a few
+ * background threads. A thread claims the oldest due event that is first in
+ * line for its subscriber and reservation (FOR UPDATE SKIP LOCKED, so relays
+ * on every node can run side by side), hands it to the subscriber and marks
+ * it published in the same transaction. A failed event is retried with
+ * exponential backoff and holds back the later events of its reservation for
+ * that subscriber until it succeeds; events are never dropped, so delivery is
+ * at least once and in order per reservation.
+ *
+ * Threads wake when a publishing transaction commits on this node and
+ * otherwise poll, which picks up events written by other nodes and retries.
+ */
+@Component
+public class DomainEventRelay {
+
+  private static final Logger log = LoggerFactory.getLogger(DomainEventRelay.class);
+
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  @Autowired
+  private DomainEventRepository domainEventRepository;
+
+  @Autowired(required = false)
+  private List<DomainEventSubscriber> subscriberList = Collections.emptyList();
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Value("${app.events.relay-enabled:true}")
+  private boolean relayEnabled;
+
+  @Value("${app.events.relay-threads:2}")
+  private int relayThreads;
+
+  @Value("${app.events.poll-interval-ms:1000}")
+  private long pollIntervalMs;
+
+  @Value("${app.events.initial-backoff-ms:1000}")
+  private long initialBackoffMs;
+
+  @Value("${app.events.max-backoff-ms:300000}")
+  private long maxBackoffMs;
+
+  @Value("${app.events.retention-days:7}")
+  private int retentionDays;
+
+  private final Map<String, DomainEventSubscriber> subscribers = new HashMap<>();
+
+  private final Semaphore signal = new Semaphore(0);
+
+  private final List<Thread> threads = new ArrayList<>();
+
+  private volatile boolean running;
+
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    for (DomainEventSubscriber subscriber : subscriberList) {
+      subscribers.put(subscriber.getSubscriberName(), subscriber);
+    }
+    if (!relayEnabled) {
+      return;
+    }
+    running = true;
+    for (int i = 1; i <= relayThreads; i++) {
+      Thread thread = new Thread(this::run, "event-relay-" + i);
+      thread.setDaemon(true);
+      thread.start();
+      threads.add(thread);
+    }
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    for (Thread thread : threads) {
+      thread.interrupt();
+    }
+    for (Thread thread : threads) {
+      thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  /**
+   * Let an idle relay thread look for new events right away
+   */
+  public void wakeUp() {
+    signal.release();
+  }
+
+  /**
+   * Delete published events older than the retention period
+   */
+  @Scheduled(cron = "${app.events.cleanup-cron:0 45 3 * * *}")
+  public int purgePublished() {
+    Integer deleted = transactionTemplate.execute(status ->
+        domainEventRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+    log.info("Purged {} published domain events", deleted);
+    return deleted != null ? deleted : 0;
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        if (!deliverNext()) {
+          signal.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+          signal.drainPermits();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        // Usually the database is unreachable; back off one poll interval
+        log.warn("Domain event relay failed, retrying", e);
+        sleep(pollIntervalMs);
+      }
+    }
+  }
+
+  /**
+   * Claim, handle and acknowledge one event
+   *
+   * @return true when an event was claimed
+   */
+  private boolean deliverNext() {
+    DomainEvent[] claimed = new DomainEvent[1];
+    try {
+      return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+        Optional<DomainEvent> next = domainEventRepository.claimNext(LocalDateTime.now());
+        if (!next.isPresent()) {
+          return false;
+        }
+        DomainEvent event = next.get();
+        claimed[0] = event;
+        DomainEventSubscriber subscriber = subscribers.get(event.getSubscriber());
+        if (subscriber != null) {
+          subscriber.handle(event);
+        } else {
+          log.warn("Dropping domain event {}, no subscriber named {}", event.getId(), event.getSubscriber());
+        }
+        event.setPublishedAt(LocalDateTime.now());
+        return true;
+      }));
+    } catch (RuntimeException e) {
+      if (claimed[0] == null) {
+        throw e;
+      }
+      recordFailure(claimed[0], e);
+      return true;
+    }
+  }
+
+  private void recordFailure(DomainEvent event, RuntimeException failure) {
+    int attempts = event.getAttempts() + 1;
+    log.warn("Domain event {} {} for reservation {} failed in {} (attempt {})", event.getId(),
+        event.getEventType(), event.getReservationId(), event.getSubscriber(), attempts, failure);
+    LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+    transactionTemplate.executeWithoutResult(status ->
+        domainEventRepository.recordFailure(event.getId(), nextAttemptAt, truncate(String.valueOf(failure))));
+  }
+
+  // initial * 2^(attempts - 1) with +-20% jitter, capped
+  private Duration backoff(int attempts) {
+    long delay = Math.min(initialBackoffMs << Math.min(attempts - 1, 20), maxBackoffMs);
+    return Duration.ofMillis((long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static String truncate(String message) {
+    if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+      return message;
+    }
+    return message.substring(0, MAX_ERROR_LENGTH);
+  }
+}
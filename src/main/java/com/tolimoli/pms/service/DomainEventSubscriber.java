@@ -0,0 +1,33 @@
+package com.tolimoli.pms.service;
+
+import com.tolimoli.pms.entity.DomainEvent;
+import com.tolimoli.pms.entity.DomainEventType;
+
+/**
+ * In-process consumer of reservation lifecycle events
+ *
+ * Implementations are Spring beans and are picked up automatically. handle()
+ * runs in the transaction that marks the event published, so database work
+ * it does commits exactly when the event is acknowledged; anything it does
+ * outside the database may be repeated after a failure and must be
+ * idempotent.
+ */
+public interface DomainEventSubscriber {
+
+  /**
+   * Stable name stored with each pending event; renaming a subscriber drops
+   * its undelivered events
+   */
+  String getSubscriberName();
+
+  /**
+   * Whether events of this type should be queued for this subscriber
+   */
+  boolean handles(DomainEventType eventType);
+
+  /**
+   * Handle one event; throwing leaves it queued for a retry, and later events
+   * of the same reservation wait behind it
+   */
+  void handle(DomainEvent event);
+}
@@ -2,12 +2,17 @@ package com.tolimoli.pms.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.tolimoli.pms.dto.response.FolioChargeResponse;
+import com.tolimoli.pms.dto.response.StayQuoteResponse;
 import com.tolimoli.pms.entity.ChargeType;
+import com.tolimoli.pms.entity.DomainEventType;
 import com.tolimoli.pms.entity.FolioCharge;
 import com.tolimoli.pms.entity.Reservation;
 import com.tolimoli.pms.repository.FolioChargeRepository;
@@ -26,23 +31,46 @@ public class FolioChargeService {
   @Autowired
   private ReservationRepository reservationRepository;
 
-  // Create room charges automatically
-  public void createRoomCharges(Reservation reservation) {
+  @Autowired
+  private DomainEventPublisher eventPublisher;
+
+  // Post one room charge per night at the quoted nightly prices
+  public List<FolioCharge> createRoomCharges(Reservation reservation, StayQuoteResponse quote) {
+    List<FolioCharge> roomCharges = new ArrayList<>();
+    addRoomCharges(reservation, quote, roomCharges);
+
+    // Inserted as one JDBC batch
+    folioChargeRepository.saveAll(roomCharges);
+    return roomCharges;
+  }
+
+  // Create the room charges of several reservations, inserted in one go
+  public List<FolioCharge> createRoomCharges(List<Reservation> reservations,
+      Map<Long, StayQuoteResponse> quotesByRoomId) {
+    List<FolioCharge> roomCharges = new ArrayList<>();
+    for (Reservation reservation : reservations) {
+      addRoomCharges(reservation, quotesByRoomId.get(reservation.getRoom().getId()), roomCharges);
+    }
+    folioChargeRepository.saveAll(roomCharges);
+    return roomCharges;
+  }
+
+  private void addRoomCharges(Reservation reservation, StayQuoteResponse quote, List<FolioCharge> roomCharges) {
     LocalDate current = reservation.getCheckInDate();
-    LocalDate end = reservation.getCheckOutDate();
     int nightNumber = 1;
 
-    while (current.isBefore(end)) {
+    for (BigDecimal amount : quote.getNightlyAmounts()) {
       FolioCharge roomCharge = new FolioCharge();
       roomCharge.setReservation(reservation);
       roomCharge.setChargeType(ChargeType.ROOM);
       roomCharge.setDescription("Room " + reservation.getRoom().getRoomNumber() +
           " - Night " + nightNumber);
-      roomCharge.setAmount(reservation.getRoom().getBaseRate());
+      roomCharge.setAmount(amount);
       roomCharge.setChargeDate(current);
       roomCharge.setDepartment("FRONT_OFFICE");
 
-      folioChargeRepository.save(roomCharge);
+      roomCharges.add(roomCharge);
+      reservation.applyCharge(ChargeType.ROOM, roomCharge.getAmount());
 
       current = current.plusDays(1);
       nightNumber++;
@@ -62,7 +90,11 @@ public class FolioChargeService {
     charge.setAmount(amount);
     charge.setChargeDate(LocalDate.now());
 
-    return folioChargeRepository.save(charge);
+    // Version check on the reservation guards concurrent postings
+    reservation.applyCharge(chargeType, amount);
+    FolioCharge saved = folioChargeRepository.save(charge);
+    publishRoomCharge(reservation, saved);
+    return saved;
   }
 
   // Add charge with quantity
@@ -81,20 +113,34 @@ public class FolioChargeService {
     charge.setAmount(unitPrice.multiply(new BigDecimal(quantity)));
     charge.setChargeDate(LocalDate.now());
 
-    return folioChargeRepository.save(charge);
+    // Version check on the reservation guards concurrent postings
+    reservation.applyCharge(chargeType, charge.getAmount());
+    FolioCharge saved = folioChargeRepository.save(charge);
+    publishRoomCharge(reservation, saved);
+    return saved;
+  }
+
+  // Room charges of a reservation per night, as an event payload entry
+  public List<Map<String, Object>> getRoomNights(Long reservationId) {
+    return RevenueRollupService.roomNights(folioChargeRepository.sumRoomChargesByNight(reservationId));
+  }
+
+  // Room charges of sold reservations count in the revenue rollups
+  private void publishRoomCharge(Reservation reservation, FolioCharge charge) {
+    if (charge.isRoomCharge() && RevenueRollupService.SOLD_STATUSES.contains(reservation.getStatus())) {
+      eventPublisher.publish(DomainEventType.ROOM_CHARGES_POSTED, reservation.getId(),
+          Map.of(RevenueRollupService.ROOM_NIGHTS, RevenueRollupService.roomNights(List.of(charge))));
+    }
   }
 
   // Get all charges for reservation
-  public List<FolioCharge> getReservationCharges(Long reservationId) {
-    return folioChargeRepository.findByReservationId(reservationId);
+  public List<FolioChargeResponse> getReservationCharges(Long reservationId) {
+    return folioChargeRepository.findResponsesByReservationId(reservationId);
   }
 
   // Calculate total charges
   public BigDecimal calculateTotalCharges(Long reservationId) {
-    List<FolioCharge> charges = getReservationCharges(reservationId);
-    return charges.stream()
-        .map(FolioCharge::getAmount)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return folioChargeRepository.sumAmountByReservationId(reservationId);
   }
 
   // Mark charges as paid
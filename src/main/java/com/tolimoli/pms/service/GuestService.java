@@ -1,10 +1,15 @@
 package com.tolimoli.pms.service;
 
+import com.tolimoli.pms.dto.response.GuestDetailResponse;
 import com.tolimoli.pms.entity.Guest;
 import com.tolimoli.pms.repository.GuestRepository;
+import com.tolimoli.pms.repository.NaturalIdLookup;
+import com.tolimoli.pms.repository.ReservationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Optional;
 
 @Service
@@ -14,6 +19,12 @@ public class GuestService {
     @Autowired
     private GuestRepository guestRepository;
 
+    @Autowired
+    private NaturalIdLookup naturalIdLookup;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
     /**
      * Creates a new guest.
      * @param guestRequest DTO with new guest information.
@@ -47,7 +58,21 @@ public class GuestService {
      * @return An Optional containing the Guest if found.
      */
     public Optional<Guest> findGuestByEmail(String email) {
-        return guestRepository.findByEmail(email);
+        return naturalIdLookup.find(Guest.class, email);
+    }
+
+    /**
+     * Finds a guest by email together with their completed-stay history.
+     * @param email The email of the guest to find.
+     * @return An Optional containing the guest details if found.
+     */
+    public Optional<GuestDetailResponse> getGuestDetailByEmail(String email) {
+        return findGuestByEmail(email).map(guest -> {
+            GuestDetailResponse detail = new GuestDetailResponse(guest);
+            Object[] stays = reservationRepository.summarizeCompletedStays(guest.getId()).get(0);
+            detail.applyStayHistory((Long) stays[0], (BigDecimal) stays[1], (LocalDate) stays[2]);
+            return detail;
+        });
     }
 
     /**
@@ -0,0 +1,96 @@
+package com.tolimoli.pms.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tolimoli.pms.dto.request.AriDeltaMessage;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.exception.ChannelDeliveryException;
+
+/**
+ * ARI sender that POSTs each message as JSON to the channel's apiEndpoint
+ *
+ * apiCredentials, when set, go out as a bearer token and the message id as
+ * Idempotency-Key. 2xx means accepted; 408, 429 and 5xx answers and I/O
+ * errors are retried, any other status is not.
+ */
+@Component
+public class HttpAriSender implements AriSender {
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${app.ari.connect-timeout-ms:2000}")
+  private long connectTimeoutMs;
+
+  @Value("${app.ari.request-timeout-ms:10000}")
+  private long requestTimeoutMs;
+
+  private HttpClient client;
+
+  @PostConstruct
+  void createClient() {
+    client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+        .build();
+  }
+
+  @Override
+  public void send(Channel channel, AriDeltaMessage message) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(channel.getApiEndpoint().trim()))
+        .timeout(Duration.ofMillis(requestTimeoutMs))
+        .header("Content-Type", "application/json")
+        .header("Idempotency-Key", message.getMessageId())
+        .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(message)));
+    String credentials = channel.getApiCredentials();
+    if (credentials != null && !credentials.trim().isEmpty()) {
+      request.header("Authorization", "Bearer " + credentials.trim());
+    }
+
+    HttpResponse<Void> response;
+    try {
+      response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+    } catch (IOException e) {
+      throw new ChannelDeliveryException("Channel " + channel.getChannelCode() + " unreachable: " + e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ChannelDeliveryException("Interrupted while sending to channel " + channel.getChannelCode(), e);
+    }
+
+    int status = response.statusCode();
+    if (status >= 200 && status < 300) {
+      return;
+    }
+    boolean retryable = status == 408 || status == 429 || status >= 500;
+    throw new ChannelDeliveryException("Channel " + channel.getChannelCode() + " answered HTTP " + status,
+        retryable, retryAfter(response));
+  }
+
+  private byte[] toJson(AriDeltaMessage message) {
+    try {
+      return objectMapper.writeValueAsBytes(message);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize ARI message " + message.getMessageId(), e);
+    }
+  }
+
+  // Retry-After in seconds; the HTTP-date form is ignored
+  private static Duration retryAfter(HttpResponse<?> response) {
+    return response.headers().firstValue("Retry-After")
+        .filter(value -> value.trim().matches("\\d{1,6}"))
+        .map(value -> Duration.ofSeconds(Long.parseLong(value.trim())))
+        .orElse(null);
+  }
+}
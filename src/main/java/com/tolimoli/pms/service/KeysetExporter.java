@@ -0,0 +1,63 @@
+package com.tolimoli.pms.service;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reads a list ordered by id page by page for the export endpoints
+ *
+ * Each page is read in its own short read-only transaction and written to
+ * the sink after it commits, so a slow client never holds a database
+ * connection. Callers must not already be in a transaction, or the pages
+ * join it and the connection is held for the whole export.
+ */
+@Component
+public class KeysetExporter {
+
+  // Rows read per export transaction
+  public static final int PAGE_SIZE = 500;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate readOnlyTransaction;
+
+  @PostConstruct
+  void init() {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+  }
+
+  /**
+   * Write every row after the given id to the sink, returns the number
+   * written. The page reader is given the last id written and runs in the
+   * page's transaction, so it should map rows to responses there.
+   */
+  public <T> long export(Long afterId, BiFunction<Long, Pageable, List<T>> pageReader, Function<T, Long> idOf,
+      Consumer<T> sink) {
+    Pageable page = PageRequest.of(0, PAGE_SIZE);
+    long cursor = afterId == null ? 0L : afterId;
+    long written = 0;
+    while (true) {
+      long from = cursor;
+      List<T> rows = readOnlyTransaction.execute(tx -> pageReader.apply(from, page));
+      rows.forEach(sink);
+      written += rows.size();
+      if (rows.size() < PAGE_SIZE) {
+        return written;
+      }
+      cursor = idOf.apply(rows.get(rows.size() - 1));
+    }
+  }
+}
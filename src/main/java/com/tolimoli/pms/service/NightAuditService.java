@@ -0,0 +1,344 @@
+package com.tolimoli.pms.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.dto.response.NightAuditRunResponse;
+import com.tolimoli.pms.entity.ChargeType;
+import com.tolimoli.pms.entity.DomainEventType;
+import com.tolimoli.pms.entity.FolioCharge;
+import com.tolimoli.pms.entity.NightAuditRun;
+import com.tolimoli.pms.entity.NightAuditStatus;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.exception.BusinessLogicException;
+import com.tolimoli.pms.exception.ResourceNotFoundException;
+import com.tolimoli.pms.repository.FolioChargeRepository;
+import com.tolimoli.pms.repository.NightAuditRunRepository;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * Night audit
+ *
+ * Closes the current business date: every guest in house that night gets the
+ * night's room tax (and the room charge itself if it was not pre-posted at
+ * booking), confirmed reservations that never arrived become no-shows, and
+ * the business date rolls forward.
+ *
+ * The work is split into chunks of reservation ids that run in parallel, each
+ * in its own transaction. A chunk stamps the reservations it handled with the
+ * business date (lastAuditDate) in the same transaction as their charges, so
+ * restarting a failed run only picks up what has not been committed yet and
+ * nothing is posted twice. Run the audit from one node at a time.
+ */
+@Service
+public class NightAuditService {
+
+  private static final Logger log = LoggerFactory.getLogger(NightAuditService.class);
+
+  private static final int ID_PAGE_SIZE = 5000;
+
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+  @Autowired
+  private NightAuditRunRepository runRepository;
+
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  @Autowired
+  private FolioChargeRepository folioChargeRepository;
+
+  @Autowired
+  private ReservationService reservationService;
+
+  @Autowired
+  private RateQuoteService rateQuoteService;
+
+  @Autowired
+  private DomainEventPublisher eventPublisher;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Value("${app.night-audit.threads:4}")
+  private int threads;
+
+  @Value("${app.night-audit.chunk-size:200}")
+  private int chunkSize;
+
+  @Value("${app.night-audit.max-chunk-attempts:3}")
+  private int maxChunkAttempts;
+
+  @Value("${app.night-audit.room-tax-percent:0}")
+  private BigDecimal roomTaxPercent;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  /**
+   * The date the next audit closes: the day after the last completed audit,
+   * or yesterday before the first audit
+   */
+  public LocalDate getBusinessDate() {
+    return runRepository.findTopByStatusOrderByBusinessDateDesc(NightAuditStatus.COMPLETED)
+        .map(run -> run.getBusinessDate().plusDays(1))
+        .orElse(LocalDate.now().minusDays(1));
+  }
+
+  public NightAuditRunResponse getRun(LocalDate businessDate) {
+    return runRepository.findByBusinessDate(businessDate).map(NightAuditRunResponse::new)
+        .orElseThrow(() -> new ResourceNotFoundException("No night audit for business date " + businessDate));
+  }
+
+  /**
+   * Audit every business date that has ended, oldest first
+   */
+  @Scheduled(cron = "${app.night-audit.cron:-}")
+  public void catchUp() {
+    try {
+      while (getBusinessDate().isBefore(LocalDate.now())) {
+        run();
+      }
+    } catch (RuntimeException e) {
+      log.error("Scheduled night audit stopped", e);
+    }
+  }
+
+  /**
+   * Audit the current business date, resuming its previous run if that one
+   * failed, and roll the business date on success
+   */
+  public NightAuditRunResponse run() {
+    if (!running.compareAndSet(false, true)) {
+      throw new BusinessLogicException("A night audit is already running");
+    }
+    try {
+      LocalDate businessDate = getBusinessDate();
+      if (!businessDate.isBefore(LocalDate.now())) {
+        throw new BusinessLogicException("Business date " + businessDate + " has not ended yet");
+      }
+      Long runId = start(businessDate);
+      long started = System.nanoTime();
+      try {
+        audit(runId, businessDate);
+      } catch (RuntimeException e) {
+        finish(runId, NightAuditStatus.FAILED, 0, truncate(String.valueOf(e)));
+        throw e;
+      }
+      int overdue = (int) reservationRepository.countOverdueDepartures(businessDate);
+      NightAuditRun run = finish(runId, NightAuditStatus.COMPLETED, overdue, null);
+      log.info("Night audit {} completed in {} ms: {} reservations charged, {} tax charges, {} no-shows, {} overdue",
+          businessDate, (System.nanoTime() - started) / 1_000_000, run.getReservationsAudited(),
+          run.getTaxChargesPosted(), run.getNoShows(), overdue);
+      return new NightAuditRunResponse(run);
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private Long start(LocalDate businessDate) {
+    return transactionTemplate.execute(status -> {
+      NightAuditRun run = runRepository.findByBusinessDate(businessDate).orElseGet(() -> new NightAuditRun(businessDate));
+      run.setStatus(NightAuditStatus.RUNNING);
+      run.setStartedAt(LocalDateTime.now());
+      run.setLastError(null);
+      return runRepository.save(run).getId();
+    });
+  }
+
+  private NightAuditRun finish(Long runId, NightAuditStatus outcome, int overdueDepartures, String error) {
+    return transactionTemplate.execute(status -> {
+      NightAuditRun run = runRepository.findById(runId)
+          .orElseThrow(() -> new ResourceNotFoundException("Night audit run", runId));
+      run.setStatus(outcome);
+      run.setLastError(error);
+      if (outcome == NightAuditStatus.COMPLETED) {
+        run.setOverdueDepartures(overdueDepartures);
+        run.setCompletedAt(LocalDateTime.now());
+      }
+      return run;
+    });
+  }
+
+  private void audit(Long runId, LocalDate businessDate) {
+    List<Long> inHouse = collectIds(afterId ->
+        reservationRepository.findInHouseIdsForAudit(businessDate, afterId, PageRequest.of(0, ID_PAGE_SIZE)));
+    List<Long> noShows = collectIds(afterId ->
+        reservationRepository.findNoShowIdsForAudit(businessDate, afterId, PageRequest.of(0, ID_PAGE_SIZE)));
+
+    AtomicInteger threadNumber = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "night-audit-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<?>> chunks = new ArrayList<>();
+      submitChunks(pool, chunks, inHouse, ids -> chargeNight(runId, ids, businessDate));
+      submitChunks(pool, chunks, noShows, ids -> markNoShows(runId, ids, businessDate));
+
+      RuntimeException failure = null;
+      int failed = 0;
+      for (Future<?> chunk : chunks) {
+        try {
+          chunk.get();
+        } catch (ExecutionException e) {
+          failed++;
+          if (failure == null) {
+            failure = new BusinessLogicException("Night audit " + businessDate + ": " + e.getCause());
+            log.warn("Night audit {} chunk failed", businessDate, e.getCause());
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new BusinessLogicException("Night audit " + businessDate + " interrupted");
+        }
+      }
+      if (failure != null) {
+        log.error("Night audit {} failed in {} of {} chunks, run it again to resume", businessDate, failed,
+            chunks.size());
+        throw failure;
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private List<Long> collectIds(Function<Long, List<Long>> page) {
+    List<Long> ids = new ArrayList<>();
+    long afterId = 0L;
+    while (true) {
+      List<Long> next = page.apply(afterId);
+      ids.addAll(next);
+      if (next.size() < ID_PAGE_SIZE) {
+        return ids;
+      }
+      afterId = next.get(next.size() - 1);
+    }
+  }
+
+  private void submitChunks(ExecutorService pool, List<Future<?>> chunks, List<Long> ids, Consumer<List<Long>> work) {
+    for (int from = 0; from < ids.size(); from += chunkSize) {
+      List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+      chunks.add(pool.submit(() -> withRetry(chunk, work)));
+    }
+  }
+
+  // A concurrent front-desk change to one of the reservations fails the chunk; retry it afresh
+  private void withRetry(List<Long> ids, Consumer<List<Long>> work) {
+    for (int attempt = 1;; attempt++) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> work.accept(ids));
+        return;
+      } catch (ObjectOptimisticLockingFailureException e) {
+        if (attempt >= maxChunkAttempts) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private void chargeNight(Long runId, List<Long> ids, LocalDate businessDate) {
+    List<Reservation> reservations = reservationRepository.findInHouseForAudit(ids, businessDate);
+    if (reservations.isEmpty()) {
+      return;
+    }
+    Map<Long, BigDecimal> roomCharges = new HashMap<>();
+    for (Object[] row : folioChargeRepository.sumRoomChargesForNight(ids, businessDate)) {
+      roomCharges.put((Long) row[0], (BigDecimal) row[1]);
+    }
+
+    Map<Long, BigDecimal> nightPrices = null;
+
+    List<FolioCharge> charges = new ArrayList<>();
+    int roomChargesPosted = 0;
+    int taxChargesPosted = 0;
+    for (Reservation reservation : reservations) {
+      long night = ChronoUnit.DAYS.between(reservation.getCheckInDate(), businessDate) + 1;
+      BigDecimal roomAmount = roomCharges.get(reservation.getId());
+      if (roomAmount == null) {
+        if (nightPrices == null) {
+          nightPrices = rateQuoteService.priceNight(reservations, businessDate);
+        }
+        roomAmount = nightPrices.get(reservation.getId());
+        charges.add(charge(reservation, ChargeType.ROOM,
+            "Room " + reservation.getRoom().getRoomNumber() + " - Night " + night, roomAmount, businessDate));
+        roomChargesPosted++;
+      }
+      BigDecimal tax = roomAmount.multiply(roomTaxPercent).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+      if (tax.signum() > 0) {
+        charges.add(charge(reservation, ChargeType.TAX, "Room tax - Night " + night, tax, businessDate));
+        taxChargesPosted++;
+      }
+      reservation.setLastAuditDate(businessDate);
+    }
+    folioChargeRepository.saveAll(charges);
+    publishRoomCharges(charges);
+    runRepository.addProgress(runId, reservations.size(), roomChargesPosted, taxChargesPosted, 0);
+  }
+
+  // Room charges posted by the audit count in the revenue rollups
+  private void publishRoomCharges(List<FolioCharge> charges) {
+    Map<Long, List<FolioCharge>> roomCharges = charges.stream().filter(FolioCharge::isRoomCharge)
+        .collect(Collectors.groupingBy(charge -> charge.getReservation().getId()));
+    if (roomCharges.isEmpty()) {
+      return;
+    }
+    Map<Long, Map<String, Object>> payloads = new LinkedHashMap<>();
+    roomCharges.forEach((reservationId, posted) -> payloads.put(reservationId,
+        Map.of(RevenueRollupService.ROOM_NIGHTS, RevenueRollupService.roomNights(posted))));
+    eventPublisher.publishAll(DomainEventType.ROOM_CHARGES_POSTED, payloads);
+  }
+
+  private void markNoShows(Long runId, List<Long> ids, LocalDate businessDate) {
+    List<Reservation> reservations = reservationRepository.findNoShowsForAudit(ids, businessDate);
+    for (Reservation reservation : reservations) {
+      reservationService.markNoShow(reservation);
+      reservation.setLastAuditDate(businessDate);
+    }
+    runRepository.addProgress(runId, 0, 0, 0, reservations.size());
+  }
+
+  private static FolioCharge charge(Reservation reservation, ChargeType chargeType, String description,
+      BigDecimal amount, LocalDate chargeDate) {
+    FolioCharge charge = new FolioCharge(reservation, chargeType, description, amount, chargeDate);
+    charge.setDepartment("FRONT_OFFICE");
+    charge.setCreatedBy("NIGHT_AUDIT");
+    reservation.applyCharge(chargeType, amount);
+    return charge;
+  }
+
+  private static String truncate(String message) {
+    if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+      return message;
+    }
+    return message.substring(0, MAX_ERROR_LENGTH);
+  }
+}
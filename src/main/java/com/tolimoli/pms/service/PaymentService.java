@@ -2,11 +2,16 @@ package com.tolimoli.pms.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.tolimoli.pms.dto.response.FolioBalanceResponse;
+import com.tolimoli.pms.dto.response.PaymentResponse;
+import com.tolimoli.pms.entity.DomainEventType;
 import com.tolimoli.pms.entity.Payment;
 import com.tolimoli.pms.entity.PaymentMethod;
 import com.tolimoli.pms.entity.PaymentStatus;
@@ -32,6 +37,9 @@ public class PaymentService {
   @Autowired
   private FolioChargeService folioChargeService;
 
+  @Autowired
+  private DomainEventPublisher eventPublisher;
+
   // Process payment
   public Payment processPayment(Long reservationId, BigDecimal amount,
       PaymentMethod paymentMethod, String transactionId) {
@@ -56,7 +64,7 @@ public class PaymentService {
     }
 
     // Check if payment amount is reasonable (not exceeding outstanding balance by too much)
-    BigDecimal outstandingBalance = getOutstandingBalance(reservationId);
+    BigDecimal outstandingBalance = reservation.getOutstandingBalance();
     if (amount.compareTo(outstandingBalance.multiply(new BigDecimal("2"))) > 0) {
       throw new BusinessLogicException("Payment amount (" + amount + 
           ") significantly exceeds outstanding balance (" + outstandingBalance + ")");
@@ -72,39 +80,46 @@ public class PaymentService {
 
     Payment savedPayment = paymentRepository.save(payment);
 
-    // Update reservation paid amount
-    BigDecimal currentPaid = reservation.getPaidAmount();
-    reservation.setPaidAmount(currentPaid.add(amount));
+    // Update reservation paid amount (version check guards concurrent payments)
+    reservation.applyPayment(amount);
     reservationRepository.save(reservation);
 
     // Check if fully paid and mark charges as paid
-    BigDecimal totalCharges = folioChargeService.calculateTotalCharges(reservationId);
-    if (reservation.getPaidAmount().compareTo(totalCharges) >= 0) {
+    if (outstandingBalance.subtract(amount).compareTo(BigDecimal.ZERO) <= 0) {
       folioChargeService.markChargesAsPaid(reservationId);
     }
 
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("paymentId", savedPayment.getId());
+    payload.put("amount", amount);
+    payload.put("paymentMethod", paymentMethod);
+    payload.put("outstandingBalance", reservation.getOutstandingBalance());
+    eventPublisher.publish(DomainEventType.PAYMENT_PROCESSED, reservationId, payload);
+
     return savedPayment;
   }
 
   // Get all payments for reservation
-  public List<Payment> getReservationPayments(Long reservationId) {
-    return paymentRepository.findByReservationId(reservationId);
+  public List<PaymentResponse> getReservationPayments(Long reservationId) {
+    return paymentRepository.findResponsesByReservationId(reservationId);
   }
 
   // Calculate total payments
   public BigDecimal calculateTotalPayments(Long reservationId) {
-    List<Payment> payments = getReservationPayments(reservationId);
-    return payments.stream()
-        .filter(p -> p.getPaymentStatus() == PaymentStatus.COMPLETED)
-        .map(Payment::getAmount)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return paymentRepository.sumAmountByReservationIdAndStatus(reservationId, PaymentStatus.COMPLETED);
   }
 
-  // Get outstanding balance
+  // Get charges, payments, refunds and outstanding balance from the running totals
+  public FolioBalanceResponse getFolioBalance(Long reservationId) {
+    return paymentRepository.getFolioBalance(reservationId)
+        .orElseThrow(() -> new ResourceNotFoundException("Reservation", reservationId));
+  }
+
+  // Get outstanding balance from the reservation's running totals
   public BigDecimal getOutstandingBalance(Long reservationId) {
-    BigDecimal totalCharges = folioChargeService.calculateTotalCharges(reservationId);
-    BigDecimal totalPayments = calculateTotalPayments(reservationId);
-    return totalCharges.subtract(totalPayments);
+    return reservationRepository.findById(reservationId)
+        .map(Reservation::getOutstandingBalance)
+        .orElseThrow(() -> new ResourceNotFoundException("Reservation", reservationId));
   }
 
   // Process refund
@@ -142,8 +157,7 @@ public class PaymentService {
 
     // Update reservation paid amount
     Reservation reservation = originalPayment.getReservation();
-    BigDecimal currentPaid = reservation.getPaidAmount();
-    reservation.setPaidAmount(currentPaid.subtract(refundAmount));
+    reservation.applyRefund(refundAmount);
     reservationRepository.save(reservation);
 
     return savedRefund;
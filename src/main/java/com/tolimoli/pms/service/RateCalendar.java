@@ -0,0 +1,91 @@
+package com.tolimoli.pms.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import com.tolimoli.pms.dto.response.RateResponse;
+
+/**
+ * A room or channel rate calendar: its ETag, and its rates built on demand
+ *
+ * The ETag hashes the date range and every cell in calendar order (by date,
+ * then channel for a room or room number for a channel), so the same rates
+ * give the same ETag on any node and across restarts.
+ */
+public final class RateCalendar {
+
+  private final String eTag;
+  private final Supplier<List<RateResponse>> rates;
+
+  RateCalendar(long hash, Supplier<List<RateResponse>> rates) {
+    this.eTag = "\"" + Long.toHexString(hash) + "\"";
+    this.rates = rates;
+  }
+
+  /**
+   * Calendar of rates already in calendar order
+   */
+  public static RateCalendar of(List<RateResponse> rates, LocalDate startDate, LocalDate endDate) {
+    long h = seed(startDate, endDate);
+    for (RateResponse rate : rates) {
+      h = mixCell(h, rate.getId(), rate.getRoomId(), rate.getChannelId(), rate.getRoomNumber(),
+          rate.getChannelCode(), rate.getRateAmount().movePointRight(2).longValue(), rate.getAvailableRooms(),
+          Boolean.TRUE.equals(rate.getIsBlocked()), rate.getRestrictions());
+    }
+    return new RateCalendar(h, () -> rates);
+  }
+
+  static long seed(LocalDate startDate, LocalDate endDate) {
+    return mix(startDate.toEpochDay(), ChronoUnit.DAYS.between(startDate, endDate) + 1);
+  }
+
+  // Fold one cell into the hash; amounts are in cents
+  static long mixCell(long h, long rateId, long roomId, long channelId, String roomNumber, String channelCode,
+      long amount, int availableRooms, boolean isBlocked, String restrictions) {
+    h = mix(h, rateId);
+    h = mix(h, roomId);
+    h = mix(h, channelId);
+    h = mix(h, Objects.hashCode(roomNumber));
+    h = mix(h, Objects.hashCode(channelCode));
+    h = mix(h, amount);
+    h = mix(h, availableRooms);
+    h = mix(h, isBlocked ? 1 : 0);
+    return mix(h, Objects.hashCode(restrictions));
+  }
+
+  private static long mix(long h, long value) {
+    h ^= value;
+    h *= 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 31);
+  }
+
+  public String getETag() {
+    return eTag;
+  }
+
+  /**
+   * Whether an If-None-Match header names this calendar's ETag
+   */
+  public boolean matches(String ifNoneMatch) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String tag : ifNoneMatch.split(",")) {
+      tag = tag.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals("*") || tag.equals(eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public List<RateResponse> getRates() {
+    return rates.get();
+  }
+}
@@ -0,0 +1,253 @@
+package com.tolimoli.pms.service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tolimoli.pms.dto.response.StayQuoteResponse;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Rate;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.exception.ResourceNotFoundException;
+import com.tolimoli.pms.repository.NaturalIdLookup;
+import com.tolimoli.pms.repository.RateRepository;
+import com.tolimoli.pms.util.RestrictionRules;
+import com.tolimoli.pms.util.TransactionCallbacks;
+
+import javax.transaction.Transactional;
+
+// ===== RATE QUOTE SERVICE =====
+// Prices stays from the per-date, per-channel rate calendar. Each night costs
+// its Rate amount plus extraPersonRate for every guest above the base
+// occupancy and childRate for every child; nights without a calendar entry
+// fall back to the room's base rate. Blocked nights and the restrictions of
+// the arrival and departure dates make a stay unsellable. The calendar of all
+// rooms for the whole stay is loaded in one query.
+@Service
+@Transactional
+public class RateQuoteService {
+
+  private static final int MAX_NIGHTS = 90;
+
+  @Autowired
+  private RateRepository rateRepository;
+
+  @Autowired
+  private RoomService roomService;
+
+  @Autowired
+  private NaturalIdLookup naturalIdLookup;
+
+  @Autowired
+  private AriStore ariStore;
+
+  // Guests included in the rate; each further guest pays extraPersonRate
+  @Value("${app.rates.base-occupancy:2}")
+  private int baseOccupancy;
+
+  @Value("${app.rates.quote-cache.maximum-size:10000}")
+  private long quoteCacheSize;
+
+  // Bounds how stale a quote can be when another node changed the calendar
+  @Value("${app.rates.quote-cache.ttl-seconds:60}")
+  private long quoteCacheTtlSeconds;
+
+  // Quotes of every sellable room of a type, keyed by
+  // (room type, channel, check-in, check-out, guests, children)
+  private Cache<List<Object>, Map<Long, StayQuoteResponse>> shoppingCache;
+
+  @PostConstruct
+  void init() {
+    shoppingCache = Caffeine.newBuilder()
+        .maximumSize(quoteCacheSize)
+        .expireAfterWrite(Duration.ofSeconds(quoteCacheTtlSeconds))
+        .build();
+  }
+
+  // Quote every room of the type that is free for the stay, memoized for repeated shopping
+  public List<StayQuoteResponse> shop(RoomType roomType, String channelCode, LocalDate checkIn, LocalDate checkOut,
+      Integer guests, Integer children) {
+    validateStay(checkIn, checkOut);
+    if (ChronoUnit.DAYS.between(checkIn, checkOut) > MAX_NIGHTS) {
+      throw new IllegalArgumentException("A quote covers at most " + MAX_NIGHTS + " nights");
+    }
+    int adults = guests != null ? guests : 1;
+    int kids = children != null ? children : 0;
+    if (adults <= 0 || kids < 0) {
+      throw new IllegalArgumentException("Guests must be greater than 0 and children must not be negative");
+    }
+    Channel channel = naturalIdLookup.find(Channel.class, channelCode)
+        .orElseThrow(() -> new ResourceNotFoundException("Channel", "channelCode", channelCode));
+
+    // Prices are cached per room type; which rooms are free is checked on every call
+    Map<Long, StayQuoteResponse> quotes = shoppingCache.get(
+        List.of(String.valueOf(roomType), channel.getId(), checkIn, checkOut, adults, kids),
+        key -> quoteRooms(roomService.getSellableRooms(roomType), channel, checkIn, checkOut, adults, kids));
+
+    List<StayQuoteResponse> available = new ArrayList<>();
+    for (Room room : roomService.getAvailableRooms(checkIn, checkOut, roomType)) {
+      StayQuoteResponse quote = quotes.get(room.getId());
+      if (quote != null) {
+        available.add(quote);
+      }
+    }
+    return available;
+  }
+
+  // Quote one room for a stay, straight from the calendar
+  public StayQuoteResponse quoteStay(Room room, Channel channel, LocalDate checkIn, LocalDate checkOut,
+      int guests, int children) {
+    validateStay(checkIn, checkOut);
+    return quoteRooms(List.of(room), channel, checkIn, checkOut, guests, children).get(room.getId());
+  }
+
+  // Quote many rooms for the same stay; the calendar is loaded in one query
+  public Map<Long, StayQuoteResponse> quoteRooms(Collection<Room> rooms, Channel channel, LocalDate checkIn,
+      LocalDate checkOut, int guests, int children) {
+    Map<Long, StayQuoteResponse> quotes = new LinkedHashMap<>();
+    if (rooms.isEmpty()) {
+      return quotes;
+    }
+
+    // The departure date is loaded too, for its closed-to-departure rules
+    Map<Long, Map<LocalDate, Rate>> calendar = new HashMap<>();
+    List<Long> roomIds = rooms.stream().map(Room::getId).collect(Collectors.toList());
+    for (Rate rate : rateRepository.findCalendar(roomIds, channel.getId(), checkIn, checkOut)) {
+      calendar.computeIfAbsent(rate.getRoom().getId(), id -> new HashMap<>()).put(rate.getRateDate(), rate);
+    }
+
+    for (Room room : rooms) {
+      Map<LocalDate, Rate> rates = calendar.getOrDefault(room.getId(), Map.of());
+      List<BigDecimal> nightly = new ArrayList<>();
+      String restriction = null;
+      for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+        Rate rate = rates.get(night);
+        if (rate != null && Boolean.TRUE.equals(rate.getIsBlocked()) && restriction == null) {
+          restriction = "Sales are closed on " + night;
+        }
+        nightly.add(nightAmount(room, rate, guests, children));
+      }
+      if (restriction == null) {
+        restriction = restrictionViolation(rates.get(checkIn), rates.get(checkOut), checkIn, checkOut);
+      }
+      quotes.put(room.getId(), new StayQuoteResponse(room.getId(), room.getRoomNumber(), room.getRoomType(),
+          channel.getChannelCode(), checkIn, checkOut, restriction, nightly));
+    }
+    return quotes;
+  }
+
+  // Rooms the channel may sell for the stay: no blocked night, arrival and departure rules met
+  public List<Room> filterSellable(List<Room> rooms, Channel channel, LocalDate checkIn, LocalDate checkOut) {
+    if (rooms.isEmpty()) {
+      return rooms;
+    }
+    List<Long> roomIds = rooms.stream().map(Room::getId).collect(Collectors.toList());
+    // The ARI store answers stays inside its window without touching the rates table
+    Set<Long> closed = ariStore.findClosedRooms(roomIds, channel.getId(), checkIn, checkOut);
+    if (closed == null) {
+      closed = findClosedRooms(roomIds, channel.getId(), checkIn, checkOut);
+    }
+    if (closed.isEmpty()) {
+      return rooms;
+    }
+    Set<Long> unsellable = closed;
+    return rooms.stream().filter(room -> !unsellable.contains(room.getId())).collect(Collectors.toList());
+  }
+
+  // Only blocked or restricted dates come back; rules are checked on the compiled bits
+  private Set<Long> findClosedRooms(List<Long> roomIds, Long channelId, LocalDate checkIn, LocalDate checkOut) {
+    long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+    DayOfWeek arrivalDay = checkIn.getDayOfWeek();
+    DayOfWeek departureDay = checkOut.getDayOfWeek();
+
+    Set<Long> closed = new HashSet<>();
+    for (Object[] row : rateRepository.findClosingRates(roomIds, channelId, checkIn, checkOut)) {
+      LocalDate date = (LocalDate) row[1];
+      long rules = row[3] != null ? (Long) row[3] : RestrictionRules.compile((String) row[4]);
+      if ((date.isBefore(checkOut) && Boolean.TRUE.equals(row[2]))
+          || (date.equals(checkIn) && !RestrictionRules.allowsArrival(rules, arrivalDay, nights))
+          || (date.equals(checkOut) && RestrictionRules.closedToDeparture(rules, departureDay))) {
+        closed.add((Long) row[0]);
+      }
+    }
+    return closed;
+  }
+
+  // Room charge of one night for each reservation, by reservation id
+  public Map<Long, BigDecimal> priceNight(List<Reservation> reservations, LocalDate date) {
+    Map<String, Rate> rates = new HashMap<>();
+    List<Long> roomIds = reservations.stream().map(r -> r.getRoom().getId()).distinct().collect(Collectors.toList());
+    for (Rate rate : rateRepository.findByRoomIdsAndDate(roomIds, date)) {
+      rates.put(rate.getRoom().getId() + "|" + rate.getChannel().getId(), rate);
+    }
+
+    Map<Long, BigDecimal> amounts = new HashMap<>();
+    for (Reservation reservation : reservations) {
+      Rate rate = reservation.getChannel() == null ? null
+          : rates.get(reservation.getRoom().getId() + "|" + reservation.getChannel().getId());
+      amounts.put(reservation.getId(), nightAmount(reservation.getRoom(), rate,
+          reservation.getNumberOfGuests(), zeroIfNull(reservation.getNumberOfChildren())));
+    }
+    return amounts;
+  }
+
+  // Drop memoized quotes once the calendar change is committed
+  public void invalidate() {
+    TransactionCallbacks.afterCommit(shoppingCache::invalidateAll);
+  }
+
+  private BigDecimal nightAmount(Room room, Rate rate, int guests, int children) {
+    if (rate == null) {
+      return room.getBaseRate();
+    }
+    BigDecimal amount = rate.getRateAmount();
+    if (guests > baseOccupancy && rate.getExtraPersonRate() != null) {
+      amount = amount.add(rate.getExtraPersonRate().multiply(BigDecimal.valueOf(guests - baseOccupancy)));
+    }
+    if (children > 0 && rate.getChildRate() != null) {
+      amount = amount.add(rate.getChildRate().multiply(BigDecimal.valueOf(children)));
+    }
+    return amount;
+  }
+
+  // Stay and arrival rules come from the arrival date, departure rules from the departure date
+  private static String restrictionViolation(Rate arrival, Rate departure, LocalDate checkIn, LocalDate checkOut) {
+    String violation = arrival == null ? null
+        : RestrictionRules.arrivalViolation(arrival.getRestrictionRules(), checkIn, ChronoUnit.DAYS.between(checkIn, checkOut));
+    if (violation == null && departure != null) {
+      violation = RestrictionRules.departureViolation(departure.getRestrictionRules(), checkOut);
+    }
+    return violation;
+  }
+
+  private static void validateStay(LocalDate checkIn, LocalDate checkOut) {
+    if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+      throw new IllegalArgumentException("Check-out date must be after check-in date");
+    }
+  }
+
+  private static int zeroIfNull(Integer value) {
+    return value != null ? value : 0;
+  }
+}
@@ -1,19 +1,42 @@
 package com.tolimoli.pms.service;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import com.tolimoli.pms.dto.request.RateMatrixUpdateRequest;
+import com.tolimoli.pms.dto.response.RateResponse;
 import com.tolimoli.pms.entity.Rate;
 import com.tolimoli.pms.entity.Room;
 import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.exception.BusinessLogicException;
+import com.tolimoli.pms.exception.ResourceNotFoundException;
 import com.tolimoli.pms.repository.ChannelRepository;
 import com.tolimoli.pms.repository.RateRepository;
 import com.tolimoli.pms.repository.RoomRepository;
+import com.tolimoli.pms.util.RestrictionRules;
 
 import javax.transaction.Transactional;
 
@@ -22,6 +45,13 @@ import javax.transaction.Transactional;
 @Transactional
 public class RateService {
 
+  private static final Logger log = LoggerFactory.getLogger(RateService.class);
+
+  // Check constraint from db/migration/V12__rate_allotment.sql (and Rate's
+  // @Check) and the PostgreSQL SQLState it raises
+  private static final String AVAILABILITY_CHECK = "rates_available_rooms_check";
+  private static final String CHECK_VIOLATION = "23514";
+
   @Autowired
   private RateRepository rateRepository;
 
@@ -31,9 +61,28 @@ public class RateService {
   @Autowired
   private ChannelRepository channelRepository;
 
+  @Autowired
+  private AriOutboxService ariOutboxService;
+
+  @Autowired
+  private RateQuoteService rateQuoteService;
+
+  @Autowired
+  private AriStore ariStore;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
   // Create/Update rate
   public Rate setRate(Long roomId, Long channelId, LocalDate date,
       BigDecimal rateAmount, Integer availableRooms) {
+    return setRate(roomId, channelId, date, rateAmount, availableRooms, null);
+  }
+
+  // Create/Update rate; null restrictions are left as they are
+  public Rate setRate(Long roomId, Long channelId, LocalDate date,
+      BigDecimal rateAmount, Integer availableRooms, String restrictions) {
+    RestrictionRules.validate(restrictions);
     Room room = roomRepository.findById(roomId)
         .orElseThrow(() -> new RuntimeException("Room not found"));
 
@@ -57,50 +106,187 @@ public class RateService {
       rate.setRateAmount(rateAmount);
       rate.setAvailableRooms(availableRooms);
     }
+    if (restrictions != null) {
+      rate.setRestrictions(restrictions.isBlank() ? null : restrictions);
+    }
 
-    return rateRepository.save(rate);
+    Rate saved = rateRepository.save(rate);
+    ariOutboxService.recordRates(List.of(saved));
+    ariStore.record(List.of(saved));
+    rateQuoteService.invalidate();
+    return saved;
   }
 
   // Get rates for room and date range
-  public List<Rate> getRatesForRoom(Long roomId, LocalDate startDate, LocalDate endDate) {
-    return rateRepository.findByRoomIdAndRateDateBetween(roomId, startDate, endDate);
+  public List<RateResponse> getRatesForRoom(Long roomId, LocalDate startDate, LocalDate endDate) {
+    return getRoomCalendar(roomId, startDate, endDate).getRates();
   }
 
   // Get rates for channel
-  public List<Rate> getRatesForChannel(Long channelId, LocalDate date) {
-    return rateRepository.findByChannelIdAndRateDate(channelId, date);
+  public List<RateResponse> getRatesForChannel(Long channelId, LocalDate date) {
+    return getChannelCalendar(channelId, date).getRates();
+  }
+
+  // Rate calendar of a room with its ETag, from the ARI store
+  public RateCalendar getRoomCalendar(Long roomId, LocalDate startDate, LocalDate endDate) {
+    return ariStore.getRoomCalendar(roomId, startDate, endDate);
+  }
+
+  // Rates of a channel on a date with their ETag, from the ARI store
+  public RateCalendar getChannelCalendar(Long channelId, LocalDate date) {
+    return ariStore.getChannelCalendar(channelId, date);
   }
 
   // Update availability after booking
   public void updateAvailabilityAfterBooking(Long roomId, Long channelId,
       LocalDate checkIn, LocalDate checkOut) {
-    LocalDate current = checkIn;
-
-    while (current.isBefore(checkOut)) {
-      Optional<Rate> rateOpt = rateRepository.findByRoomIdAndChannelIdAndRateDate(
-          roomId, channelId, current);
+    updateAvailabilityAfterBooking(List.of(roomId), channelId, checkIn, checkOut);
+  }
 
-      if (rateOpt.isPresent()) {
-        Rate rate = rateOpt.get();
-        if (rate.getAvailableRooms() > 0) {
-          rate.updateAvailability(rate.getAvailableRooms() - 1);
-          rateRepository.save(rate);
-        }
+  // Take one room per night of the stay from each room's inventory on the
+  // channel in one update; if any night is sold out the check on
+  // available_rooms rejects it and nothing is taken. Nights without a rate row
+  // do not track inventory.
+  public void updateAvailabilityAfterBooking(Collection<Long> roomIds, Long channelId,
+      LocalDate checkIn, LocalDate checkOut) {
+    if (roomIds.isEmpty() || !checkOut.isAfter(checkIn)) {
+      return;
+    }
+    try {
+      rateRepository.takeInventory(roomIds, channelId, checkIn, checkOut);
+    } catch (DataIntegrityViolationException e) {
+      if (!isSoldOut(e)) {
+        throw e;
       }
+      throw new BusinessLogicException("No inventory left on the channel between " + checkIn + " and " + checkOut);
+    }
+    recordInventory(roomIds, channelId, checkIn, checkOut);
+  }
+
+  // Give the nights of a cancelled or shortened stay back to the channel's
+  // inventory, up to each night's allotment
+  public void releaseAvailability(Long roomId, Long channelId, LocalDate checkIn, LocalDate checkOut) {
+    if (!checkOut.isAfter(checkIn)) {
+      return;
+    }
+    if (rateRepository.releaseInventory(List.of(roomId), channelId, checkIn, checkOut) > 0) {
+      recordInventory(List.of(roomId), channelId, checkIn, checkOut);
+    }
+  }
 
-      current = current.plusDays(1);
+  // Queue the changed nights for distribution straight from the rates table;
+  // the bulk update bypassed any copies already loaded in this session
+  private void recordInventory(Collection<Long> roomIds, Long channelId, LocalDate checkIn, LocalDate checkOut) {
+    Channel channel = channelRepository.findById(channelId)
+        .orElseThrow(() -> new ResourceNotFoundException("Channel not found"));
+    ariOutboxService.recordRates(channel, roomIds, checkIn, checkOut.minusDays(1));
+    ariStore.record(roomIds, channelId, checkIn, checkOut.minusDays(1));
+  }
+
+  // Whether a failed take was the availability check rejecting a sold-out night
+  private static boolean isSoldOut(DataIntegrityViolationException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException
+          && AVAILABILITY_CHECK.equals(((ConstraintViolationException) cause).getConstraintName())) {
+        return true;
+      }
+      if (cause instanceof SQLException && CHECK_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+        return true;
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
     }
+    return false;
   }
 
   // Bulk update rates for multiple dates
-  public void bulkUpdateRates(Long roomId, Long channelId, LocalDate startDate,
+  public int bulkUpdateRates(Long roomId, Long channelId, LocalDate startDate,
       LocalDate endDate, BigDecimal rateAmount, Integer availability) {
-    LocalDate current = startDate;
+    return bulkUpdateRates(new RateMatrixUpdateRequest(List.of(roomId), List.of(channelId),
+        startDate, endDate, rateAmount, availability));
+  }
+
+  // Bulk update rates for every room x channel x date in the request
+  public int bulkUpdateRates(RateMatrixUpdateRequest request) {
+    LocalDate startDate = request.getStartDate();
+    LocalDate endDate = request.getEndDate();
+    if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+      throw new IllegalArgumentException("End date must not be before start date");
+    }
+
+    RestrictionRules.validate(request.getRestrictions());
+    String restrictions = request.getRestrictions() == null || request.getRestrictions().isBlank()
+        ? null : request.getRestrictions();
+
+    Set<Long> roomIds = new LinkedHashSet<>(request.getRoomIds());
+    Set<Long> channelIds = new LinkedHashSet<>(request.getChannelIds());
+
+    // Load every room and channel once for the whole matrix
+    Map<Long, Room> rooms = roomRepository.findAllById(roomIds).stream()
+        .collect(Collectors.toMap(Room::getId, Function.identity()));
+    Map<Long, Channel> channels = channelRepository.findAllById(channelIds).stream()
+        .collect(Collectors.toMap(Channel::getId, Function.identity()));
+    roomIds.stream().filter(id -> !rooms.containsKey(id)).findFirst()
+        .ifPresent(id -> { throw new ResourceNotFoundException("Room", id); });
+    channelIds.stream().filter(id -> !channels.containsKey(id)).findFirst()
+        .ifPresent(id -> { throw new ResourceNotFoundException("Channel", id); });
+
+    int written = 0;
+    for (Long roomId : roomIds) {
+      // One query loads the room's existing rates for all channels and dates
+      Map<String, Rate> existing = new HashMap<>();
+      for (Rate rate : rateRepository.findByRoomIdAndChannelIdsAndDateRange(
+          roomId, channelIds, startDate, endDate)) {
+        existing.put(cellKey(rate.getChannel().getId(), rate.getRateDate()), rate);
+      }
+
+      List<Rate> batch = new ArrayList<>();
+      for (Long channelId : channelIds) {
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+          Rate rate = existing.get(cellKey(channelId, date));
+          if (rate != null) {
+            rate.updateRate(request.getRateAmount());
+            rate.updateAvailability(request.getAvailableRooms());
+          } else {
+            rate = new Rate(rooms.get(roomId), channels.get(channelId), date,
+                request.getRateAmount(), request.getAvailableRooms());
+          }
+          if (request.getRestrictions() != null) {
+            rate.setRestrictions(restrictions);
+          }
+          batch.add(rate);
+        }
+      }
+
+      rateRepository.saveAll(batch);
+      ariOutboxService.recordRates(batch);
+      ariStore.record(batch);
+      written += batch.size();
+
+      // Keep the persistence context bounded on large matrices. Only the rates
+      // written here are detached; the caller's entities stay managed.
+      entityManager.flush();
+      batch.forEach(entityManager::detach);
+    }
+    rateQuoteService.invalidate();
+    return written;
+  }
+
+  private static String cellKey(Long channelId, LocalDate date) {
+    return channelId + "|" + date;
+  }
 
-    while (!current.isAfter(endDate)) {
-      setRate(roomId, channelId, current, rateAmount, availability);
-      current = current.plusDays(1);
+  // Compile restrictions stored before they were kept compiled, or written straight to the database
+  @EventListener(ApplicationReadyEvent.class)
+  public int compilePendingRestrictions() {
+    List<Rate> pending = rateRepository.findByRestrictionsIsNotNullAndRestrictionRulesIsNull();
+    pending.forEach(rate -> rate.setRestrictions(rate.getRestrictions()));
+    if (!pending.isEmpty()) {
+      log.info("Compiled restrictions of {} rates", pending.size());
+      rateQuoteService.invalidate();
     }
+    return pending.size();
   }
 
   // Block/Unblock sales
@@ -111,7 +297,10 @@ public class RateService {
     if (rateOpt.isPresent()) {
       Rate rate = rateOpt.get();
       rate.blockSales();
-      rateRepository.save(rate);
+      Rate saved = rateRepository.save(rate);
+      ariOutboxService.recordRates(List.of(saved));
+      ariStore.record(List.of(saved));
+      rateQuoteService.invalidate();
     }
   }
 }
\ No newline at end of file
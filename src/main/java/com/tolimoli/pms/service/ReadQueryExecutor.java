@@ -0,0 +1,161 @@
+package com.tolimoli.pms.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.dto.response.ApiResponse;
+
+/**
+ * Executor for the availability and rate read API
+ *
+ * OTA and booking-engine lookups are bursty and each one used to hold a
+ * servlet thread for as long as its queries ran. Read endpoints now return a
+ * CompletableFuture: the servlet thread is released at once and the query
+ * runs on this fixed pool, so open connections are bounded by Tomcat's
+ * max-connections rather than its worker count. Backpressure is explicit:
+ * when the pool and its queue are full, or a query does not finish within
+ * the timeout, the caller gets 503 with Retry-After instead of waiting in
+ * line. A timed-out query is also stopped, so it does not keep holding a
+ * worker and a connection. Writes stay on the request thread.
+ */
+@Component
+public class ReadQueryExecutor {
+
+  private static final Logger log = LoggerFactory.getLogger(ReadQueryExecutor.class);
+
+  @Value("${app.read-api.threads:16}")
+  private int threads;
+
+  @Value("${app.read-api.queue-capacity:200}")
+  private int queueCapacity;
+
+  @Value("${app.read-api.timeout-ms:10000}")
+  private long timeoutMs;
+
+  @Value("${app.read-api.retry-after-seconds:1}")
+  private int retryAfterSeconds;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private ThreadPoolExecutor executor;
+
+  private final AtomicInteger rejected = new AtomicInteger();
+
+  @PostConstruct
+  void start() {
+    AtomicInteger threadNumber = new AtomicInteger();
+    executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "read-query-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    executor.shutdown();
+    if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Run the query off the request thread
+   *
+   * @return the query's response, or 503 when the executor is saturated or
+   *         the query timed out
+   */
+  public <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> submit(Supplier<ResponseEntity<ApiResponse<T>>> query) {
+    CompletableFuture<ResponseEntity<ApiResponse<T>>> result = new CompletableFuture<>();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    Future<?> task;
+    try {
+      task = executor.submit(() -> {
+        try {
+          result.complete(runBefore(deadline, query));
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      int count = rejected.incrementAndGet();
+      if (count % 1000 == 1) {
+        log.warn("Read API saturated ({} threads, {} queued), {} requests rejected so far", threads, queueCapacity, count);
+      }
+      return CompletableFuture.completedFuture(busy("Too many concurrent queries, retry shortly"));
+    }
+    return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).exceptionally(failure -> {
+      Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+      if (cause instanceof TimeoutException) {
+        // A queued query never starts; a running one is stopped by its
+        // transaction deadline, not by interrupting the thread, which would
+        // close NIO channels under the JDBC driver
+        task.cancel(false);
+        executor.remove((Runnable) task);
+        return busy("Query did not finish within " + timeoutMs + " ms");
+      }
+      throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(cause);
+    });
+  }
+
+  // Run the query in a read-only transaction that times out at the deadline.
+  // Hibernate gives every statement the time left as its JDBC query timeout,
+  // so a slow query is cancelled in the database and frees its thread and
+  // connection instead of running on after the caller got 503. Hibernate
+  // counts the time left down in whole seconds, so round up and allow one
+  // more; the caller has been answered at the deadline either way.
+  private <R> R runBefore(long deadline, Supplier<R> query) throws TimeoutException {
+    long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    if (remainingMs <= 0) {
+      throw new TimeoutException("Query waited past its deadline");
+    }
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+    transaction.setTimeout((int) ((remainingMs + 999) / 1000) + 1);
+    return transaction.execute(status -> query.get());
+  }
+
+  /**
+   * Queries waiting for a thread
+   */
+  public int getQueued() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Requests turned away since startup
+   */
+  public int getRejected() {
+    return rejected.get();
+  }
+
+  private <T> ResponseEntity<ApiResponse<T>> busy(String message) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+        .body(ApiResponse.error(message));
+  }
+}
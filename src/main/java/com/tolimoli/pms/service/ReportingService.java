@@ -0,0 +1,98 @@
+package com.tolimoli.pms.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.tolimoli.pms.dto.response.ChannelPerformanceResponse;
+import com.tolimoli.pms.dto.response.DailyOccupancyResponse;
+import com.tolimoli.pms.dto.response.RevenueSummaryResponse;
+import com.tolimoli.pms.dto.response.RoomTypePerformanceResponse;
+import com.tolimoli.pms.repository.DailyRevenueRollupRepository;
+import com.tolimoli.pms.repository.RoomRepository;
+
+import javax.transaction.Transactional;
+
+// ===== REPORTING SERVICE =====
+// Occupancy and revenue reports, read from the daily revenue rollups
+@Service
+@Transactional
+public class ReportingService {
+
+  private static final int MAX_RANGE_DAYS = 3660;
+
+  @Autowired
+  private DailyRevenueRollupRepository rollupRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  // Rooms sold, revenue, ADR and occupancy for a date range
+  public RevenueSummaryResponse getRevenueSummary(LocalDate startDate, LocalDate endDate) {
+    validateRange(startDate, endDate);
+    RevenueSummaryResponse summary = rollupRepository.summarize(startDate, endDate);
+    summary.applyRange(startDate, endDate, roomRepository.countByIsActiveTrue());
+    return summary;
+  }
+
+  // Occupancy for every date in the range, including dates without sales
+  public List<DailyOccupancyResponse> getDailyOccupancy(LocalDate startDate, LocalDate endDate) {
+    validateRange(startDate, endDate);
+    Map<LocalDate, Long> sold = new HashMap<>();
+    for (Object[] row : rollupRepository.roomsSoldByDate(startDate, endDate)) {
+      sold.put((LocalDate) row[0], (Long) row[1]);
+    }
+
+    long totalRooms = roomRepository.countByIsActiveTrue();
+    List<DailyOccupancyResponse> days = new ArrayList<>();
+    for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+      days.add(new DailyOccupancyResponse(date, sold.getOrDefault(date, 0L), totalRooms));
+    }
+    return days;
+  }
+
+  // Revenue per channel with its share of total room revenue
+  public List<ChannelPerformanceResponse> getChannelPerformance(LocalDate startDate, LocalDate endDate) {
+    validateRange(startDate, endDate);
+    List<ChannelPerformanceResponse> channels = rollupRepository.summarizeByChannel(startDate, endDate);
+
+    BigDecimal total = BigDecimal.ZERO;
+    for (ChannelPerformanceResponse channel : channels) {
+      total = total.add(channel.getTotalRevenue());
+    }
+    for (ChannelPerformanceResponse channel : channels) {
+      channel.setStartDate(startDate);
+      channel.setEndDate(endDate);
+      if (total.signum() > 0) {
+        channel.setMarketShare(channel.getTotalRevenue().multiply(new BigDecimal("100"))
+            .divide(total, 2, RoundingMode.HALF_UP));
+      }
+    }
+    return channels;
+  }
+
+  // Rooms sold, revenue and ADR per room type
+  public List<RoomTypePerformanceResponse> getRoomTypePerformance(LocalDate startDate, LocalDate endDate) {
+    validateRange(startDate, endDate);
+    return rollupRepository.summarizeByRoomType(startDate, endDate);
+  }
+
+  private void validateRange(LocalDate startDate, LocalDate endDate) {
+    if (startDate == null || endDate == null) {
+      throw new IllegalArgumentException("Start and end dates are required");
+    }
+    if (endDate.isBefore(startDate)) {
+      throw new IllegalArgumentException("End date must not be before start date");
+    }
+    if (endDate.toEpochDay() - startDate.toEpochDay() >= MAX_RANGE_DAYS) {
+      throw new IllegalArgumentException("Date range must be shorter than " + MAX_RANGE_DAYS + " days");
+    }
+  }
+}
@@ -1,13 +1,33 @@
 package com.tolimoli.pms.service;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tolimoli.pms.dto.request.GroupBookingRequest;
+import com.tolimoli.pms.dto.response.KeysetPageResponse;
+import com.tolimoli.pms.dto.response.ReservationResponse;
+import com.tolimoli.pms.dto.response.StayQuoteResponse;
+import com.tolimoli.pms.entity.DomainEventType;
+import com.tolimoli.pms.entity.FolioCharge;
 import com.tolimoli.pms.entity.Guest;
 import com.tolimoli.pms.entity.Reservation;
 import com.tolimoli.pms.entity.Room;
@@ -17,8 +37,10 @@ import com.tolimoli.pms.entity.ReservationStatus;
 import com.tolimoli.pms.exception.ResourceNotFoundException;
 import com.tolimoli.pms.exception.BusinessLogicException;
 import com.tolimoli.pms.repository.ReservationRepository;
+import com.tolimoli.pms.util.TransactionCallbacks;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 // ===== 4. RESERVATION SERVICE =====
 @Service
@@ -40,6 +62,38 @@ public class ReservationService {
   @Autowired
   private FolioChargeService folioChargeService;
 
+  @Autowired
+  private RateQuoteService rateQuoteService;
+
+  @Autowired
+  private RateService rateService;
+
+  @Autowired
+  private RoomAvailabilityIndex availabilityIndex;
+
+  @Autowired
+  private ConfirmationNumberGenerator confirmationNumberGenerator;
+
+  @Autowired
+  private RoomBookingLocks roomBookingLocks;
+
+  @Autowired
+  private DomainEventPublisher eventPublisher;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private KeysetExporter keysetExporter;
+
+  // Largest room block one group booking may hold
+  private static final int MAX_GROUP_ROOMS = 500;
+
+  // Exclusion constraint from db/migration/V2__reservation_no_overlap.sql and
+  // the PostgreSQL SQLState it raises
+  private static final String ROOM_OVERLAP_CONSTRAINT = "reservations_room_no_overlap";
+  private static final String EXCLUSION_VIOLATION = "23P01";
+
   // Create reservation
   public Reservation createReservation(String guestEmail, String roomNumber, String channelCode,
       LocalDate checkInDate, LocalDate checkOutDate,
@@ -88,16 +142,23 @@ public class ReservationService {
           ") exceeds room capacity (" + room.getCapacity() + ")");
     }
 
-    // Check for conflicting reservations
+    // Price the stay from the rate calendar; closed dates and restrictions reject it
+    StayQuoteResponse quote = rateQuoteService.quoteStay(room, channel, checkInDate, checkOutDate, numberOfGuests, 0);
+    if (!quote.getSellable()) {
+      throw new BusinessLogicException("Room " + roomNumber + " cannot be booked: " + quote.getRestriction());
+    }
+
+    // Serialize bookings of this room until commit, then check for conflicts
+    roomBookingLocks.lockUntilCompletion(room.getId());
     if (!reservationRepository.isRoomAvailable(room.getId(), checkInDate, checkOutDate)) {
       throw new BusinessLogicException("Room " + roomNumber + " is not available for the selected dates");
     }
 
+    // Take the stay's nights from the channel's inventory, all or none
+    rateService.updateAvailabilityAfterBooking(room.getId(), channel.getId(), checkInDate, checkOutDate);
+
     // Generate unique confirmation number
-    String confirmationNumber = generateConfirmationNumber();
-    while (reservationRepository.existsByConfirmationNumber(confirmationNumber)) {
-      confirmationNumber = generateConfirmationNumber();
-    }
+    String confirmationNumber = confirmationNumberGenerator.next();
 
     // Create reservation
     Reservation reservation = new Reservation();
@@ -111,29 +172,179 @@ public class ReservationService {
     reservation.setSpecialRequests(specialRequests);
     reservation.setStatus(ReservationStatus.CONFIRMED);
 
-    // Calculate total amount
+    // Total amount is accumulated from the posted room charges
     Long nights = reservation.getDurationInDays();
     if (nights <= 0) {
       throw new BusinessLogicException("Invalid stay duration: " + nights + " nights");
     }
-    BigDecimal totalAmount = room.getBaseRate().multiply(new BigDecimal(nights));
-    reservation.setTotalAmount(totalAmount);
-
-    Reservation savedReservation = reservationRepository.save(reservation);
+    reservation.setTotalAmount(BigDecimal.ZERO);
+
+    // Flush now so the overlap constraint rejects a booking made concurrently on another node
+    Reservation savedReservation;
+    try {
+      savedReservation = reservationRepository.saveAndFlush(reservation);
+    } catch (DataIntegrityViolationException e) {
+      if (!isRoomOverlap(e)) {
+        throw e;
+      }
+      throw new BusinessLogicException("Room " + roomNumber + " is not available for the selected dates");
+    }
 
     // Auto-create room charges
-    folioChargeService.createRoomCharges(savedReservation);
+    List<FolioCharge> roomCharges = folioChargeService.createRoomCharges(savedReservation, quote);
+
+    TransactionCallbacks.afterCommit(() ->
+        availabilityIndex.markBooked(room.getId(), checkInDate, checkOutDate));
+    Map<String, Object> payload = eventPayload(savedReservation);
+    payload.put(RevenueRollupService.ROOM_NIGHTS, RevenueRollupService.roomNights(roomCharges));
+    eventPublisher.publish(DomainEventType.RESERVATION_CREATED, savedReservation.getId(), payload);
 
     return savedReservation;
   }
 
+  // Book a block of rooms for a group in one transaction, all or nothing
+  public List<Reservation> createGroupBooking(GroupBookingRequest request) {
+    LocalDate checkInDate = request.getCheckInDate();
+    LocalDate checkOutDate = request.getCheckOutDate();
+    if (checkInDate == null || checkOutDate == null) {
+      throw new IllegalArgumentException("Check-in and check-out dates are required");
+    }
+    if (!checkOutDate.isAfter(checkInDate)) {
+      throw new IllegalArgumentException("Check-out date must be after check-in date");
+    }
+    int guestsPerRoom = request.getGuestsPerRoom() != null ? request.getGuestsPerRoom() : 0;
+    if (guestsPerRoom <= 0) {
+      throw new IllegalArgumentException("Guests per room must be greater than 0");
+    }
+
+    Guest guest = guestService.findGuestByEmail(request.getGuestEmail())
+        .orElseThrow(() -> new ResourceNotFoundException("Guest", "email", request.getGuestEmail()));
+    Channel channel = channelService.getChannelByCode(request.getChannelCode())
+        .orElseThrow(() -> new ResourceNotFoundException("Channel", "channelCode", request.getChannelCode()));
+
+    List<Room> rooms = selectGroupRooms(request);
+    for (Room room : rooms) {
+      if (!room.isAvailable()) {
+        throw new BusinessLogicException("Room " + room.getRoomNumber() + " is not available");
+      }
+      if (guestsPerRoom > room.getCapacity()) {
+        throw new BusinessLogicException("Number of guests (" + guestsPerRoom +
+            ") exceeds capacity (" + room.getCapacity() + ") of room " + room.getRoomNumber());
+      }
+    }
+
+    // Price every room of the block from the rate calendar in one pass
+    Map<Long, StayQuoteResponse> quotes = rateQuoteService.quoteRooms(rooms, channel, checkInDate, checkOutDate,
+        guestsPerRoom, 0);
+    List<String> unsellable = quotes.values().stream().filter(quote -> !quote.getSellable())
+        .map(quote -> quote.getRoomNumber() + " (" + quote.getRestriction() + ")").sorted()
+        .collect(Collectors.toList());
+    if (!unsellable.isEmpty()) {
+      throw new BusinessLogicException("Rooms cannot be booked: " + String.join(", ", unsellable));
+    }
+
+    // Lock every room of the block until commit, then check all of them for conflicts at once
+    Map<Long, Room> roomsById = new LinkedHashMap<>();
+    rooms.forEach(room -> roomsById.put(room.getId(), room));
+    roomBookingLocks.lockAllUntilCompletion(roomsById.keySet());
+    List<Long> conflicts = reservationRepository.findConflictingRoomIds(roomsById.keySet(), checkInDate, checkOutDate);
+    if (!conflicts.isEmpty()) {
+      throw new BusinessLogicException("Rooms not available for the selected dates: " + conflicts.stream()
+          .map(id -> roomsById.get(id).getRoomNumber()).sorted().collect(Collectors.joining(", ")));
+    }
+    rateService.updateAvailabilityAfterBooking(roomsById.keySet(), channel.getId(), checkInDate, checkOutDate);
+
+    List<Reservation> reservations = new ArrayList<>(rooms.size());
+    for (Room room : rooms) {
+      Reservation reservation = new Reservation();
+      reservation.setConfirmationNumber(confirmationNumberGenerator.next());
+      reservation.setGuest(guest);
+      reservation.setRoom(room);
+      reservation.setChannel(channel);
+      reservation.setCheckInDate(checkInDate);
+      reservation.setCheckOutDate(checkOutDate);
+      reservation.setNumberOfGuests(guestsPerRoom);
+      reservation.setSpecialRequests(request.getSpecialRequests());
+      reservation.setIsGroupBooking(true);
+      reservation.setGroupName(request.getGroupName());
+      reservation.setMarketSegment("GROUP");
+      reservation.setStatus(ReservationStatus.CONFIRMED);
+      reservation.setTotalAmount(BigDecimal.ZERO);
+      reservations.add(reservation);
+    }
+
+    // Reservations and their room charges go out as JDBC batches; the
+    // overlap constraint still rejects rooms booked meanwhile on another node
+    List<FolioCharge> roomCharges;
+    try {
+      reservationRepository.saveAll(reservations);
+      roomCharges = folioChargeService.createRoomCharges(reservations, quotes);
+      entityManager.flush();
+    } catch (DataIntegrityViolationException e) {
+      if (!isRoomOverlap(e)) {
+        throw e;
+      }
+      throw new BusinessLogicException("Some rooms of group " + request.getGroupName() +
+          " were booked concurrently, please retry");
+    }
+
+    Map<Long, List<FolioCharge>> chargesByReservation = roomCharges.stream()
+        .collect(Collectors.groupingBy(charge -> charge.getReservation().getId()));
+    Map<Long, Map<String, Object>> payloads = new LinkedHashMap<>();
+    for (Reservation reservation : reservations) {
+      Long roomId = reservation.getRoom().getId();
+      TransactionCallbacks.afterCommit(() -> availabilityIndex.markBooked(roomId, checkInDate, checkOutDate));
+      Map<String, Object> payload = eventPayload(reservation);
+      payload.put(RevenueRollupService.ROOM_NIGHTS, RevenueRollupService.roomNights(
+          chargesByReservation.getOrDefault(reservation.getId(), List.of())));
+      payloads.put(reservation.getId(), payload);
+    }
+    eventPublisher.publishAll(DomainEventType.RESERVATION_CREATED, payloads);
+    return reservations;
+  }
+
+  // Rooms of a block: the requested room numbers, or the first free rooms of the requested type
+  private List<Room> selectGroupRooms(GroupBookingRequest request) {
+    List<String> roomNumbers = request.getRoomNumbers();
+    if (roomNumbers != null && !roomNumbers.isEmpty()) {
+      Set<String> requested = new LinkedHashSet<>(roomNumbers);
+      checkGroupSize(requested.size());
+      List<Room> rooms = roomService.getRoomsByNumbers(requested);
+      if (rooms.size() < requested.size()) {
+        Set<String> found = rooms.stream().map(Room::getRoomNumber).collect(Collectors.toSet());
+        requested.removeAll(found);
+        throw new ResourceNotFoundException("Rooms not found: " + String.join(", ", requested));
+      }
+      return rooms;
+    }
+
+    if (request.getRoomType() == null || request.getRoomCount() == null || request.getRoomCount() <= 0) {
+      throw new IllegalArgumentException("Either room numbers or a room type and room count are required");
+    }
+    checkGroupSize(request.getRoomCount());
+    List<Room> candidates = roomService.getAvailableRooms(request.getCheckInDate(), request.getCheckOutDate(),
+        request.getRoomType());
+    if (candidates.size() < request.getRoomCount()) {
+      throw new BusinessLogicException("Only " + candidates.size() + " " + request.getRoomType() +
+          " rooms are available for the selected dates, " + request.getRoomCount() + " requested");
+    }
+    candidates.sort(Comparator.comparing(Room::getRoomNumber));
+    return new ArrayList<>(candidates.subList(0, request.getRoomCount()));
+  }
+
+  private static void checkGroupSize(int rooms) {
+    if (rooms > MAX_GROUP_ROOMS) {
+      throw new IllegalArgumentException("A group booking can hold at most " + MAX_GROUP_ROOMS + " rooms");
+    }
+  }
+
   // Check-in guest
   public Reservation checkInGuest(Long reservationId) {
     if (reservationId == null) {
       throw new IllegalArgumentException("Reservation ID is required");
     }
     
-    Reservation reservation = reservationRepository.findById(reservationId)
+    Reservation reservation = reservationRepository.findWithDetailsById(reservationId)
         .orElseThrow(() -> new ResourceNotFoundException("Reservation", reservationId));
 
     if (!reservation.canCheckIn()) {
@@ -142,7 +353,9 @@ public class ReservationService {
     }
 
     reservation.checkIn();
-    return reservationRepository.save(reservation);
+    Reservation savedReservation = reservationRepository.save(reservation);
+    publish(DomainEventType.RESERVATION_CHECKED_IN, savedReservation);
+    return savedReservation;
   }
 
   // Check-out guest
@@ -151,7 +364,7 @@ public class ReservationService {
       throw new IllegalArgumentException("Reservation ID is required");
     }
     
-    Reservation reservation = reservationRepository.findById(reservationId)
+    Reservation reservation = reservationRepository.findWithDetailsById(reservationId)
         .orElseThrow(() -> new ResourceNotFoundException("Reservation", reservationId));
 
     if (!reservation.canCheckOut()) {
@@ -160,24 +373,144 @@ public class ReservationService {
     }
 
     reservation.checkOut();
-    return reservationRepository.save(reservation);
+    Reservation savedReservation = reservationRepository.save(reservation);
+    releaseRoomNights(savedReservation);
+    publish(DomainEventType.RESERVATION_CHECKED_OUT, savedReservation);
+    return savedReservation;
+  }
+
+  // Cancel reservation
+  public Reservation cancelReservation(Long reservationId, String reason) {
+    if (reservationId == null) {
+      throw new IllegalArgumentException("Reservation ID is required");
+    }
+
+    Reservation reservation = reservationRepository.findWithDetailsById(reservationId)
+        .orElseThrow(() -> new ResourceNotFoundException("Reservation", reservationId));
+
+    if (!reservation.isActive()) {
+      throw new BusinessLogicException("Cannot cancel reservation " +
+          reservation.getConfirmationNumber() + " - status is " + reservation.getStatus());
+    }
+
+    reservation.cancel(reason);
+    Reservation savedReservation = reservationRepository.save(reservation);
+    releaseRoomNights(savedReservation);
+    // Every room night charged so far leaves the revenue rollups with the booking
+    Map<String, Object> payload = eventPayload(savedReservation);
+    payload.put(RevenueRollupService.ROOM_NIGHTS, folioChargeService.getRoomNights(reservationId));
+    eventPublisher.publish(DomainEventType.RESERVATION_CANCELLED, reservationId, payload);
+    return savedReservation;
+  }
+
+  // Mark a reservation the guest never arrived for as no-show (night audit)
+  public void markNoShow(Reservation reservation) {
+    reservation.markNoShow();
+    releaseRoomNights(reservation);
+    publish(DomainEventType.RESERVATION_NO_SHOW, reservation);
   }
 
   // Check availability
-  public List<Room> checkAvailability(LocalDate checkIn, LocalDate checkOut, RoomType roomType) {
-    return roomService.getAvailableRooms(checkIn, checkOut, roomType);
+  public List<Room> checkAvailability(LocalDate checkIn, LocalDate checkOut, RoomType roomType, String channelCode) {
+    List<Room> rooms = roomService.getAvailableRooms(checkIn, checkOut, roomType);
+    if (channelCode == null || channelCode.isBlank()) {
+      return rooms;
+    }
+    // Only rooms the channel may sell for this stay
+    Channel channel = channelService.getChannelByCode(channelCode)
+        .orElseThrow(() -> new ResourceNotFoundException("Channel", "channelCode", channelCode));
+    return rateQuoteService.filterSellable(rooms, channel, checkIn, checkOut);
   }
 
   // Get reservation by confirmation number
-  public Optional<Reservation> getReservationByConfirmation(String confirmationNumber) {
-    return reservationRepository.findByConfirmationNumber(confirmationNumber);
+  public Optional<ReservationResponse> getReservationByConfirmation(String confirmationNumber) {
+    return reservationRepository.findWithDetailsByConfirmationNumber(confirmationNumber)
+        .map(ReservationResponse::new);
+  }
+
+  // Get one page of filtered reservations after the given id
+  public KeysetPageResponse<ReservationResponse> getReservationPage(Long afterId, Integer size,
+      ReservationStatus status, String channelCode, boolean otaOnly, boolean outstandingOnly, String searchTerm) {
+    int pageSize = KeysetPageResponse.validateSize(size);
+    List<Reservation> rows = reservationRepository.findPageAfter(afterId == null ? 0L : afterId, status,
+        blankToNull(channelCode), otaOnly, outstandingOnly, blankToNull(searchTerm), PageRequest.of(0, pageSize + 1));
+    return KeysetPageResponse.of(rows, pageSize, Reservation::getId, ReservationResponse::new);
+  }
+
+  // Get every filtered reservation, read in pages like the export so no
+  // single transaction loads the whole table
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public List<ReservationResponse> getReservations(ReservationStatus status, String channelCode, boolean otaOnly,
+      boolean outstandingOnly, String searchTerm) {
+    List<ReservationResponse> reservations = new ArrayList<>();
+    writeReservations(null, status, channelCode, otaOnly, outstandingOnly, searchTerm, reservations::add);
+    return reservations;
+  }
+
+  // Write every filtered reservation after the given id to the sink, returns the number written
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public long exportReservations(Long afterId, ReservationStatus status, String channelCode, boolean otaOnly,
+      boolean outstandingOnly, String searchTerm, Consumer<ReservationResponse> sink) {
+    return writeReservations(afterId, status, channelCode, otaOnly, outstandingOnly, searchTerm, sink);
+  }
+
+  private long writeReservations(Long afterId, ReservationStatus status, String channelCode, boolean otaOnly,
+      boolean outstandingOnly, String searchTerm, Consumer<ReservationResponse> sink) {
+    String channel = blankToNull(channelCode);
+    String term = blankToNull(searchTerm);
+    return keysetExporter.export(afterId, (from, page) -> reservationRepository
+        .findExportPageAfter(from, status, channel, otaOnly, outstandingOnly, term, page)
+        .stream().map(ReservationResponse::new).collect(Collectors.toList()),
+        ReservationResponse::getId, sink);
+  }
+
+  // Whether a failed write was the overlap constraint rejecting a room booked
+  // concurrently on another node; any other integrity violation is a bug
+  private static boolean isRoomOverlap(DataIntegrityViolationException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException
+          && ROOM_OVERLAP_CONSTRAINT.equals(((ConstraintViolationException) cause).getConstraintName())) {
+        return true;
+      }
+      if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+        return true;
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+    return false;
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.trim().isEmpty() ? null : value.trim();
+  }
+
+  private void publish(DomainEventType eventType, Reservation reservation) {
+    eventPublisher.publish(eventType, reservation.getId(), eventPayload(reservation));
+  }
+
+  private static Map<String, Object> eventPayload(Reservation reservation) {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("confirmationNumber", reservation.getConfirmationNumber());
+    payload.put("status", reservation.getStatus());
+    payload.put("roomId", reservation.getRoom().getId());
+    payload.put("checkInDate", reservation.getCheckInDate());
+    payload.put("checkOutDate", reservation.getCheckOutDate());
+    if (Boolean.TRUE.equals(reservation.getIsGroupBooking())) {
+      payload.put("groupName", reservation.getGroupName());
+    }
+    return payload;
   }
 
-  private String generateConfirmationNumber() {
-    // Generate a more readable confirmation number format: RES-YYYYMMDD-XXXXX
-    java.time.LocalDate today = LocalDate.now();
-    String dateStr = today.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-    String randomPart = String.format("%05d", (int)(Math.random() * 100000));
-    return "RES-" + dateStr + "-" + randomPart;
+  private void releaseRoomNights(Reservation reservation) {
+    Long roomId = reservation.getRoom().getId();
+    LocalDate checkIn = reservation.getCheckInDate();
+    LocalDate checkOut = reservation.getCheckOutDate();
+    // Nights already past stay sold; the rest go back to the channel
+    LocalDate today = LocalDate.now();
+    rateService.releaseAvailability(roomId, reservation.getChannel().getId(),
+        checkIn.isAfter(today) ? checkIn : today, checkOut);
+    TransactionCallbacks.afterCommit(() -> availabilityIndex.release(roomId, checkIn, checkOut));
   }
 }
\ No newline at end of file
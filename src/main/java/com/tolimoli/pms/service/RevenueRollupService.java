@@ -0,0 +1,276 @@
+package com.tolimoli.pms.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.DailyRevenueRollup;
+import com.tolimoli.pms.entity.DomainEvent;
+import com.tolimoli.pms.entity.DomainEventType;
+import com.tolimoli.pms.entity.FolioCharge;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.entity.ReservationStatus;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.exception.ResourceNotFoundException;
+import com.tolimoli.pms.repository.ChannelRepository;
+import com.tolimoli.pms.repository.DailyRevenueRollupRepository;
+import com.tolimoli.pms.repository.FolioChargeRepository;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * Revenue rollup maintenance
+ *
+ * Keeps daily_revenue_rollups in step with the room charges of sold
+ * reservations: a booking adds its arrival and the room nights charged at
+ * booking to the rows of its room type and channel, room charges posted later
+ * (night audit, manual postings) add theirs, and a cancellation takes the
+ * arrival and every room night charged so far away again. Each event carries
+ * the room nights it adds or removes, read in the transaction that posted or
+ * cancelled, so events can be applied in any order. Updates are driven by
+ * domain events, so they never slow down or fail a booking, and commit
+ * together with the acknowledgement of the event, so each is applied exactly
+ * once; rebuild() recomputes a date range from the folio charges and
+ * reservations when rows have drifted.
+ */
+@Service
+public class RevenueRollupService implements DomainEventSubscriber {
+
+  private static final Logger log = LoggerFactory.getLogger(RevenueRollupService.class);
+
+  /** Reservations whose room nights count as sold */
+  public static final Set<ReservationStatus> SOLD_STATUSES = EnumSet.of(
+      ReservationStatus.CONFIRMED, ReservationStatus.CHECKED_IN,
+      ReservationStatus.CHECKED_OUT, ReservationStatus.NO_SHOW);
+
+  /** Event payload entry listing room nights as date, rooms and amount */
+  public static final String ROOM_NIGHTS = "roomNights";
+
+  @Autowired
+  private DailyRevenueRollupRepository rollupRepository;
+
+  @Autowired
+  private FolioChargeRepository folioChargeRepository;
+
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  @Autowired
+  private ChannelRepository channelRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private TransactionTemplate requiresNew;
+
+  @PostConstruct
+  void init() {
+    requiresNew = new TransactionTemplate(transactionManager);
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @Override
+  public String getSubscriberName() {
+    return "revenue-rollup";
+  }
+
+  @Override
+  public boolean handles(DomainEventType eventType) {
+    return eventType == DomainEventType.RESERVATION_CREATED || eventType == DomainEventType.RESERVATION_CANCELLED
+        || eventType == DomainEventType.ROOM_CHARGES_POSTED;
+  }
+
+  /**
+   * Add or remove the event's arrival and room nights in the relay's
+   * transaction; a concurrent insert of the same rollup row fails the event
+   * and its retry updates the row instead
+   */
+  @Override
+  public void handle(DomainEvent event) {
+    int sign = event.getEventType() == DomainEventType.RESERVATION_CANCELLED ? -1 : 1;
+    int arrivals = event.getEventType() == DomainEventType.ROOM_CHARGES_POSTED ? 0 : sign;
+    apply(event.getReservationId(), readRoomNights(event), arrivals, sign);
+  }
+
+  /**
+   * Room charges per night as the ROOM_NIGHTS entry of an event payload
+   */
+  public static List<Map<String, Object>> roomNights(Collection<FolioCharge> charges) {
+    Map<LocalDate, Object[]> nights = new TreeMap<>();
+    for (FolioCharge charge : charges) {
+      if (charge.isRoomCharge()) {
+        Object[] night = nights.computeIfAbsent(charge.getChargeDate(), d -> new Object[] { d, 0L, BigDecimal.ZERO });
+        night[1] = (Long) night[1] + 1;
+        night[2] = ((BigDecimal) night[2]).add(charge.getAmount());
+      }
+    }
+    return roomNights(nights.values());
+  }
+
+  /**
+   * [chargeDate, charge count, amount] rows as the ROOM_NIGHTS entry of an event payload
+   */
+  public static List<Map<String, Object>> roomNights(Iterable<Object[]> rows) {
+    List<Map<String, Object>> nights = new ArrayList<>();
+    for (Object[] row : rows) {
+      Map<String, Object> night = new LinkedHashMap<>();
+      night.put("date", row[0].toString());
+      night.put("rooms", row[1]);
+      // As text so the amount keeps its scale
+      night.put("amount", ((BigDecimal) row[2]).toPlainString());
+      nights.add(night);
+    }
+    return nights;
+  }
+
+  /**
+   * Recompute the rollups of a stay date range from folio charges and reservations
+   *
+   * @return number of rollup rows written
+   */
+  public int rebuild(LocalDate startDate, LocalDate endDate) {
+    if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+      throw new IllegalArgumentException("A start date on or before the end date is required");
+    }
+    Integer written = requiresNew.execute(status -> {
+      rollupRepository.deleteByStayDateBetween(startDate, endDate);
+
+      Map<RollupKey, DailyRevenueRollup> rows = new TreeMap<>();
+      for (Object[] row : rollupRepository.aggregateRoomNights(startDate, endDate, SOLD_STATUSES)) {
+        row(rows, row).add(((Long) row[3]).intValue(), (BigDecimal) row[4], 0);
+      }
+      for (Object[] row : rollupRepository.aggregateArrivals(startDate, endDate, SOLD_STATUSES)) {
+        row(rows, row).add(0, BigDecimal.ZERO, ((Long) row[3]).intValue());
+      }
+      rollupRepository.saveAll(rows.values());
+      return rows.size();
+    });
+    log.info("Rebuilt revenue rollups {}..{}, {} rows", startDate, endDate, written);
+    return written != null ? written : 0;
+  }
+
+  private DailyRevenueRollup row(Map<RollupKey, DailyRevenueRollup> rows, Object[] row) {
+    RollupKey key = new RollupKey((LocalDate) row[0], (RoomType) row[1], (Long) row[2]);
+    return rows.computeIfAbsent(key, k ->
+        new DailyRevenueRollup(k.stayDate, k.roomType, channelRepository.getReferenceById(k.channelId)));
+  }
+
+  // Room nights of an event as [rooms, amount] by date; events queued before
+  // payloads carried them fall back to the reservation's current room charges
+  private Map<LocalDate, Object[]> readRoomNights(DomainEvent event) {
+    Iterable<Object[]> rows;
+    JsonNode nights = readPayload(event).get(ROOM_NIGHTS);
+    if (nights == null) {
+      rows = folioChargeRepository.sumRoomChargesByNight(event.getReservationId());
+    } else {
+      List<Object[]> parsed = new ArrayList<>();
+      for (JsonNode night : nights) {
+        parsed.add(new Object[] { LocalDate.parse(night.get("date").asText()), night.get("rooms").asLong(),
+            new BigDecimal(night.get("amount").asText()) });
+      }
+      rows = parsed;
+    }
+    // Sorted by date so concurrent updates lock rows in the same order
+    Map<LocalDate, Object[]> byDate = new TreeMap<>();
+    for (Object[] row : rows) {
+      byDate.put((LocalDate) row[0], new Object[] { row[1], row[2] });
+    }
+    return byDate;
+  }
+
+  private JsonNode readPayload(DomainEvent event) {
+    try {
+      return objectMapper.readTree(event.getPayload() != null ? event.getPayload() : "{}");
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable payload of event " + event.getId(), e);
+    }
+  }
+
+  private void apply(Long reservationId, Map<LocalDate, Object[]> roomNights, int arrivals, int sign) {
+    Reservation reservation = reservationRepository.findById(reservationId)
+        .orElseThrow(() -> new ResourceNotFoundException("Reservation", reservationId));
+    RoomType roomType = reservation.getRoom().getRoomType();
+    Channel channel = reservation.getChannel();
+
+    Map<LocalDate, Object[]> nights = new TreeMap<>(roomNights);
+    if (arrivals != 0) {
+      nights.putIfAbsent(reservation.getCheckInDate(), new Object[] { 0L, BigDecimal.ZERO });
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    for (Map.Entry<LocalDate, Object[]> night : nights.entrySet()) {
+      LocalDate stayDate = night.getKey();
+      int rooms = ((Number) night.getValue()[0]).intValue() * sign;
+      BigDecimal amount = (BigDecimal) night.getValue()[1];
+      if (sign < 0) {
+        amount = amount.negate();
+      }
+      int arrived = stayDate.equals(reservation.getCheckInDate()) ? arrivals : 0;
+      if (rollupRepository.increment(stayDate, roomType, channel.getId(), rooms, amount, arrived, now) == 0) {
+        DailyRevenueRollup rollup = new DailyRevenueRollup(stayDate, roomType, channel);
+        rollup.add(rooms, amount, arrived);
+        rollupRepository.saveAndFlush(rollup);
+      }
+    }
+  }
+
+  private static final class RollupKey implements Comparable<RollupKey> {
+    private final LocalDate stayDate;
+    private final RoomType roomType;
+    private final Long channelId;
+
+    RollupKey(LocalDate stayDate, RoomType roomType, Long channelId) {
+      this.stayDate = stayDate;
+      this.roomType = roomType;
+      this.channelId = channelId;
+    }
+
+    @Override
+    public int compareTo(RollupKey other) {
+      int c = stayDate.compareTo(other.stayDate);
+      if (c == 0) {
+        c = roomType.compareTo(other.roomType);
+      }
+      return c != 0 ? c : channelId.compareTo(other.channelId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof RollupKey)) {
+        return false;
+      }
+      RollupKey other = (RollupKey) o;
+      return stayDate.equals(other.stayDate) && roomType == other.roomType && channelId.equals(other.channelId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(stayDate, roomType, channelId);
+    }
+  }
+}
@@ -0,0 +1,285 @@
+package com.tolimoli.pms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.tolimoli.pms.dto.response.AvailabilityIndexStatusResponse;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * In-memory room-night availability index
+ *
+ * Holds one bitmap per room where bit N is set when night (BASE_DATE + N) is
+ * held by a CONFIRMED or CHECKED_IN reservation, so a date range check is a
+ * single nextSetBit call instead of an anti-join over the reservations table.
+ * The index is built from the database at startup and updated by
+ * ReservationService after bookings, check-outs and cancellations commit.
+ * Changes made on other nodes are picked up by a periodic refresh that
+ * reloads every room with a reservation updated since the previous one.
+ *
+ * Marks and releases that arrive while a rebuild or refresh is loading are
+ * journaled and replayed onto the loaded bitmaps before they are swapped
+ * in, so a booking committed during the load is never lost.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+  private static final LocalDate BASE_DATE = LocalDate.of(2000, 1, 1);
+
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  // Reservations updated this long before the previous refresh are read again, for clock skew and slow commits
+  @Value("${app.availability-index.refresh-overlap-seconds:60}")
+  private long refreshOverlapSeconds;
+
+  private volatile Map<Long, BitSet> nightsByRoom = new ConcurrentHashMap<>();
+
+  private volatile boolean ready = false;
+
+  // The next refresh reloads rooms with reservations updated at or after this time
+  private volatile LocalDateTime refreshFrom;
+
+  // One rebuild or refresh at a time
+  private final Object loadLock = new Object();
+
+  // Guards the swap and the journal; marks take it briefly so none falls between load and swap
+  private final Object swapLock = new Object();
+
+  // Marks and releases made while a load runs, replayed before its result is swapped in
+  private List<NightChange> journal;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    rebuild();
+  }
+
+  /**
+   * Rebuild the index from the database and swap it in
+   */
+  public void rebuild() {
+    synchronized (loadLock) {
+      LocalDateTime loadFrom = LocalDateTime.now().minusSeconds(refreshOverlapSeconds);
+      startJournal();
+      Map<Long, BitSet> fresh = null;
+      try {
+        fresh = toBitmaps(reservationRepository.findActiveRoomNights());
+      } finally {
+        swapIn(fresh, true);
+      }
+      this.refreshFrom = loadFrom;
+      this.ready = true;
+      log.info("Room availability index built for {} rooms", fresh.size());
+    }
+  }
+
+  /**
+   * Reload the rooms whose reservations changed since the previous refresh,
+   * which picks up bookings, cancellations and check-outs made on other nodes
+   *
+   * @return number of rooms reloaded
+   */
+  @Scheduled(fixedDelayString = "${app.availability-index.refresh-interval-ms:10000}")
+  public int refresh() {
+    if (!ready) {
+      return 0;
+    }
+    synchronized (loadLock) {
+      LocalDateTime nextFrom = LocalDateTime.now().minusSeconds(refreshOverlapSeconds);
+      List<Long> roomIds = reservationRepository.findRoomIdsUpdatedSince(refreshFrom);
+      if (!roomIds.isEmpty()) {
+        startJournal();
+        Map<Long, BitSet> fresh = null;
+        try {
+          fresh = toBitmaps(reservationRepository.findActiveRoomNights(roomIds));
+          for (Long roomId : roomIds) {
+            fresh.putIfAbsent(roomId, new BitSet());
+          }
+        } finally {
+          swapIn(fresh, false);
+        }
+      }
+      this.refreshFrom = nextFrom;
+      return roomIds.size();
+    }
+  }
+
+  /**
+   * Whether the index has been built and can answer availability queries
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Check that no night in [checkIn, checkOut) is held for the room
+   */
+  public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+    BitSet nights = nightsByRoom.get(roomId);
+    if (nights == null) {
+      return true;
+    }
+    int from = offset(checkIn);
+    int to = offset(checkOut);
+    synchronized (nights) {
+      int next = nights.nextSetBit(from);
+      return next < 0 || next >= to;
+    }
+  }
+
+  /**
+   * Mark the nights in [checkIn, checkOut) as held for the room
+   */
+  public void markBooked(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+    record(new NightChange(roomId, offset(checkIn), offset(checkOut), true));
+  }
+
+  /**
+   * Free the nights in [checkIn, checkOut) for the room
+   */
+  public void release(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+    record(new NightChange(roomId, offset(checkIn), offset(checkOut), false));
+  }
+
+  /**
+   * Compare the index with the database and report rooms whose nights differ.
+   * Bookings committed while the check runs may show up as transient mismatches.
+   */
+  public AvailabilityIndexStatusResponse verify() {
+    Map<Long, BitSet> expected = loadFromDatabase();
+    Map<Long, BitSet> actual = this.nightsByRoom;
+
+    TreeSet<Long> roomIds = new TreeSet<>(expected.keySet());
+    roomIds.addAll(actual.keySet());
+
+    List<Long> mismatched = new ArrayList<>();
+    for (Long roomId : roomIds) {
+      BitSet want = expected.getOrDefault(roomId, new BitSet());
+      BitSet have = actual.get(roomId);
+      boolean equal;
+      if (have == null) {
+        equal = want.isEmpty();
+      } else {
+        synchronized (have) {
+          equal = want.equals(have);
+        }
+      }
+      if (!equal) {
+        mismatched.add(roomId);
+      }
+    }
+
+    if (!mismatched.isEmpty()) {
+      log.warn("Room availability index differs from database for rooms {}", mismatched);
+    }
+    return new AvailabilityIndexStatusResponse(ready, roomIds.size(), mismatched, LocalDateTime.now());
+  }
+
+  private Map<Long, BitSet> loadFromDatabase() {
+    return toBitmaps(reservationRepository.findActiveRoomNights());
+  }
+
+  private void record(NightChange change) {
+    synchronized (swapLock) {
+      change.applyTo(nightsByRoom);
+      if (journal != null) {
+        journal.add(change);
+      }
+    }
+  }
+
+  private void startJournal() {
+    synchronized (swapLock) {
+      journal = new ArrayList<>();
+    }
+  }
+
+  // Replay the journal onto freshly loaded bitmaps and swap them in: all of
+  // them for a rebuild, only the reloaded rooms for a refresh. A failed load
+  // (null) just ends the journal.
+  private void swapIn(Map<Long, BitSet> fresh, boolean replaceAll) {
+    synchronized (swapLock) {
+      List<NightChange> changes = journal;
+      journal = null;
+      if (fresh == null) {
+        return;
+      }
+      for (NightChange change : changes) {
+        if (replaceAll || fresh.containsKey(change.roomId)) {
+          change.applyTo(fresh);
+        }
+      }
+      if (replaceAll) {
+        this.nightsByRoom = fresh;
+      } else {
+        nightsByRoom.putAll(fresh);
+      }
+    }
+  }
+
+  private static Map<Long, BitSet> toBitmaps(Collection<Object[]> rows) {
+    Map<Long, BitSet> result = new ConcurrentHashMap<>();
+    for (Object[] row : rows) {
+      Long roomId = (Long) row[0];
+      LocalDate checkIn = (LocalDate) row[1];
+      LocalDate checkOut = (LocalDate) row[2];
+      if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+        continue;
+      }
+      result.computeIfAbsent(roomId, id -> new BitSet()).set(offset(checkIn), offset(checkOut));
+    }
+    return result;
+  }
+
+  private static int offset(LocalDate date) {
+    long days = date.toEpochDay() - BASE_DATE.toEpochDay();
+    return (int) Math.max(0, days);
+  }
+
+  // A mark or release of a room's nights [from, to) as bitmap offsets
+  private static final class NightChange {
+    private final Long roomId;
+    private final int from;
+    private final int to;
+    private final boolean booked;
+
+    NightChange(Long roomId, int from, int to, boolean booked) {
+      this.roomId = roomId;
+      this.from = from;
+      this.to = to;
+      this.booked = booked;
+    }
+
+    void applyTo(Map<Long, BitSet> nightsByRoom) {
+      BitSet nights = booked ? nightsByRoom.computeIfAbsent(roomId, id -> new BitSet()) : nightsByRoom.get(roomId);
+      if (nights == null) {
+        return;
+      }
+      synchronized (nights) {
+        if (booked) {
+          nights.set(from, to);
+        } else {
+          nights.clear(from, to);
+        }
+      }
+    }
+  }
+}
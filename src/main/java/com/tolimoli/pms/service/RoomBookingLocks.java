@@ -0,0 +1,89 @@
+package com.tolimoli.pms.service;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tolimoli.pms.exception.BusinessLogicException;
+import com.tolimoli.pms.util.TransactionCallbacks;
+
+/**
+ * Striped per-room booking locks
+ *
+ * Serializes the availability check and insert of bookings for the same
+ * room on this node while bookings for different rooms proceed in parallel.
+ * A lock is held until the surrounding transaction commits or rolls back, so
+ * the next booking for the room sees the previous one. Rooms share one of
+ * STRIPES locks by id; the exclusion constraint in
+ * db/migration/V2__reservation_no_overlap.sql covers other nodes.
+ */
+@Component
+public class RoomBookingLocks {
+
+  private static final int STRIPES = 1024;
+
+  private static final long WAIT_SECONDS = 10;
+
+  private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+  public RoomBookingLocks() {
+    for (int i = 0; i < STRIPES; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Lock the room's stripe until the current transaction completes
+   */
+  public void lockUntilCompletion(Long roomId) {
+    requireTransaction();
+    lockStripe(stripe(roomId));
+  }
+
+  /**
+   * Lock the stripes of all rooms until the current transaction completes
+   *
+   * Stripes are taken once each and in ascending order, so two block
+   * bookings with overlapping rooms cannot deadlock each other; single-room
+   * bookings hold one stripe and never wait while holding another.
+   */
+  public void lockAllUntilCompletion(Collection<Long> roomIds) {
+    requireTransaction();
+    SortedSet<Integer> stripes = new TreeSet<>();
+    for (Long roomId : roomIds) {
+      stripes.add(stripe(roomId));
+    }
+    for (int stripe : stripes) {
+      lockStripe(stripe);
+    }
+  }
+
+  private void lockStripe(int stripe) {
+    ReentrantLock lock = locks[stripe];
+    try {
+      if (!lock.tryLock(WAIT_SECONDS, TimeUnit.SECONDS)) {
+        throw new BusinessLogicException("Room is busy with another booking, please retry");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BusinessLogicException("Interrupted while waiting for a room booking lock");
+    }
+    TransactionCallbacks.afterCompletion(lock::unlock);
+  }
+
+  private static void requireTransaction() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Room booking locks must be taken inside a transaction");
+    }
+  }
+
+  private static int stripe(Long roomId) {
+    long h = roomId * 0x9E3779B97F4A7C15L;
+    return (int) (h >>> 54) & (STRIPES - 1);
+  }
+}
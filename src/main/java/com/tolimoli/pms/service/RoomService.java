@@ -1,15 +1,22 @@
 package com.tolimoli.pms.service;
 
+import com.tolimoli.pms.dto.response.KeysetPageResponse;
+import com.tolimoli.pms.dto.response.RoomResponse;
 import com.tolimoli.pms.entity.*;
 import com.tolimoli.pms.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 // ===== 1. ROOM SERVICE =====
 @Service
@@ -19,6 +26,15 @@ public class RoomService {
   @Autowired
   private RoomRepository roomRepository;
 
+  @Autowired
+  private RoomAvailabilityIndex availabilityIndex;
+
+  @Autowired
+  private NaturalIdLookup naturalIdLookup;
+
+  @Autowired
+  private KeysetExporter keysetExporter;
+
   // Create room
   public Room createRoom(String roomNumber, RoomType roomType, Integer capacity, BigDecimal baseRate) {
     Room room = new Room();
@@ -37,9 +53,33 @@ public class RoomService {
     return roomRepository.findAll();
   }
 
+  // Get one page of rooms after the given id
+  public KeysetPageResponse<RoomResponse> getRoomPage(Long afterId, Integer size) {
+    int pageSize = KeysetPageResponse.validateSize(size);
+    List<Room> rows = roomRepository.findPageAfter(afterId == null ? 0L : afterId, PageRequest.of(0, pageSize + 1));
+    return KeysetPageResponse.of(rows, pageSize, Room::getId, RoomResponse::new);
+  }
+
+  // Write every room after the given id to the sink, returns the number written
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public long exportRooms(Long afterId, Consumer<RoomResponse> sink) {
+    return keysetExporter.export(afterId, (from, page) -> roomRepository.findExportPageAfter(from, page)
+        .stream().map(RoomResponse::new).collect(Collectors.toList()), RoomResponse::getId, sink);
+  }
+
   // Get available rooms for dates
   public List<Room> getAvailableRooms(LocalDate checkIn, LocalDate checkOut, RoomType roomType) {
-    return roomRepository.findAvailableRooms(checkIn, checkOut, roomType);
+    if (!availabilityIndex.isReady()) {
+      return roomRepository.findAvailableRooms(checkIn, checkOut, roomType);
+    }
+    return roomRepository.findSellableRooms(roomType).stream()
+        .filter(room -> availabilityIndex.isAvailable(room.getId(), checkIn, checkOut))
+        .collect(Collectors.toList());
+  }
+
+  // Get active rooms open for sale, optionally of one type
+  public List<Room> getSellableRooms(RoomType roomType) {
+    return roomRepository.findSellableRooms(roomType);
   }
 
   // Update room status
@@ -52,6 +92,11 @@ public class RoomService {
 
   // Get room by number
   public Optional<Room> getRoomByNumber(String roomNumber) {
-    return roomRepository.findByRoomNumber(roomNumber);
+    return naturalIdLookup.find(Room.class, roomNumber);
+  }
+
+  // Get rooms by number in one query, missing numbers are left out
+  public List<Room> getRoomsByNumbers(Collection<String> roomNumbers) {
+    return roomRepository.findByRoomNumberIn(roomNumbers);
   }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.tolimoli.pms.service;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.tolimoli.pms.dto.response.SearchHitResponse;
+import com.tolimoli.pms.entity.ReservationStatus;
+import com.tolimoli.pms.repository.GuestRepository;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+import javax.transaction.Transactional;
+
+// ===== SEARCH SERVICE =====
+// Front-desk search over guest name, email and phone and over confirmation
+// and OTA confirmation numbers. Substring, prefix and typo-tolerant matches
+// are answered from the trigram indexes in V4__trigram_search_indexes.sql.
+@Service
+@Transactional
+public class SearchService {
+
+  private static final int MIN_TERM_LENGTH = 3;
+
+  private static final int MAX_TERM_LENGTH = 100;
+
+  private static final int MAX_LIMIT = 50;
+
+  // Word similarity a fuzzy match needs; pg_trgm's default of 0.6 misses
+  // most single-letter typos in short names
+  private static final String FUZZY_THRESHOLD = "0.4";
+
+  // Phone numbers are only matched once the term carries this many digits
+  private static final int MIN_PHONE_DIGITS = 4;
+
+  @Autowired
+  private GuestRepository guestRepository;
+
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  // Best guest and reservation matches for the term, highest score first
+  public List<SearchHitResponse> search(String query, Integer limit) {
+    String term = normalize(query);
+    int maxHits = validateLimit(limit);
+    String like = escapeLike(term);
+    String digits = term.replaceAll("[^0-9]", "");
+    if (digits.length() < MIN_PHONE_DIGITS) {
+      digits = "";
+    }
+
+    guestRepository.setWordSimilarityThreshold(FUZZY_THRESHOLD);
+
+    List<SearchHitResponse> hits = new ArrayList<>();
+    for (Object[] row : guestRepository.searchRanked(term, "%" + like + "%", like + "%", "% " + like + "%",
+        digits, "%" + digits + "%", maxHits)) {
+      hits.add(SearchHitResponse.guest(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+          (String) row[3], (String) row[4], ((Number) row[5]).doubleValue()));
+    }
+    for (Object[] row : reservationRepository.searchRanked(term, "%" + like + "%", like + "%", maxHits)) {
+      hits.add(SearchHitResponse.reservation(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+          ReservationStatus.valueOf((String) row[3]), ((Date) row[4]).toLocalDate(), ((Date) row[5]).toLocalDate(),
+          ((Number) row[6]).longValue(), row[7] + " " + row[8], (String) row[9], ((Number) row[10]).doubleValue()));
+    }
+
+    hits.sort(Comparator.comparing(SearchHitResponse::getScore).reversed());
+    return hits.size() > maxHits ? new ArrayList<>(hits.subList(0, maxHits)) : hits;
+  }
+
+  private static String normalize(String query) {
+    String term = query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    if (term.length() < MIN_TERM_LENGTH) {
+      throw new IllegalArgumentException("Search term must be at least " + MIN_TERM_LENGTH + " characters");
+    }
+    if (term.length() > MAX_TERM_LENGTH) {
+      throw new IllegalArgumentException("Search term must be at most " + MAX_TERM_LENGTH + " characters");
+    }
+    return term;
+  }
+
+  private static int validateLimit(Integer limit) {
+    if (limit == null) {
+      return 20;
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+    }
+    return limit;
+  }
+
+  // Match the term literally inside LIKE patterns
+  private static String escapeLike(String term) {
+    return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,61 @@
+package com.tolimoli.pms.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Newline-delimited JSON export responses
+ *
+ * The export runs on the MVC async executor once the response has been
+ * committed, so the first lines reach the client while later rows are still
+ * being read and nothing is buffered beyond one flush interval.
+ */
+public final class NdjsonResponses {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 100;
+
+    private NdjsonResponses() {
+    }
+
+    /**
+     * Stream every item the export hands to its sink as one JSON line
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper,
+            Consumer<Consumer<T>> export) {
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody body = out -> export.accept(new Consumer<T>() {
+            private int pending;
+
+            @Override
+            public void accept(T item) {
+                try {
+                    writeLine(out, writer.writeValueAsBytes(item));
+                    if (++pending == FLUSH_EVERY) {
+                        out.flush();
+                        pending = 0;
+                    }
+                } catch (IOException e) {
+                    // Usually the client went away; abort the export
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    private static void writeLine(OutputStream out, byte[] json) throws IOException {
+        out.write(json);
+        out.write('\n');
+    }
+}
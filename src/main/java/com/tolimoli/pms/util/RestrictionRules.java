@@ -0,0 +1,167 @@
+package com.tolimoli.pms.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Rate restrictions compiled into a single long
+ *
+ * Rate.restrictions is free text such as "MIN_STAY_2, NO_ARRIVAL_SUNDAY".
+ * It is compiled once when written and stored next to the text, so searches
+ * evaluate restrictions with a few bit operations per room-night and never
+ * parse or allocate. Layout:
+ *
+ * <pre>
+ * bits  0-15  minimum stay in nights (0 = none)
+ * bits 16-31  maximum stay in nights (0 = none)
+ * bit  32     closed to arrival
+ * bit  33     closed to departure
+ * bits 34-40  no arrival on Monday..Sunday
+ * bits 41-47  no departure on Monday..Sunday
+ * </pre>
+ *
+ * Stay rules and arrival rules are read from the arrival date's rate,
+ * departure rules from the departure date's rate.
+ */
+public final class RestrictionRules {
+
+    /** No restrictions */
+    public static final long NONE = 0L;
+
+    private static final long STAY_MASK = 0xFFFFL;
+    private static final int MAX_STAY_SHIFT = 16;
+    private static final long CLOSED_TO_ARRIVAL = 1L << 32;
+    private static final long CLOSED_TO_DEPARTURE = 1L << 33;
+    private static final int NO_ARRIVAL_SHIFT = 34;
+    private static final int NO_DEPARTURE_SHIFT = 41;
+
+    private RestrictionRules() {
+    }
+
+    /**
+     * Compile comma separated restrictions; unknown rules are ignored
+     */
+    public static long compile(String restrictions) {
+        long rules = NONE;
+        for (String rule : split(restrictions)) {
+            rules |= compileRule(rule);
+        }
+        return rules;
+    }
+
+    /**
+     * Reject restrictions that contain a rule compile() would ignore
+     */
+    public static void validate(String restrictions) {
+        for (String rule : split(restrictions)) {
+            if (compileRule(rule) == NONE) {
+                throw new IllegalArgumentException("Unknown rate restriction: " + rule + " (expected MIN_STAY_n, "
+                        + "MAX_STAY_n, CLOSED_TO_ARRIVAL, CLOSED_TO_DEPARTURE, NO_ARRIVAL_<DAY> or NO_DEPARTURE_<DAY>)");
+            }
+        }
+    }
+
+    public static int minStay(long rules) {
+        return (int) (rules & STAY_MASK);
+    }
+
+    public static int maxStay(long rules) {
+        return (int) ((rules >>> MAX_STAY_SHIFT) & STAY_MASK);
+    }
+
+    public static boolean closedToArrival(long rules, DayOfWeek day) {
+        return (rules & (CLOSED_TO_ARRIVAL | dayBit(NO_ARRIVAL_SHIFT, day))) != 0;
+    }
+
+    public static boolean closedToDeparture(long rules, DayOfWeek day) {
+        return (rules & (CLOSED_TO_DEPARTURE | dayBit(NO_DEPARTURE_SHIFT, day))) != 0;
+    }
+
+    /**
+     * Whether a stay of the given length may arrive under the arrival date's rules
+     */
+    public static boolean allowsArrival(long rules, DayOfWeek arrivalDay, long nights) {
+        if (rules == NONE) {
+            return true;
+        }
+        int min = minStay(rules);
+        int max = maxStay(rules);
+        return nights >= min && (max == 0 || nights <= max) && !closedToArrival(rules, arrivalDay);
+    }
+
+    /**
+     * Why a stay may not arrive on checkIn, or null when it may
+     */
+    public static String arrivalViolation(long rules, LocalDate checkIn, long nights) {
+        if (allowsArrival(rules, checkIn.getDayOfWeek(), nights)) {
+            return null;
+        }
+        if (nights < minStay(rules)) {
+            return "Minimum stay of " + minStay(rules) + " nights from " + checkIn;
+        }
+        if (maxStay(rules) != 0 && nights > maxStay(rules)) {
+            return "Maximum stay of " + maxStay(rules) + " nights from " + checkIn;
+        }
+        return "Closed to arrival on " + checkIn;
+    }
+
+    /**
+     * Why a stay may not depart on checkOut, or null when it may
+     */
+    public static String departureViolation(long rules, LocalDate checkOut) {
+        return closedToDeparture(rules, checkOut.getDayOfWeek()) ? "Closed to departure on " + checkOut : null;
+    }
+
+    private static long compileRule(String rule) {
+        if (rule.equals("CLOSED_TO_ARRIVAL") || rule.equals("CTA")) {
+            return CLOSED_TO_ARRIVAL;
+        }
+        if (rule.equals("CLOSED_TO_DEPARTURE") || rule.equals("CTD")) {
+            return CLOSED_TO_DEPARTURE;
+        }
+        if (rule.startsWith("MIN_STAY_")) {
+            return nights(rule, "MIN_STAY_");
+        }
+        if (rule.startsWith("MAX_STAY_")) {
+            return nights(rule, "MAX_STAY_") << MAX_STAY_SHIFT;
+        }
+        if (rule.startsWith("NO_ARRIVAL_")) {
+            DayOfWeek day = day(rule, "NO_ARRIVAL_");
+            return day != null ? dayBit(NO_ARRIVAL_SHIFT, day) : NONE;
+        }
+        if (rule.startsWith("NO_DEPARTURE_")) {
+            DayOfWeek day = day(rule, "NO_DEPARTURE_");
+            return day != null ? dayBit(NO_DEPARTURE_SHIFT, day) : NONE;
+        }
+        return NONE;
+    }
+
+    private static long nights(String rule, String prefix) {
+        try {
+            int nights = Integer.parseInt(rule.substring(prefix.length()));
+            return nights > 0 ? Math.min(nights, STAY_MASK) : NONE;
+        } catch (NumberFormatException e) {
+            return NONE;
+        }
+    }
+
+    private static DayOfWeek day(String rule, String prefix) {
+        try {
+            return DayOfWeek.valueOf(rule.substring(prefix.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long dayBit(int shift, DayOfWeek day) {
+        return 1L << (shift + day.ordinal());
+    }
+
+    private static String[] split(String restrictions) {
+        if (restrictions == null || restrictions.isBlank()) {
+            return new String[0];
+        }
+        return restrictions.trim().toUpperCase(Locale.ROOT).split("\\s*[,;]\\s*");
+    }
+}
@@ -0,0 +1,9 @@
+-- Confirmation number counters (ConfirmationNumberGenerator).
+--
+-- Each nextval reserves a block of 1,000 counters for the calling node, so
+-- confirmation numbers stay unique across nodes and restarts without a
+-- per-node id. Counters are 10 digits while numbers issued before this
+-- sequence carry 9, so old and new numbers cannot collide. Run before
+-- deploying; the script is idempotent.
+
+CREATE SEQUENCE IF NOT EXISTS confirmation_number_seq INCREMENT BY 1;
@@ -0,0 +1,9 @@
+-- Index for the availability index refresh (RoomAvailabilityIndex).
+--
+-- Every node keeps the booked room nights in memory and reloads, every few
+-- seconds, the rooms of reservations whose updated_at has moved since its
+-- last refresh. Without this index each refresh scans the whole
+-- reservations table. Built concurrently so bookings are not blocked; run
+-- outside a transaction block before deploying. The script is idempotent.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservation_updated_at ON reservations (updated_at);
@@ -0,0 +1,27 @@
+-- Rate allotment and non-negative availability (RateService booking inventory).
+--
+-- Bookings take one room from available_rooms for every night of the stay in
+-- a single update; the check below rejects the update when a night is
+-- already at zero, which is how a sold-out stay is detected. Cancellations
+-- give nights back only up to rates.allotment, the availability last set by
+-- a rate update, bulk update or channel sync, so releasing a stay twice or
+-- releasing one that never took inventory cannot inflate availability.
+--
+-- Existing rates start with their current availability as the allotment:
+-- stays booked before inventory was taken at booking give nothing back.
+-- Rows already below zero must be corrected before the check is validated;
+-- it is added NOT VALID so existing rows are not rescanned under lock. Run
+-- before deploying; the script is idempotent.
+
+ALTER TABLE rates ADD COLUMN IF NOT EXISTS allotment INTEGER;
+
+UPDATE rates SET allotment = available_rooms WHERE allotment IS NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'rates_available_rooms_check') THEN
+        ALTER TABLE rates
+            ADD CONSTRAINT rates_available_rooms_check CHECK (available_rooms >= 0) NOT VALID;
+    END IF;
+END
+$$;
@@ -0,0 +1,39 @@
+-- Switch entity ids from IDENTITY (bigserial) columns to pooled sequences.
+--
+-- Hibernate cannot batch inserts into IDENTITY columns because it needs each
+-- generated key back before it can continue. Every entity now draws ids from
+-- its own sequence with INCREMENT BY 50, matching allocationSize = 50 on the
+-- @SequenceGenerator mappings, so one nextval call covers 50 inserts.
+--
+-- Run once against an existing database before deploying. The script is
+-- idempotent: sequences are created only when missing and positioned after
+-- the current maximum id, and the old column defaults are dropped so nothing
+-- else hands out ids from the old per-column sequences.
+
+CREATE SEQUENCE IF NOT EXISTS rooms_seq INCREMENT BY 50;
+SELECT setval('rooms_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM rooms), (SELECT last_value FROM rooms_seq), 1));
+ALTER TABLE rooms ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS guests_seq INCREMENT BY 50;
+SELECT setval('guests_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM guests), (SELECT last_value FROM guests_seq), 1));
+ALTER TABLE guests ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS channels_seq INCREMENT BY 50;
+SELECT setval('channels_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM channels), (SELECT last_value FROM channels_seq), 1));
+ALTER TABLE channels ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS reservations_seq INCREMENT BY 50;
+SELECT setval('reservations_seq', GREATEST((SELECT COALESCE(MAX(reservation_id), 0) FROM reservations), (SELECT last_value FROM reservations_seq), 1));
+ALTER TABLE reservations ALTER COLUMN reservation_id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS folio_charges_seq INCREMENT BY 50;
+SELECT setval('folio_charges_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM folio_charges), (SELECT last_value FROM folio_charges_seq), 1));
+ALTER TABLE folio_charges ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS payments_seq INCREMENT BY 50;
+SELECT setval('payments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM payments), (SELECT last_value FROM payments_seq), 1));
+ALTER TABLE payments ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS rates_seq INCREMENT BY 50;
+SELECT setval('rates_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM rates), (SELECT last_value FROM rates_seq), 1));
+ALTER TABLE rates ALTER COLUMN id DROP DEFAULT;
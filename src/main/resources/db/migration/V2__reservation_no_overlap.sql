@@ -0,0 +1,28 @@
+-- Database-level guarantee against double-booking a room.
+--
+-- ReservationService serializes bookings per room with in-process striped
+-- locks, which only covers a single application node. This exclusion
+-- constraint rejects any second CONFIRMED or CHECKED_IN reservation whose
+-- [check_in_date, check_out_date) range overlaps another for the same room,
+-- whichever node wrote it. Back-to-back stays (check-out day = next check-in
+-- day) remain allowed.
+--
+-- Run once against an existing database before deploying; it fails if
+-- overlapping active reservations already exist, which must be resolved
+-- first. The script is idempotent.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservations_room_no_overlap') THEN
+        ALTER TABLE reservations
+            ADD CONSTRAINT reservations_room_no_overlap
+            EXCLUDE USING gist (
+                room_id WITH =,
+                daterange(check_in_date, check_out_date) WITH &&
+            )
+            WHERE (status IN ('CONFIRMED', 'CHECKED_IN'));
+    END IF;
+END
+$$;
@@ -0,0 +1,54 @@
+-- Daily revenue rollups for the reporting endpoints.
+--
+-- One row per stay date, room type and channel holding rooms sold, room
+-- revenue and arrivals. ReservationService keeps the rows current as
+-- reservations are booked and cancelled; this script creates the table and
+-- backfills it from the existing folio charges and reservations.
+--
+-- Run once against an existing database before deploying. The script is
+-- idempotent: it creates the table only when missing and replaces any rows
+-- already present. POST /api/reports/rollups/rebuild recomputes a date range
+-- the same way later on.
+
+CREATE SEQUENCE IF NOT EXISTS daily_revenue_rollups_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS daily_revenue_rollups (
+    id            BIGINT PRIMARY KEY,
+    stay_date     DATE           NOT NULL,
+    room_type     VARCHAR(20)    NOT NULL,
+    channel_id    BIGINT         NOT NULL REFERENCES channels (id),
+    rooms_sold    INTEGER        NOT NULL DEFAULT 0,
+    room_revenue  NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    arrivals      INTEGER        NOT NULL DEFAULT 0,
+    updated_at    TIMESTAMP,
+    CONSTRAINT uk_daily_revenue_rollups UNIQUE (stay_date, room_type, channel_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rollup_channel_date ON daily_revenue_rollups (channel_id, stay_date);
+
+BEGIN;
+
+DELETE FROM daily_revenue_rollups;
+
+INSERT INTO daily_revenue_rollups (id, stay_date, room_type, channel_id, rooms_sold, room_revenue, arrivals, updated_at)
+SELECT nextval('daily_revenue_rollups_seq'), stay_date, room_type, channel_id,
+       SUM(rooms_sold), SUM(room_revenue), SUM(arrivals), now()
+FROM (
+    SELECT fc.charge_date AS stay_date, rm.room_type, r.channel_id,
+           COUNT(*) AS rooms_sold, SUM(fc.amount) AS room_revenue, 0 AS arrivals
+    FROM folio_charges fc
+    JOIN reservations r ON r.reservation_id = fc.reservation_id
+    JOIN rooms rm ON rm.id = r.room_id
+    WHERE fc.charge_type = 'ROOM'
+      AND r.status IN ('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT', 'NO_SHOW')
+    GROUP BY fc.charge_date, rm.room_type, r.channel_id
+    UNION ALL
+    SELECT r.check_in_date, rm.room_type, r.channel_id, 0, 0, COUNT(*)
+    FROM reservations r
+    JOIN rooms rm ON rm.id = r.room_id
+    WHERE r.status IN ('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT', 'NO_SHOW')
+    GROUP BY r.check_in_date, rm.room_type, r.channel_id
+) facts
+GROUP BY stay_date, room_type, channel_id;
+
+COMMIT;
@@ -0,0 +1,31 @@
+-- Trigram indexes behind /api/search and the reservation list filter.
+--
+-- Front-desk search matches any part of a guest's name, email or phone, or
+-- of a confirmation / OTA confirmation number, and tolerates typos. Plain
+-- b-tree indexes cannot serve LIKE '%term%' or similarity matches, so every
+-- search scanned guests and reservations. These GIN trigram indexes cover
+-- exactly the expressions SearchService queries (and the
+-- LOWER(CONCAT(first, ' ', last)) LIKE filters in ReservationRepository),
+-- which makes substring, prefix and fuzzy (<%) lookups index scans. The
+-- database keeps them current on every insert and update.
+--
+-- Indexes are built CONCURRENTLY so they can be created on a live system;
+-- run the file with psql outside an explicit transaction. The script is
+-- idempotent.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_guests_name_trgm
+    ON guests USING gin (lower(first_name || ' ' || last_name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_guests_email_trgm
+    ON guests USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_guests_phone_digits_trgm
+    ON guests USING gin (regexp_replace(phone, '[^0-9]', '', 'g') gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_confirmation_trgm
+    ON reservations USING gin (lower(confirmation_number) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_external_confirmation_trgm
+    ON reservations USING gin (lower(external_confirmation_number) gin_trgm_ops);
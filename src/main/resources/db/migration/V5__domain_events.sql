@@ -0,0 +1,40 @@
+-- Outbox for reservation lifecycle events (DomainEventPublisher / DomainEventRelay).
+--
+-- Every event is written in the transaction that changed the reservation,
+-- one row per subscriber, and the relay threads claim the oldest due event
+-- of each subscriber and reservation with FOR UPDATE SKIP LOCKED. Ids come
+-- from a sequence without caching so their order matches commit order per
+-- reservation.
+--
+-- The relay only ever looks at unpublished rows, so both of its indexes are
+-- partial and stay small however many published rows await the nightly
+-- purge. They carry the names used in the entity mapping, which keeps
+-- ddl-auto from creating full-table copies next to them. Run before
+-- deploying; the script is idempotent.
+
+CREATE SEQUENCE IF NOT EXISTS domain_events_seq INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS domain_events (
+    id               BIGINT PRIMARY KEY,
+    subscriber       VARCHAR(100) NOT NULL,
+    event_type       VARCHAR(40)  NOT NULL,
+    reservation_id   BIGINT       NOT NULL,
+    payload          VARCHAR(2000),
+    occurred_at      TIMESTAMP    NOT NULL,
+    published_at     TIMESTAMP,
+    attempts         INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP    NOT NULL,
+    last_error       VARCHAR(500)
+);
+
+-- Due events in claim order
+CREATE INDEX IF NOT EXISTS idx_domain_events_pending
+    ON domain_events (next_attempt_at, id) WHERE published_at IS NULL;
+
+-- Earlier unpublished events of the same subscriber and reservation
+CREATE INDEX IF NOT EXISTS idx_domain_events_stream
+    ON domain_events (subscriber, reservation_id, id) WHERE published_at IS NULL;
+
+-- Retention purge
+CREATE INDEX IF NOT EXISTS idx_domain_events_published
+    ON domain_events (published_at) WHERE published_at IS NOT NULL;
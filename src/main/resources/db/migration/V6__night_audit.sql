@@ -0,0 +1,34 @@
+-- Night audit (NightAuditService).
+--
+-- night_audit_runs holds one row per closed business date; the latest
+-- completed row defines the current business date. reservations gains
+-- last_audit_date, the business date an audit last processed the
+-- reservation. It is written in the same transaction as that night's
+-- charges, which is what lets an interrupted audit resume without posting
+-- anything twice.
+--
+-- The audit only reads confirmed and in-house reservations, so the partial
+-- index stays small as checked-out history grows. Run before deploying; the
+-- script is idempotent.
+
+ALTER TABLE reservations ADD COLUMN IF NOT EXISTS last_audit_date DATE;
+
+CREATE SEQUENCE IF NOT EXISTS night_audit_runs_seq INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS night_audit_runs (
+    id                    BIGINT PRIMARY KEY,
+    business_date         DATE         NOT NULL,
+    status                VARCHAR(20)  NOT NULL,
+    started_at            TIMESTAMP    NOT NULL,
+    completed_at          TIMESTAMP,
+    reservations_audited  INTEGER      NOT NULL DEFAULT 0,
+    room_charges_posted   INTEGER      NOT NULL DEFAULT 0,
+    tax_charges_posted    INTEGER      NOT NULL DEFAULT 0,
+    no_shows              INTEGER      NOT NULL DEFAULT 0,
+    overdue_departures    INTEGER      NOT NULL DEFAULT 0,
+    last_error            VARCHAR(500),
+    CONSTRAINT uk_night_audit_runs_date UNIQUE (business_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservations_audit
+    ON reservations (check_in_date, id) WHERE status IN ('CONFIRMED', 'CHECKED_IN');
@@ -0,0 +1,17 @@
+-- Compiled rate restrictions (RestrictionRules).
+--
+-- rates.restriction_rules holds rates.restrictions compiled into a bitmask:
+-- minimum and maximum stay, closed to arrival / departure and the weekday
+-- rules. Searches test these bits instead of parsing the text for every
+-- room-night. The application writes both columns together.
+--
+-- Rates without restrictions are set to 0 here. Rates that already carry
+-- restriction text are left NULL and compiled by the application on its
+-- next start (RateService.compilePendingRestrictions). The same happens to
+-- restrictions edited directly in the database if restriction_rules is
+-- reset to NULL. Run before deploying; the script is idempotent.
+
+ALTER TABLE rates ADD COLUMN IF NOT EXISTS restriction_rules BIGINT;
+
+UPDATE rates SET restriction_rules = 0
+ WHERE restriction_rules IS NULL AND restrictions IS NULL;
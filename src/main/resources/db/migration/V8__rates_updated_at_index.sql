@@ -0,0 +1,9 @@
+-- Index for the ARI store refresh (AriStore).
+--
+-- Every node keeps the rate calendar in memory and re-reads, every few
+-- seconds, the rates whose updated_at has moved since its last refresh.
+-- Without this index each refresh scans the whole rates table. Built
+-- concurrently so rate writes are not blocked; run outside a transaction
+-- block before deploying. The script is idempotent.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rates_updated_at ON rates (updated_at);
@@ -0,0 +1,36 @@
+-- Outbox for channel rate and availability pushes (AriOutboxService /
+-- AriDistributionWorker).
+--
+-- One row per channel / room / date cell that still has to be sent. Rate
+-- changes upsert the cell in their own transaction, overwriting the values
+-- and bumping the revision, so a channel only ever receives the latest
+-- state of a cell. The worker deletes a delivered row only if its revision
+-- is unchanged.
+--
+-- Ids come from a sequence allocated in blocks of 50 to match the entity
+-- mapping. The constraint and index carry the names used in the entity so
+-- ddl-auto validates against them. Run before deploying; the script is
+-- idempotent.
+
+CREATE SEQUENCE IF NOT EXISTS ari_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS ari_outbox (
+    id               BIGINT PRIMARY KEY,
+    channel_id       BIGINT         NOT NULL,
+    room_id          BIGINT         NOT NULL,
+    stay_date        DATE           NOT NULL,
+    rate_amount      NUMERIC(10, 2) NOT NULL,
+    available_rooms  INTEGER        NOT NULL,
+    stop_sell        BOOLEAN        NOT NULL DEFAULT FALSE,
+    revision         BIGINT         NOT NULL DEFAULT 0,
+    status           VARCHAR(20)    NOT NULL,
+    attempts         INTEGER        NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP      NOT NULL,
+    last_error       VARCHAR(500),
+    created_at       TIMESTAMP,
+    updated_at       TIMESTAMP,
+    CONSTRAINT uk_ari_outbox_cell UNIQUE (channel_id, room_id, stay_date)
+);
+
+-- Due entries per status, read by the distribution worker
+CREATE INDEX IF NOT EXISTS idx_ari_outbox_due ON ari_outbox (status, next_attempt_at);
@@ -0,0 +1,2 @@
+-- Objects used outside the entity mappings, for schemas created by ddl-auto create / create-drop
+CREATE SEQUENCE IF NOT EXISTS confirmation_number_seq INCREMENT BY 1;
@@ -0,0 +1,139 @@
+package com.tolimoli.pms.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.tolimoli.pms.entity.AriOutboxEntry;
+import com.tolimoli.pms.entity.AriOutboxStatus;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Rate;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+
+/**
+ * The outbox upserts and the worker's revision check against PostgreSQL
+ * (ON CONFLICT has no H2 equivalent). Run with mvn -Ppostgres-it test; each
+ * test rolls back.
+ */
+@Tag("postgres")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AriOutboxRepositoryPostgresTest {
+
+  private static final LocalDate STAY = LocalDate.of(2026, 3, 6);
+
+  @Autowired
+  private AriOutboxRepository outboxRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private Channel channel;
+  private Room room;
+  private Room otherRoom;
+
+  @BeforeEach
+  void setUp() {
+    channel = entityManager.persist(new Channel("Outbox test channel", "IT-OUTBOX", new BigDecimal("15.00")));
+    room = entityManager.persist(new Room("IT-101", RoomType.DOUBLE, 2, new BigDecimal("80.00")));
+    otherRoom = entityManager.persist(new Room("IT-102", RoomType.DOUBLE, 2, new BigDecimal("80.00")));
+    entityManager.flush();
+  }
+
+  @Test
+  void upsertOverwritesAQueuedCellAndBumpsItsRevision() {
+    LocalDateTime now = LocalDateTime.now();
+    outboxRepository.upsertCell(channel.getId(), room.getId(), STAY, new BigDecimal("100.00"), 3, false, now);
+    AriOutboxEntry queued = onlyEntry();
+    outboxRepository.recordFailure(queued.getId(), queued.getRevision(), AriOutboxStatus.FAILED, now.plusHours(1),
+        "channel down", now);
+
+    outboxRepository.upsertCell(channel.getId(), room.getId(), STAY, new BigDecimal("120.00"), 0, true, now);
+
+    AriOutboxEntry entry = onlyEntry();
+    assertThat(entry.getId()).isEqualTo(queued.getId());
+    assertThat(entry.getRevision()).isEqualTo(2L);
+    assertThat(entry.getRateAmount()).isEqualByComparingTo("120.00");
+    assertThat(entry.getAvailableRooms()).isZero();
+    assertThat(entry.getStopSell()).isTrue();
+    // A change re-queues a failed cell from scratch
+    assertThat(entry.getStatus()).isEqualTo(AriOutboxStatus.PENDING);
+    assertThat(entry.getAttempts()).isZero();
+    assertThat(entry.getLastError()).isNull();
+  }
+
+  @Test
+  void upsertRatesQueuesEveryRateInTheRange() {
+    LocalDateTime now = LocalDateTime.now();
+    for (Room stayRoom : List.of(room, otherRoom)) {
+      for (int night = 0; night < 4; night++) {
+        Rate rate = new Rate(stayRoom, channel, STAY.plusDays(night),
+            new BigDecimal("90.00").add(BigDecimal.valueOf(night)), 2);
+        rate.setIsBlocked(night == 1);
+        entityManager.persist(rate);
+      }
+    }
+    entityManager.flush();
+    outboxRepository.upsertCell(channel.getId(), room.getId(), STAY, new BigDecimal("50.00"), 9, false, now);
+
+    int queued = outboxRepository.upsertRates(channel.getId(), List.of(room.getId(), otherRoom.getId()), STAY,
+        STAY.plusDays(2), now);
+
+    assertThat(queued).isEqualTo(6);
+    List<AriOutboxEntry> entries = outboxRepository.findDue(channel.getId(), now, PageRequest.of(0, 10));
+    assertThat(entries).extracting(AriOutboxEntry::getRoomId, AriOutboxEntry::getStayDate).containsExactly(
+        cell(room, 0), cell(room, 1), cell(room, 2), cell(otherRoom, 0), cell(otherRoom, 1), cell(otherRoom, 2));
+    // The cell queued before was overwritten with the rate, not added again
+    AriOutboxEntry first = entries.get(0);
+    assertThat(first.getRevision()).isEqualTo(2L);
+    assertThat(first.getRateAmount()).isEqualByComparingTo("90.00");
+    assertThat(first.getAvailableRooms()).isEqualTo(2);
+    assertThat(entries).extracting(AriOutboxEntry::getStopSell).containsExactly(false, true, false, false, true, false);
+  }
+
+  @Test
+  void aDeliveryKeepsACellChangedWhileItWasBeingSent() {
+    LocalDateTime now = LocalDateTime.now();
+    outboxRepository.upsertCell(channel.getId(), room.getId(), STAY, new BigDecimal("100.00"), 3, false, now);
+    List<AriOutboxEntry> batch = outboxRepository.findDue(channel.getId(), now, PageRequest.of(0, 10));
+    assertThat(batch).hasSize(1);
+    AriOutboxEntry sent = batch.get(0);
+    entityManager.clear();
+
+    // The rate changes before the channel confirms the batch
+    outboxRepository.upsertCell(channel.getId(), room.getId(), STAY, new BigDecimal("110.00"), 2, false, now);
+
+    assertThat(outboxRepository.deleteDelivered(sent.getId(), sent.getRevision())).isZero();
+    AriOutboxEntry pending = onlyEntry();
+    assertThat(pending.getRateAmount()).isEqualByComparingTo("110.00");
+    assertThat(outboxRepository.deleteDelivered(pending.getId(), pending.getRevision())).isEqualTo(1);
+    assertThat(outboxRepository.findDue(channel.getId(), now, PageRequest.of(0, 10))).isEmpty();
+  }
+
+  // Native and bulk statements bypass the persistence context, so read fresh
+  private AriOutboxEntry onlyEntry() {
+    entityManager.clear();
+    List<AriOutboxEntry> entries = outboxRepository.findDue(channel.getId(), LocalDateTime.now().plusDays(1),
+        PageRequest.of(0, 10));
+    assertThat(entries).hasSize(1);
+    return entries.get(0);
+  }
+
+  private static Tuple cell(Room stayRoom, int night) {
+    return Tuple.tuple(stayRoom.getId(), STAY.plusDays(night));
+  }
+}
@@ -0,0 +1,125 @@
+package com.tolimoli.pms.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.entity.DomainEvent;
+import com.tolimoli.pms.entity.DomainEventType;
+
+/**
+ * The relay's FOR UPDATE SKIP LOCKED claim against PostgreSQL. Each relay is
+ * a transaction of its own; a relay started inside another one stands for a
+ * second node polling at the same moment. Events are committed so both can
+ * see them, and deleted afterwards. Run with mvn -Ppostgres-it test on a
+ * database with no other pending events.
+ */
+@Tag("postgres")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DomainEventRepositoryPostgresTest {
+
+  @Autowired
+  private DomainEventRepository domainEventRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate relay;
+
+  private final List<Long> created = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    relay = new TransactionTemplate(transactionManager);
+    relay.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @AfterEach
+  void tearDown() {
+    domainEventRepository.deleteAllById(created);
+  }
+
+  @Test
+  void aSecondRelaySkipsTheEventTheFirstHasLocked() {
+    DomainEvent first = event("it-rollup", 1L);
+    DomainEvent second = event("it-rollup", 2L);
+
+    List<Optional<DomainEvent>> claims = new ArrayList<>();
+    relay.executeWithoutResult(outer -> {
+      claims.add(claimNext());
+      relay.executeWithoutResult(inner -> {
+        claims.add(claimNext());
+        relay.executeWithoutResult(third -> claims.add(claimNext()));
+      });
+    });
+
+    assertThat(claims.get(0)).map(DomainEvent::getId).hasValue(first.getId());
+    assertThat(claims.get(1)).map(DomainEvent::getId).hasValue(second.getId());
+    assertThat(claims.get(2)).isEmpty();
+  }
+
+  @Test
+  void anEventWaitsForTheEarlierEventsOfItsStream() {
+    DomainEvent booked = event("it-rollup", 1L);
+    DomainEvent cancelled = event("it-rollup", 1L);
+    DomainEvent otherSubscriber = event("it-search", 1L);
+
+    List<Optional<DomainEvent>> claims = new ArrayList<>();
+    relay.executeWithoutResult(outer -> {
+      Optional<DomainEvent> claimed = claimNext();
+      claims.add(claimed);
+      // Not the next event of the same stream, which must wait its turn
+      relay.executeWithoutResult(inner -> claims.add(claimNext()));
+      claimed.ifPresent(event -> event.setPublishedAt(LocalDateTime.now()));
+    });
+    relay.executeWithoutResult(status -> claims.add(claimNext()));
+
+    assertThat(claims.get(0)).map(DomainEvent::getId).hasValue(booked.getId());
+    assertThat(claims.get(1)).map(DomainEvent::getId).hasValue(otherSubscriber.getId());
+    assertThat(claims.get(2)).map(DomainEvent::getId).hasValue(cancelled.getId());
+  }
+
+  @Test
+  void anEventBackingOffHoldsBackItsStream() {
+    DomainEvent failed = new DomainEvent("it-rollup", DomainEventType.RESERVATION_CREATED, 1L, "{}");
+    failed.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+    save(failed);
+    event("it-rollup", 1L);
+
+    Optional<DomainEvent> claimed = relay.execute(status -> claimNext());
+
+    assertThat(claimed).isEmpty();
+  }
+
+  private Optional<DomainEvent> claimNext() {
+    return domainEventRepository.claimNext(LocalDateTime.now());
+  }
+
+  private DomainEvent event(String subscriber, Long reservationId) {
+    return save(new DomainEvent(subscriber, DomainEventType.RESERVATION_CREATED, reservationId, "{}"));
+  }
+
+  private DomainEvent save(DomainEvent event) {
+    DomainEvent saved = domainEventRepository.save(event);
+    created.add(saved.getId());
+    return saved;
+  }
+}
@@ -0,0 +1,260 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.dto.response.RateResponse;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Rate;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.repository.RateRepository;
+
+/**
+ * A loaded store and one that was never loaded, so it reads the rates
+ * table, are served from the same rates and must answer alike
+ */
+@ExtendWith(MockitoExtension.class)
+class AriStoreTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Mock
+  private RateRepository rateRepository;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  private final List<Rate> rates = new ArrayList<>();
+
+  // Rates written before restriction_rules existed carry only the text
+  private final Set<Long> legacyRates = new HashSet<>();
+
+  private AriStore store;
+  private AriStore table;
+  private RateQuoteService tableQuotes;
+
+  private final List<Room> rooms = new ArrayList<>();
+  private final List<Channel> channels = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    for (long id = 1; id <= 3; id++) {
+      Room room = new Room("10" + id, RoomType.DOUBLE, 2, new BigDecimal("80.00"));
+      room.setId(id);
+      rooms.add(room);
+    }
+    Channel direct = new Channel("Direct", "DIRECT", BigDecimal.ZERO);
+    direct.setId(10L);
+    Channel ota = new Channel("Online agency", "OTA", new BigDecimal("15.00"));
+    ota.setId(20L);
+    channels.add(direct);
+    channels.add(ota);
+
+    long rateId = 1;
+    for (Room room : rooms) {
+      for (Channel channel : channels) {
+        for (int day = -2; day < 20; day++) {
+          // Leave gaps so some nights have no rate
+          if ((day + room.getId() + channel.getId()) % 7 == 0) {
+            continue;
+          }
+          Rate rate = new Rate(room, channel, TODAY.plusDays(day),
+              new BigDecimal("90.00").add(BigDecimal.valueOf(day * 105 + room.getId(), 2)), (day + 5) % 4);
+          rate.setId(rateId++);
+          rate.setIsBlocked(day % 9 == 4);
+          if (day % 5 == 1) {
+            rate.setRestrictions(day % 2 == 0 ? "MIN_STAY_3" : "CTD, NO_ARRIVAL_" + rate.getRateDate().getDayOfWeek());
+          }
+          if (day % 11 == 3) {
+            rate.setRestrictions("MAX_STAY_2");
+            legacyRates.add(rate.getId());
+          }
+          rates.add(rate);
+        }
+      }
+    }
+
+    doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+    lenient().when(rateRepository.streamAri(any(), any())).thenAnswer(invocation -> {
+      LocalDate from = invocation.getArgument(0);
+      LocalDate to = invocation.getArgument(1);
+      return select(rate -> !rate.getRateDate().isBefore(from) && !rate.getRateDate().isAfter(to)).stream()
+          .map(this::ariRow);
+    });
+    lenient().when(rateRepository.findResponsesByRoomId(anyLong(), any(), any())).thenAnswer(invocation -> {
+      Long roomId = invocation.getArgument(0);
+      return responses(rate -> rate.getRoom().getId().equals(roomId)
+          && between(rate, invocation.getArgument(1), invocation.getArgument(2)),
+          Comparator.comparing(Rate::getRateDate).thenComparing(rate -> rate.getChannel().getId()));
+    });
+    lenient().when(rateRepository.findResponsesByChannelId(anyLong(), any())).thenAnswer(invocation -> {
+      Long channelId = invocation.getArgument(0);
+      LocalDate date = invocation.getArgument(1);
+      return responses(rate -> rate.getChannel().getId().equals(channelId) && rate.getRateDate().equals(date),
+          Comparator.comparing(rate -> rate.getRoom().getRoomNumber()));
+    });
+    lenient().when(rateRepository.findClosingRates(anyCollection(), anyLong(), any(), any())).thenAnswer(invocation -> {
+      Collection<Long> roomIds = invocation.getArgument(0);
+      Long channelId = invocation.getArgument(1);
+      return select(rate -> roomIds.contains(rate.getRoom().getId()) && rate.getChannel().getId().equals(channelId)
+          && between(rate, invocation.getArgument(2), invocation.getArgument(3))
+          && (Boolean.TRUE.equals(rate.getIsBlocked()) || rate.getRestrictionRules() != 0)).stream()
+          .map(rate -> new Object[] { rate.getRoom().getId(), rate.getRateDate(), rate.getIsBlocked(),
+              rules(rate), rate.getRestrictions() })
+          .collect(Collectors.toList());
+    });
+
+    store = newStore(true);
+    store.reload();
+    table = newStore(false);
+    tableQuotes = new RateQuoteService();
+    ReflectionTestUtils.setField(tableQuotes, "rateRepository", rateRepository);
+    ReflectionTestUtils.setField(tableQuotes, "ariStore", table);
+  }
+
+  @Test
+  void roomCalendarsMatchTheRatesTable() {
+    for (Room room : rooms) {
+      assertSameCalendar(store.getRoomCalendar(room.getId(), TODAY.minusDays(2), TODAY.plusDays(19)),
+          table.getRoomCalendar(room.getId(), TODAY.minusDays(2), TODAY.plusDays(19)));
+      assertSameCalendar(store.getRoomCalendar(room.getId(), TODAY.plusDays(3), TODAY.plusDays(3)),
+          table.getRoomCalendar(room.getId(), TODAY.plusDays(3), TODAY.plusDays(3)));
+    }
+  }
+
+  @Test
+  void channelCalendarsMatchTheRatesTable() {
+    for (Channel channel : channels) {
+      for (int day = -2; day < 20; day++) {
+        assertSameCalendar(store.getChannelCalendar(channel.getId(), TODAY.plusDays(day)),
+            table.getChannelCalendar(channel.getId(), TODAY.plusDays(day)));
+      }
+    }
+  }
+
+  @Test
+  void closedRoomsMatchTheRatesTable() {
+    List<Long> roomIds = rooms.stream().map(Room::getId).collect(Collectors.toList());
+    int closedStays = 0;
+    for (Channel channel : channels) {
+      for (int day = -2; day < 18; day++) {
+        for (int nights = 1; nights <= 4 && day + nights < 20; nights++) {
+          LocalDate checkIn = TODAY.plusDays(day);
+          LocalDate checkOut = checkIn.plusDays(nights);
+          Set<Long> closed = store.findClosedRooms(roomIds, channel.getId(), checkIn, checkOut);
+
+          assertThat(closed).as("%s %s for %d nights", channel.getChannelCode(), checkIn, nights)
+              .isEqualTo(closedInTable(channel, checkIn, checkOut));
+          closedStays += closed.size();
+        }
+      }
+    }
+    // The rates close a fair share of stays, so the comparison means something
+    assertThat(closedStays).isGreaterThan(50);
+  }
+
+  @Test
+  void recordedWritesKeepTheStoreInStep() {
+    Rate changed = rates.get(5);
+    changed.setRateAmount(new BigDecimal("123.45"));
+    changed.setAvailableRooms(0);
+    changed.setIsBlocked(!changed.getIsBlocked());
+    changed.setRestrictions(changed.getRestrictions() == null ? "MIN_STAY_2" : null);
+    legacyRates.remove(changed.getId());
+
+    // No transaction is active, so the store applies the write at once
+    store.record(List.of(changed));
+
+    Long roomId = changed.getRoom().getId();
+    assertSameCalendar(store.getRoomCalendar(roomId, TODAY.minusDays(2), TODAY.plusDays(19)),
+        table.getRoomCalendar(roomId, TODAY.minusDays(2), TODAY.plusDays(19)));
+    LocalDate checkIn = changed.getRateDate();
+    List<Long> roomIds = rooms.stream().map(Room::getId).collect(Collectors.toList());
+    assertThat(store.findClosedRooms(roomIds, changed.getChannel().getId(), checkIn, checkIn.plusDays(1)))
+        .isEqualTo(closedInTable(changed.getChannel(), checkIn, checkIn.plusDays(1)));
+  }
+
+  @Test
+  void staysOutsideTheWindowGoToTheRatesTable() {
+    assertThat(store.findClosedRooms(List.of(1L), 10L, TODAY.minusDays(40), TODAY.minusDays(38))).isNull();
+    assertThat(store.findClosedRooms(List.of(1L), 10L, TODAY, TODAY.plusDays(800))).isNull();
+  }
+
+  private void assertSameCalendar(RateCalendar fromStore, RateCalendar fromTable) {
+    assertThat(fromStore.getRates()).usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(fromTable.getRates());
+    assertThat(fromStore.getETag()).isEqualTo(fromTable.getETag());
+  }
+
+  private Set<Long> closedInTable(Channel channel, LocalDate checkIn, LocalDate checkOut) {
+    List<Room> sellable = tableQuotes.filterSellable(rooms, channel, checkIn, checkOut);
+    return rooms.stream().filter(room -> !sellable.contains(room)).map(Room::getId).collect(Collectors.toSet());
+  }
+
+  private AriStore newStore(boolean enabled) {
+    AriStore ariStore = new AriStore();
+    ReflectionTestUtils.setField(ariStore, "rateRepository", rateRepository);
+    ReflectionTestUtils.setField(ariStore, "transactionTemplate", transactionTemplate);
+    ReflectionTestUtils.setField(ariStore, "enabled", enabled);
+    ReflectionTestUtils.setField(ariStore, "pastDays", 31);
+    ReflectionTestUtils.setField(ariStore, "futureDays", 730);
+    ReflectionTestUtils.setField(ariStore, "refreshOverlapSeconds", 60L);
+    return ariStore;
+  }
+
+  private List<Rate> select(Predicate<Rate> filter) {
+    return rates.stream().filter(filter).collect(Collectors.toList());
+  }
+
+  private List<RateResponse> responses(Predicate<Rate> filter, Comparator<Rate> order) {
+    return rates.stream().filter(filter).sorted(order)
+        .map(rate -> new RateResponse(rate.getId(), rate.getRoom().getId(), rate.getRoom().getRoomNumber(),
+            rate.getChannel().getId(), rate.getChannel().getChannelCode(), rate.getRateDate(), rate.getRateAmount(),
+            rate.getAvailableRooms(), rate.getIsBlocked(), rate.getRestrictions()))
+        .collect(Collectors.toList());
+  }
+
+  // The columns of RateRepository.ARI_COLUMNS
+  private Object[] ariRow(Rate rate) {
+    return new Object[] { rate.getId(), rate.getRoom().getId(), rate.getRoom().getRoomNumber(),
+        rate.getChannel().getId(), rate.getChannel().getChannelCode(), rate.getRateDate(), rate.getRateAmount(),
+        rate.getAvailableRooms(), rate.getIsBlocked(), rate.getRestrictions(), rules(rate) };
+  }
+
+  private Long rules(Rate rate) {
+    return legacyRates.contains(rate.getId()) ? null : rate.getRestrictionRules();
+  }
+
+  private static boolean between(Rate rate, LocalDate from, LocalDate to) {
+    return !rate.getRateDate().isBefore(from) && !rate.getRateDate().isAfter(to);
+  }
+}
@@ -0,0 +1,148 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.repository.FolioChargeRepository;
+import com.tolimoli.pms.repository.PaymentRepository;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * The transaction template stands in for a commit: reservations loaded in the
+ * transaction are validated with their @PreUpdate callback and written back
+ * only if every one of them passes, so a failed page leaves them untouched.
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceRepairServiceTest {
+
+  @Mock
+  private ReservationRepository reservationRepository;
+
+  @Mock
+  private FolioChargeRepository folioChargeRepository;
+
+  @Mock
+  private PaymentRepository paymentRepository;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @InjectMocks
+  private BalanceRepairService balanceRepairService;
+
+  // Stored totals as [total, paid], and what the folio and payments say they should be
+  private final Map<Long, BigDecimal[]> stored = new TreeMap<>();
+  private final Map<Long, BigDecimal> charged = new TreeMap<>();
+  private final Map<Long, BigDecimal> paid = new TreeMap<>();
+
+  // Reservations updated concurrently the next time they are committed
+  private final Set<Long> concurrentlyUpdated = new HashSet<>();
+
+  @BeforeEach
+  void setUp() {
+    for (long id = 1; id <= 4; id++) {
+      stored.put(id, new BigDecimal[] { new BigDecimal("100.00"), new BigDecimal("40.00") });
+      charged.put(id, new BigDecimal("100.00"));
+      paid.put(id, new BigDecimal("40.00"));
+    }
+
+    when(reservationRepository.findIdsAfter(anyLong(), any())).thenAnswer(invocation -> {
+      long afterId = invocation.getArgument(0);
+      return stored.keySet().stream().filter(id -> id > afterId).collect(Collectors.toList());
+    });
+    when(folioChargeRepository.sumChargesByReservationIds(anyCollection())).thenAnswer(invocation -> {
+      Collection<Long> ids = invocation.getArgument(0);
+      return ids.stream().map(id -> new Object[] { id, charged.get(id), BigDecimal.ZERO, BigDecimal.ZERO })
+          .collect(Collectors.toList());
+    });
+    when(paymentRepository.sumNetPaidByReservationIds(anyCollection())).thenAnswer(invocation -> {
+      Collection<Long> ids = invocation.getArgument(0);
+      return ids.stream().map(id -> new Object[] { id, paid.get(id) }).collect(Collectors.toList());
+    });
+
+    List<Reservation> loaded = new ArrayList<>();
+    when(reservationRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+      Collection<Long> ids = invocation.getArgument(0);
+      List<Reservation> reservations = ids.stream().map(this::load).collect(Collectors.toList());
+      loaded.addAll(reservations);
+      return reservations;
+    });
+    doAnswer(invocation -> {
+      loaded.clear();
+      Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+      for (Reservation reservation : loaded) {
+        if (concurrentlyUpdated.remove(reservation.getId())) {
+          throw new ObjectOptimisticLockingFailureException(Reservation.class, reservation.getId());
+        }
+        reservation.preUpdate();
+      }
+      loaded.forEach(reservation -> stored.put(reservation.getId(),
+          new BigDecimal[] { reservation.getTotalAmount(), reservation.getPaidAmount() }));
+      return result;
+    }).when(transactionTemplate).execute(any());
+  }
+
+  @Test
+  void correctsTheRestOfAPageWhenOneReservationCannotBeStored() {
+    // Reservation 2 was paid more than it was charged, which the entity rejects
+    charged.put(1L, new BigDecimal("120.00"));
+    paid.put(2L, new BigDecimal("150.00"));
+    paid.put(3L, new BigDecimal("60.00"));
+
+    int repaired = balanceRepairService.repairAll();
+
+    assertThat(repaired).isEqualTo(2);
+    assertThat(stored.get(1L)).containsExactly(new BigDecimal("120.00"), new BigDecimal("40.00"));
+    assertThat(stored.get(2L)).containsExactly(new BigDecimal("100.00"), new BigDecimal("40.00"));
+    assertThat(stored.get(3L)).containsExactly(new BigDecimal("100.00"), new BigDecimal("60.00"));
+  }
+
+  @Test
+  void repairsAPageThatLostAnOptimisticLockOneByOne() {
+    charged.put(1L, new BigDecimal("120.00"));
+    charged.put(4L, new BigDecimal("130.00"));
+    concurrentlyUpdated.add(4L);
+
+    int repaired = balanceRepairService.repairAll();
+
+    // The page failed on reservation 4; on its own it went through
+    assertThat(repaired).isEqualTo(2);
+    assertThat(stored.get(1L)[0]).isEqualByComparingTo("120.00");
+    assertThat(stored.get(4L)[0]).isEqualByComparingTo("130.00");
+  }
+
+  private Reservation load(Long id) {
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setTotalAmount(stored.get(id)[0]);
+    reservation.setPaidAmount(stored.get(id)[1]);
+    reservation.setTaxAmount(BigDecimal.ZERO);
+    reservation.setDiscountAmount(BigDecimal.ZERO);
+    return reservation;
+  }
+}
@@ -0,0 +1,140 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.tolimoli.pms.repository.ReservationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ConfirmationNumberGeneratorTest {
+
+  @Mock
+  private ReservationRepository reservationRepository;
+
+  @InjectMocks
+  private ConfirmationNumberGenerator generator;
+
+  @Test
+  void checkDigitMatchesLuhn() {
+    // Reference values of the Luhn algorithm
+    assertThat(ConfirmationNumberGenerator.checkDigit("7992739871")).isEqualTo(3);
+    assertThat(ConfirmationNumberGenerator.checkDigit("0")).isEqualTo(0);
+    assertThat(ConfirmationNumberGenerator.checkDigit("1")).isEqualTo(8);
+  }
+
+  @Test
+  void checkDigitCatchesSingleDigitTypos() {
+    String digits = "202603060000123456";
+    int check = ConfirmationNumberGenerator.checkDigit(digits);
+    for (int i = 0; i < digits.length(); i++) {
+      for (char d = '0'; d <= '9'; d++) {
+        if (d != digits.charAt(i)) {
+          String typo = digits.substring(0, i) + d + digits.substring(i + 1);
+          assertThat(ConfirmationNumberGenerator.checkDigit(typo)).as(typo).isNotEqualTo(check);
+        }
+      }
+    }
+  }
+
+  @Test
+  void numbersCarryTheDateCounterAndValidCheckDigit() {
+    when(reservationRepository.nextConfirmationBlock()).thenReturn(42L);
+
+    String number = generator.next();
+
+    assertThat(number).matches("RES-\\d{8}-\\d{11}");
+    String digits = number.substring(4, 12) + number.substring(13, 23);
+    assertThat(number.substring(13, 23)).isEqualTo("0000042000");
+    assertThat(number.charAt(23) - '0').isEqualTo(ConfirmationNumberGenerator.checkDigit(digits));
+  }
+
+  @Test
+  void reservesTheNextBlockWhileHalfOfTheCurrentOneIsLeft() {
+    when(reservationRepository.nextConfirmationBlock()).thenReturn(7L, 3L);
+
+    Set<String> counters = new HashSet<>();
+    for (long i = 0; i < ConfirmationNumberGenerator.BLOCK_SIZE / 2 - 1; i++) {
+      counters.add(counter(generator.next()));
+    }
+    verify(reservationRepository, times(1)).nextConfirmationBlock();
+
+    for (long i = ConfirmationNumberGenerator.BLOCK_SIZE / 2 - 1; i < ConfirmationNumberGenerator.BLOCK_SIZE; i++) {
+      counters.add(counter(generator.next()));
+    }
+    verify(reservationRepository, times(2)).nextConfirmationBlock();
+    assertThat(counters).hasSize((int) ConfirmationNumberGenerator.BLOCK_SIZE)
+        .contains("0000007000", "0000007999");
+
+    // Blocks are used as the sequence hands them out, in any order
+    assertThat(counter(generator.next())).isEqualTo("0000003000");
+    verify(reservationRepository, times(2)).nextConfirmationBlock();
+  }
+
+  @Test
+  void otherThreadsKeepDrawingWhileTheNextBlockIsReserved() throws Exception {
+    CountDownLatch reserving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(reservationRepository.nextConfirmationBlock()).thenReturn(1L).thenAnswer(invocation -> {
+      reserving.countDown();
+      release.await();
+      return 2L;
+    });
+    for (long i = 0; i < ConfirmationNumberGenerator.BLOCK_SIZE / 2 - 1; i++) {
+      generator.next();
+    }
+
+    ExecutorService other = Executors.newSingleThreadExecutor();
+    try {
+      // This number crosses the mark, so its thread reserves block 2
+      Future<String> crossing = other.submit(generator::next);
+      assertThat(reserving.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // The rest of block 1 is handed out while that nextval is in flight
+      for (long i = 0; i < ConfirmationNumberGenerator.BLOCK_SIZE / 2; i++) {
+        assertThat(counter(generator.next())).startsWith("0000001");
+      }
+
+      release.countDown();
+      assertThat(counter(crossing.get(5, TimeUnit.SECONDS))).isEqualTo("0000001499");
+      assertThat(counter(generator.next())).isEqualTo("0000002000");
+    } finally {
+      release.countDown();
+      other.shutdownNow();
+    }
+  }
+
+  @Test
+  void rejectsBlocksBeyondTheCounterWidth() {
+    when(reservationRepository.nextConfirmationBlock()).thenReturn(10_000_000L);
+
+    assertThatThrownBy(() -> generator.next()).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void acceptsTheLastBlock() {
+    when(reservationRepository.nextConfirmationBlock()).thenReturn(9_999_999L);
+
+    assertThat(counter(generator.next())).isEqualTo("9999999000");
+  }
+
+  private static String counter(String number) {
+    return number.substring(13, 23);
+  }
+}
@@ -0,0 +1,255 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tolimoli.pms.entity.ChargeType;
+import com.tolimoli.pms.entity.DomainEventType;
+import com.tolimoli.pms.entity.FolioCharge;
+import com.tolimoli.pms.entity.NightAuditRun;
+import com.tolimoli.pms.entity.NightAuditStatus;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.entity.ReservationStatus;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.exception.BusinessLogicException;
+import com.tolimoli.pms.repository.FolioChargeRepository;
+import com.tolimoli.pms.repository.NightAuditRunRepository;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * The repositories are backed by in-memory reservations that answer the
+ * audit queries the way the database does, filtering on lastAuditDate, so a
+ * failed chunk leaves its reservations as if its transaction rolled back.
+ */
+@ExtendWith(MockitoExtension.class)
+class NightAuditServiceTest {
+
+  private static final LocalDate BUSINESS_DATE = LocalDate.now().minusDays(1);
+
+  private static final BigDecimal NIGHT_PRICE = new BigDecimal("100.00");
+
+  @Mock
+  private NightAuditRunRepository runRepository;
+
+  @Mock
+  private ReservationRepository reservationRepository;
+
+  @Mock
+  private FolioChargeRepository folioChargeRepository;
+
+  @Mock
+  private RateQuoteService rateQuoteService;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private DomainEventPublisher eventPublisher;
+
+  @InjectMocks
+  private NightAuditService nightAuditService;
+
+  private final Map<Long, Reservation> reservations = new HashMap<>();
+
+  private final List<FolioCharge> posted = Collections.synchronizedList(new ArrayList<>());
+
+  // Reservations whose room charges were published for the revenue rollups
+  private final List<Long> publishedRoomCharges = Collections.synchronizedList(new ArrayList<>());
+
+  private NightAuditRun storedRun;
+
+  // Reservation ids whose chunk fails the first time it is loaded, and how
+  private final Set<Long> failOnce = Collections.synchronizedSet(new HashSet<>());
+  private RuntimeException chunkFailure;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(nightAuditService, "threads", 2);
+    ReflectionTestUtils.setField(nightAuditService, "chunkSize", 2);
+    ReflectionTestUtils.setField(nightAuditService, "maxChunkAttempts", 3);
+    ReflectionTestUtils.setField(nightAuditService, "roomTaxPercent", BigDecimal.TEN);
+
+    for (long id = 1; id <= 6; id++) {
+      reservations.put(id, inHouse(id));
+    }
+
+    doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+        .when(transactionTemplate).execute(any());
+    doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+
+    when(runRepository.findTopByStatusOrderByBusinessDateDesc(NightAuditStatus.COMPLETED)).thenReturn(Optional.empty());
+    when(runRepository.findByBusinessDate(BUSINESS_DATE)).thenAnswer(invocation -> Optional.ofNullable(storedRun));
+    when(runRepository.save(any())).thenAnswer(invocation -> {
+      storedRun = invocation.getArgument(0);
+      if (storedRun.getId() == null) {
+        storedRun.setId(1L);
+      }
+      return storedRun;
+    });
+    when(runRepository.findById(1L)).thenAnswer(invocation -> Optional.of(storedRun));
+    when(runRepository.addProgress(eq(1L), anyInt(), anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+      synchronized (this) {
+        storedRun.setReservationsAudited(storedRun.getReservationsAudited() + invocation.<Integer>getArgument(1));
+        storedRun.setRoomChargesPosted(storedRun.getRoomChargesPosted() + invocation.<Integer>getArgument(2));
+        storedRun.setTaxChargesPosted(storedRun.getTaxChargesPosted() + invocation.<Integer>getArgument(3));
+      }
+      return 1;
+    });
+
+    when(reservationRepository.findInHouseIdsForAudit(eq(BUSINESS_DATE), anyLong(), any()))
+        .thenAnswer(invocation -> {
+          long afterId = invocation.getArgument(1);
+          return select(r -> r.getId() > afterId && needsAudit(r)).stream()
+              .map(Reservation::getId).sorted().collect(Collectors.toList());
+        });
+    when(reservationRepository.findInHouseForAudit(anyList(), eq(BUSINESS_DATE))).thenAnswer(invocation -> {
+      Collection<Long> ids = invocation.getArgument(0);
+      if (ids.stream().anyMatch(failOnce::remove)) {
+        throw chunkFailure;
+      }
+      return select(r -> ids.contains(r.getId()) && needsAudit(r));
+    });
+    when(reservationRepository.findNoShowIdsForAudit(eq(BUSINESS_DATE), anyLong(), any())).thenReturn(List.of());
+
+    // Reservation 6 had its room charge for the night posted at booking
+    when(folioChargeRepository.sumRoomChargesForNight(anyList(), eq(BUSINESS_DATE))).thenAnswer(invocation -> {
+      Collection<Long> ids = invocation.getArgument(0);
+      List<Object[]> rows = new ArrayList<>();
+      if (ids.contains(6L)) {
+        rows.add(new Object[] { 6L, NIGHT_PRICE });
+      }
+      return rows;
+    });
+    when(folioChargeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      posted.addAll(invocation.getArgument(0));
+      return invocation.getArgument(0);
+    });
+    doAnswer(invocation -> {
+      publishedRoomCharges.addAll(invocation.<Map<Long, ?>>getArgument(1).keySet());
+      return null;
+    }).when(eventPublisher).publishAll(eq(DomainEventType.ROOM_CHARGES_POSTED), anyMap());
+    when(rateQuoteService.priceNight(anyList(), eq(BUSINESS_DATE))).thenAnswer(invocation -> {
+      List<Reservation> priced = invocation.getArgument(0);
+      return priced.stream().collect(Collectors.toMap(Reservation::getId, r -> NIGHT_PRICE));
+    });
+  }
+
+  @Test
+  void resumesAFailedRunWithoutPostingTwice() {
+    failOnce.add(3L);
+    chunkFailure = new IllegalStateException("connection reset");
+
+    assertThatThrownBy(() -> nightAuditService.run()).isInstanceOf(BusinessLogicException.class);
+    assertThat(storedRun.getStatus()).isEqualTo(NightAuditStatus.FAILED);
+    assertThat(storedRun.getLastError()).contains("connection reset");
+    // The chunk of reservations 3 and 4 did not commit
+    assertThat(chargedReservations()).containsExactlyInAnyOrder(1L, 2L, 5L, 6L);
+
+    when(reservationRepository.countOverdueDepartures(BUSINESS_DATE)).thenReturn(0L);
+    nightAuditService.run();
+
+    assertThat(storedRun.getId()).isEqualTo(1L);
+    assertThat(storedRun.getStatus()).isEqualTo(NightAuditStatus.COMPLETED);
+    assertPostedOnce();
+    assertThat(storedRun.getReservationsAudited()).isEqualTo(6);
+    assertThat(storedRun.getRoomChargesPosted()).isEqualTo(5);
+    assertThat(storedRun.getTaxChargesPosted()).isEqualTo(6);
+  }
+
+  @Test
+  void retriesAChunkThatLostAnOptimisticLock() {
+    failOnce.add(5L);
+    chunkFailure = new ObjectOptimisticLockingFailureException(Reservation.class, 5L);
+    when(reservationRepository.countOverdueDepartures(BUSINESS_DATE)).thenReturn(0L);
+
+    nightAuditService.run();
+
+    assertThat(storedRun.getStatus()).isEqualTo(NightAuditStatus.COMPLETED);
+    assertPostedOnce();
+  }
+
+  // Every guest got one room charge unless it was pre-posted, and one tax charge
+  private void assertPostedOnce() {
+    for (long id = 1; id <= 6; id++) {
+      long reservationId = id;
+      List<FolioCharge> charges = posted.stream()
+          .filter(charge -> charge.getReservation().getId() == reservationId).collect(Collectors.toList());
+      assertThat(charges).extracting(FolioCharge::getChargeType).as("reservation %d", id)
+          .containsExactlyInAnyOrderElementsOf(id == 6 ? List.of(ChargeType.TAX) : List.of(ChargeType.ROOM, ChargeType.TAX));
+      assertThat(charges).filteredOn(charge -> charge.getChargeType() == ChargeType.TAX)
+          .extracting(FolioCharge::getAmount).containsExactly(new BigDecimal("10.00"));
+      assertThat(reservations.get(id).getLastAuditDate()).isEqualTo(BUSINESS_DATE);
+    }
+    assertThat(publishedRoomCharges).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+  }
+
+  private Set<Long> chargedReservations() {
+    return posted.stream().map(charge -> charge.getReservation().getId()).collect(Collectors.toSet());
+  }
+
+  private List<Reservation> select(Predicate<Reservation> filter) {
+    synchronized (reservations) {
+      return reservations.values().stream().filter(filter).collect(Collectors.toList());
+    }
+  }
+
+  // The in-house audit queries' condition
+  private static boolean needsAudit(Reservation reservation) {
+    return reservation.getStatus() == ReservationStatus.CHECKED_IN
+        && !reservation.getCheckInDate().isAfter(BUSINESS_DATE)
+        && reservation.getCheckOutDate().isAfter(BUSINESS_DATE)
+        && (reservation.getLastAuditDate() == null || reservation.getLastAuditDate().isBefore(BUSINESS_DATE));
+  }
+
+  private static Reservation inHouse(long id) {
+    Room room = new Room("R" + id, RoomType.DOUBLE, 2, NIGHT_PRICE);
+    room.setId(id);
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setRoom(room);
+    reservation.setStatus(ReservationStatus.CHECKED_IN);
+    reservation.setCheckInDate(BUSINESS_DATE.minusDays(1));
+    reservation.setCheckOutDate(BUSINESS_DATE.plusDays(2));
+    reservation.setNumberOfGuests(2);
+    return reservation;
+  }
+}
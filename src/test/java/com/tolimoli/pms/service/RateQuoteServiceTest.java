@@ -0,0 +1,217 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.tolimoli.pms.dto.response.StayQuoteResponse;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.Rate;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.repository.RateRepository;
+import com.tolimoli.pms.util.RestrictionRules;
+
+@ExtendWith(MockitoExtension.class)
+class RateQuoteServiceTest {
+
+  // A Friday, so the departure two nights later is a Sunday
+  private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 6);
+  private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+  @Mock
+  private RateRepository rateRepository;
+
+  @Mock
+  private AriStore ariStore;
+
+  @InjectMocks
+  private RateQuoteService rateQuoteService;
+
+  private Room room;
+  private Channel channel;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(rateQuoteService, "baseOccupancy", 2);
+    room = new Room("101", RoomType.DOUBLE, 4, new BigDecimal("80.00"));
+    room.setId(1L);
+    channel = new Channel("Direct", "DIRECT", BigDecimal.ZERO);
+    channel.setId(10L);
+  }
+
+  @Test
+  void pricesNightsFromTheCalendarWithSurcharges() {
+    Rate first = rate(CHECK_IN, "100.00");
+    first.setExtraPersonRate(new BigDecimal("15.00"));
+    first.setChildRate(new BigDecimal("10.00"));
+    Rate second = rate(CHECK_IN.plusDays(1), "120.00");
+    calendar(first, second);
+
+    StayQuoteResponse quote = rateQuoteService.quoteStay(room, channel, CHECK_IN, CHECK_OUT, 3, 2);
+
+    // 100 + 1 extra person * 15 + 2 children * 10; the second night has no surcharges set
+    assertThat(quote.getNightlyAmounts()).containsExactly(new BigDecimal("135.00"), new BigDecimal("120.00"));
+    assertThat(quote.getTotalAmount()).isEqualByComparingTo("255.00");
+    assertThat(quote.getSellable()).isTrue();
+    assertThat(quote.getChannelCode()).isEqualTo("DIRECT");
+  }
+
+  @Test
+  void chargesNoSurchargesWithinBaseOccupancy() {
+    Rate night = rate(CHECK_IN, "100.00");
+    night.setExtraPersonRate(new BigDecimal("15.00"));
+    night.setChildRate(new BigDecimal("10.00"));
+    calendar(night);
+
+    StayQuoteResponse quote = rateQuoteService.quoteStay(room, channel, CHECK_IN, CHECK_IN.plusDays(1), 2, 0);
+
+    assertThat(quote.getNightlyAmounts()).containsExactly(new BigDecimal("100.00"));
+  }
+
+  @Test
+  void fallsBackToTheBaseRateForNightsWithoutARate() {
+    calendar(rate(CHECK_IN, "100.00"));
+
+    StayQuoteResponse quote = rateQuoteService.quoteStay(room, channel, CHECK_IN, CHECK_OUT, 1, 0);
+
+    assertThat(quote.getNightlyAmounts()).containsExactly(new BigDecimal("100.00"), new BigDecimal("80.00"));
+    assertThat(quote.getSellable()).isTrue();
+  }
+
+  @Test
+  void blockedNightMakesTheStayUnsellable() {
+    Rate blocked = rate(CHECK_IN.plusDays(1), "120.00");
+    blocked.setIsBlocked(true);
+    calendar(rate(CHECK_IN, "100.00"), blocked);
+
+    StayQuoteResponse quote = rateQuoteService.quoteStay(room, channel, CHECK_IN, CHECK_OUT, 1, 0);
+
+    assertThat(quote.getSellable()).isFalse();
+    assertThat(quote.getRestriction()).isEqualTo("Sales are closed on " + CHECK_IN.plusDays(1));
+  }
+
+  @Test
+  void readsStayRulesFromTheArrivalDate() {
+    Rate arrival = rate(CHECK_IN, "100.00");
+    arrival.setRestrictions("MIN_STAY_3");
+    Rate secondNight = rate(CHECK_IN.plusDays(1), "100.00");
+    // Rules of later nights do not apply to this arrival
+    secondNight.setRestrictions("MIN_STAY_7");
+    calendar(arrival, secondNight);
+
+    assertThat(rateQuoteService.quoteStay(room, channel, CHECK_IN, CHECK_OUT, 1, 0).getRestriction())
+        .startsWith("Minimum stay of 3 nights");
+
+    arrival.setRestrictions("NO_ARRIVAL_FRIDAY");
+    assertThat(rateQuoteService.quoteStay(room, channel, CHECK_IN, CHECK_OUT, 1, 0).getRestriction())
+        .startsWith("Closed to arrival");
+  }
+
+  @Test
+  void readsDepartureRulesFromTheDepartureDate() {
+    Rate departure = rate(CHECK_OUT, "100.00");
+    departure.setRestrictions("NO_DEPARTURE_SUNDAY");
+    calendar(rate(CHECK_IN, "100.00"), departure);
+
+    StayQuoteResponse quote = rateQuoteService.quoteStay(room, channel, CHECK_IN, CHECK_OUT, 1, 0);
+
+    // The departure date is not a night of the stay, so it is not priced
+    assertThat(quote.getNightlyAmounts()).hasSize(2);
+    assertThat(quote.getRestriction()).isEqualTo("Closed to departure on " + CHECK_OUT);
+  }
+
+  @Test
+  void filtersRoomsTheStoreReportsClosed() {
+    Room other = new Room("102", RoomType.DOUBLE, 2, new BigDecimal("80.00"));
+    other.setId(2L);
+    when(ariStore.findClosedRooms(List.of(1L, 2L), 10L, CHECK_IN, CHECK_OUT)).thenReturn(Set.of(2L));
+
+    assertThat(rateQuoteService.filterSellable(List.of(room, other), channel, CHECK_IN, CHECK_OUT))
+        .containsExactly(room);
+  }
+
+  @Test
+  void checksClosingRatesWhenTheStayIsOutsideTheStore() {
+    Room ctd = new Room("102", RoomType.DOUBLE, 2, new BigDecimal("80.00"));
+    ctd.setId(2L);
+    Room shortStay = new Room("103", RoomType.DOUBLE, 2, new BigDecimal("80.00"));
+    shortStay.setId(3L);
+    Room blocked = new Room("104", RoomType.DOUBLE, 2, new BigDecimal("80.00"));
+    blocked.setId(4L);
+    Room blockedOnDeparture = new Room("105", RoomType.DOUBLE, 2, new BigDecimal("80.00"));
+    blockedOnDeparture.setId(5L);
+    List<Room> rooms = List.of(room, ctd, shortStay, blocked, blockedOnDeparture);
+
+    List<Object[]> closing = new ArrayList<>();
+    closing.add(closingRow(2L, CHECK_OUT, false, "CTD"));
+    // Rows written before restriction_rules existed carry only the text
+    closing.add(new Object[] { 3L, CHECK_IN, false, null, "MIN_STAY_3" });
+    closing.add(closingRow(4L, CHECK_IN.plusDays(1), true, null));
+    // The departure date is not a night of the stay, so blocking it does not matter
+    closing.add(closingRow(5L, CHECK_OUT, true, null));
+    when(ariStore.findClosedRooms(anyCollection(), anyLong(), any(), any())).thenReturn(null);
+    when(rateRepository.findClosingRates(List.of(1L, 2L, 3L, 4L, 5L), 10L, CHECK_IN, CHECK_OUT)).thenReturn(closing);
+
+    assertThat(rateQuoteService.filterSellable(rooms, channel, CHECK_IN, CHECK_OUT))
+        .containsExactly(room, blockedOnDeparture);
+  }
+
+  @Test
+  void pricesOneNightOfEachReservation() {
+    Rate night = rate(CHECK_IN, "100.00");
+    night.setChildRate(new BigDecimal("10.00"));
+    when(rateRepository.findByRoomIdsAndDate(List.of(1L), CHECK_IN)).thenReturn(List.of(night));
+
+    Reservation booked = reservation(100L, channel, 2, 1);
+    Reservation walkIn = reservation(101L, null, 1, null);
+
+    Map<Long, BigDecimal> amounts = rateQuoteService.priceNight(List.of(booked, walkIn), CHECK_IN);
+
+    assertThat(amounts).containsEntry(100L, new BigDecimal("110.00"));
+    // Without a channel there is no calendar rate, so the room's base rate applies
+    assertThat(amounts).containsEntry(101L, new BigDecimal("80.00"));
+  }
+
+  private Rate rate(LocalDate date, String amount) {
+    return new Rate(room, channel, date, new BigDecimal(amount), 5);
+  }
+
+  private void calendar(Rate... rates) {
+    when(rateRepository.findCalendar(eq(List.of(room.getId())), eq(channel.getId()), eq(CHECK_IN), any()))
+        .thenReturn(List.of(rates));
+  }
+
+  private Reservation reservation(Long id, Channel bookedOn, int guests, Integer children) {
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setRoom(room);
+    reservation.setChannel(bookedOn);
+    reservation.setNumberOfGuests(guests);
+    reservation.setNumberOfChildren(children);
+    return reservation;
+  }
+
+  private static Object[] closingRow(Long roomId, LocalDate date, boolean isBlocked, String restrictions) {
+    return new Object[] { roomId, date, isBlocked, RestrictionRules.compile(restrictions), restrictions };
+  }
+}
@@ -0,0 +1,123 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.exception.BusinessLogicException;
+import com.tolimoli.pms.repository.ChannelRepository;
+import com.tolimoli.pms.repository.RateRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RateServiceTest {
+
+  private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 6);
+  private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(3);
+
+  @Mock
+  private RateRepository rateRepository;
+
+  @Mock
+  private ChannelRepository channelRepository;
+
+  @Mock
+  private AriOutboxService ariOutboxService;
+
+  @Mock
+  private AriStore ariStore;
+
+  @InjectMocks
+  private RateService rateService;
+
+  private final Channel channel = new Channel("Online agency", "OTA", new BigDecimal("15.00"));
+
+  @Test
+  void takesInventoryAndQueuesTheStayNights() {
+    List<Long> rooms = List.of(1L, 2L);
+    channel.setId(10L);
+    when(rateRepository.takeInventory(rooms, 10L, CHECK_IN, CHECK_OUT)).thenReturn(6);
+    when(channelRepository.findById(10L)).thenReturn(Optional.of(channel));
+
+    rateService.updateAvailabilityAfterBooking(rooms, 10L, CHECK_IN, CHECK_OUT);
+
+    verify(ariOutboxService).recordRates(channel, rooms, CHECK_IN, CHECK_OUT.minusDays(1));
+    verify(ariStore).record(rooms, 10L, CHECK_IN, CHECK_OUT.minusDays(1));
+  }
+
+  @Test
+  void failsTheBookingWhenAnyNightIsSoldOut() {
+    // One of the room nights is already at zero, so the check rejects the update
+    List<Long> rooms = List.of(1L, 2L);
+    when(rateRepository.takeInventory(rooms, 10L, CHECK_IN, CHECK_OUT))
+        .thenThrow(violation("23514", "rates_available_rooms_check"));
+
+    assertThatThrownBy(() -> rateService.updateAvailabilityAfterBooking(rooms, 10L, CHECK_IN, CHECK_OUT))
+        .isInstanceOf(BusinessLogicException.class)
+        .hasMessageContaining("No inventory left");
+
+    // Nothing was taken, so nothing is published
+    verifyNoInteractions(ariOutboxService, ariStore);
+  }
+
+  @Test
+  void otherIntegrityViolationsAreNotReportedAsSoldOut() {
+    when(rateRepository.takeInventory(List.of(1L), 10L, CHECK_IN, CHECK_OUT))
+        .thenThrow(violation("23503", "fk_rates_room"));
+
+    assertThatThrownBy(() -> rateService.updateAvailabilityAfterBooking(1L, 10L, CHECK_IN, CHECK_OUT))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  @Test
+  void releasesOnlyNightsBelowTheirAllotment() {
+    channel.setId(10L);
+    when(rateRepository.releaseInventory(List.of(1L), 10L, CHECK_IN, CHECK_OUT)).thenReturn(2);
+    when(channelRepository.findById(10L)).thenReturn(Optional.of(channel));
+
+    rateService.releaseAvailability(1L, 10L, CHECK_IN, CHECK_OUT);
+
+    verify(ariOutboxService).recordRates(channel, List.of(1L), CHECK_IN, CHECK_OUT.minusDays(1));
+    verify(ariStore).record(List.of(1L), 10L, CHECK_IN, CHECK_OUT.minusDays(1));
+  }
+
+  @Test
+  void releasingAStayThatGaveNothingBackPublishesNothing() {
+    // Every night is already at its allotment, e.g. the stay was released before
+    when(rateRepository.releaseInventory(List.of(1L), 10L, CHECK_IN, CHECK_OUT)).thenReturn(0);
+
+    rateService.releaseAvailability(1L, 10L, CHECK_IN, CHECK_OUT);
+
+    verifyNoInteractions(channelRepository, ariOutboxService, ariStore);
+  }
+
+  @Test
+  void ignoresEmptyStays() {
+    rateService.updateAvailabilityAfterBooking(List.of(), 10L, CHECK_IN, CHECK_OUT);
+    rateService.updateAvailabilityAfterBooking(1L, 10L, CHECK_IN, CHECK_IN);
+    rateService.releaseAvailability(1L, 10L, CHECK_IN, CHECK_IN);
+
+    verifyNoInteractions(rateRepository, ariOutboxService, ariStore);
+  }
+
+  private static DataIntegrityViolationException violation(String sqlState, String constraint) {
+    SQLException sql = new SQLException("violates constraint \"" + constraint + "\"", sqlState);
+    return new DataIntegrityViolationException("could not execute statement",
+        new ConstraintViolationException("could not execute statement", sql, constraint));
+  }
+}
@@ -0,0 +1,163 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tolimoli.pms.entity.Channel;
+import com.tolimoli.pms.entity.ChargeType;
+import com.tolimoli.pms.entity.DailyRevenueRollup;
+import com.tolimoli.pms.entity.DomainEvent;
+import com.tolimoli.pms.entity.DomainEventType;
+import com.tolimoli.pms.entity.FolioCharge;
+import com.tolimoli.pms.entity.Reservation;
+import com.tolimoli.pms.entity.Room;
+import com.tolimoli.pms.entity.RoomType;
+import com.tolimoli.pms.repository.DailyRevenueRollupRepository;
+import com.tolimoli.pms.repository.FolioChargeRepository;
+import com.tolimoli.pms.repository.ReservationRepository;
+
+/**
+ * Rollup rows live in a map keyed by stay date; events are written the way
+ * DomainEventPublisher writes them, payloads as JSON
+ */
+@ExtendWith(MockitoExtension.class)
+class RevenueRollupServiceTest {
+
+  private static final LocalDate CHECK_IN = LocalDate.of(2026, 3, 6);
+
+  @Mock
+  private DailyRevenueRollupRepository rollupRepository;
+
+  @Mock
+  private FolioChargeRepository folioChargeRepository;
+
+  @Mock
+  private ReservationRepository reservationRepository;
+
+  @InjectMocks
+  private RevenueRollupService rollupService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final Map<LocalDate, DailyRevenueRollup> rollups = new TreeMap<>();
+
+  private final Reservation reservation = new Reservation();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(rollupService, "objectMapper", objectMapper);
+
+    Channel channel = new Channel("Direct", "DIRECT", BigDecimal.ZERO);
+    channel.setId(10L);
+    reservation.setId(1L);
+    reservation.setRoom(new Room("101", RoomType.DOUBLE, 2, new BigDecimal("100.00")));
+    reservation.setChannel(channel);
+    reservation.setCheckInDate(CHECK_IN);
+    reservation.setCheckOutDate(CHECK_IN.plusDays(3));
+    when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+
+    when(rollupRepository.increment(any(), any(), any(), anyInt(), any(), anyInt(), any())).thenAnswer(invocation -> {
+      DailyRevenueRollup rollup = rollups.get(invocation.<LocalDate>getArgument(0));
+      if (rollup == null) {
+        return 0;
+      }
+      rollup.add(invocation.getArgument(3), invocation.getArgument(4), invocation.getArgument(5));
+      return 1;
+    });
+    lenient().when(rollupRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+      DailyRevenueRollup rollup = invocation.getArgument(0);
+      rollups.put(rollup.getStayDate(), rollup);
+      return rollup;
+    });
+  }
+
+  @Test
+  void countsTheRoomNightsChargedAtBookingAndByTheAudit() {
+    List<FolioCharge> booked = List.of(roomCharge(0, "100.00"), roomCharge(1, "110.00"));
+
+    rollupService.handle(event(DomainEventType.RESERVATION_CREATED, booked));
+    rollupService.handle(event(DomainEventType.ROOM_CHARGES_POSTED, List.of(roomCharge(2, "95.50"))));
+
+    assertRollup(0, 1, "100.00", 1);
+    assertRollup(1, 1, "110.00", 0);
+    assertRollup(2, 1, "95.50", 0);
+  }
+
+  @Test
+  void aCancellationTakesBackWhatWasCountedInAnyOrder() {
+    List<FolioCharge> booked = List.of(roomCharge(0, "100.00"), roomCharge(1, "110.00"));
+    List<FolioCharge> audited = List.of(roomCharge(2, "95.50"));
+    List<FolioCharge> all = new ArrayList<>(booked);
+    all.addAll(audited);
+    DomainEvent created = event(DomainEventType.RESERVATION_CREATED, booked);
+    DomainEvent posted = event(DomainEventType.ROOM_CHARGES_POSTED, audited);
+    DomainEvent cancelled = event(DomainEventType.RESERVATION_CANCELLED, all);
+
+    // The relay may deliver the cancellation before the events it undoes
+    rollupService.handle(cancelled);
+    rollupService.handle(posted);
+    rollupService.handle(created);
+
+    for (int night = 0; night < 3; night++) {
+      assertRollup(night, 0, "0.00", 0);
+    }
+  }
+
+  @Test
+  void eventsQueuedWithoutRoomNightsReadTheCharges() {
+    List<Object[]> charged = new ArrayList<>();
+    charged.add(new Object[] { CHECK_IN, 1L, new BigDecimal("100.00") });
+    when(folioChargeRepository.sumRoomChargesByNight(1L)).thenReturn(charged);
+    DomainEvent legacy = new DomainEvent("revenue-rollup", DomainEventType.RESERVATION_CREATED, 1L,
+        "{\"status\":\"CONFIRMED\"}");
+
+    rollupService.handle(legacy);
+
+    assertRollup(0, 1, "100.00", 1);
+  }
+
+  private void assertRollup(int night, int rooms, String revenue, int arrivals) {
+    DailyRevenueRollup rollup = rollups.get(CHECK_IN.plusDays(night));
+    assertThat(rollup).as("night %d", night).isNotNull();
+    assertThat(rollup.getRoomsSold()).as("rooms sold on night %d", night).isEqualTo(rooms);
+    assertThat(rollup.getRoomRevenue()).as("revenue on night %d", night).isEqualByComparingTo(revenue);
+    assertThat(rollup.getArrivals()).as("arrivals on night %d", night).isEqualTo(arrivals);
+  }
+
+  private DomainEvent event(DomainEventType eventType, List<FolioCharge> roomCharges) {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("checkInDate", CHECK_IN.toString());
+    payload.put(RevenueRollupService.ROOM_NIGHTS, RevenueRollupService.roomNights(roomCharges));
+    try {
+      return new DomainEvent("revenue-rollup", eventType, 1L, objectMapper.writeValueAsString(payload));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private FolioCharge roomCharge(int night, String amount) {
+    return new FolioCharge(reservation, ChargeType.ROOM, "Room 101 - Night " + (night + 1),
+        new BigDecimal(amount), CHECK_IN.plusDays(night));
+  }
+}
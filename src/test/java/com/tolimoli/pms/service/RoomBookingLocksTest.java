@@ -0,0 +1,129 @@
+package com.tolimoli.pms.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class RoomBookingLocksTest {
+
+  private final RoomBookingLocks locks = new RoomBookingLocks();
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void requiresATransaction() {
+    assertThatThrownBy(() -> locks.lockUntilCompletion(1L)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> locks.lockAllUntilCompletion(List.of(1L))).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void holdsTheRoomUntilTheTransactionCompletes() throws Exception {
+    ExecutorService other = Executors.newSingleThreadExecutor();
+    try {
+      TransactionSynchronizationManager.initSynchronization();
+      locks.lockUntilCompletion(7L);
+
+      Future<Boolean> waiting = other.submit(() -> inTransaction(() -> locks.lockUntilCompletion(7L)));
+      Thread.sleep(200);
+      assertThat(waiting.isDone()).isFalse();
+
+      complete();
+      assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      other.shutdownNow();
+    }
+  }
+
+  @Test
+  void blockBookingsWithTheSameRoomsInAnyOrderDoNotDeadlock() throws Exception {
+    List<Long> rooms = new ArrayList<>();
+    for (long id = 1; id <= 64; id++) {
+      rooms.add(id);
+    }
+    List<Long> reversed = new ArrayList<>(rooms);
+    Collections.reverse(reversed);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      // Taken in the given order, the two threads would each hold half the
+      // stripes the other needs and wait out the 10 second lock timeout
+      List<Future<Boolean>> bookings = new ArrayList<>();
+      for (List<Long> order : List.of(rooms, reversed)) {
+        bookings.add(pool.submit(() -> {
+          start.await();
+          for (int i = 0; i < 200; i++) {
+            inTransaction(() -> locks.lockAllUntilCompletion(order));
+          }
+          return true;
+        }));
+      }
+      start.countDown();
+      for (Future<Boolean> booking : bookings) {
+        assertThat(booking.get(5, TimeUnit.SECONDS)).isTrue();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void roomsSharingAStripeLockItOnce() throws Exception {
+    TransactionSynchronizationManager.initSynchronization();
+    // Enough rooms that several share a stripe
+    List<Long> rooms = new ArrayList<>();
+    for (long id = 1; id <= 5000; id++) {
+      rooms.add(id);
+    }
+
+    locks.lockAllUntilCompletion(rooms);
+
+    assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSizeLessThanOrEqualTo(1024);
+    complete();
+
+    // One unlock per stripe was enough to free them all for another thread
+    ExecutorService other = Executors.newSingleThreadExecutor();
+    try {
+      assertThat(other.submit(() -> inTransaction(() -> locks.lockAllUntilCompletion(rooms)))
+          .get(5, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      other.shutdownNow();
+    }
+  }
+
+  // Run the work in a fake transaction and release its locks as a commit would
+  private static boolean inTransaction(Runnable work) {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      work.run();
+      return true;
+    } finally {
+      complete();
+    }
+  }
+
+  private static void complete() {
+    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+  }
+}
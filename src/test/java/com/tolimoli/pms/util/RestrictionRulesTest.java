@@ -0,0 +1,103 @@
+package com.tolimoli.pms.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class RestrictionRulesTest {
+
+    @Test
+    void compilesStayLimits() {
+        long rules = RestrictionRules.compile("MIN_STAY_2, MAX_STAY_14");
+
+        assertThat(RestrictionRules.minStay(rules)).isEqualTo(2);
+        assertThat(RestrictionRules.maxStay(rules)).isEqualTo(14);
+        assertThat(RestrictionRules.closedToArrival(rules, DayOfWeek.MONDAY)).isFalse();
+        assertThat(RestrictionRules.closedToDeparture(rules, DayOfWeek.MONDAY)).isFalse();
+    }
+
+    @Test
+    void clampsStayLimitsToSixteenBits() {
+        long rules = RestrictionRules.compile("MIN_STAY_70000;MAX_STAY_65535");
+
+        assertThat(RestrictionRules.minStay(rules)).isEqualTo(0xFFFF);
+        assertThat(RestrictionRules.maxStay(rules)).isEqualTo(0xFFFF);
+        // The clamped minimum must not spill into the maximum or the flag bits
+        assertThat(RestrictionRules.compile("MIN_STAY_70000")).isEqualTo(0xFFFFL);
+    }
+
+    @Test
+    void setsOneBitPerDay() {
+        long arrivals = RestrictionRules.compile("no_arrival_sunday");
+        long departures = RestrictionRules.compile("NO_DEPARTURE_MONDAY");
+
+        for (DayOfWeek day : DayOfWeek.values()) {
+            assertThat(RestrictionRules.closedToArrival(arrivals, day)).isEqualTo(day == DayOfWeek.SUNDAY);
+            assertThat(RestrictionRules.closedToDeparture(arrivals, day)).isFalse();
+            assertThat(RestrictionRules.closedToDeparture(departures, day)).isEqualTo(day == DayOfWeek.MONDAY);
+            assertThat(RestrictionRules.closedToArrival(departures, day)).isFalse();
+        }
+        assertThat(RestrictionRules.minStay(arrivals | departures)).isZero();
+        assertThat(RestrictionRules.maxStay(arrivals | departures)).isZero();
+    }
+
+    @Test
+    void closesEveryDayForClosedToArrivalAndDeparture() {
+        long rules = RestrictionRules.compile("CTA, CLOSED_TO_DEPARTURE");
+
+        for (DayOfWeek day : DayOfWeek.values()) {
+            assertThat(RestrictionRules.closedToArrival(rules, day)).isTrue();
+            assertThat(RestrictionRules.closedToDeparture(rules, day)).isTrue();
+        }
+    }
+
+    @Test
+    void ignoresUnknownRulesWhenCompiling() {
+        assertThat(RestrictionRules.compile("FULL_MOON_ONLY, MIN_STAY_X, NO_ARRIVAL_FUNDAY, MIN_STAY_0"))
+                .isEqualTo(RestrictionRules.NONE);
+        assertThat(RestrictionRules.compile(null)).isEqualTo(RestrictionRules.NONE);
+        assertThat(RestrictionRules.compile("  ")).isEqualTo(RestrictionRules.NONE);
+    }
+
+    @Test
+    void validateRejectsUnknownRules() {
+        RestrictionRules.validate(null);
+        RestrictionRules.validate("MIN_STAY_3, NO_DEPARTURE_FRIDAY; CTD");
+
+        assertThatThrownBy(() -> RestrictionRules.validate("MIN_STAY_3, NO_ARRIVAL_FUNDAY"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("NO_ARRIVAL_FUNDAY");
+        assertThatThrownBy(() -> RestrictionRules.validate("MIN_STAY_0"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void allowsArrivalWithinStayLimitsOnOpenDays() {
+        long rules = RestrictionRules.compile("MIN_STAY_2, MAX_STAY_5, NO_ARRIVAL_SATURDAY");
+
+        assertThat(RestrictionRules.allowsArrival(RestrictionRules.NONE, DayOfWeek.SATURDAY, 1)).isTrue();
+        assertThat(RestrictionRules.allowsArrival(rules, DayOfWeek.FRIDAY, 1)).isFalse();
+        assertThat(RestrictionRules.allowsArrival(rules, DayOfWeek.FRIDAY, 2)).isTrue();
+        assertThat(RestrictionRules.allowsArrival(rules, DayOfWeek.FRIDAY, 5)).isTrue();
+        assertThat(RestrictionRules.allowsArrival(rules, DayOfWeek.FRIDAY, 6)).isFalse();
+        assertThat(RestrictionRules.allowsArrival(rules, DayOfWeek.SATURDAY, 3)).isFalse();
+    }
+
+    @Test
+    void explainsViolations() {
+        long rules = RestrictionRules.compile("MIN_STAY_2, MAX_STAY_5, CTA");
+        LocalDate checkIn = LocalDate.of(2026, 3, 6);
+
+        assertThat(RestrictionRules.arrivalViolation(rules, checkIn, 1)).startsWith("Minimum stay of 2 nights");
+        assertThat(RestrictionRules.arrivalViolation(rules, checkIn, 6)).startsWith("Maximum stay of 5 nights");
+        assertThat(RestrictionRules.arrivalViolation(rules, checkIn, 3)).startsWith("Closed to arrival");
+        assertThat(RestrictionRules.arrivalViolation(RestrictionRules.NONE, checkIn, 1)).isNull();
+        assertThat(RestrictionRules.departureViolation(RestrictionRules.compile("CTD"), checkIn))
+                .startsWith("Closed to departure");
+        assertThat(RestrictionRules.departureViolation(rules, checkIn)).isNull();
+    }
+}